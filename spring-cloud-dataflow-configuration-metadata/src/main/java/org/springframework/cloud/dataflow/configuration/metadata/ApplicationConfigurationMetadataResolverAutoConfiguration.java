@@ -16,22 +16,35 @@
 
 package org.springframework.cloud.dataflow.configuration.metadata;
 
+import java.io.File;
+
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 
 /**
  * Automatically exposes an {@link ApplicationConfigurationMetadataResolver} if none is
- * already registered.
+ * already registered. Unless disabled, resolved metadata is cached as per
+ * {@link MetadataCacheProperties}.
  *
  * @author Eric Bottard
  */
 @Configuration
+@EnableConfigurationProperties(MetadataCacheProperties.class)
 public class ApplicationConfigurationMetadataResolverAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean(ApplicationConfigurationMetadataResolver.class)
-	public ApplicationConfigurationMetadataResolver metadataResolver() {
-		return new BootApplicationConfigurationMetadataResolver();
+	public ApplicationConfigurationMetadataResolver metadataResolver(MetadataCacheProperties cacheProperties) {
+		ApplicationConfigurationMetadataResolver resolver = new BootApplicationConfigurationMetadataResolver();
+		if (!cacheProperties.isEnabled()) {
+			return resolver;
+		}
+		File directory = StringUtils.hasText(cacheProperties.getDirectory())
+				? new File(cacheProperties.getDirectory()) : null;
+		return new CachingApplicationConfigurationMetadataResolver(resolver, cacheProperties.getMaxEntries(),
+				directory);
 	}
 }
@@ -18,6 +18,7 @@ package org.springframework.cloud.dataflow.configuration.metadata;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,9 +28,11 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataGroup;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepository;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
 import org.springframework.boot.loader.archive.Archive;
 import org.springframework.boot.loader.archive.ExplodedArchive;
@@ -45,15 +48,21 @@ import org.springframework.util.StringUtils;
  * Spring Boot uber-jars.
  * <p>
  * Supports Boot 1.3 and 1.4+ layouts thanks to a pluggable BootClassLoaderCreation
- * strategy.
+ * strategy. Metadata is read directly out of the archive (see
+ * {@link BootArchiveResourceReader}), ClassLoaders only being created for callers that
+ * actually need to load app classes.
  *
  * @author Eric Bottard
  */
 public class BootApplicationConfigurationMetadataResolver extends ApplicationConfigurationMetadataResolver {
 
-	private static final String CONFIGURATION_METADATA_PATTERN = "classpath*:/META-INF/spring-configuration-metadata.json";
+	private static final String CONFIGURATION_METADATA_LOCATION = "META-INF/spring-configuration-metadata.json";
 
-	private static final String WHITELIST_PROPERTIES = "classpath*:/META-INF/spring-configuration-metadata-whitelist.properties";
+	private static final String WHITELIST_PROPERTIES_LOCATION = "META-INF/spring-configuration-metadata-whitelist.properties";
+
+	private static final String CONFIGURATION_METADATA_PATTERN = "classpath*:/" + CONFIGURATION_METADATA_LOCATION;
+
+	private static final String WHITELIST_PROPERTIES = "classpath*:/" + WHITELIST_PROPERTIES_LOCATION;
 
 	private static final String CONFIGURATION_PROPERTIES_CLASSES = "configuration-properties.classes";
 
@@ -65,6 +74,9 @@ public class BootApplicationConfigurationMetadataResolver extends ApplicationCon
 
 	private final ClassLoader parent;
 
+	private final BootArchiveResourceReader resourceReader = new BootArchiveResourceReader(
+			CONFIGURATION_METADATA_LOCATION, WHITELIST_PROPERTIES_LOCATION);
+
 	public BootApplicationConfigurationMetadataResolver() {
 		this(null);
 	}
@@ -86,23 +98,53 @@ public class BootApplicationConfigurationMetadataResolver extends ApplicationCon
 	 * Return metadata about configuration properties that are documented via <a href=
 	 * "http://docs.spring.io/spring-boot/docs/current/reference/html/configuration-metadata.html">
 	 * Spring Boot configuration metadata</a> and visible in an app.
+	 * <p>
+	 * The metadata and white list files are read straight out of the app (and its nested
+	 * jars), without creating a ClassLoader for it.
 	 *
 	 * @param app a Spring Cloud Stream app; typically a Boot uberjar, but directories are
 	 * supported as well
 	 */
 	public List<ConfigurationMetadataProperty> listProperties(Resource app, boolean exhaustive) {
+		File moduleFile;
 		try {
-			Archive archive = resolveAsArchive(app);
-			return listProperties(archive, exhaustive);
+			moduleFile = app.getFile();
 		}
 		catch (IOException e) {
 			return Collections.emptyList();
 		}
+		if (!moduleFile.exists()) {
+			return Collections.emptyList();
+		}
+		try {
+			Collection<String> whiteListedClasses = new HashSet<>(globalWhiteListedClasses);
+			Collection<String> whiteListedProperties = new HashSet<>(globalWhiteListedProperties);
+			AtomicBoolean hasWhiteList = new AtomicBoolean();
+			ConfigurationMetadataRepositoryJsonBuilder builder = ConfigurationMetadataRepositoryJsonBuilder.create();
+			resourceReader.read(moduleFile, (name, content) -> {
+				if (WHITELIST_PROPERTIES_LOCATION.equals(name)) {
+					hasWhiteList.set(true);
+					loadWhiteList(content, whiteListedClasses, whiteListedProperties);
+				}
+				else {
+					builder.withJsonResource(content);
+				}
+			});
+			// when no descriptors return everything
+			boolean include = !hasWhiteList.get() || exhaustive;
+			return select(builder.build(), include, whiteListedClasses, whiteListedProperties);
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Exception trying to list configuration properties for application " + app, e);
+		}
 	}
 
+	/**
+	 * Same as {@link #listProperties(Resource, boolean)}, but for an arbitrary archive,
+	 * which is inspected through a ClassLoader.
+	 */
 	public List<ConfigurationMetadataProperty> listProperties(Archive archive, boolean exhaustive) {
 		try (URLClassLoader moduleClassLoader = new BootClassLoaderFactory(archive, parent).createClassLoader()) {
-			List<ConfigurationMetadataProperty> result = new ArrayList<>();
 			ResourcePatternResolver moduleResourceLoader = new PathMatchingResourcePatternResolver(moduleClassLoader);
 			Collection<String> whiteListedClasses = new HashSet<>(globalWhiteListedClasses);
 			Collection<String> whiteListedProperties = new HashSet<>(globalWhiteListedProperties);
@@ -114,32 +156,38 @@ public class BootApplicationConfigurationMetadataResolver extends ApplicationCon
 			for (Resource r : moduleResourceLoader.getResources(CONFIGURATION_METADATA_PATTERN)) {
 				builder.withJsonResource(r.getInputStream());
 			}
-			for (ConfigurationMetadataGroup group : builder.build().getAllGroups().values()) {
-				if (include || isWhiteListed(group, whiteListedClasses)) {
-					result.addAll(group.getProperties().values());
-				} // Props in the root group have an id that looks prefixed itself. Handle
-					// here
-				else if ("_ROOT_GROUP_".equals(group.getId())) {
-					for (ConfigurationMetadataProperty property : group.getProperties().values()) {
-						if (isWhiteListed(property, whiteListedProperties)) {
-							result.add(property);
-						}
+			return select(builder.build(), include, whiteListedClasses, whiteListedProperties);
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Exception trying to list configuration properties for application " + archive,
+					e);
+		}
+	}
+
+	private List<ConfigurationMetadataProperty> select(ConfigurationMetadataRepository repository, boolean include,
+			Collection<String> whiteListedClasses, Collection<String> whiteListedProperties) {
+		List<ConfigurationMetadataProperty> result = new ArrayList<>();
+		for (ConfigurationMetadataGroup group : repository.getAllGroups().values()) {
+			if (include || isWhiteListed(group, whiteListedClasses)) {
+				result.addAll(group.getProperties().values());
+			} // Props in the root group have an id that looks prefixed itself. Handle
+				// here
+			else if ("_ROOT_GROUP_".equals(group.getId())) {
+				for (ConfigurationMetadataProperty property : group.getProperties().values()) {
+					if (isWhiteListed(property, whiteListedProperties)) {
+						result.add(property);
 					}
 				}
-				else { // Look for per property WL
-					for (ConfigurationMetadataProperty property : group.getProperties().values()) {
-						if (isWhiteListed(property, whiteListedProperties)) {
-							result.add(property);
-						}
+			}
+			else { // Look for per property WL
+				for (ConfigurationMetadataProperty property : group.getProperties().values()) {
+					if (isWhiteListed(property, whiteListedProperties)) {
+						result.add(property);
 					}
 				}
 			}
-			return result;
-		}
-		catch (Exception e) {
-			throw new RuntimeException("Exception trying to list configuration properties for application " + archive,
-					e);
 		}
+		return result;
 	}
 
 	@Override
@@ -164,15 +212,22 @@ public class BootApplicationConfigurationMetadataResolver extends ApplicationCon
 	private void loadWhiteLists(Resource[] resources, Collection<String> classes, Collection<String> names)
 			throws IOException {
 		for (Resource resource : resources) {
-			Properties properties = new Properties();
-			properties.load(resource.getInputStream());
-			classes.addAll(Arrays.asList(StringUtils
-					.delimitedListToStringArray(properties.getProperty(CONFIGURATION_PROPERTIES_CLASSES), ",", " ")));
-			names.addAll(Arrays.asList(StringUtils
-					.delimitedListToStringArray(properties.getProperty(CONFIGURATION_PROPERTIES_NAMES), ",", " ")));
+			try (InputStream content = resource.getInputStream()) {
+				loadWhiteList(content, classes, names);
+			}
 		}
 	}
 
+	private void loadWhiteList(InputStream content, Collection<String> classes, Collection<String> names)
+			throws IOException {
+		Properties properties = new Properties();
+		properties.load(content);
+		classes.addAll(Arrays.asList(StringUtils
+				.delimitedListToStringArray(properties.getProperty(CONFIGURATION_PROPERTIES_CLASSES), ",", " ")));
+		names.addAll(Arrays.asList(StringUtils
+				.delimitedListToStringArray(properties.getProperty(CONFIGURATION_PROPERTIES_NAMES), ",", " ")));
+	}
+
 	/**
 	 * Return whether a single property has been white listed as being a "main"
 	 * configuration property.
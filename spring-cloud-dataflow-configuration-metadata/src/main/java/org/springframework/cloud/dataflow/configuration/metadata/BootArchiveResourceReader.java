@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.configuration.metadata;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.boot.loader.jar.JarFile;
+import org.springframework.util.Assert;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Reads a few well known resources (such as configuration metadata files) out of a
+ * Spring Boot uber-jar, or exploded directory, without creating a ClassLoader for it.
+ * <p>
+ * Resources are looked up in the same places, and in the same order, as a
+ * {@link BootClassLoaderFactory} ClassLoader would: the root of the archive, then the
+ * classes directory (Boot 1.4+ layout) and then each nested jar. The central directory
+ * of each nested jar is inspected in place, and only the matching entries are actually
+ * read. Nested jars are expected to be stored uncompressed (as the Boot loader itself
+ * requires), but compressed ones are supported too, at the cost of being streamed.
+ *
+ * @author Eric Bottard
+ */
+public class BootArchiveResourceReader {
+
+	private static final String BOOT_13_LIBS_LOCATION = "lib/";
+
+	private static final String BOOT_14_LIBS_LOCATION = "BOOT-INF/lib/";
+
+	private static final String BOOT_14_CLASSES_LOCATION = "BOOT-INF/classes/";
+
+	private final Set<String> resourceNames;
+
+	/**
+	 * Create a reader that looks for the given resources.
+	 *
+	 * @param resourceNames the names of the resources to look for, relative to the root
+	 * of the classpath (<i>e.g.</i> {@code META-INF/spring-configuration-metadata.json})
+	 */
+	public BootArchiveResourceReader(String... resourceNames) {
+		Assert.notEmpty(resourceNames, "resourceNames must not be empty");
+		this.resourceNames = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(resourceNames)));
+	}
+
+	/**
+	 * Pass each occurrence of the resources found in the given app to the callback.
+	 *
+	 * @param app a Boot uber-jar, or a directory
+	 * @param callback invoked for each resource found
+	 * @throws IOException if the app can't be read
+	 */
+	public void read(File app, ResourceCallback callback) throws IOException {
+		if (app.isDirectory()) {
+			readDirectory(app, callback);
+		}
+		else {
+			try (JarFile jarFile = new JarFile(app)) {
+				readArchive(jarFile, callback);
+			}
+		}
+	}
+
+	private void readArchive(JarFile jarFile, ResourceCallback callback) throws IOException {
+		List<ZipEntry> boot13Libs = new ArrayList<>();
+		List<ZipEntry> boot14Libs = new ArrayList<>();
+		Enumeration<? extends ZipEntry> entries = jarFile.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			if (!entry.isDirectory() && entry.getName().startsWith(BOOT_14_LIBS_LOCATION)) {
+				boot14Libs.add(entry);
+			}
+			else if (!entry.isDirectory() && entry.getName().startsWith(BOOT_13_LIBS_LOCATION)) {
+				boot13Libs.add(entry);
+			}
+		}
+		readEntries(jarFile, "", callback);
+		if (!boot14Libs.isEmpty()) {
+			readEntries(jarFile, BOOT_14_CLASSES_LOCATION, callback);
+		}
+		for (ZipEntry lib : boot14Libs.isEmpty() ? boot13Libs : boot14Libs) {
+			if (lib.getMethod() == ZipEntry.STORED) {
+				// A view on the outer file: only the nested central directory and the
+				// matching entries are read
+				readEntries(jarFile.getNestedJarFile(lib), "", callback);
+			}
+			else {
+				readStream(jarFile.getInputStream(lib), callback);
+			}
+		}
+	}
+
+	private void readDirectory(File directory, ResourceCallback callback) throws IOException {
+		readFiles(directory, callback);
+		File libs = new File(directory, BOOT_14_LIBS_LOCATION);
+		if (libs.isDirectory()) {
+			readFiles(new File(directory, BOOT_14_CLASSES_LOCATION), callback);
+		}
+		else {
+			libs = new File(directory, BOOT_13_LIBS_LOCATION);
+		}
+		File[] jars = libs.listFiles();
+		if (jars == null) {
+			return;
+		}
+		Arrays.sort(jars);
+		for (File jar : jars) {
+			if (jar.isFile() && jar.getName().endsWith(".jar")) {
+				try (ZipFile zipFile = new ZipFile(jar)) {
+					readEntries(zipFile, "", callback);
+				}
+			}
+		}
+	}
+
+	private void readFiles(File directory, ResourceCallback callback) throws IOException {
+		for (String name : resourceNames) {
+			File file = new File(directory, name);
+			if (file.isFile()) {
+				try (InputStream content = new FileInputStream(file)) {
+					callback.doWithResource(name, content);
+				}
+			}
+		}
+	}
+
+	private void readEntries(ZipFile zipFile, String prefix, ResourceCallback callback) throws IOException {
+		for (String name : resourceNames) {
+			ZipEntry entry = zipFile.getEntry(prefix + name);
+			if (entry != null && !entry.isDirectory()) {
+				try (InputStream content = zipFile.getInputStream(entry)) {
+					callback.doWithResource(name, content);
+				}
+			}
+		}
+	}
+
+	private void readStream(InputStream nestedJar, ResourceCallback callback) throws IOException {
+		try (ZipInputStream zip = new ZipInputStream(nestedJar)) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				if (!entry.isDirectory() && resourceNames.contains(entry.getName())) {
+					// Closing the entry stream would close the whole nested jar
+					callback.doWithResource(entry.getName(), StreamUtils.nonClosing(zip));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Callback invoked for each resource found in an archive.
+	 */
+	public interface ResourceCallback {
+
+		/**
+		 * Handle a resource found in an archive.
+		 *
+		 * @param name the name of the resource
+		 * @param content the contents of the resource, which is closed once the callback
+		 * returns
+		 * @throws IOException if the content can't be read
+		 */
+		void doWithResource(String name, InputStream content) throws IOException;
+	}
+}
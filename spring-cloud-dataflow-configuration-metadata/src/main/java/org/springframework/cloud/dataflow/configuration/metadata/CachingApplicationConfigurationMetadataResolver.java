@@ -0,0 +1,224 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.configuration.metadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * An {@link ApplicationConfigurationMetadataResolver} that remembers the results of
+ * another resolver, so that the (costly) scanning of an app archive only happens once
+ * per archive.
+ * <p>
+ * Results are keyed by a fingerprint of the archive (canonical location, size and last
+ * modification time), which changes as soon as the file is replaced. Listings are kept
+ * in a bounded, least recently used, in-memory cache and are optionally persisted to a
+ * directory as gzipped JSON documents, so that they survive a server restart. Persisted
+ * listings are read back field by field, never through Java deserialization.
+ * Directories (exploded apps) and resources that don't resolve to a file are never
+ * cached.
+ *
+ * @author Eric Bottard
+ */
+public class CachingApplicationConfigurationMetadataResolver extends ApplicationConfigurationMetadataResolver {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachingApplicationConfigurationMetadataResolver.class);
+
+	/**
+	 * Bumped whenever the on-disk layout changes, so that stale files are ignored.
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	private static final String CACHE_FILE_SUFFIX = ".metadata.json.gz";
+
+	private final ApplicationConfigurationMetadataResolver delegate;
+
+	private final Map<String, List<ConfigurationMetadataProperty>> memoryCache;
+
+	private final File directory;
+
+	/**
+	 * Create a caching resolver around the given delegate.
+	 *
+	 * @param delegate the resolver that actually inspects apps
+	 * @param maxEntries the maximum number of listings to keep in memory
+	 * @param directory the directory where listings are persisted, or {@literal null} to
+	 * only cache in memory
+	 */
+	public CachingApplicationConfigurationMetadataResolver(ApplicationConfigurationMetadataResolver delegate,
+			final int maxEntries, File directory) {
+		Assert.notNull(delegate, "delegate must not be null");
+		Assert.isTrue(maxEntries > 0, "maxEntries must be strictly positive");
+		this.delegate = delegate;
+		this.directory = directory;
+		this.memoryCache = new LinkedHashMap<String, List<ConfigurationMetadataProperty>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, List<ConfigurationMetadataProperty>> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	@Override
+	public List<ConfigurationMetadataProperty> listProperties(Resource metadataResource, boolean exhaustive) {
+		String fingerprint = fingerprint(metadataResource);
+		if (fingerprint == null) {
+			return delegate.listProperties(metadataResource, exhaustive);
+		}
+		String key = DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8))
+				+ (exhaustive ? "-all" : "-whitelist");
+
+		List<ConfigurationMetadataProperty> result;
+		synchronized (memoryCache) {
+			result = memoryCache.get(key);
+		}
+		if (result == null) {
+			result = readFromDisk(key, fingerprint);
+			if (result == null) {
+				result = Collections.unmodifiableList(
+						new ArrayList<>(delegate.listProperties(metadataResource, exhaustive)));
+				writeToDisk(key, fingerprint, result);
+			}
+			synchronized (memoryCache) {
+				memoryCache.put(key, result);
+			}
+		}
+		return new ArrayList<>(result);
+	}
+
+	@Override
+	public URLClassLoader createAppClassLoader(Resource app) {
+		return delegate.createAppClassLoader(app);
+	}
+
+	/**
+	 * Forget about all listings, both in memory and on disk.
+	 */
+	public void clear() {
+		synchronized (memoryCache) {
+			memoryCache.clear();
+		}
+		File[] files = directory != null ? directory.listFiles() : null;
+		if (files != null) {
+			for (File file : files) {
+				if (file.getName().endsWith(CACHE_FILE_SUFFIX) && !file.delete()) {
+					logger.warn("Could not delete metadata cache file {}", file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return a string that changes whenever the contents of the given archive change, or
+	 * {@literal null} if the resource can't be cached. Some {@link Resource}
+	 * implementations return {@literal null} or throw unchecked exceptions from
+	 * {@link Resource#getFile()}, both of which mean "not cacheable" here.
+	 */
+	private String fingerprint(Resource resource) {
+		try {
+			File file = resource.getFile();
+			if (file == null || !file.isFile()) {
+				return null;
+			}
+			return file.getCanonicalPath() + "|" + file.length() + "|" + file.lastModified();
+		}
+		catch (IOException | RuntimeException e) {
+			logger.debug("Not caching configuration metadata of {}", resource, e);
+			return null;
+		}
+	}
+
+	private List<ConfigurationMetadataProperty> readFromDisk(String key, String fingerprint) {
+		File file = cacheFile(key);
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		try (Reader in = new InputStreamReader(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))),
+				StandardCharsets.UTF_8)) {
+			JSONObject json = new JSONObject(new JSONTokener(in));
+			if (json.optInt("version") != FORMAT_VERSION || !fingerprint.equals(json.optString("fingerprint"))) {
+				return null;
+			}
+			return Collections.unmodifiableList(ConfigurationMetadataJson.fromJson(json.getJSONArray("properties")));
+		}
+		catch (IOException | RuntimeException e) {
+			logger.debug("Ignoring unreadable metadata cache file {}", file, e);
+			return null;
+		}
+	}
+
+	private void writeToDisk(String key, String fingerprint, List<ConfigurationMetadataProperty> properties) {
+		File file = cacheFile(key);
+		if (file == null) {
+			return;
+		}
+		File tmp = new File(directory, file.getName() + ".tmp" + Thread.currentThread().getId());
+		try {
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				logger.warn("Could not create metadata cache directory {}", directory);
+				return;
+			}
+			JSONObject json = new JSONObject();
+			json.put("version", FORMAT_VERSION);
+			json.put("fingerprint", fingerprint);
+			json.put("properties", ConfigurationMetadataJson.toJson(properties));
+			try (Writer out = new OutputStreamWriter(
+					new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))), StandardCharsets.UTF_8)) {
+				json.write(out);
+			}
+			if (!tmp.renameTo(file)) {
+				// Another thread or server instance may have won the race, which is fine
+				tmp.delete();
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			logger.warn("Could not persist configuration metadata to {}", file, e);
+			tmp.delete();
+		}
+	}
+
+	private File cacheFile(String key) {
+		return directory != null ? new File(directory, key + CACHE_FILE_SUFFIX) : null;
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.configuration.metadata;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.Deprecation;
+import org.springframework.boot.configurationmetadata.ValueHint;
+import org.springframework.boot.configurationmetadata.ValueProvider;
+
+/**
+ * Converts property listings to and from JSON, field by field, so that persisted listings
+ * can only ever produce {@link ConfigurationMetadataProperty} instances and plain values.
+ *
+ * @author Eric Bottard
+ */
+final class ConfigurationMetadataJson {
+
+	private ConfigurationMetadataJson() {
+	}
+
+	static JSONArray toJson(List<ConfigurationMetadataProperty> properties) throws JSONException {
+		JSONArray result = new JSONArray();
+		for (ConfigurationMetadataProperty property : properties) {
+			JSONObject json = new JSONObject();
+			json.put("id", property.getId());
+			json.put("name", property.getName());
+			json.put("type", property.getType());
+			json.put("description", property.getDescription());
+			json.put("shortDescription", property.getShortDescription());
+			json.put("defaultValue", JSONObject.wrap(property.getDefaultValue()));
+			Deprecation deprecation = property.getDeprecation();
+			if (deprecation != null) {
+				JSONObject deprecationJson = new JSONObject();
+				deprecationJson.put("level", deprecation.getLevel() != null ? deprecation.getLevel().name() : null);
+				deprecationJson.put("reason", deprecation.getReason());
+				deprecationJson.put("replacement", deprecation.getReplacement());
+				json.put("deprecation", deprecationJson);
+			}
+			JSONObject hints = new JSONObject();
+			hints.put("keyHints", valueHintsToJson(property.getHints().getKeyHints()));
+			hints.put("keyProviders", valueProvidersToJson(property.getHints().getKeyProviders()));
+			hints.put("valueHints", valueHintsToJson(property.getHints().getValueHints()));
+			hints.put("valueProviders", valueProvidersToJson(property.getHints().getValueProviders()));
+			json.put("hints", hints);
+			result.put(json);
+		}
+		return result;
+	}
+
+	static List<ConfigurationMetadataProperty> fromJson(JSONArray json) throws JSONException {
+		List<ConfigurationMetadataProperty> result = new ArrayList<>(json.length());
+		for (int i = 0; i < json.length(); i++) {
+			JSONObject item = json.getJSONObject(i);
+			ConfigurationMetadataProperty property = new ConfigurationMetadataProperty();
+			property.setId(optString(item, "id"));
+			property.setName(optString(item, "name"));
+			property.setType(optString(item, "type"));
+			property.setDescription(optString(item, "description"));
+			property.setShortDescription(optString(item, "shortDescription"));
+			property.setDefaultValue(toValue(item.opt("defaultValue")));
+			JSONObject deprecationJson = item.optJSONObject("deprecation");
+			if (deprecationJson != null) {
+				Deprecation deprecation = new Deprecation();
+				String level = optString(deprecationJson, "level");
+				if (level != null) {
+					deprecation.setLevel(Deprecation.Level.valueOf(level));
+				}
+				deprecation.setReason(optString(deprecationJson, "reason"));
+				deprecation.setReplacement(optString(deprecationJson, "replacement"));
+				property.setDeprecation(deprecation);
+			}
+			JSONObject hints = item.optJSONObject("hints");
+			if (hints != null) {
+				property.getHints().getKeyHints().addAll(valueHintsFromJson(hints.optJSONArray("keyHints")));
+				property.getHints().getKeyProviders()
+						.addAll(valueProvidersFromJson(hints.optJSONArray("keyProviders")));
+				property.getHints().getValueHints().addAll(valueHintsFromJson(hints.optJSONArray("valueHints")));
+				property.getHints().getValueProviders()
+						.addAll(valueProvidersFromJson(hints.optJSONArray("valueProviders")));
+			}
+			result.add(property);
+		}
+		return result;
+	}
+
+	private static JSONArray valueHintsToJson(List<ValueHint> valueHints) throws JSONException {
+		JSONArray result = new JSONArray();
+		for (ValueHint valueHint : valueHints) {
+			JSONObject json = new JSONObject();
+			json.put("value", JSONObject.wrap(valueHint.getValue()));
+			json.put("description", valueHint.getDescription());
+			json.put("shortDescription", valueHint.getShortDescription());
+			result.put(json);
+		}
+		return result;
+	}
+
+	private static List<ValueHint> valueHintsFromJson(JSONArray json) throws JSONException {
+		List<ValueHint> result = new ArrayList<>();
+		for (int i = 0; json != null && i < json.length(); i++) {
+			JSONObject item = json.getJSONObject(i);
+			ValueHint valueHint = new ValueHint();
+			valueHint.setValue(toValue(item.opt("value")));
+			valueHint.setDescription(optString(item, "description"));
+			valueHint.setShortDescription(optString(item, "shortDescription"));
+			result.add(valueHint);
+		}
+		return result;
+	}
+
+	private static JSONArray valueProvidersToJson(List<ValueProvider> valueProviders) throws JSONException {
+		JSONArray result = new JSONArray();
+		for (ValueProvider valueProvider : valueProviders) {
+			JSONObject json = new JSONObject();
+			json.put("name", valueProvider.getName());
+			JSONObject parameters = new JSONObject();
+			for (Map.Entry<String, Object> parameter : valueProvider.getParameters().entrySet()) {
+				parameters.put(parameter.getKey(), JSONObject.wrap(parameter.getValue()));
+			}
+			json.put("parameters", parameters);
+			result.put(json);
+		}
+		return result;
+	}
+
+	private static List<ValueProvider> valueProvidersFromJson(JSONArray json) throws JSONException {
+		List<ValueProvider> result = new ArrayList<>();
+		for (int i = 0; json != null && i < json.length(); i++) {
+			JSONObject item = json.getJSONObject(i);
+			ValueProvider valueProvider = new ValueProvider();
+			valueProvider.setName(optString(item, "name"));
+			JSONObject parameters = item.optJSONObject("parameters");
+			if (parameters != null) {
+				Iterator<?> keys = parameters.keys();
+				while (keys.hasNext()) {
+					String key = (String) keys.next();
+					valueProvider.getParameters().put(key, toValue(parameters.get(key)));
+				}
+			}
+			result.add(valueProvider);
+		}
+		return result;
+	}
+
+	private static String optString(JSONObject json, String key) throws JSONException {
+		return json.isNull(key) ? null : json.getString(key);
+	}
+
+	/**
+	 * Turn a JSON value back into the plain value it was created from, the way Spring
+	 * Boot reads default values from metadata files (arrays become {@code Object[]} and
+	 * objects become maps).
+	 */
+	private static Object toValue(Object json) throws JSONException {
+		if (json == null || JSONObject.NULL.equals(json)) {
+			return null;
+		}
+		if (json instanceof JSONObject) {
+			JSONObject object = (JSONObject) json;
+			Map<String, Object> result = new LinkedHashMap<>();
+			Iterator<?> keys = object.keys();
+			while (keys.hasNext()) {
+				String key = (String) keys.next();
+				result.put(key, toValue(object.get(key)));
+			}
+			return result;
+		}
+		if (json instanceof JSONArray) {
+			JSONArray array = (JSONArray) json;
+			Object[] result = new Object[array.length()];
+			for (int i = 0; i < array.length(); i++) {
+				result[i] = toValue(array.get(i));
+			}
+			return result;
+		}
+		return json;
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.configuration.metadata;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for namespace 'spring.cloud.dataflow.metadata.cache', which
+ * control caching of resolved configuration metadata.
+ *
+ * @author Eric Bottard
+ */
+@ConfigurationProperties(prefix = MetadataCacheProperties.PREFIX)
+public class MetadataCacheProperties {
+
+	public static final String PREFIX = "spring.cloud.dataflow.metadata.cache";
+
+	/**
+	 * Whether to cache resolved metadata at all.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of property listings kept in memory.
+	 */
+	private int maxEntries = 512;
+
+	/**
+	 * Directory where resolved metadata is persisted across restarts, if any. It should
+	 * only be writable by the server. Metadata is only cached in memory by default.
+	 */
+	private String directory;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+}
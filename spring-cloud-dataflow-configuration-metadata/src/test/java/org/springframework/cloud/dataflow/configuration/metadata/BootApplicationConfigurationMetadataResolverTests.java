@@ -16,13 +16,24 @@
 
 package org.springframework.cloud.dataflow.configuration.metadata;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.hamcrest.Matcher;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.StreamUtils;
 
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItem;
@@ -38,6 +49,13 @@ import static org.junit.Assert.assertThat;
  */
 public class BootApplicationConfigurationMetadataResolverTests {
 
+	private static final String METADATA = "META-INF/spring-configuration-metadata.json";
+
+	private static final String WHITELIST = "META-INF/spring-configuration-metadata-whitelist.properties";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	private ApplicationConfigurationMetadataResolver resolver = new BootApplicationConfigurationMetadataResolver();
 
 	@Test
@@ -67,6 +85,72 @@ public class BootApplicationConfigurationMetadataResolverTests {
 		assertThat(properties.size(), is(full.size()));
 	}
 
+	@Test
+	public void metadataShouldBeReadFromStoredNestedJars() throws IOException {
+		File app = temporaryFolder.newFile("boot14.jar");
+		try (ZipOutputStream jar = new ZipOutputStream(new FileOutputStream(app))) {
+			addEntry(jar, "BOOT-INF/classes/application.properties", new byte[0], ZipEntry.DEFLATED);
+			addEntry(jar, "BOOT-INF/lib/filter.jar", nestedJar("apps/filter-processor"), ZipEntry.STORED);
+			addEntry(jar, "BOOT-INF/lib/other.jar", nestedJar(null), ZipEntry.STORED);
+		}
+		List<ConfigurationMetadataProperty> properties = resolver.listProperties(new FileSystemResource(app));
+		assertThat(properties, hasItem(configPropertyIdentifiedAs("filter.expression")));
+		assertThat(properties, not(hasItem(configPropertyIdentifiedAs("some.prefix.hidden.by.default.secret"))));
+		properties = resolver.listProperties(new FileSystemResource(app), true);
+		assertThat(properties, hasItem(configPropertyIdentifiedAs("some.prefix.hidden.by.default.secret")));
+	}
+
+	@Test
+	public void metadataShouldBeReadFromCompressedNestedJars() throws IOException {
+		File app = temporaryFolder.newFile("boot13.jar");
+		try (ZipOutputStream jar = new ZipOutputStream(new FileOutputStream(app))) {
+			addEntry(jar, "lib/filter.jar", nestedJar("apps/no-whitelist"), ZipEntry.DEFLATED);
+		}
+		List<ConfigurationMetadataProperty> properties = resolver.listProperties(new FileSystemResource(app));
+		assertThat(properties, hasItem(configPropertyIdentifiedAs("some.prefix.hidden.by.default.secret")));
+	}
+
+	@Test
+	public void missingAppsShouldHaveNoProperties() {
+		File app = new File(temporaryFolder.getRoot(), "missing.jar");
+		assertThat(resolver.listProperties(new FileSystemResource(app)).size(), is(0));
+	}
+
+	/**
+	 * Return the bytes of a jar holding the metadata files of the given test app
+	 * directory, or just a manifest if {@literal null}.
+	 */
+	private byte[] nestedJar(String appDirectory) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream jar = new ZipOutputStream(bytes)) {
+			addEntry(jar, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n".getBytes("UTF-8"), ZipEntry.DEFLATED);
+			if (appDirectory != null) {
+				for (String name : new String[] { METADATA, WHITELIST }) {
+					ClassPathResource resource = new ClassPathResource(appDirectory + "/" + name, getClass());
+					if (resource.exists()) {
+						addEntry(jar, name, StreamUtils.copyToByteArray(resource.getInputStream()), ZipEntry.DEFLATED);
+					}
+				}
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private void addEntry(ZipOutputStream jar, String name, byte[] content, int method) throws IOException {
+		ZipEntry entry = new ZipEntry(name);
+		entry.setMethod(method);
+		if (method == ZipEntry.STORED) {
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			entry.setSize(content.length);
+			entry.setCompressedSize(content.length);
+			entry.setCrc(crc.getValue());
+		}
+		jar.putNextEntry(entry);
+		jar.write(content);
+		jar.closeEntry();
+	}
+
 	private Matcher<ConfigurationMetadataProperty> configPropertyIdentifiedAs(String name) {
 		return hasProperty("id", is(name));
 	}
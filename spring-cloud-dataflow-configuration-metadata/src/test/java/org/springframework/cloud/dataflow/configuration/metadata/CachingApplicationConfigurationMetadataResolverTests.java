@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.configuration.metadata;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.Deprecation;
+import org.springframework.boot.configurationmetadata.ValueHint;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CachingApplicationConfigurationMetadataResolver}.
+ *
+ * @author Eric Bottard
+ */
+public class CachingApplicationConfigurationMetadataResolverTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ApplicationConfigurationMetadataResolver delegate = mock(ApplicationConfigurationMetadataResolver.class);
+
+	private File cacheDirectory;
+
+	private Resource app;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDirectory = temporaryFolder.newFolder("cache");
+		app = new FileSystemResource(temporaryFolder.newFile("app.jar"));
+		ConfigurationMetadataProperty property = new ConfigurationMetadataProperty();
+		property.setId("filter.expression");
+		property.setName("expression");
+		when(delegate.listProperties(app, false)).thenReturn(Collections.singletonList(property));
+	}
+
+	@Test
+	public void repeatedCallsOnlyHitDelegateOnce() {
+		ApplicationConfigurationMetadataResolver resolver = new CachingApplicationConfigurationMetadataResolver(
+				delegate, 10, null);
+		resolver.listProperties(app, false);
+		List<ConfigurationMetadataProperty> properties = resolver.listProperties(app, false);
+		assertThat(properties.size(), is(1));
+		assertThat(properties.get(0).getId(), is("filter.expression"));
+		verify(delegate, times(1)).listProperties(app, false);
+	}
+
+	@Test
+	public void resultsSurviveRestartWhenPersisted() {
+		new CachingApplicationConfigurationMetadataResolver(delegate, 10, cacheDirectory).listProperties(app, false);
+		List<ConfigurationMetadataProperty> properties = new CachingApplicationConfigurationMetadataResolver(delegate,
+				10, cacheDirectory).listProperties(app, false);
+		assertThat(properties.size(), is(1));
+		assertThat(properties.get(0).getId(), is("filter.expression"));
+		verify(delegate, times(1)).listProperties(app, false);
+	}
+
+	@Test
+	public void persistedListingsKeepDefaultsHintsAndDeprecation() {
+		ConfigurationMetadataProperty property = new ConfigurationMetadataProperty();
+		property.setId("log.level");
+		property.setName("level");
+		property.setType("java.lang.String");
+		property.setDefaultValue(new Object[] { "INFO", 42 });
+		ValueHint valueHint = new ValueHint();
+		valueHint.setValue("DEBUG");
+		valueHint.setDescription("Debug level.");
+		property.getHints().getValueHints().add(valueHint);
+		Deprecation deprecation = new Deprecation();
+		deprecation.setReason("Use log.threshold instead.");
+		deprecation.setReplacement("log.threshold");
+		property.setDeprecation(deprecation);
+		when(delegate.listProperties(app, true)).thenReturn(Collections.singletonList(property));
+
+		new CachingApplicationConfigurationMetadataResolver(delegate, 10, cacheDirectory).listProperties(app, true);
+		ConfigurationMetadataProperty read = new CachingApplicationConfigurationMetadataResolver(delegate, 10,
+				cacheDirectory).listProperties(app, true).get(0);
+		verify(delegate, times(1)).listProperties(app, true);
+		assertThat(read.getId(), is("log.level"));
+		assertThat(read.getName(), is("level"));
+		assertThat(read.getType(), is("java.lang.String"));
+		assertThat((Object[]) read.getDefaultValue(), is(new Object[] { "INFO", 42 }));
+		assertThat(read.getHints().getValueHints().get(0).getValue(), is((Object) "DEBUG"));
+		assertThat(read.getHints().getValueHints().get(0).getDescription(), is("Debug level."));
+		assertThat(read.getDeprecation().getReason(), is("Use log.threshold instead."));
+		assertThat(read.getDeprecation().getReplacement(), is("log.threshold"));
+	}
+
+	@Test
+	public void unreadableCacheFilesAreIgnored() throws IOException {
+		new CachingApplicationConfigurationMetadataResolver(delegate, 10, cacheDirectory).listProperties(app, false);
+		for (File file : cacheDirectory.listFiles()) {
+			try (FileOutputStream out = new FileOutputStream(file)) {
+				out.write("not a listing".getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		List<ConfigurationMetadataProperty> properties = new CachingApplicationConfigurationMetadataResolver(delegate,
+				10, cacheDirectory).listProperties(app, false);
+		assertThat(properties.get(0).getId(), is("filter.expression"));
+		verify(delegate, times(2)).listProperties(app, false);
+	}
+
+	@Test
+	public void changedArchiveIsResolvedAgain() throws IOException {
+		ApplicationConfigurationMetadataResolver resolver = new CachingApplicationConfigurationMetadataResolver(
+				delegate, 10, cacheDirectory);
+		resolver.listProperties(app, false);
+		try (FileOutputStream out = new FileOutputStream(app.getFile())) {
+			out.write(42);
+		}
+		resolver.listProperties(app, false);
+		verify(delegate, times(2)).listProperties(app, false);
+	}
+
+	@Test
+	public void directoriesAreNotCached() {
+		Resource exploded = new ClassPathResource("apps/filter-processor", getClass());
+		ApplicationConfigurationMetadataResolver resolver = new CachingApplicationConfigurationMetadataResolver(
+				delegate, 10, cacheDirectory);
+		resolver.listProperties(exploded, true);
+		resolver.listProperties(exploded, true);
+		verify(delegate, times(2)).listProperties(exploded, true);
+	}
+
+	@Test
+	public void resourcesWithoutFileAreNotCached() throws IOException {
+		Resource withoutFile = mock(Resource.class);
+		Resource unresolvable = mock(Resource.class);
+		when(unresolvable.getFile()).thenThrow(new IllegalStateException("Could not resolve artifact"));
+		ApplicationConfigurationMetadataResolver resolver = new CachingApplicationConfigurationMetadataResolver(
+				delegate, 10, cacheDirectory);
+		resolver.listProperties(withoutFile, false);
+		resolver.listProperties(withoutFile, false);
+		resolver.listProperties(unresolvable, false);
+		resolver.listProperties(unresolvable, false);
+		verify(delegate, times(2)).listProperties(withoutFile, false);
+		verify(delegate, times(2)).listProperties(unresolvable, false);
+	}
+
+}
@@ -42,15 +42,22 @@ public class TaskDefinition extends DataFlowAppDefinition {
 	 */
 	private final String dslText;
 
+	/**
+	 * Whether the DSL describes a composed task, as found when parsing it.
+	 */
+	private final boolean composed;
+
 	TaskDefinition(String registeredAppName, String label, Map<String, String> properties) {
 		super(registeredAppName, label, properties);
 		this.dslText = "";
+		this.composed = false;
 	}
 
 	public TaskDefinition(String name, String dsl) {
 		this.dslText = dsl;
 		Map<String, String> properties = new HashMap<>();
 		TaskNode taskNode = new TaskParser(name, dsl, true, true).parse();
+		this.composed = taskNode.isComposed();
 		if (taskNode.isComposed()) {
 			setRegisteredAppName(name);
 		}
@@ -71,6 +78,16 @@ public class TaskDefinition extends DataFlowAppDefinition {
 		return dslText;
 	}
 
+	/**
+	 * Return whether this definition is a composed task, <i>i.e.</i> a graph of other
+	 * tasks run by the composed task runner.
+	 *
+	 * @return true if the DSL describes a composed task
+	 */
+	public boolean isComposed() {
+		return composed;
+	}
+
 	@Override
 	public String toString() {
 		return new ToStringCreator(this).append("dslText", this.dslText).append("appDefinition", this.appDefinition)
@@ -40,6 +40,7 @@ public class TaskDefinitionTests {
 		assertEquals("timestamp", definition.getRegisteredAppName());
 		assertEquals(1, definition.getProperties().size());
 		assertEquals("test", definition.getProperties().get("spring.cloud.task.name"));
+		assertFalse(definition.isComposed());
 
 		TaskDefinition composedDef = new TaskDefinition("composed", "foo && bar");
 		assertEquals("composed", composedDef.getName());
@@ -47,6 +48,7 @@ public class TaskDefinitionTests {
 		assertEquals("composed", composedDef.getRegisteredAppName());
 		assertEquals(1, composedDef.getProperties().size());
 		assertEquals("composed", composedDef.getProperties().get("spring.cloud.task.name"));
+		assertTrue(composedDef.isComposed());
 	}
 
 	@Test
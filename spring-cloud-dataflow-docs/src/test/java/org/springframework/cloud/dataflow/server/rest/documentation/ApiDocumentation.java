@@ -102,6 +102,7 @@ public class ApiDocumentation extends BaseDocumentation {
 						.description("Returns all task executions for a " + "given Task name"),
 				linkWithRel("tasks/executions/execution")
 						.description("Provides details for a " + "specific task execution"),
+				linkWithRel("tasks/executions/bulk").description("Launches several tasks at once"),
 				linkWithRel("streams/definitions").description("Exposes the Streams resource"),
 				linkWithRel("streams/definitions/definition").description("Handle a specific Stream " + "definition"),
 				linkWithRel("streams/deployments").description("Provides Stream deployment operations"),
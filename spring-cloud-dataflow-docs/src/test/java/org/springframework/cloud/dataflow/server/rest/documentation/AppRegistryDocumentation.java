@@ -32,8 +32,15 @@ public class AppRegistryDocumentation extends BaseDocumentation {
 
 	@Test
 	public void getApplicationsFiltered() throws Exception {
-		this.mockMvc.perform(get("/apps").param("type", "source").accept(MediaType.APPLICATION_JSON))
-				.andExpect(status().isOk()).andDo(this.documentationHandler.document(requestParameters(
-						parameterWithName("type").description("Restrict the returned apps to the type of the app."))));
+		this.mockMvc
+				.perform(get("/apps").param("type", "source").param("search", "t").param("page", "0")
+						.param("size", "10").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andDo(this.documentationHandler.document(requestParameters(
+						parameterWithName("type").description("Restrict the returned apps to the type of the app."),
+						parameterWithName("search")
+								.description("Restrict the returned apps to the ones whose name starts with this value."),
+						parameterWithName("page").description("The zero-based page number (optional)"),
+						parameterWithName("size").description("The requested page size (optional)"))));
 	}
 }
@@ -22,11 +22,16 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -39,6 +44,10 @@ import org.springframework.cloud.dataflow.registry.support.NoSuchAppRegistration
 import org.springframework.cloud.deployer.resource.registry.UriRegistry;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -53,6 +62,13 @@ import org.springframework.util.StringUtils;
  * <li>{@literal <type>.<name>}: URI for the actual app</li>
  * <li>{@literal <type>.<name>.metadata}: Optional URI for the app metadata</li>
  * </ul>
+ * <p>
+ * Lookups are served from an in-memory snapshot of the whole registry, loaded with a
+ * single {@link UriRegistry#findAll()} and replaced (never modified) whenever an app is
+ * saved or deleted through this class. Changes made to the underlying {@link UriRegistry}
+ * by other means, such as another server sharing the same database or a direct edit of
+ * the table, are seen once the snapshot is older than the
+ * {@link #setSnapshotTtl(long) snapshot TTL}, or after {@link #invalidate()}.
  *
  * @author Mark Fisher
  * @author Gunnar Hillert
@@ -69,39 +85,130 @@ public class AppRegistry {
 
 	private final ResourceLoader resourceLoader;
 
+	/**
+	 * Incremented on every change, so that a snapshot loaded concurrently with a change is
+	 * not kept.
+	 */
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Immutable copy of all registered URIs, or {@literal null} if it must be loaded
+	 * again.
+	 */
+	private volatile Map<String, URI> snapshot;
+
+	/**
+	 * When {@link #snapshot} was loaded, as per {@link System#currentTimeMillis()}.
+	 */
+	private volatile long snapshotLoadedAt;
+
+	private volatile long snapshotTtl = 10_000L;
+
 	public AppRegistry(UriRegistry uriRegistry, ResourceLoader resourceLoader) {
 		this.uriRegistry = uriRegistry;
 		this.resourceLoader = resourceLoader;
 	}
 
+	/**
+	 * Set how long the in-memory snapshot is used before the registry is loaded again, in
+	 * milliseconds. This bounds how stale lookups can be when the underlying
+	 * {@link UriRegistry} is changed by other means than this class. A negative value
+	 * keeps the snapshot until the next change made through this class.
+	 *
+	 * @param snapshotTtl the time to live of the snapshot, in milliseconds
+	 */
+	public void setSnapshotTtl(long snapshotTtl) {
+		this.snapshotTtl = snapshotTtl;
+	}
+
 	public AppRegistration find(String name, ApplicationType type) {
-		try {
-			String key = key(name, type);
-			URI uri = this.uriRegistry.find(key);
-			URI metadataUri = metadataUriFromRegistry().apply(key);
-			return new AppRegistration(name, type, uri, metadataUri, this.resourceLoader);
-		}
-		catch (IllegalArgumentException e) {
+		String key = key(name, type);
+		Map<String, URI> uris = uris();
+		URI uri = uris.get(key);
+		if (uri == null) {
 			return null;
 		}
+		return new AppRegistration(name, type, uri, uris.get(metadataKey(key)), this.resourceLoader);
 	}
 
 	public List<AppRegistration> findAll() {
-		return this.uriRegistry.findAll().entrySet().stream().flatMap(toValidAppRegistration(metadataUriFromRegistry()))
+		Map<String, URI> uris = uris();
+		return uris.entrySet().stream().flatMap(toValidAppRegistration(key -> uris.get(metadataKey(key))))
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Return a page of the registered apps, ordered by type then name.
+	 * <p>
+	 * Filtering, sorting and paging are delegated to the underlying {@link UriRegistry}
+	 * when it is a {@link PagingUriRegistry}, and done on the in-memory snapshot
+	 * otherwise.
+	 *
+	 * @param type the type of the apps to return, or {@literal null} for all types
+	 * @param namePrefix the prefix of the names of the apps to return, or {@literal null}
+	 * @param pageable the page to return, whose sort direction, if any, applies to both
+	 * type and name
+	 * @return a page of apps
+	 */
+	public Page<AppRegistration> findAll(ApplicationType type, String namePrefix, Pageable pageable) {
+		Assert.notNull(pageable, "pageable must not be null");
+		String prefix = namePrefix != null ? namePrefix : "";
+		if (this.uriRegistry instanceof PagingUriRegistry) {
+			PagingUriRegistry pagingUriRegistry = (PagingUriRegistry) this.uriRegistry;
+			List<ApplicationType> types = type != null ? Collections.singletonList(type)
+					: Arrays.asList(ApplicationType.values());
+			List<String> keyPrefixes = types.stream().map(t -> key(prefix, t)).collect(Collectors.toList());
+			Page<Map.Entry<String, URI>> page = pagingUriRegistry.findAll(keyPrefixes, "." + METADATA_KEY_SUFFIX,
+					pageable);
+			Map<String, URI> metadataUris = pagingUriRegistry.findAll(
+					page.getContent().stream().map(kv -> metadataKey(kv.getKey())).collect(Collectors.toList()));
+			return page.map(kv -> {
+				int dot = kv.getKey().indexOf('.');
+				return new AppRegistration(kv.getKey().substring(dot + 1),
+						ApplicationType.valueOf(kv.getKey().substring(0, dot)), kv.getValue(),
+						metadataUris.get(metadataKey(kv.getKey())), this.resourceLoader);
+			});
+		}
+
+		Comparator<AppRegistration> order = Comparator.naturalOrder();
+		Sort.Order firstOrder = pageable.getSort() != null && pageable.getSort().iterator().hasNext()
+				? pageable.getSort().iterator().next() : null;
+		if (firstOrder != null && firstOrder.isDescending()) {
+			order = order.reversed();
+		}
+		List<AppRegistration> matches = findAll().stream()
+				.filter(ar -> (type == null || ar.getType() == type) && ar.getName().startsWith(prefix))
+				.sorted(order).collect(Collectors.toList());
+		int from = Math.min(pageable.getOffset(), matches.size());
+		int to = Math.min(from + pageable.getPageSize(), matches.size());
+		return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+	}
+
 	public AppRegistration save(String name, ApplicationType type, URI uri, URI metadataUri) {
-		this.uriRegistry.register(key(name, type), uri);
-		if (metadataUri != null) {
-			this.uriRegistry.register(metadataKey(name, type), metadataUri);
+		try {
+			this.uriRegistry.register(key(name, type), uri);
+			if (metadataUri != null) {
+				this.uriRegistry.register(metadataKey(name, type), metadataUri);
+			}
+		}
+		finally {
+			invalidate();
 		}
 		return new AppRegistration(name, type, uri, metadataUri, this.resourceLoader);
 	}
 
+	/**
+	 * Register all the apps described in the given properties resources. Apps are
+	 * registered at once when the underlying {@link UriRegistry} is a
+	 * {@link BulkUriRegistry}.
+	 *
+	 * @param overwrite whether to replace apps already registered
+	 * @param resources the properties resources describing the apps
+	 * @return the registered apps
+	 */
 	public List<AppRegistration> importAll(boolean overwrite, Resource... resources) {
 
-		Set<String> keysAlreadyThere = overwrite ? Collections.emptySet() : uriRegistry.findAll().keySet();
+		Set<String> keysAlreadyThere = overwrite ? Collections.emptySet() : uris().keySet();
 
 		List<AppRegistration> apps = new ArrayList<>();
 		for (Resource resource : resources) {
@@ -109,18 +216,35 @@ public class AppRegistry {
 			try (InputStream is = resource.getInputStream()) {
 				properties.load(is);
 
-				properties.entrySet().stream().map(toStringAndUri())
+				// Collect eagerly to fail early, before registering anything
+				apps.addAll(properties.entrySet().stream().map(toStringAndUri())
 						.flatMap(toValidAppRegistration(metadataUriFromProperties(properties)))
 						.filter(ar -> !keysAlreadyThere.contains(key(ar.getName(), ar.getType())))
-						.collect(Collectors.toList()) // Force eager evaluation to fail
-														// early
-						.forEach(ar -> apps.add(save(ar.getName(), ar.getType(), ar.getUri(), ar.getMetadataUri())));
+						.collect(Collectors.toList()));
 			}
 			catch (IOException e) {
 				throw new RuntimeException("Error reading from " + resource.getDescription(), e);
 			}
 		}
 
+		if (this.uriRegistry instanceof BulkUriRegistry) {
+			Map<String, URI> uris = new LinkedHashMap<>();
+			for (AppRegistration app : apps) {
+				uris.put(key(app.getName(), app.getType()), app.getUri());
+				if (app.getMetadataUri() != null) {
+					uris.put(metadataKey(app.getName(), app.getType()), app.getMetadataUri());
+				}
+			}
+			try {
+				((BulkUriRegistry) this.uriRegistry).registerAll(uris);
+			}
+			finally {
+				invalidate();
+			}
+		}
+		else {
+			apps.forEach(ar -> save(ar.getName(), ar.getType(), ar.getUri(), ar.getMetadataUri()));
+		}
 		return apps;
 	}
 
@@ -180,15 +304,51 @@ public class AppRegistry {
 		};
 	}
 
-	private Function<String, URI> metadataUriFromRegistry() {
-		return key -> {
-			try {
-				return uriRegistry.find(metadataKey(key));
-			}
-			catch (IllegalArgumentException ignored) {
-				return null;
+	/**
+	 * Return the version of the registry content, which changes whenever an app is saved
+	 * or deleted, the registry is {@link #invalidate() invalidated}, or a reload of an
+	 * expired snapshot finds different content. Callers may use it to tell whether
+	 * anything they derived from the registry is stale.
+	 */
+	public long getVersion() {
+		uris();
+		return this.version.get();
+	}
+
+	/**
+	 * Discard the in-memory snapshot, so that the next lookup loads the registry again.
+	 */
+	public void invalidate() {
+		synchronized (this.version) {
+			this.version.incrementAndGet();
+			this.snapshot = null;
+		}
+	}
+
+	/**
+	 * Return all registered URIs, keyed by app or metadata key, loading them if needed.
+	 */
+	private Map<String, URI> uris() {
+		Map<String, URI> current = this.snapshot;
+		long now = System.currentTimeMillis();
+		if (current != null && (this.snapshotTtl < 0 || now - this.snapshotLoadedAt < this.snapshotTtl)) {
+			return current;
+		}
+		long loadedVersion = this.version.get();
+		Map<String, URI> uris = Collections.unmodifiableMap(new HashMap<>(this.uriRegistry.findAll()));
+		synchronized (this.version) {
+			// Don't publish a snapshot that may miss a change made while loading it
+			if (this.version.get() == loadedVersion) {
+				Map<String, URI> previous = this.snapshot;
+				if (previous != null && !previous.equals(uris)) {
+					// Changed by other means than this class
+					this.version.incrementAndGet();
+				}
+				this.snapshotLoadedAt = now;
+				this.snapshot = uris;
 			}
-		};
+		}
+		return uris;
 	}
 
 	/**
@@ -200,8 +360,13 @@ public class AppRegistry {
 	 */
 	public void delete(String name, ApplicationType type) {
 		if (this.find(name, type) != null) {
-			this.uriRegistry.unregister(key(name, type));
-			this.uriRegistry.unregister(metadataKey(name, type));
+			try {
+				this.uriRegistry.unregister(key(name, type));
+				this.uriRegistry.unregister(metadataKey(name, type));
+			}
+			finally {
+				invalidate();
+			}
 		}
 		else {
 			throw new NoSuchAppRegistrationException(name, type);
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.registry;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.springframework.cloud.deployer.resource.registry.UriRegistry;
+
+/**
+ * A {@link UriRegistry} able to register many URIs at once, more efficiently than as
+ * many calls to {@link #register(String, URI)}.
+ *
+ * @author Eric Bottard
+ */
+public interface BulkUriRegistry extends UriRegistry {
+
+	/**
+	 * Register all the given URIs, replacing the ones already registered under the same
+	 * keys. Either all URIs are registered, or none is.
+	 *
+	 * @param uris the URIs to register, keyed by name
+	 */
+	void registerAll(Map<String, URI> uris);
+}
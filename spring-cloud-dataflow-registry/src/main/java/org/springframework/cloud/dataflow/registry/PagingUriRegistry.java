@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.registry;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cloud.deployer.resource.registry.UriRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * A {@link UriRegistry} able to filter, sort and page its content itself, rather than
+ * returning it all through {@link #findAll()}.
+ *
+ * @author Eric Bottard
+ */
+public interface PagingUriRegistry extends UriRegistry {
+
+	/**
+	 * Return a page of the URIs registered under a key starting with one of the given
+	 * prefixes. Results are ordered by the position of the prefix they match, then by
+	 * key, in the {@link Sort.Direction direction} of the first order of the
+	 * {@link Pageable}, if any.
+	 *
+	 * @param keyPrefixes the prefixes of the keys to return, in order
+	 * @param excludedKeySuffix the suffix of the keys to leave out, or {@literal null}
+	 * @param pageable the page to return
+	 * @return a page of key/URI pairs
+	 */
+	Page<Map.Entry<String, URI>> findAll(List<String> keyPrefixes, String excludedKeySuffix, Pageable pageable);
+
+	/**
+	 * Return the URIs registered under the given keys, skipping the keys that are not
+	 * registered.
+	 *
+	 * @param keys the keys to look for
+	 * @return the URIs, keyed by key
+	 */
+	Map<String, URI> findAll(Collection<String> keys);
+}
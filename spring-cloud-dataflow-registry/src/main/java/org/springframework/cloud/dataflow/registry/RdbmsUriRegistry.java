@@ -18,26 +18,60 @@ package org.springframework.cloud.dataflow.registry;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.Types;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.springframework.cloud.deployer.resource.registry.UriRegistry;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 /**
  * RDBMS implementation of {@link UriRegistry}.
+ * <p>
+ * {@link #registerAll(Map)} relies on the native upsert statement of the database where
+ * one is known (H2, MySQL and PostgreSQL 9.5+), and on batched updates followed by
+ * batched inserts of the missing names otherwise.
+ * <p>
+ * {@link #findAll(List, String, Pageable)} filters with prefix {@literal like} patterns,
+ * which can use the index on {@literal NAME}, and only reads the rows up to the end of
+ * the requested page.
  *
  * @author Ilayaperumal Gopinathan
  * @author Mark Fisher
  * @author Thomas Risberg
+ * @author Eric Bottard
  */
-public class RdbmsUriRegistry implements UriRegistry {
+public class RdbmsUriRegistry implements BulkUriRegistry, PagingUriRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(RdbmsUriRegistry.class);
 
 	private static final String TABLE_NAME = "URI_REGISTRY";
 
@@ -51,11 +85,54 @@ public class RdbmsUriRegistry implements UriRegistry {
 
 	private static final String DELETE_SQL = String.format("delete from %s where NAME=?", TABLE_NAME);
 
+	private static final String SELECT_BY_NAMES_SQL = String.format("select NAME, URI from %s where NAME in (:names)",
+			TABLE_NAME);
+
+	private static final String COUNT_SQL = String.format("select count(*) from %s", TABLE_NAME);
+
+	/**
+	 * Escape character of {@literal like} patterns. Backslash is avoided as it would need
+	 * escaping itself in MySQL string literals.
+	 */
+	private static final char LIKE_ESCAPE = '!';
+
+	private static final String H2_UPSERT_SQL = String.format("merge into %s (NAME, URI) key (NAME) values (?, ?)",
+			TABLE_NAME);
+
+	private static final String MYSQL_UPSERT_SQL = String
+			.format("insert into %s (NAME, URI) values (?, ?) on duplicate key update URI=values(URI)", TABLE_NAME);
+
+	private static final String POSTGRES_UPSERT_SQL = String.format(
+			"insert into %s (NAME, URI) values (?, ?) on conflict (NAME) do update set URI=excluded.URI", TABLE_NAME);
+
+	/**
+	 * Maximum number of names per {@literal in} clause, well within the limits of all
+	 * supported databases.
+	 */
+	private static final int MAX_IN_CLAUSE_SIZE = 500;
+
+	private static final int[] VARCHAR_PAIR_TYPES = new int[] { Types.VARCHAR, Types.VARCHAR };
+
+	private final DataSource dataSource;
+
 	private final JdbcTemplate jdbcTemplate;
 
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	/**
+	 * The upsert statement for the database, taking a name and a URI, or the empty string
+	 * if there is none. Resolved on first use.
+	 */
+	private volatile String upsertSql;
+
 	public RdbmsUriRegistry(DataSource dataSource) {
 		Assert.notNull(dataSource, "DataSource must not be null");
+		this.dataSource = dataSource;
 		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
 	}
 
 	@Override
@@ -80,13 +157,87 @@ public class RdbmsUriRegistry implements UriRegistry {
 		return uriMap;
 	}
 
+	@Override
+	public Page<Map.Entry<String, URI>> findAll(List<String> keyPrefixes, String excludedKeySuffix,
+			Pageable pageable) {
+		Assert.notEmpty(keyPrefixes, "keyPrefixes must not be empty");
+		Assert.notNull(pageable, "pageable must not be null");
+		List<String> args = new ArrayList<>();
+		StringBuilder where = new StringBuilder(" where ");
+		for (int i = 0; i < keyPrefixes.size(); i++) {
+			String prefix = escapeLike(keyPrefixes.get(i));
+			where.append(i > 0 ? " or " : "").append("(NAME like ?").append(likeEscapeClause());
+			args.add(prefix + "%");
+			if (excludedKeySuffix != null) {
+				// The prefix is repeated so that a key can't be both the prefix and the suffix
+				where.append(" and NAME not like ?").append(likeEscapeClause());
+				args.add(prefix + "%" + escapeLike(excludedKeySuffix));
+			}
+			where.append(")");
+		}
+		long total = this.jdbcTemplate.queryForObject(COUNT_SQL + where, Long.class, args.toArray());
+		if (total <= pageable.getOffset()) {
+			return new PageImpl<>(Collections.emptyList(), pageable, total);
+		}
+
+		String direction = pageable.getSort() != null && pageable.getSort().iterator().hasNext()
+				&& pageable.getSort().iterator().next().isDescending() ? " desc" : " asc";
+		StringBuilder sql = new StringBuilder(SELECT_ALL_SQL).append(where);
+		List<String> queryArgs = new ArrayList<>(args);
+		if (keyPrefixes.size() > 1) {
+			sql.append(" order by case");
+			for (int i = 0; i < keyPrefixes.size(); i++) {
+				sql.append(" when NAME like ?").append(likeEscapeClause()).append(" then ").append(i);
+				queryArgs.add(escapeLike(keyPrefixes.get(i)) + "%");
+			}
+			sql.append(" end").append(direction).append(",");
+		}
+		else {
+			sql.append(" order by");
+		}
+		sql.append(" NAME").append(direction);
+
+		int offset = pageable.getOffset();
+		int pageSize = (int) Math.min(pageable.getPageSize(), total - offset);
+		int maxRows = offset + pageSize;
+		PreparedStatementCreator statementCreator = connection -> {
+			PreparedStatement statement = connection.prepareStatement(sql.toString());
+			for (int i = 0; i < queryArgs.size(); i++) {
+				statement.setString(i + 1, queryArgs.get(i));
+			}
+			statement.setMaxRows(maxRows);
+			return statement;
+		};
+		ResultSetExtractor<List<Map.Entry<String, URI>>> extractor = resultSet -> {
+			List<Map.Entry<String, URI>> content = new ArrayList<>(pageSize);
+			for (int row = 0; resultSet.next(); row++) {
+				if (row >= offset) {
+					content.add(new AbstractMap.SimpleImmutableEntry<>(resultSet.getString("NAME"),
+							toUri(resultSet.getString("URI"))));
+				}
+			}
+			return content;
+		};
+		return new PageImpl<>(this.jdbcTemplate.query(statementCreator, extractor), pageable, total);
+	}
+
+	@Override
+	public Map<String, URI> findAll(Collection<String> names) {
+		Assert.notNull(names, "names must not be null");
+		Map<String, URI> uriMap = new HashMap<>();
+		List<String> distinctNames = new ArrayList<>(new LinkedHashSet<>(names));
+		for (int from = 0; from < distinctNames.size(); from += MAX_IN_CLAUSE_SIZE) {
+			List<String> chunk = distinctNames.subList(from, Math.min(from + MAX_IN_CLAUSE_SIZE, distinctNames.size()));
+			this.namedParameterJdbcTemplate.query(SELECT_BY_NAMES_SQL, new MapSqlParameterSource("names", chunk),
+					(RowCallbackHandler) resultSet -> uriMap.put(resultSet.getString("NAME"),
+							toUri(resultSet.getString("URI"))));
+		}
+		return uriMap;
+	}
+
 	@Override
 	public void register(String name, URI uri) {
-		Assert.notNull(uri, "Error when registering " + name + ": URI is required");
-		Assert.hasText(uri.getScheme(),
-				"Error when registering " + name + " with URI " + uri + ": URI scheme must be specified");
-		Assert.hasText(uri.getSchemeSpecificPart(),
-				"Error when registering " + name + " with URI " + uri + ": URI scheme-specific part must be specified");
+		validate(name, uri);
 		String uriString = uri.toString();
 		try {
 			if (find(name) != null) {
@@ -100,12 +251,119 @@ public class RdbmsUriRegistry implements UriRegistry {
 		}
 	}
 
+	@Override
+	public void registerAll(Map<String, URI> uris) {
+		Assert.notNull(uris, "uris must not be null");
+		List<Object[]> rows = new ArrayList<>(uris.size());
+		for (Map.Entry<String, URI> entry : uris.entrySet()) {
+			validate(entry.getKey(), entry.getValue());
+			rows.add(new Object[] { entry.getKey(), entry.getValue().toString() });
+		}
+		if (rows.isEmpty()) {
+			return;
+		}
+		String upsert = upsertSql();
+		this.transactionTemplate.execute(status -> {
+			if (!upsert.isEmpty()) {
+				this.jdbcTemplate.batchUpdate(upsert, rows, VARCHAR_PAIR_TYPES);
+			}
+			else {
+				updateThenInsert(rows);
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Portable alternative to an upsert: update the names already registered, then
+	 * insert the others, each as a single batch.
+	 */
+	private void updateThenInsert(List<Object[]> rows) {
+		List<String> names = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			names.add((String) row[0]);
+		}
+		Set<String> existing = findAll(names).keySet();
+		List<Object[]> updates = new ArrayList<>();
+		List<Object[]> inserts = new ArrayList<>();
+		for (Object[] row : rows) {
+			if (existing.contains(row[0])) {
+				updates.add(new Object[] { row[1], row[0] });
+			}
+			else {
+				inserts.add(row);
+			}
+		}
+		if (!updates.isEmpty()) {
+			this.jdbcTemplate.batchUpdate(UPDATE_SQL, updates, VARCHAR_PAIR_TYPES);
+		}
+		if (!inserts.isEmpty()) {
+			this.jdbcTemplate.batchUpdate(INSERT_SQL, inserts, VARCHAR_PAIR_TYPES);
+		}
+	}
+
+	private String upsertSql() {
+		String sql = this.upsertSql;
+		if (sql == null) {
+			sql = resolveUpsertSql();
+			this.upsertSql = sql;
+		}
+		return sql;
+	}
+
+	private String resolveUpsertSql() {
+		try {
+			return (String) JdbcUtils.extractDatabaseMetaData(this.dataSource, (DatabaseMetaData metaData) -> {
+				String product = JdbcUtils.commonDatabaseName(metaData.getDatabaseProductName());
+				if ("H2".equals(product)) {
+					return H2_UPSERT_SQL;
+				}
+				else if ("MySQL".equals(product)) {
+					return MYSQL_UPSERT_SQL;
+				}
+				else if ("PostgreSQL".equals(product)) {
+					int major = metaData.getDatabaseMajorVersion();
+					int minor = metaData.getDatabaseMinorVersion();
+					return major > 9 || (major == 9 && minor >= 5) ? POSTGRES_UPSERT_SQL : "";
+				}
+				return "";
+			});
+		}
+		catch (MetaDataAccessException e) {
+			logger.warn("Unable to determine the database type, not using upserts: " + e.getMessage());
+			return "";
+		}
+	}
+
 	@Override
 	public void unregister(String name) {
 		Assert.hasText(name, "name must not be empty nor null");
 		jdbcTemplate.update(DELETE_SQL, name);
 	}
 
+	private static String escapeLike(String value) {
+		StringBuilder escaped = new StringBuilder(value.length() + 8);
+		for (char c : value.toCharArray()) {
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+
+	private static String likeEscapeClause() {
+		return " escape '" + LIKE_ESCAPE + "'";
+	}
+
+	private void validate(String name, URI uri) {
+		Assert.notNull(uri, "Error when registering " + name + ": URI is required");
+		Assert.hasText(uri.getScheme(),
+				"Error when registering " + name + " with URI " + uri + ": URI scheme must be specified");
+		Assert.hasText(uri.getSchemeSpecificPart(),
+				"Error when registering " + name + " with URI " + uri + ": URI scheme-specific part must be specified");
+	}
+
 	/**
 	 * Convert the provided string to a {@link URI}.
 	 *
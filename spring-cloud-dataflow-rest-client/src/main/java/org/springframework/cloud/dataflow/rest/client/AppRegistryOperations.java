@@ -50,6 +50,20 @@ public interface AppRegistryOperations {
 	 */
 	PagedResources<AppRegistrationResource> list(ApplicationType type);
 
+	/**
+	 * Return a page of the application registrations of the given type whose name starts
+	 * with the given prefix, ordered by type then name.
+	 *
+	 * @param type application type for which to return registrations, or {@code null} for
+	 * all types
+	 * @param namePrefix prefix of the names of the applications to return, or
+	 * {@code null} for all names
+	 * @param page the zero-based index of the page to return
+	 * @param size the size of the page
+	 * @return the requested page of application registrations
+	 */
+	PagedResources<AppRegistrationResource> list(ApplicationType type, String namePrefix, int page, int size);
+
 	/**
 	 * Retrieve information about an application registration.
 	 *
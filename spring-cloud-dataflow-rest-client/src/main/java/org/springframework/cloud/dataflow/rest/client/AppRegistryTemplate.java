@@ -27,6 +27,7 @@ import org.springframework.hateoas.UriTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Implementation of {@link AppRegistryOperations} that uses {@link RestTemplate} to issue
@@ -72,6 +73,20 @@ public class AppRegistryTemplate implements AppRegistryOperations {
 		return restTemplate.getForObject(uri, AppRegistrationResource.Page.class);
 	}
 
+	@Override
+	public PagedResources<AppRegistrationResource> list(ApplicationType type, String namePrefix, int page,
+			int size) {
+		UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(uriTemplate.toString())
+				.queryParam("page", page).queryParam("size", size);
+		if (type != null) {
+			builder.queryParam("type", type.name());
+		}
+		if (namePrefix != null) {
+			builder.queryParam("search", namePrefix);
+		}
+		return restTemplate.getForObject(builder.build().encode().toUri(), AppRegistrationResource.Page.class);
+	}
+
 	@Override
 	public void unregister(String name, ApplicationType applicationType) {
 		String uri = uriTemplate.toString() + "/{type}/{name}";
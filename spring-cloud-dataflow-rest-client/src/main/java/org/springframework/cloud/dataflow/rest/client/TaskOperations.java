@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.springframework.cloud.dataflow.rest.resource.TaskDefinitionResource;
 import org.springframework.cloud.dataflow.rest.resource.TaskExecutionResource;
+import org.springframework.cloud.dataflow.rest.resource.TaskLaunchResource;
 import org.springframework.hateoas.PagedResources;
 
 /**
@@ -56,6 +57,16 @@ public interface TaskOperations {
 	 */
 	long launch(String name, Map<String, String> properties, List<String> arguments);
 
+	/**
+	 * Launch several already created tasks at once.
+	 *
+	 * @param launches the names of the tasks to launch, along with their deployment
+	 * properties and command line arguments
+	 * @return the TaskExecutionId of each task, or the reason why it could not be
+	 * launched, in the order of the launches
+	 */
+	List<TaskLaunchResource> launchAll(List<TaskLaunchResource> launches);
+
 	/**
 	 * Destroy an existing task.
 	 *
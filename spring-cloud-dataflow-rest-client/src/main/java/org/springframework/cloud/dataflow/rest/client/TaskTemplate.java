@@ -16,12 +16,14 @@
 
 package org.springframework.cloud.dataflow.rest.client;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.cloud.dataflow.rest.resource.TaskDefinitionResource;
 import org.springframework.cloud.dataflow.rest.resource.TaskExecutionResource;
+import org.springframework.cloud.dataflow.rest.resource.TaskLaunchResource;
 import org.springframework.cloud.dataflow.rest.util.DeploymentPropertiesUtils;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.ResourceSupport;
@@ -51,6 +53,8 @@ public class TaskTemplate implements TaskOperations {
 
 	private static final String EXECUTION_RELATION_BY_NAME = "tasks/executions/name";
 
+	private static final String BULK_LAUNCH_RELATION = "tasks/executions/bulk";
+
 	private final RestTemplate restTemplate;
 
 	private final Link definitionsLink;
@@ -63,6 +67,11 @@ public class TaskTemplate implements TaskOperations {
 
 	private final Link executionByNameLink;
 
+	/**
+	 * Only exposed by servers that support bulk launches.
+	 */
+	private final Link bulkLaunchLink;
+
 	TaskTemplate(RestTemplate restTemplate, ResourceSupport resources) {
 		Assert.notNull(resources, "URI Resources must not be be null");
 		Assert.notNull(resources.getLink(EXECUTIONS_RELATION), "Executions relation is required");
@@ -79,6 +88,7 @@ public class TaskTemplate implements TaskOperations {
 		this.executionsLink = resources.getLink(EXECUTIONS_RELATION);
 		this.executionLink = resources.getLink(EXECUTION_RELATION);
 		this.executionByNameLink = resources.getLink(EXECUTION_RELATION_BY_NAME);
+		this.bulkLaunchLink = resources.getLink(BULK_LAUNCH_RELATION);
 
 	}
 
@@ -107,6 +117,14 @@ public class TaskTemplate implements TaskOperations {
 		return restTemplate.postForObject(executionByNameLink.expand(name).getHref(), values, Long.class, name);
 	}
 
+	@Override
+	public List<TaskLaunchResource> launchAll(List<TaskLaunchResource> launches) {
+		Assert.notNull(bulkLaunchLink, "The server does not support bulk launches");
+		TaskLaunchResource[] results = restTemplate.postForObject(bulkLaunchLink.getHref(), launches,
+				TaskLaunchResource[].class);
+		return Arrays.asList(results);
+	}
+
 	@Override
 	public void destroy(String name) {
 		restTemplate.delete(definitionLink.expand(name).getHref(), Collections.singletonMap("name", name));
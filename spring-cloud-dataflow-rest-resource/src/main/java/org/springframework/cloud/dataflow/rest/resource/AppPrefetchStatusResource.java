@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.rest.resource;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.hateoas.ResourceSupport;
+
+/**
+ * REST representation of the progress of the prefetch of registered app artifacts and
+ * metadata.
+ *
+ * @author Eric Bottard
+ */
+public class AppPrefetchStatusResource extends ResourceSupport {
+
+	private Map<String, Integer> counts;
+
+	private List<Download> downloads;
+
+	private AppPrefetchStatusResource() {
+		// noarg constructor for serialization
+	}
+
+	public AppPrefetchStatusResource(Map<String, Integer> counts, List<Download> downloads) {
+		this.counts = counts;
+		this.downloads = downloads;
+	}
+
+	/**
+	 * Return the number of downloads in each state.
+	 */
+	public Map<String, Integer> getCounts() {
+		return counts;
+	}
+
+	public void setCounts(Map<String, Integer> counts) {
+		this.counts = counts;
+	}
+
+	/**
+	 * Return the downloads in progress and the most recently finished ones.
+	 */
+	public List<Download> getDownloads() {
+		return downloads;
+	}
+
+	public void setDownloads(List<Download> downloads) {
+		this.downloads = downloads;
+	}
+
+	/**
+	 * The download of an app artifact or metadata artifact.
+	 */
+	public static class Download {
+
+		private String uri;
+
+		private String kind;
+
+		private String state;
+
+		private int attempts;
+
+		private String error;
+
+		private Download() {
+			// noarg constructor for serialization
+		}
+
+		public Download(String uri, String kind, String state, int attempts, String error) {
+			this.uri = uri;
+			this.kind = kind;
+			this.state = state;
+			this.attempts = attempts;
+			this.error = error;
+		}
+
+		public String getUri() {
+			return uri;
+		}
+
+		public void setUri(String uri) {
+			this.uri = uri;
+		}
+
+		/**
+		 * Return whether this is the download of an app artifact or of its metadata.
+		 */
+		public String getKind() {
+			return kind;
+		}
+
+		public void setKind(String kind) {
+			this.kind = kind;
+		}
+
+		public String getState() {
+			return state;
+		}
+
+		public void setState(String state) {
+			this.state = state;
+		}
+
+		public int getAttempts() {
+			return attempts;
+		}
+
+		public void setAttempts(int attempts) {
+			this.attempts = attempts;
+		}
+
+		/**
+		 * Return the error of the last failed attempt, if any.
+		 */
+		public String getError() {
+			return error;
+		}
+
+		public void setError(String error) {
+			this.error = error;
+		}
+	}
+}
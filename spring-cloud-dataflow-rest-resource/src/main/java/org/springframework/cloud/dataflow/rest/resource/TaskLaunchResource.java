@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.rest.resource;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.hateoas.ResourceSupport;
+
+/**
+ * REST representation of the launch of a task, as part of a bulk launch. Requests only
+ * carry the name of the task and its optional properties and arguments, while responses
+ * also carry the id of the created execution and the error that prevented the launch,
+ * if any.
+ *
+ * @author Eric Bottard
+ */
+public class TaskLaunchResource extends ResourceSupport {
+
+	private String name;
+
+	private Map<String, String> properties;
+
+	private List<String> arguments;
+
+	private Long executionId;
+
+	private String error;
+
+	private TaskLaunchResource() {
+		// noarg constructor for serialization
+	}
+
+	/**
+	 * Create the request to launch a task.
+	 *
+	 * @param name the name of the task
+	 * @param properties the deployment properties, may be null
+	 * @param arguments the command line arguments, may be null
+	 */
+	public TaskLaunchResource(String name, Map<String, String> properties, List<String> arguments) {
+		this.name = name;
+		this.properties = properties;
+		this.arguments = arguments;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Map<String, String> getProperties() {
+		return properties;
+	}
+
+	public void setProperties(Map<String, String> properties) {
+		this.properties = properties;
+	}
+
+	public List<String> getArguments() {
+		return arguments;
+	}
+
+	public void setArguments(List<String> arguments) {
+		this.arguments = arguments;
+	}
+
+	/**
+	 * Return the id of the execution of the task, if one was created.
+	 */
+	public Long getExecutionId() {
+		return executionId;
+	}
+
+	public void setExecutionId(Long executionId) {
+		this.executionId = executionId;
+	}
+
+	/**
+	 * Return why the task could not be launched, if it wasn't.
+	 */
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.dataflow.core.DataFlowPropertyKeys;
+
+/**
+ * Configuration properties for namespace 'spring.cloud.dataflow.app-prefetch'.
+ *
+ * @author Eric Bottard
+ */
+@ConfigurationProperties(prefix = AppPrefetchProperties.PREFIX)
+public class AppPrefetchProperties {
+
+	public static final String PREFIX = DataFlowPropertyKeys.PREFIX + "app-prefetch";
+
+	/**
+	 * Whether to download the artifacts and resolve the metadata of apps as soon as they
+	 * are registered, rather than on first use.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of concurrent downloads per URI scheme. A value of 0 disables the
+	 * prefetch of resources with that scheme.
+	 */
+	private Map<String, Integer> concurrency = new HashMap<>();
+
+	/**
+	 * Maximum number of concurrent downloads for URI schemes not listed in
+	 * 'concurrency'.
+	 */
+	private int defaultConcurrency = 2;
+
+	/**
+	 * Maximum number of downloads waiting for a slot, per URI scheme. Further downloads
+	 * are rejected.
+	 */
+	private int queueCapacity = 1000;
+
+	/**
+	 * Maximum number of attempts per download.
+	 */
+	private int maxAttempts = 3;
+
+	/**
+	 * Delay before the first retry of a failed download, in milliseconds. Doubled on each
+	 * subsequent retry.
+	 */
+	private long backoff = 1_000L;
+
+	/**
+	 * Number of finished downloads to remember for the status report.
+	 */
+	private int historySize = 500;
+
+	public AppPrefetchProperties() {
+		concurrency.put("maven", 4);
+		concurrency.put("http", 2);
+		concurrency.put("https", 2);
+		concurrency.put("file", 2);
+		// Images are pulled by the platform, there is nothing to download locally
+		concurrency.put("docker", 0);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Map<String, Integer> getConcurrency() {
+		return concurrency;
+	}
+
+	public void setConcurrency(Map<String, Integer> concurrency) {
+		this.concurrency = concurrency;
+	}
+
+	public int getDefaultConcurrency() {
+		return defaultConcurrency;
+	}
+
+	public void setDefaultConcurrency(int defaultConcurrency) {
+		this.defaultConcurrency = defaultConcurrency;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public long getBackoff() {
+		return backoff;
+	}
+
+	public void setBackoff(long backoff) {
+		this.backoff = backoff;
+	}
+
+	public int getHistorySize() {
+		return historySize;
+	}
+
+	public void setHistorySize(int historySize) {
+		this.historySize = historySize;
+	}
+
+	/**
+	 * Return the maximum number of concurrent downloads for the given URI scheme.
+	 *
+	 * @param scheme the URI scheme
+	 * @return the maximum number of concurrent downloads, 0 meaning none
+	 */
+	public int concurrencyFor(String scheme) {
+		Integer value = concurrency.get(scheme);
+		return value != null ? value : defaultConcurrency;
+	}
+}
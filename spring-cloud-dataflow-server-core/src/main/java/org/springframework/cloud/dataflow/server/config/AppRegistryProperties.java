@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.dataflow.core.DataFlowPropertyKeys;
+
+/**
+ * Configuration properties for namespace 'spring.cloud.dataflow.app-registry'.
+ *
+ * @author Eric Bottard
+ */
+@ConfigurationProperties(prefix = AppRegistryProperties.PREFIX)
+public class AppRegistryProperties {
+
+	public static final String PREFIX = DataFlowPropertyKeys.PREFIX + "app-registry";
+
+	/**
+	 * Time after which the in-memory copy of the app registry is loaded again from the
+	 * database, in milliseconds. Bounds how long changes made by other servers sharing
+	 * the database, or made directly in the database, go unnoticed. A negative value
+	 * only reloads on changes made through this server.
+	 */
+	private long snapshotTtl = 10_000L;
+
+	public long getSnapshotTtl() {
+		return snapshotTtl;
+	}
+
+	public void setSnapshotTtl(long snapshotTtl) {
+		this.snapshotTtl = snapshotTtl;
+	}
+}
@@ -27,6 +27,8 @@ import org.springframework.analytics.rest.controller.AggregateCounterController;
 import org.springframework.analytics.rest.controller.CounterController;
 import org.springframework.analytics.rest.controller.FieldValueCounterController;
 import org.springframework.batch.admin.service.JobService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.GaugeService;
 import org.springframework.boot.actuate.metrics.repository.MetricRepository;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -58,6 +60,7 @@ import org.springframework.cloud.dataflow.server.controller.RestControllerAdvice
 import org.springframework.cloud.dataflow.server.controller.RootController;
 import org.springframework.cloud.dataflow.server.controller.RuntimeAppsController;
 import org.springframework.cloud.dataflow.server.controller.RuntimeAppsController.AppInstanceController;
+import org.springframework.cloud.dataflow.server.controller.RuntimeAppsEventsController;
 import org.springframework.cloud.dataflow.server.controller.StreamDefinitionController;
 import org.springframework.cloud.dataflow.server.controller.StreamDeploymentController;
 import org.springframework.cloud.dataflow.server.controller.TaskDefinitionController;
@@ -66,12 +69,17 @@ import org.springframework.cloud.dataflow.server.controller.ToolsController;
 import org.springframework.cloud.dataflow.server.controller.UiController;
 import org.springframework.cloud.dataflow.server.controller.security.LoginController;
 import org.springframework.cloud.dataflow.server.controller.security.SecurityController;
+import org.springframework.cloud.dataflow.server.controller.support.AppPrefetcher;
+import org.springframework.cloud.dataflow.server.controller.support.DeploymentStateCache;
 import org.springframework.cloud.dataflow.server.controller.support.MetricStore;
+import org.springframework.cloud.dataflow.server.controller.support.RuntimeAppsEventPublisher;
+import org.springframework.cloud.dataflow.server.repository.BulkTaskExecutionRepository;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.StreamDefinitionRepository;
 import org.springframework.cloud.dataflow.server.repository.TaskDefinitionRepository;
 import org.springframework.cloud.dataflow.server.service.TaskJobService;
 import org.springframework.cloud.dataflow.server.service.TaskService;
+import org.springframework.cloud.dataflow.server.service.impl.TaskConfigurationProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenResourceLoader;
 import org.springframework.cloud.deployer.resource.registry.UriRegistry;
@@ -101,7 +109,8 @@ import org.springframework.scheduling.concurrent.ForkJoinPoolFactoryBean;
 @Import(CompletionConfiguration.class)
 @ConditionalOnBean({ EnableDataFlowServerConfiguration.Marker.class, AppDeployer.class, TaskLauncher.class })
 @EnableConfigurationProperties({ AuthorizationConfig.class, FeaturesProperties.class, VersionInfoProperties.class,
-		MetricsProperties.class })
+		MetricsProperties.class, DeploymentStateCacheProperties.class, RuntimeAppsProperties.class,
+		AppPrefetchProperties.class, StreamDeploymentProperties.class, AppRegistryProperties.class })
 @ConditionalOnProperty(prefix = "dataflow.server", name = "enabled", havingValue = "true", matchIfMissing = true)
 @EnableCircuitBreaker
 public class DataFlowControllerAutoConfiguration {
@@ -112,8 +121,11 @@ public class DataFlowControllerAutoConfiguration {
 	}
 
 	@Bean
-	public AppRegistry appRegistry(UriRegistry uriRegistry, DelegatingResourceLoader resourceLoader) {
-		return new AppRegistry(uriRegistry, resourceLoader);
+	public AppRegistry appRegistry(UriRegistry uriRegistry, DelegatingResourceLoader resourceLoader,
+			AppRegistryProperties appRegistryProperties) {
+		AppRegistry appRegistry = new AppRegistry(uriRegistry, resourceLoader);
+		appRegistry.setSnapshotTtl(appRegistryProperties.getSnapshotTtl());
+		return appRegistry;
 	}
 
 	@Bean
@@ -131,30 +143,57 @@ public class DataFlowControllerAutoConfiguration {
 		return new MetricStore(metricsProperties);
 	}
 
+	@Bean
+	@ConditionalOnBean(StreamDefinitionRepository.class)
+	public DeploymentStateCache deploymentStateCache(AppDeployer deployer,
+			DeploymentStateCacheProperties deploymentStateCacheProperties) {
+		return new DeploymentStateCache(deployer, deploymentStateCacheProperties);
+	}
+
 	@Bean
 	@ConditionalOnBean(StreamDefinitionRepository.class)
 	public StreamDefinitionController streamDefinitionController(StreamDefinitionRepository repository,
 			DeploymentIdRepository deploymentIdRepository, StreamDeploymentController deploymentController,
-			AppDeployer deployer, AppRegistry appRegistry) {
+			AppDeployer deployer, AppRegistry appRegistry, DeploymentStateCache deploymentStateCache) {
 		return new StreamDefinitionController(repository, deploymentIdRepository, deploymentController, deployer,
-				appRegistry);
+				appRegistry, deploymentStateCache);
 	}
 
 	@Bean
 	@ConditionalOnBean(StreamDefinitionRepository.class)
 	public StreamDeploymentController streamDeploymentController(StreamDefinitionRepository repository,
 			DeploymentIdRepository deploymentIdRepository, AppRegistry registry, AppDeployer deployer,
-			ApplicationConfigurationMetadataResolver metadataResolver, CommonApplicationProperties appsProperties) {
+			ApplicationConfigurationMetadataResolver metadataResolver, CommonApplicationProperties appsProperties,
+			DeploymentStateCache deploymentStateCache, StreamDeploymentProperties streamDeploymentProperties) {
 		return new StreamDeploymentController(repository, deploymentIdRepository, registry, deployer, metadataResolver,
-				appsProperties);
+				appsProperties, deploymentStateCache, streamDeploymentProperties);
+	}
+
+	@Bean
+	@ConditionalOnBean(StreamDefinitionRepository.class)
+	public RuntimeAppsController runtimeAppsController(DeploymentIdRepository deploymentIdRepository,
+			AppDeployer appDeployer, MetricStore metricStore, DeploymentStateCache deploymentStateCache,
+			RuntimeAppsProperties runtimeAppsProperties, ObjectProvider<GaugeService> gaugeService) {
+		RuntimeAppsController runtimeAppsController = new RuntimeAppsController(deploymentIdRepository, appDeployer,
+				metricStore, runtimeAppsStatusFJPFB(runtimeAppsProperties).getObject(), deploymentStateCache,
+				runtimeAppsProperties);
+		runtimeAppsController.setGaugeService(gaugeService.getIfAvailable());
+		return runtimeAppsController;
+	}
+
+	@Bean
+	@ConditionalOnBean(StreamDefinitionRepository.class)
+	public RuntimeAppsEventPublisher runtimeAppsEventPublisher(DeploymentIdRepository deploymentIdRepository,
+			DeploymentStateCache deploymentStateCache, MetricStore metricStore,
+			RuntimeAppsProperties runtimeAppsProperties) {
+		return new RuntimeAppsEventPublisher(deploymentIdRepository, deploymentStateCache, metricStore,
+				runtimeAppsProperties);
 	}
 
 	@Bean
 	@ConditionalOnBean(StreamDefinitionRepository.class)
-	public RuntimeAppsController runtimeAppsController(StreamDefinitionRepository repository,
-			DeploymentIdRepository deploymentIdRepository, AppDeployer appDeployer, MetricStore metricStore) {
-		return new RuntimeAppsController(repository, deploymentIdRepository, appDeployer, metricStore,
-				runtimeAppsStatusFJPFB().getObject());
+	public RuntimeAppsEventsController runtimeAppsEventsController(RuntimeAppsEventPublisher eventPublisher) {
+		return new RuntimeAppsEventsController(eventPublisher);
 	}
 
 	@Bean
@@ -165,9 +204,9 @@ public class DataFlowControllerAutoConfiguration {
 	@Bean
 	@ConditionalOnBean(StreamDefinitionRepository.class)
 	@ConditionalOnMissingBean(name = "runtimeAppsStatusFJPFB")
-	public ForkJoinPoolFactoryBean runtimeAppsStatusFJPFB() {
+	public ForkJoinPoolFactoryBean runtimeAppsStatusFJPFB(RuntimeAppsProperties runtimeAppsProperties) {
 		ForkJoinPoolFactoryBean forkJoinPoolFactoryBean = new ForkJoinPoolFactoryBean();
-		forkJoinPoolFactoryBean.setParallelism(8);
+		forkJoinPoolFactoryBean.setParallelism(runtimeAppsProperties.getStatusParallelism());
 		return forkJoinPoolFactoryBean;
 	}
 
@@ -188,15 +227,27 @@ public class DataFlowControllerAutoConfiguration {
 	@ConditionalOnBean(TaskDefinitionRepository.class)
 	public TaskDefinitionController taskDefinitionController(TaskDefinitionRepository repository,
 			DeploymentIdRepository deploymentIdRepository, TaskLauncher taskLauncher, AppRegistry appRegistry,
-			TaskService taskService) {
-		return new TaskDefinitionController(repository, deploymentIdRepository, taskLauncher, appRegistry, taskService);
+			TaskService taskService, TaskConfigurationProperties taskConfigurationProperties) {
+		return new TaskDefinitionController(repository, deploymentIdRepository, taskLauncher, appRegistry, taskService,
+				taskStatusFJPFB(taskConfigurationProperties).getObject());
+	}
+
+	@Bean
+	@ConditionalOnBean(TaskDefinitionRepository.class)
+	@ConditionalOnMissingBean(name = "taskStatusFJPFB")
+	public ForkJoinPoolFactoryBean taskStatusFJPFB(TaskConfigurationProperties taskConfigurationProperties) {
+		ForkJoinPoolFactoryBean forkJoinPoolFactoryBean = new ForkJoinPoolFactoryBean();
+		forkJoinPoolFactoryBean.setParallelism(taskConfigurationProperties.getStatusParallelism());
+		return forkJoinPoolFactoryBean;
 	}
 
 	@Bean
 	@ConditionalOnBean(TaskDefinitionRepository.class)
 	public TaskExecutionController taskExecutionController(TaskExplorer explorer, TaskService taskService,
-			TaskDefinitionRepository taskDefinitionRepository) {
-		return new TaskExecutionController(explorer, taskService, taskDefinitionRepository);
+			TaskDefinitionRepository taskDefinitionRepository,
+			ObjectProvider<BulkTaskExecutionRepository> bulkTaskExecutionRepository) {
+		return new TaskExecutionController(explorer, taskService, taskDefinitionRepository,
+				bulkTaskExecutionRepository.getIfAvailable());
 	}
 
 	@Bean
@@ -253,17 +304,15 @@ public class DataFlowControllerAutoConfiguration {
 	}
 
 	@Bean
-	@ConditionalOnMissingBean(name = "appRegistryFJPFB")
-	public ForkJoinPoolFactoryBean appRegistryFJPFB() {
-		ForkJoinPoolFactoryBean forkJoinPoolFactoryBean = new ForkJoinPoolFactoryBean();
-		forkJoinPoolFactoryBean.setParallelism(4);
-		return forkJoinPoolFactoryBean;
+	public AppPrefetcher appPrefetcher(ApplicationConfigurationMetadataResolver metadataResolver,
+			AppPrefetchProperties appPrefetchProperties) {
+		return new AppPrefetcher(metadataResolver, appPrefetchProperties);
 	}
 
 	@Bean
 	public AppRegistryController appRegistryController(AppRegistry appRegistry,
-			ApplicationConfigurationMetadataResolver metadataResolver) {
-		return new AppRegistryController(appRegistry, metadataResolver, appRegistryFJPFB().getObject());
+			ApplicationConfigurationMetadataResolver metadataResolver, AppPrefetcher appPrefetcher) {
+		return new AppRegistryController(appRegistry, metadataResolver, appPrefetcher);
 	}
 
 	@Bean
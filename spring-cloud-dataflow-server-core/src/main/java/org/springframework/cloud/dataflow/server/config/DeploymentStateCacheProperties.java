@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.dataflow.core.DataFlowPropertyKeys;
+
+/**
+ * Configuration properties for namespace 'spring.cloud.dataflow.deployment-state-cache'.
+ *
+ * @author Eric Bottard
+ */
+@ConfigurationProperties(prefix = DeploymentStateCacheProperties.PREFIX)
+public class DeploymentStateCacheProperties {
+
+	public static final String PREFIX = DataFlowPropertyKeys.PREFIX + "deployment-state-cache";
+
+	/**
+	 * Whether to cache the status of deployed apps, rather than asking the deployer on
+	 * every request.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Delay between two background refreshes of the cached statuses, in milliseconds.
+	 */
+	private long refreshInterval = 5_000L;
+
+	/**
+	 * Age after which a cached status is not served anymore and is fetched again, in
+	 * milliseconds.
+	 */
+	private long maxAge = 15_000L;
+
+	/**
+	 * Maximum number of concurrent status requests to the deployer.
+	 */
+	private int parallelism = 4;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getRefreshInterval() {
+		return refreshInterval;
+	}
+
+	public void setRefreshInterval(long refreshInterval) {
+		this.refreshInterval = refreshInterval;
+	}
+
+	public long getMaxAge() {
+		return maxAge;
+	}
+
+	public void setMaxAge(long maxAge) {
+		this.maxAge = maxAge;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+}
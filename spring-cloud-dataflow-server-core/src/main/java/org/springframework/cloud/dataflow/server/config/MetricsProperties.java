@@ -15,6 +15,9 @@
  */
 package org.springframework.cloud.dataflow.server.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.dataflow.core.DataFlowPropertyKeys;
 
@@ -30,6 +33,14 @@ public class MetricsProperties {
 
 	private Collector collector = new Collector();
 
+	private Snapshot snapshot = new Snapshot();
+
+	/**
+	 * Names of the instance metrics to expose as runtime app instance attributes (with a
+	 * 'metrics.' prefix), besides the input and output rates.
+	 */
+	private List<String> instanceMetrics = new ArrayList<>();
+
 	public Collector getCollector() {
 		return collector;
 	}
@@ -38,6 +49,14 @@ public class MetricsProperties {
 		this.collector = collector;
 	}
 
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+
+	public void setSnapshot(Snapshot snapshot) {
+		this.snapshot = snapshot;
+	}
+
 	public static class Collector {
 		private String uri;
 
@@ -79,4 +98,41 @@ public class MetricsProperties {
 			this.skipSslValidation = skipSslValidation;
 		}
 	}
+
+	public List<String> getInstanceMetrics() {
+		return instanceMetrics;
+	}
+
+	public void setInstanceMetrics(List<String> instanceMetrics) {
+		this.instanceMetrics = instanceMetrics;
+	}
+
+	public static class Snapshot {
+		/**
+		 * Whether to periodically pull the metrics from the collector in the background
+		 * and serve them from memory, rather than querying the collector on every request.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Delay between two pulls of the metrics from the collector, in milliseconds.
+		 */
+		private long refreshInterval = 2_000L;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public long getRefreshInterval() {
+			return refreshInterval;
+		}
+
+		public void setRefreshInterval(long refreshInterval) {
+			this.refreshInterval = refreshInterval;
+		}
+	}
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.dataflow.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.dataflow.core.DataFlowPropertyKeys;
+
+/**
+ * Configuration properties for namespace 'spring.cloud.dataflow.runtime-apps'.
+ *
+ * @author Eric Bottard
+ */
+@ConfigurationProperties(prefix = RuntimeAppsProperties.PREFIX)
+public class RuntimeAppsProperties {
+
+	public static final String PREFIX = DataFlowPropertyKeys.PREFIX + "runtime-apps";
+
+	/**
+	 * Maximum number of app statuses fetched concurrently when listing runtime apps.
+	 */
+	private int statusParallelism = 8;
+
+	/**
+	 * Time to wait for the statuses of the apps on a page when listing runtime apps, in
+	 * milliseconds. Apps whose status is not available in time are reported as unknown.
+	 */
+	private long statusTimeout = 10_000L;
+
+	/**
+	 * Delay between two polls of the app statuses and metrics pushed to runtime apps
+	 * event subscribers, in milliseconds.
+	 */
+	private long eventsPollInterval = 2_000L;
+
+	/**
+	 * Time after which a runtime apps event subscription is closed, in milliseconds.
+	 * Clients are expected to subscribe again.
+	 */
+	private long eventsTimeout = 1_800_000L;
+
+	public int getStatusParallelism() {
+		return statusParallelism;
+	}
+
+	public void setStatusParallelism(int statusParallelism) {
+		this.statusParallelism = statusParallelism;
+	}
+
+	public long getStatusTimeout() {
+		return statusTimeout;
+	}
+
+	public void setStatusTimeout(long statusTimeout) {
+		this.statusTimeout = statusTimeout;
+	}
+
+	public long getEventsPollInterval() {
+		return eventsPollInterval;
+	}
+
+	public void setEventsPollInterval(long eventsPollInterval) {
+		this.eventsPollInterval = eventsPollInterval;
+	}
+
+	public long getEventsTimeout() {
+		return eventsTimeout;
+	}
+
+	public void setEventsTimeout(long eventsTimeout) {
+		this.eventsTimeout = eventsTimeout;
+	}
+}
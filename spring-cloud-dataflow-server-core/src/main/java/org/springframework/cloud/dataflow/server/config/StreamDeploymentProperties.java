@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.dataflow.core.DataFlowPropertyKeys;
+
+/**
+ * Configuration properties for namespace 'spring.cloud.dataflow.stream-deployment'.
+ *
+ * @author Eric Bottard
+ */
+@ConfigurationProperties(prefix = StreamDeploymentProperties.PREFIX)
+public class StreamDeploymentProperties {
+
+	public static final String PREFIX = DataFlowPropertyKeys.PREFIX + "stream-deployment";
+
+	/**
+	 * Maximum number of apps whose resources and metadata are resolved concurrently, across
+	 * all stream deployments.
+	 */
+	private int resolveParallelism = 4;
+
+	/**
+	 * Maximum number of deployment requests sent to the deployer concurrently, across all
+	 * stream deployments. Sources are always deployed after the other apps of their stream.
+	 */
+	private int deployParallelism = 4;
+
+	public int getResolveParallelism() {
+		return resolveParallelism;
+	}
+
+	public void setResolveParallelism(int resolveParallelism) {
+		this.resolveParallelism = resolveParallelism;
+	}
+
+	public int getDeployParallelism() {
+		return deployParallelism;
+	}
+
+	public void setDeployParallelism(int deployParallelism) {
+		this.deployParallelism = deployParallelism;
+	}
+}
@@ -24,6 +24,7 @@ import org.springframework.cloud.dataflow.completion.StreamCompletionProvider;
 import org.springframework.cloud.dataflow.server.completion.TapOnDestinationRecoveryStrategy;
 import org.springframework.cloud.dataflow.server.repository.RdbmsStreamDefinitionRepository;
 import org.springframework.cloud.dataflow.server.repository.StreamDefinitionRepository;
+import org.springframework.cloud.dataflow.server.repository.support.StreamDefinitionCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -36,8 +37,15 @@ public class StreamConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	public StreamDefinitionRepository streamDefinitionRepository(DataSource dataSource) {
-		return new RdbmsStreamDefinitionRepository(dataSource);
+	public StreamDefinitionRepository streamDefinitionRepository(DataSource dataSource,
+			StreamDefinitionCache streamDefinitionCache) {
+		return new RdbmsStreamDefinitionRepository(dataSource, streamDefinitionCache);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public StreamDefinitionCache streamDefinitionCache() {
+		return new StreamDefinitionCache();
 	}
 
 	@Bean
@@ -25,8 +25,10 @@ import org.springframework.batch.core.configuration.support.MapJobRegistry;
 import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
 import org.springframework.batch.core.launch.support.SimpleJobLauncher;
 import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.GaugeService;
 import org.springframework.boot.autoconfigure.batch.BatchDatabaseInitializer;
 import org.springframework.boot.autoconfigure.batch.BatchProperties;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -38,7 +40,9 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
 import org.springframework.cloud.dataflow.registry.AppRegistry;
 import org.springframework.cloud.dataflow.server.job.TaskExplorerFactoryBean;
+import org.springframework.cloud.dataflow.server.repository.BulkTaskExecutionRepository;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
+import org.springframework.cloud.dataflow.server.repository.RdbmsBulkTaskExecutionRepository;
 import org.springframework.cloud.dataflow.server.repository.RdbmsTaskDefinitionRepository;
 import org.springframework.cloud.dataflow.server.repository.TaskDefinitionRepository;
 import org.springframework.cloud.dataflow.server.service.TaskJobService;
@@ -86,15 +90,24 @@ public class TaskConfiguration {
 		return new SimpleTaskRepository(new TaskExecutionDaoFactoryBean(dataSource));
 	}
 
+	@Bean
+	public BulkTaskExecutionRepository bulkTaskExecutionRepository(DataSource dataSource) {
+		return new RdbmsBulkTaskExecutionRepository(dataSource);
+	}
+
 	@Bean
 	@ConditionalOnBean(TaskDefinitionRepository.class)
 	public TaskService taskService(TaskDefinitionRepository repository, TaskExplorer taskExplorer,
 			TaskRepository taskExecutionRepository, AppRegistry registry, DelegatingResourceLoader resourceLoader,
 			TaskLauncher taskLauncher, ApplicationConfigurationMetadataResolver metadataResolver,
-			TaskConfigurationProperties taskConfigurationProperties, DeploymentIdRepository deploymentIdRepository) {
-		return new DefaultTaskService(dataSourceProperties, repository, taskExplorer, taskExecutionRepository, registry,
-				resourceLoader, taskLauncher, metadataResolver, taskConfigurationProperties, deploymentIdRepository,
+			TaskConfigurationProperties taskConfigurationProperties, DeploymentIdRepository deploymentIdRepository,
+			BulkTaskExecutionRepository bulkTaskExecutionRepository, ObjectProvider<GaugeService> gaugeService) {
+		DefaultTaskService taskService = new DefaultTaskService(dataSourceProperties, repository, taskExplorer,
+				taskExecutionRepository, registry, resourceLoader, taskLauncher, metadataResolver,
+				taskConfigurationProperties, deploymentIdRepository, bulkTaskExecutionRepository,
 				this.dataflowServerUri);
+		taskService.setGaugeService(gaugeService.getIfAvailable());
+		return taskService;
 	}
 
 	@Bean
@@ -21,15 +21,11 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ForkJoinPool;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
@@ -37,13 +33,17 @@ import org.springframework.cloud.dataflow.core.ApplicationType;
 import org.springframework.cloud.dataflow.registry.AppRegistration;
 import org.springframework.cloud.dataflow.registry.AppRegistry;
 import org.springframework.cloud.dataflow.registry.support.NoSuchAppRegistrationException;
+import org.springframework.cloud.dataflow.rest.resource.AppPrefetchStatusResource;
 import org.springframework.cloud.dataflow.rest.resource.AppRegistrationResource;
 import org.springframework.cloud.dataflow.rest.resource.DetailedAppRegistrationResource;
+import org.springframework.cloud.dataflow.server.controller.support.AppPrefetcher;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.ExposesResourceFor;
 import org.springframework.hateoas.PagedResources;
@@ -74,8 +74,6 @@ import org.springframework.web.bind.annotation.RestController;
 @ExposesResourceFor(AppRegistrationResource.class)
 public class AppRegistryController implements ResourceLoaderAware {
 
-	private static final Logger logger = LoggerFactory.getLogger(AppRegistryController.class);
-
 	private final Assembler assembler = new Assembler();
 
 	private final AppRegistry appRegistry;
@@ -84,39 +82,45 @@ public class AppRegistryController implements ResourceLoaderAware {
 
 	private ResourceLoader resourceLoader = new DefaultResourceLoader();
 
-	private ForkJoinPool forkJoinPool;
+	private final AppPrefetcher prefetcher;
 
 	public AppRegistryController(AppRegistry appRegistry, ApplicationConfigurationMetadataResolver metadataResolver,
-			ForkJoinPool forkJoinPool) {
+			AppPrefetcher prefetcher) {
 		this.appRegistry = appRegistry;
 		this.metadataResolver = metadataResolver;
-		this.forkJoinPool = forkJoinPool;
+		this.prefetcher = prefetcher;
 	}
 
 	/**
-	 * List app registrations.
+	 * List app registrations, ordered by type then name. All matching registrations are
+	 * returned, unless a page or page size is requested.
 	 *
+	 * @param pageable the page to return, whose sort direction, if any, applies to both
+	 * type and name
+	 * @param page the requested page number, if any
+	 * @param size the requested page size, if any
 	 * @param pagedResourcesAssembler the resource assembler for app registrations
 	 * @param type the application type: source, sink, processor, task
+	 * @param search the prefix of the names of the applications to return
 	 * @param detailed provide detailed information (if available) for the application
 	 * @return the list of registered applications
 	 */
 	@RequestMapping(method = RequestMethod.GET)
 	@ResponseStatus(HttpStatus.OK)
-	public PagedResources<? extends AppRegistrationResource> list(
+	public PagedResources<? extends AppRegistrationResource> list(Pageable pageable,
+			@RequestParam(value = "page", required = false) Integer page,
+			@RequestParam(value = "size", required = false) Integer size,
 			PagedResourcesAssembler<AppRegistration> pagedResourcesAssembler,
 			@RequestParam(value = "type", required = false) ApplicationType type,
+			@RequestParam(value = "search", required = false) String search,
 			@RequestParam(value = "detailed", defaultValue = "false") boolean detailed) {
 
-		List<AppRegistration> list = new ArrayList<>(appRegistry.findAll());
-		for (Iterator<AppRegistration> iterator = list.iterator(); iterator.hasNext();) {
-			ApplicationType applicationType = iterator.next().getType();
-			if (type != null && applicationType != type) {
-				iterator.remove();
-			}
+		if (page == null && size == null) {
+			List<AppRegistration> all = appRegistry
+					.findAll(type, search, new PageRequest(0, Integer.MAX_VALUE, pageable.getSort())).getContent();
+			return pagedResourcesAssembler.toResource(new PageImpl<>(all), assembler);
 		}
-		Collections.sort(list);
-		return pagedResourcesAssembler.toResource(new PageImpl<>(list), assembler);
+		return pagedResourcesAssembler.toResource(appRegistry.findAll(type, search, pageable), assembler);
 	}
 
 	/**
@@ -144,6 +148,29 @@ public class AppRegistryController implements ResourceLoaderAware {
 		return result;
 	}
 
+	/**
+	 * Report the progress of the prefetch of registered app artifacts and metadata.
+	 *
+	 * @return the number of downloads in each state, along with the downloads in progress
+	 * and the most recently finished ones
+	 */
+	@RequestMapping(value = "/prefetch", method = RequestMethod.GET)
+	@ResponseStatus(HttpStatus.OK)
+	public AppPrefetchStatusResource prefetchStatus() {
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		for (AppPrefetcher.State state : AppPrefetcher.State.values()) {
+			counts.put(state.name(), 0);
+		}
+		List<AppPrefetchStatusResource.Download> downloads = new ArrayList<>();
+		for (AppPrefetcher.Download download : prefetcher.getDownloads()) {
+			counts.merge(download.getState().name(), 1, Integer::sum);
+			downloads.add(new AppPrefetchStatusResource.Download(download.getUri().toString(),
+					download.getKind().name(), download.getState().name(), download.getAttempts(),
+					download.getError()));
+		}
+		return new AppPrefetchStatusResource(counts, downloads);
+	}
+
 	/**
 	 * Register a module name and type with its URI.
 	 *
@@ -166,7 +193,7 @@ public class AppRegistryController implements ResourceLoaderAware {
 		try {
 			AppRegistration registration = appRegistry.save(name, type, new URI(uri),
 					metadataUri != null ? new URI(metadataUri) : null);
-			prefetchMetadata(Arrays.asList(registration));
+			prefetcher.prefetch(Collections.singletonList(registration));
 		}
 		catch (URISyntaxException e) {
 			throw new IllegalArgumentException(e);
@@ -215,29 +242,10 @@ public class AppRegistryController implements ResourceLoaderAware {
 			registrations.addAll(appRegistry.importAll(force, bar));
 		}
 		Collections.sort(registrations);
-		prefetchMetadata(registrations);
+		prefetcher.prefetch(registrations);
 		return pagedResourcesAssembler.toResource(new PageImpl<>(registrations), assembler);
 	}
 
-	/**
-	 * Trigger early resolution of the metadata resource of registrations that have an
-	 * explicit metadata artifact. This assumes usage of
-	 * {@link org.springframework.cloud.deployer.resource.support.DelegatingResourceLoader}.
-	 */
-	private void prefetchMetadata(List<AppRegistration> appRegistrations) {
-		forkJoinPool.execute(() -> {
-			appRegistrations.stream().filter(r -> r.getMetadataUri() != null).parallel().forEach(r -> {
-				logger.info("Eagerly fetching {}", r.getMetadataUri());
-				try {
-					r.getMetadataResource();
-				}
-				catch (Exception e) {
-					logger.warn("Could not fetch " + r.getMetadataUri(), e);
-				}
-			});
-		});
-	}
-
 	@Override
 	public void setResourceLoader(ResourceLoader resourceLoader) {
 		this.resourceLoader = resourceLoader;
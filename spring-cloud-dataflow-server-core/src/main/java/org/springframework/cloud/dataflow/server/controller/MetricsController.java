@@ -18,9 +18,13 @@ package org.springframework.cloud.dataflow.server.controller;
 
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.cloud.dataflow.server.controller.support.ApplicationsMetrics;
 import org.springframework.cloud.dataflow.server.controller.support.MetricStore;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
@@ -45,8 +49,18 @@ public class MetricsController {
 		this.metricStore = metricStore;
 	}
 
+	/**
+	 * Return the metrics of all streams. When the metrics are served from a snapshot, the
+	 * {@code Age} header tells how old the snapshot is, in seconds.
+	 */
 	@RequestMapping(method = RequestMethod.GET)
-	public List<ApplicationsMetrics> list() throws ExecutionException, InterruptedException {
-		return metricStore.getMetrics();
+	public ResponseEntity<List<ApplicationsMetrics>> list() throws ExecutionException, InterruptedException {
+		List<ApplicationsMetrics> metrics = metricStore.getMetrics();
+		long snapshotAge = metricStore.getSnapshotAge();
+		HttpHeaders headers = new HttpHeaders();
+		if (snapshotAge >= 0) {
+			headers.set(HttpHeaders.AGE, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(snapshotAge)));
+		}
+		return new ResponseEntity<>(metrics, headers, HttpStatus.OK);
 	}
 }
@@ -33,9 +33,12 @@ import org.springframework.cloud.dataflow.server.controller.support.InvalidStrea
 import org.springframework.cloud.dataflow.server.job.support.JobNotRestartableException;
 import org.springframework.cloud.dataflow.server.repository.DuplicateStreamDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.DuplicateTaskException;
+import org.springframework.cloud.dataflow.server.repository.InvalidContinuationTokenException;
 import org.springframework.cloud.dataflow.server.repository.NoSuchStreamDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.NoSuchTaskDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.NoSuchTaskExecutionException;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchBatchTooLargeException;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchQueueFullException;
 import org.springframework.hateoas.VndErrors;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.StringUtils;
@@ -158,14 +161,16 @@ public class RestControllerAdvice {
 	 *
 	 * @param e one of the exceptions, {@link MissingServletRequestParameterException},
 	 * {@link UnsatisfiedServletRequestParameterException},
-	 * {@link MethodArgumentTypeMismatchException}, or
-	 * {@link InvalidStreamDefinitionException}
+	 * {@link MethodArgumentTypeMismatchException}, {@link InvalidStreamDefinitionException},
+	 * {@link InvalidContinuationTokenException} or
+	 * {@link TaskLaunchBatchTooLargeException}
 	 * @return the error response in JSON format with media type
 	 * application/vnd.error+json
 	 */
 	@ExceptionHandler({ MissingServletRequestParameterException.class,
 			UnsatisfiedServletRequestParameterException.class, MethodArgumentTypeMismatchException.class,
-			InvalidStreamDefinitionException.class })
+			InvalidStreamDefinitionException.class, InvalidContinuationTokenException.class,
+			TaskLaunchBatchTooLargeException.class })
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	@ResponseBody
 	public VndErrors onClientGenericBadRequest(Exception e) {
@@ -177,6 +182,27 @@ public class RestControllerAdvice {
 		return new VndErrors(logref, msg);
 	}
 
+	/**
+	 * The server is too busy to accept the request right now, but the client may retry
+	 * later. Log the exception message at warn level and stack trace as trace level.
+	 * Return response status HttpStatus.TOO_MANY_REQUESTS (429).
+	 *
+	 * @param e the exception, {@link TaskLaunchQueueFullException}
+	 * @return the error response in JSON format with media type
+	 * application/vnd.error+json
+	 */
+	@ExceptionHandler({ TaskLaunchQueueFullException.class })
+	@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+	@ResponseBody
+	public VndErrors onTooManyRequestsException(Exception e) {
+		String logref = logWarnLevelExceptionMessage(e);
+		if (logger.isTraceEnabled()) {
+			logTraceLevelStrackTrace(e);
+		}
+		String msg = getExceptionMessage(e);
+		return new VndErrors(logref, msg);
+	}
+
 	/**
 	 * The exception handler is trigger if a JSR303 {@link ConstraintViolationException}
 	 * is being raised.
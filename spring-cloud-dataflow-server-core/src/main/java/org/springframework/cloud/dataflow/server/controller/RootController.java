@@ -119,6 +119,7 @@ public class RootController {
 			root.add(new Link(taskTemplated).withRel("tasks/executions/name"));
 			root.add(unescapeTemplateVariables(entityLinks.linkToSingleResource(TaskExecutionResource.class, "{id}")
 					.withRel("tasks/executions/execution")));
+			root.add(entityLinks.linkFor(TaskExecutionResource.class).slash("bulk").withRel("tasks/executions/bulk"));
 			root.add(entityLinks.linkToCollectionResource(JobExecutionResource.class).withRel("jobs/executions"));
 			taskTemplated = entityLinks.linkToCollectionResource(JobExecutionResource.class).getHref() + "{?name}";
 			root.add(new Link(taskTemplated).withRel("jobs/executions/name"));
@@ -20,27 +20,33 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import org.springframework.cloud.dataflow.core.StreamDefinition;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.actuate.metrics.GaugeService;
 import org.springframework.cloud.dataflow.rest.resource.AppInstanceStatusResource;
 import org.springframework.cloud.dataflow.rest.resource.AppStatusResource;
-import org.springframework.cloud.dataflow.server.controller.support.ApplicationsMetrics;
+import org.springframework.cloud.dataflow.server.config.RuntimeAppsProperties;
 import org.springframework.cloud.dataflow.server.controller.support.ControllerUtils;
+import org.springframework.cloud.dataflow.server.controller.support.DeploymentStateCache;
+import org.springframework.cloud.dataflow.server.controller.support.InstanceMetricsIndex;
 import org.springframework.cloud.dataflow.server.controller.support.MetricStore;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
-import org.springframework.cloud.dataflow.server.repository.DeploymentKey;
-import org.springframework.cloud.dataflow.server.repository.StreamDefinitionRepository;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
 import org.springframework.cloud.deployer.spi.app.AppStatus;
 import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
@@ -50,7 +56,6 @@ import org.springframework.hateoas.ResourceAssembler;
 import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.mvc.ResourceAssemblerSupport;
 import org.springframework.util.Assert;
-import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -69,6 +74,14 @@ import org.springframework.web.bind.annotation.RestController;
 @ExposesResourceFor(AppStatusResource.class)
 public class RuntimeAppsController {
 
+	private static final Log logger = LogFactory.getLog(RuntimeAppsController.class);
+
+	/**
+	 * Prefix of the gauges reporting how long each step of a listing took, in
+	 * milliseconds.
+	 */
+	private static final String TIMING_METRIC_PREFIX = "timer.dataflow.runtime.apps.list.";
+
 	private static final Comparator<? super AppInstanceStatus> INSTANCE_SORTER = new Comparator<AppInstanceStatus>() {
 		@Override
 		public int compare(AppInstanceStatus i1, AppInstanceStatus i2) {
@@ -76,11 +89,6 @@ public class RuntimeAppsController {
 		}
 	};
 
-	/**
-	 * The repository this controller will use for stream CRUD operations.
-	 */
-	private final StreamDefinitionRepository streamDefinitionRepository;
-
 	/**
 	 * The repository this controller will use for deployment IDs.
 	 */
@@ -91,17 +99,27 @@ public class RuntimeAppsController {
 	 */
 	private final AppDeployer appDeployer;
 
+	/**
+	 * The cache this controller will use to retrieve the status of deployed apps.
+	 */
+	private final DeploymentStateCache deploymentStateCache;
+
 	private final ResourceAssembler<AppStatus, AppStatusResource> statusAssembler = new Assembler();
 
 	private final MetricStore metricStore;
 
 	private final ForkJoinPool forkJoinPool;
 
+	private final RuntimeAppsProperties runtimeAppsProperties;
+
+	/**
+	 * Where to report the time spent serving listings, if anywhere.
+	 */
+	private GaugeService gaugeService;
+
 	/**
 	 * Instantiates a new runtime apps controller.
 	 *
-	 * @param streamDefinitionRepository the repository this controller will use for
-	 * stream CRUD operations
 	 * @param deploymentIdRepository the repository this controller will use for
 	 * deployment IDs
 	 * @param appDeployer the deployer this controller will use to deploy stream apps
@@ -109,88 +127,166 @@ public class RuntimeAppsController {
 	 * @param forkJoinPool a ForkJoinPool which will be used to query AppStatuses in
 	 * parallel
 	 */
-	public RuntimeAppsController(StreamDefinitionRepository streamDefinitionRepository,
-			DeploymentIdRepository deploymentIdRepository, AppDeployer appDeployer, MetricStore metricStore,
-			ForkJoinPool forkJoinPool) {
-		Assert.notNull(streamDefinitionRepository, "StreamDefinitionRepository must not be null");
+	public RuntimeAppsController(DeploymentIdRepository deploymentIdRepository, AppDeployer appDeployer,
+			MetricStore metricStore, ForkJoinPool forkJoinPool) {
+		this(deploymentIdRepository, appDeployer, metricStore, forkJoinPool, new DeploymentStateCache(appDeployer),
+				new RuntimeAppsProperties());
+	}
+
+	/**
+	 * Instantiates a new runtime apps controller, retrieving app statuses through the
+	 * given {@link DeploymentStateCache}.
+	 *
+	 * @param deploymentIdRepository the repository this controller will use for
+	 * deployment IDs
+	 * @param appDeployer the deployer this controller will use to deploy stream apps
+	 * @param metricStore the proxy to the metrics collector
+	 * @param forkJoinPool a ForkJoinPool which will be used to query AppStatuses in
+	 * parallel
+	 * @param deploymentStateCache the cache of deployment states of the deployer
+	 * @param runtimeAppsProperties the timeout to apply to app status queries
+	 */
+	public RuntimeAppsController(DeploymentIdRepository deploymentIdRepository, AppDeployer appDeployer,
+			MetricStore metricStore, ForkJoinPool forkJoinPool, DeploymentStateCache deploymentStateCache,
+			RuntimeAppsProperties runtimeAppsProperties) {
 		Assert.notNull(deploymentIdRepository, "DeploymentIdRepository must not be null");
 		Assert.notNull(appDeployer, "AppDeployer must not be null");
 		Assert.notNull(forkJoinPool, "ForkJoinPool must not be null");
-		this.streamDefinitionRepository = streamDefinitionRepository;
+		Assert.notNull(deploymentStateCache, "DeploymentStateCache must not be null");
+		Assert.notNull(runtimeAppsProperties, "RuntimeAppsProperties must not be null");
 		this.deploymentIdRepository = deploymentIdRepository;
 		this.appDeployer = appDeployer;
+		this.deploymentStateCache = deploymentStateCache;
 		this.metricStore = metricStore;
 		this.forkJoinPool = forkJoinPool;
+		this.runtimeAppsProperties = runtimeAppsProperties;
+	}
+
+	/**
+	 * Report the time spent serving each listing (and each of its steps) to the given
+	 * gauge service.
+	 *
+	 * @param gaugeService the gauge service to report to
+	 */
+	public void setGaugeService(GaugeService gaugeService) {
+		this.gaugeService = gaugeService;
 	}
 
 	@RequestMapping
 	public PagedResources<AppStatusResource> list(Pageable pageable, PagedResourcesAssembler<AppStatus> assembler)
 			throws ExecutionException, InterruptedException {
-		List<StreamDefinition> asList = new ArrayList<>();
-		for (StreamDefinition streamDefinition : this.streamDefinitionRepository.findAll()) {
-			asList.add(streamDefinition);
+		long start = System.currentTimeMillis();
+		// Only resolve the deployment ids of the requested page, sorted by id so that we
+		// have a predictable paging order.
+		Page<Map.Entry<String, String>> deployments = this.deploymentIdRepository.findAllOrderedById(pageable);
+		long resolved = System.currentTimeMillis();
+		List<AppStatus> statuses = getStatuses(deployments.getContent());
+		long statusesFetched = System.currentTimeMillis();
+
+		Set<String> streamNames = new HashSet<>();
+		for (Map.Entry<String, String> deployment : deployments) {
+			// Stream app deployment keys are of the form <stream>.<app>
+			int dot = deployment.getKey().lastIndexOf('.');
+			if (dot > 0) {
+				streamNames.add(deployment.getKey().substring(0, dot));
+			}
 		}
+		enrichWithMetrics(statuses, streamNames);
+		long end = System.currentTimeMillis();
 
-		// First build a sorted list of deployment id's so that we have
-		// a predictable paging order.
-		List<String> deploymentIds = asList.stream().flatMap(sd -> sd.getAppDefinitions().stream()).flatMap(sad -> {
-			String key = DeploymentKey.forStreamAppDefinition(sad);
-			String id = this.deploymentIdRepository.findOne(key);
-			return id != null ? Stream.of(id) : Stream.empty();
-		}).sorted((o1, o2) -> o1.compareTo(o2)).collect(Collectors.toList());
-
-		// Running this this inside the FJP will make sure it is used by the parallel
-		// stream
-		// Skip first items depending on page size, then take page and discard rest.
-		List<AppStatus> statuses = forkJoinPool
-				.submit(() -> deploymentIds.stream().skip(pageable.getPageNumber() * pageable.getPageSize())
-						.limit(pageable.getPageSize()).parallel().map(appDeployer::status).collect(Collectors.toList()))
-				.get();
-
-		enrichWithMetrics(statuses);
+		submitTiming("ids", resolved - start);
+		submitTiming("statuses", statusesFetched - resolved);
+		submitTiming("metrics", end - statusesFetched);
+		submitTiming("total", end - start);
 
 		// finally, pass in pageable and tell how many items we have in all pages
-		return assembler.toResource(new PageImpl<>(statuses, pageable, deploymentIds.size()), statusAssembler);
+		return assembler.toResource(new PageImpl<>(statuses, pageable, deployments.getTotalElements()),
+				statusAssembler);
 	}
 
-	private void enrichWithMetrics(List<AppStatus> statuses) {
-		List<ApplicationsMetrics> metricsIn = metricStore.getMetrics();
-		Map<String, ApplicationsMetrics.Instance> metricsInstanceMap = new HashMap<>();
-		for (ApplicationsMetrics am : metricsIn) {
-			for (ApplicationsMetrics.Application a : am.getApplications()) {
-				for (ApplicationsMetrics.Instance i : a.getInstances()) {
-					metricsInstanceMap.put(i.getGuid(), i);
-				}
+	/**
+	 * Fetch the statuses of the given deployments concurrently, waiting up to the
+	 * configured timeout for all of them. Statuses that could not be fetched in time are
+	 * reported as unknown.
+	 * <p>
+	 * Note that giving up on a status does not interrupt the deployer call fetching it:
+	 * {@link CompletableFuture#cancel(boolean)} has no effect on a running task, so that
+	 * call keeps its pool thread until it returns, and its result still ends up in the
+	 * {@link DeploymentStateCache} for the next listing.
+	 */
+	private List<AppStatus> getStatuses(List<Map.Entry<String, String>> deployments)
+			throws ExecutionException, InterruptedException {
+		List<CompletableFuture<AppStatus>> futures = new ArrayList<>(deployments.size());
+		for (Map.Entry<String, String> deployment : deployments) {
+			futures.add(CompletableFuture.supplyAsync(() -> deploymentStateCache.getStatus(deployment.getValue()),
+					forkJoinPool));
+		}
+		try {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+					.get(runtimeAppsProperties.getStatusTimeout(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			// Report the statuses that are not available yet as unknown, below
+		}
+		List<AppStatus> statuses = new ArrayList<>(deployments.size());
+		for (int i = 0; i < futures.size(); i++) {
+			String deploymentId = deployments.get(i).getValue();
+			CompletableFuture<AppStatus> future = futures.get(i);
+			if (future.isDone()) {
+				statuses.add(copyOf(future.get()));
+			}
+			else {
+				future.cancel(false);
+				logger.warn(String.format("Timed out fetching the status of app '%s' after %dms", deploymentId,
+						runtimeAppsProperties.getStatusTimeout()));
+				statuses.add(AppStatus.of(deploymentId).generalState(DeploymentState.unknown).build());
 			}
 		}
+		return statuses;
+	}
 
+	private void submitTiming(String step, long millis) {
+		if (gaugeService != null) {
+			gaugeService.submit(TIMING_METRIC_PREFIX + step, millis);
+		}
+	}
+
+	/**
+	 * Copy a (possibly shared) status, so that its instance attributes can be enriched.
+	 */
+	private static AppStatus copyOf(AppStatus status) {
+		AppStatus.Builder builder = AppStatus.of(status.getDeploymentId()).generalState(status.getState());
+		for (AppInstanceStatus instance : status.getInstances().values()) {
+			builder.with(new AppInstanceStatusCopy(instance));
+		}
+		return builder.build();
+	}
+
+	private void enrichWithMetrics(List<AppStatus> statuses, Set<String> streamNames) {
+		boolean hasGuids = statuses.stream().flatMap(status -> status.getInstances().values().stream())
+				.anyMatch(instance -> instance.getAttributes().get("guid") != null);
+		if (!hasGuids) {
+			return;
+		}
+		InstanceMetricsIndex metricsIndex = metricStore.getInstanceMetrics(streamNames);
 		for (AppStatus appStatus : statuses) {
-			Map<String, AppInstanceStatus> appInstanceStatusMap = appStatus.getInstances();
-			appInstanceStatusMap.forEach((k, appInstanceStatus) -> {
-				String trackingKey = appInstanceStatus.getAttributes().get("guid");
-				if (metricsInstanceMap.containsKey(trackingKey)) {
-					ApplicationsMetrics.Instance metricsAppInstance = metricsInstanceMap.get(trackingKey);
-					List<ApplicationsMetrics.Metric> metrics = metricsAppInstance.getMetrics();
-					if (metrics != null) {
-						for (ApplicationsMetrics.Metric m : metrics) {
-							if (ObjectUtils.nullSafeEquals("integration.channel.input.send.mean", m.getName())) {
-								appInstanceStatus.getAttributes().put("metrics.integration.channel.input.receiveRate",
-										String.format(Locale.US, "%.2f", m.getValue()));
-							}
-							else if (ObjectUtils.nullSafeEquals("integration.channel.output.send.mean", m.getName())) {
-								appInstanceStatus.getAttributes().put("metrics.integration.channel.output.sendRate",
-										String.format(Locale.US, "%.2f", m.getValue()));
-							}
+			for (AppInstanceStatus appInstanceStatus : appStatus.getInstances().values()) {
+				double[] values = metricsIndex.get(appInstanceStatus.getAttributes().get("guid"));
+				if (values != null) {
+					for (int i = 0; i < values.length; i++) {
+						if (!Double.isNaN(values[i])) {
+							appInstanceStatus.getAttributes().put(metricsIndex.getAttributeName(i),
+									InstanceMetricsIndex.format(values[i]));
 						}
 					}
 				}
-			});
+			}
 		}
 	}
 
 	@RequestMapping("/{id}")
 	public AppStatusResource display(@PathVariable String id) {
-		AppStatus status = appDeployer.status(id);
+		AppStatus status = deploymentStateCache.getStatus(id);
 		if (status.getState().equals(DeploymentState.unknown)) {
 			throw new NoSuchAppException(id);
 		}
@@ -261,6 +357,36 @@ public class RuntimeAppsController {
 		}
 	}
 
+	private static class AppInstanceStatusCopy implements AppInstanceStatus {
+
+		private final String id;
+
+		private final DeploymentState state;
+
+		private final Map<String, String> attributes;
+
+		AppInstanceStatusCopy(AppInstanceStatus original) {
+			this.id = original.getId();
+			this.state = original.getState();
+			this.attributes = new HashMap<>(original.getAttributes());
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public DeploymentState getState() {
+			return state;
+		}
+
+		@Override
+		public Map<String, String> getAttributes() {
+			return attributes;
+		}
+	}
+
 	private static class InstanceAssembler
 			extends ResourceAssemblerSupport<AppInstanceStatus, AppInstanceStatusResource> {
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller;
+
+import org.springframework.cloud.dataflow.server.controller.support.RuntimeAppsEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams the changes of the state and metrics of deployed apps as server-sent events,
+ * as an alternative to polling {@code /runtime/apps}.
+ *
+ * @author Eric Bottard
+ */
+@RestController
+@RequestMapping("/runtime/apps/events")
+public class RuntimeAppsEventsController {
+
+	private final RuntimeAppsEventPublisher eventPublisher;
+
+	/**
+	 * Instantiates a new runtime apps events controller.
+	 *
+	 * @param eventPublisher the publisher subscriptions are registered with
+	 */
+	public RuntimeAppsEventsController(RuntimeAppsEventPublisher eventPublisher) {
+		Assert.notNull(eventPublisher, "RuntimeAppsEventPublisher must not be null");
+		this.eventPublisher = eventPublisher;
+	}
+
+	/**
+	 * Subscribe to the changes of deployed apps. The current state of all apps is sent
+	 * first, followed by changes as they are detected.
+	 *
+	 * @return the emitter the events are sent through
+	 */
+	@RequestMapping(method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter subscribe() {
+		return eventPublisher.subscribe();
+	}
+}
@@ -18,10 +18,8 @@ package org.springframework.cloud.dataflow.server.controller;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -36,27 +34,27 @@ import org.springframework.cloud.dataflow.core.ApplicationType;
 import org.springframework.cloud.dataflow.core.StreamAppDefinition;
 import org.springframework.cloud.dataflow.core.StreamDefinition;
 import org.springframework.cloud.dataflow.core.dsl.ParseException;
-import org.springframework.cloud.dataflow.core.dsl.StreamNode;
-import org.springframework.cloud.dataflow.core.dsl.StreamParser;
 import org.springframework.cloud.dataflow.registry.AppRegistry;
 import org.springframework.cloud.dataflow.rest.resource.DeploymentStateResource;
 import org.springframework.cloud.dataflow.rest.resource.StreamDefinitionResource;
 import org.springframework.cloud.dataflow.server.DataFlowServerUtil;
 import org.springframework.cloud.dataflow.server.controller.support.ControllerUtils;
+import org.springframework.cloud.dataflow.server.controller.support.DeploymentStateCache;
 import org.springframework.cloud.dataflow.server.controller.support.InvalidStreamDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.DeploymentKey;
 import org.springframework.cloud.dataflow.server.repository.DuplicateStreamDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.NoSuchStreamDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.StreamDefinitionRepository;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.repository.support.SearchPageable;
 import org.springframework.cloud.dataflow.server.support.CannotDetermineApplicationTypeException;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.app.DeploymentState;
-import org.springframework.cloud.deployer.spi.app.MultiStateAppDeployer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.ExposesResourceFor;
 import org.springframework.hateoas.PagedResources;
@@ -100,9 +98,9 @@ public class StreamDefinitionController {
 	private final DeploymentIdRepository deploymentIdRepository;
 
 	/**
-	 * The deployer this controller will use to compute stream deployment status.
+	 * The cache this controller will use to compute stream deployment status.
 	 */
-	private final AppDeployer deployer;
+	private final DeploymentStateCache deploymentStateCache;
 
 	/**
 	 * The app registry this controller will use to lookup apps.
@@ -136,15 +134,37 @@ public class StreamDefinitionController {
 	public StreamDefinitionController(StreamDefinitionRepository repository,
 			DeploymentIdRepository deploymentIdRepository, StreamDeploymentController deploymentController,
 			AppDeployer deployer, AppRegistry appRegistry) {
+		this(repository, deploymentIdRepository, deploymentController, deployer, appRegistry,
+				new DeploymentStateCache(deployer));
+	}
+
+	/**
+	 * Create a {@code StreamDefinitionController} that computes deployment status through
+	 * the given {@link DeploymentStateCache}.
+	 *
+	 * @param repository the repository this controller will use for stream CRUD
+	 * operations
+	 * @param deploymentIdRepository the repository this controller will use for
+	 * deployment IDs
+	 * @param deploymentController the deployment controller to delegate deployment
+	 * operations
+	 * @param deployer the deployer the apps are deployed with
+	 * @param appRegistry the app registry to look up registered apps
+	 * @param deploymentStateCache the cache of deployment states of the deployer
+	 */
+	public StreamDefinitionController(StreamDefinitionRepository repository,
+			DeploymentIdRepository deploymentIdRepository, StreamDeploymentController deploymentController,
+			AppDeployer deployer, AppRegistry appRegistry, DeploymentStateCache deploymentStateCache) {
 		Assert.notNull(repository, "StreamDefinitionRepository must not be null");
 		Assert.notNull(deploymentIdRepository, "DeploymentIdRepository must not be null");
 		Assert.notNull(deploymentController, "StreamDeploymentController must not be null");
 		Assert.notNull(deployer, "AppDeployer must not be null");
 		Assert.notNull(appRegistry, "AppRegistry must not be null");
+		Assert.notNull(deploymentStateCache, "DeploymentStateCache must not be null");
 		this.deploymentController = deploymentController;
 		this.deploymentIdRepository = deploymentIdRepository;
 		this.repository = repository;
-		this.deployer = deployer;
+		this.deploymentStateCache = deploymentStateCache;
 		this.appRegistry = appRegistry;
 	}
 
@@ -192,12 +212,19 @@ public class StreamDefinitionController {
 	 * @param pageable page-able collection of {@code StreamDefinitionResource}s.
 	 * @param assembler assembler for {@link StreamDefinition}
 	 * @param search optional search parameter
+	 * @param after optional continuation token, switches to keyset pagination when present
 	 * @return list of stream definitions
 	 */
 	@RequestMapping(value = "", method = RequestMethod.GET)
 	@ResponseStatus(HttpStatus.OK)
 	public PagedResources<StreamDefinitionResource> list(Pageable pageable,
-			@RequestParam(required = false) String search, PagedResourcesAssembler<StreamDefinition> assembler) {
+			@RequestParam(required = false) String search, @RequestParam(required = false) String after,
+			PagedResourcesAssembler<StreamDefinition> assembler) {
+		if (search == null && after != null) {
+			Slice<StreamDefinition> slice = repository
+					.findAll(KeysetPageable.from(pageable, after, "DEFINITION_NAME"));
+			return ControllerUtils.toKeysetResources(slice, new Assembler(slice), StreamDefinition::getName);
+		}
 		Page<StreamDefinition> streamDefinitions;
 		if (search != null) {
 			final SearchPageable searchPageable = new SearchPageable(pageable, search);
@@ -293,38 +320,17 @@ public class StreamDefinitionController {
 	public PagedResources<StreamDefinitionResource> listRelated(@PathVariable("name") String name,
 			@RequestParam(value = "nested", required = false, defaultValue = "false") boolean nested,
 			PagedResourcesAssembler<StreamDefinition> assembler) {
-		Set<StreamDefinition> relatedDefinitions = new LinkedHashSet<>();
 		StreamDefinition currentStreamDefinition = repository.findOne(name);
 		if (currentStreamDefinition == null) {
 			throw new NoSuchStreamDefinitionException(name);
 		}
-		Iterable<StreamDefinition> definitions = repository.findAll();
-		List<StreamDefinition> result = new ArrayList<>(
-				findRelatedDefinitions(currentStreamDefinition, definitions, relatedDefinitions, nested));
+		List<StreamDefinition> result = new ArrayList<>();
+		result.add(currentStreamDefinition);
+		result.addAll(repository.findRelated(name, nested));
 		Page<StreamDefinition> page = new PageImpl<>(result);
 		return assembler.toResource(page, new Assembler(page));
 	}
 
-	private Set<StreamDefinition> findRelatedDefinitions(StreamDefinition currentStreamDefinition,
-			Iterable<StreamDefinition> definitions, Set<StreamDefinition> relatedDefinitions, boolean nested) {
-		relatedDefinitions.add(currentStreamDefinition);
-		String currentStreamName = currentStreamDefinition.getName();
-		String indexedStreamName = currentStreamName + ".";
-		for (StreamDefinition definition : definitions) {
-			StreamNode sn = new StreamParser(definition.getName(), definition.getDslText()).parse();
-			if (sn.getSourceDestinationNode() != null) {
-				String nameComponent = sn.getSourceDestinationNode().getDestinationName();
-				if (nameComponent.equals(currentStreamName) || nameComponent.startsWith(indexedStreamName)) {
-					relatedDefinitions.add(definition);
-					if (nested) {
-						findRelatedDefinitions(definition, definitions, relatedDefinitions, true);
-					}
-				}
-			}
-		}
-		return relatedDefinitions;
-	}
-
 	/**
 	 * Return a given stream definition resource.
 	 *
@@ -351,16 +357,6 @@ public class StreamDefinitionController {
 		this.repository.deleteAll();
 	}
 
-	private Map<String, DeploymentState> gatherDeploymentStates(String... ids) {
-		if (deployer instanceof MultiStateAppDeployer) {
-			return ((MultiStateAppDeployer) deployer).states(ids);
-		}
-		else {
-			return Arrays.stream(ids)
-					.collect(Collectors.toMap(Function.identity(), id -> deployer.status(id).getState()));
-		}
-	}
-
 	/**
 	 * {@link org.springframework.hateoas.ResourceAssembler} implementation that converts
 	 * {@link StreamDefinition}s to {@link StreamDefinitionResource}s.
@@ -369,18 +365,23 @@ public class StreamDefinitionController {
 
 		private final Map<StreamDefinition, DeploymentState> streamDeploymentStates;
 
-		public Assembler(Page<StreamDefinition> streamDefinitions) {
+		public Assembler(Slice<StreamDefinition> streamDefinitions) {
 			super(StreamDefinitionController.class, StreamDefinitionResource.class);
 
+			// Resolve the deployment ids of all apps on the page in one go
+			Map<String, String> deploymentIdsPerKey = deploymentIdRepository
+					.findAll(streamDefinitions.getContent().stream().flatMap(sd -> sd.getAppDefinitions().stream())
+							.map(DeploymentKey::forStreamAppDefinition).collect(Collectors.toList()));
+
 			Map<StreamDefinition, List<String>> deploymentIdsPerStream = streamDefinitions.getContent().stream()
 					.collect(Collectors.toMap(Function.identity(),
-							sd -> sd.getAppDefinitions().stream().map(
-									sad -> deploymentIdRepository.findOne(DeploymentKey.forStreamAppDefinition(sad)))
+							sd -> sd.getAppDefinitions().stream()
+									.map(sad -> deploymentIdsPerKey.get(DeploymentKey.forStreamAppDefinition(sad)))
 									.collect(Collectors.toList())));
 
 			// Map from app deployment id to state
-			Map<String, DeploymentState> statePerApp = gatherDeploymentStates(deploymentIdsPerStream.values().stream()
-					.flatMap(Collection::stream).filter(Objects::nonNull).toArray(String[]::new));
+			Map<String, DeploymentState> statePerApp = deploymentStateCache.getStates(deploymentIdsPerStream.values()
+					.stream().flatMap(Collection::stream).filter(Objects::nonNull).collect(Collectors.toList()));
 
 			// Map from SCDF Stream to aggregate state
 			streamDeploymentStates = deploymentIdsPerStream.entrySet().stream()
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2016 the original author or authors.
+ * Copyright 2015-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,16 +16,24 @@
 
 package org.springframework.cloud.dataflow.server.controller;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
 import org.springframework.cloud.dataflow.core.ApplicationType;
 import org.springframework.cloud.dataflow.core.BindingPropertyKeys;
@@ -38,7 +46,9 @@ import org.springframework.cloud.dataflow.registry.AppRegistry;
 import org.springframework.cloud.dataflow.rest.resource.StreamDeploymentResource;
 import org.springframework.cloud.dataflow.rest.util.DeploymentPropertiesUtils;
 import org.springframework.cloud.dataflow.server.DataFlowServerUtil;
+import org.springframework.cloud.dataflow.server.config.StreamDeploymentProperties;
 import org.springframework.cloud.dataflow.server.config.apps.CommonApplicationProperties;
+import org.springframework.cloud.dataflow.server.controller.support.DeploymentStateCache;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.DeploymentKey;
 import org.springframework.cloud.dataflow.server.repository.NoSuchStreamDefinitionException;
@@ -51,6 +61,7 @@ import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.core.io.Resource;
 import org.springframework.hateoas.ExposesResourceFor;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -72,7 +83,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/streams/deployments")
 @ExposesResourceFor(StreamDeploymentResource.class)
-public class StreamDeploymentController {
+public class StreamDeploymentController implements DisposableBean {
 
 	private static final String DEFAULT_PARTITION_KEY_EXPRESSION = "payload";
 
@@ -108,6 +119,11 @@ public class StreamDeploymentController {
 	 */
 	private final AppDeployer deployer;
 
+	/**
+	 * The cache this controller will use to check the deployment status of stream apps.
+	 */
+	private final DeploymentStateCache deploymentStateCache;
+
 	private final WhitelistProperties whitelistProperties;
 
 	/**
@@ -115,6 +131,16 @@ public class StreamDeploymentController {
 	 */
 	private final CommonApplicationProperties commonApplicationProperties;
 
+	/**
+	 * Resolves app resources and metadata.
+	 */
+	private final ExecutorService resolveExecutor;
+
+	/**
+	 * Hands deployment requests to the deployer.
+	 */
+	private final ExecutorService deployExecutor;
+
 	/**
 	 * Create a {@code StreamDeploymentController} that delegates
 	 * <ul>
@@ -135,18 +161,76 @@ public class StreamDeploymentController {
 	public StreamDeploymentController(StreamDefinitionRepository repository,
 			DeploymentIdRepository deploymentIdRepository, AppRegistry registry, AppDeployer deployer,
 			ApplicationConfigurationMetadataResolver metadataResolver, CommonApplicationProperties commonProperties) {
+		this(repository, deploymentIdRepository, registry, deployer, metadataResolver, commonProperties,
+				new DeploymentStateCache(deployer));
+	}
+
+	/**
+	 * Create a {@code StreamDeploymentController} that checks deployment status through
+	 * the given {@link DeploymentStateCache}, evicting the apps it deploys and undeploys.
+	 *
+	 * @param repository the repository this controller will use for stream CRUD
+	 * operations
+	 * @param deploymentIdRepository the repository this controller will use for
+	 * deployment IDs
+	 * @param registry the registry this controller will use to lookup apps
+	 * @param deployer the deployer this controller will use to deploy stream apps
+	 * @param metadataResolver the application metadata resolver
+	 * @param commonProperties common set of application properties
+	 * @param deploymentStateCache the cache of deployment states of the deployer
+	 */
+	public StreamDeploymentController(StreamDefinitionRepository repository,
+			DeploymentIdRepository deploymentIdRepository, AppRegistry registry, AppDeployer deployer,
+			ApplicationConfigurationMetadataResolver metadataResolver, CommonApplicationProperties commonProperties,
+			DeploymentStateCache deploymentStateCache) {
+		this(repository, deploymentIdRepository, registry, deployer, metadataResolver, commonProperties,
+				deploymentStateCache, new StreamDeploymentProperties());
+	}
+
+	/**
+	 * Create a {@code StreamDeploymentController} that resolves and deploys the apps of a
+	 * stream with the parallelism set in the given {@link StreamDeploymentProperties}.
+	 *
+	 * @param repository the repository this controller will use for stream CRUD
+	 * operations
+	 * @param deploymentIdRepository the repository this controller will use for
+	 * deployment IDs
+	 * @param registry the registry this controller will use to lookup apps
+	 * @param deployer the deployer this controller will use to deploy stream apps
+	 * @param metadataResolver the application metadata resolver
+	 * @param commonProperties common set of application properties
+	 * @param deploymentStateCache the cache of deployment states of the deployer
+	 * @param deploymentProperties the parallelism of stream deployments
+	 */
+	public StreamDeploymentController(StreamDefinitionRepository repository,
+			DeploymentIdRepository deploymentIdRepository, AppRegistry registry, AppDeployer deployer,
+			ApplicationConfigurationMetadataResolver metadataResolver, CommonApplicationProperties commonProperties,
+			DeploymentStateCache deploymentStateCache, StreamDeploymentProperties deploymentProperties) {
 		Assert.notNull(repository, "StreamDefinitionRepository must not be null");
 		Assert.notNull(deploymentIdRepository, "DeploymentIdRepository must not be null");
 		Assert.notNull(registry, "AppRegistry must not be null");
 		Assert.notNull(deployer, "AppDeployer must not be null");
 		Assert.notNull(metadataResolver, "MetadataResolver must not be null");
 		Assert.notNull(commonProperties, "CommonApplicationProperties must not be null");
+		Assert.notNull(deploymentStateCache, "DeploymentStateCache must not be null");
+		Assert.notNull(deploymentProperties, "StreamDeploymentProperties must not be null");
+		Assert.isTrue(deploymentProperties.getResolveParallelism() > 0, "resolveParallelism must be strictly positive");
+		Assert.isTrue(deploymentProperties.getDeployParallelism() > 0, "deployParallelism must be strictly positive");
 		this.repository = repository;
 		this.deploymentIdRepository = deploymentIdRepository;
 		this.registry = registry;
 		this.deployer = deployer;
+		this.deploymentStateCache = deploymentStateCache;
 		this.whitelistProperties = new WhitelistProperties(metadataResolver);
 		this.commonApplicationProperties = commonProperties;
+		this.resolveExecutor = newExecutor(deploymentProperties.getResolveParallelism(), "stream-deployment-resolve-");
+		this.deployExecutor = newExecutor(deploymentProperties.getDeployParallelism(), "stream-deployment-deploy-");
+	}
+
+	@Override
+	public void destroy() {
+		this.resolveExecutor.shutdownNow();
+		this.deployExecutor.shutdownNow();
 	}
 
 	/**
@@ -204,12 +288,13 @@ public class StreamDeploymentController {
 	private String calculateStreamState(String name) {
 		Set<DeploymentState> appStates = EnumSet.noneOf(DeploymentState.class);
 		StreamDefinition stream = this.repository.findOne(name);
+		Map<String, String> deploymentIds = findDeploymentIds(stream);
+		// Not served from the cache, as a stale state could let a stream be deployed twice
+		Map<String, DeploymentState> states = this.deploymentStateCache.getCurrentStates(deploymentIds.values());
 		for (StreamAppDefinition appDefinition : stream.getAppDefinitions()) {
-			String key = DeploymentKey.forStreamAppDefinition(appDefinition);
-			String id = this.deploymentIdRepository.findOne(key);
+			String id = deploymentIds.get(DeploymentKey.forStreamAppDefinition(appDefinition));
 			if (id != null) {
-				AppStatus status = this.deployer.status(id);
-				appStates.add(status.getState());
+				appStates.add(states.getOrDefault(id, DeploymentState.unknown));
 			}
 			else {
 				appStates.add(DeploymentState.undeployed);
@@ -221,6 +306,12 @@ public class StreamDeploymentController {
 	/**
 	 * Deploy a stream as defined by its {@link StreamDefinition} and optional deployment
 	 * properties.
+	 * <p>
+	 * Deployment happens in three phases: the properties of every app are computed first
+	 * (which only requires knowing about the instance counts of neighbors), then the
+	 * resources and metadata of all apps are resolved concurrently, and finally the apps
+	 * are handed to the deployer, concurrently as well, except for sources which are only
+	 * deployed once all the other apps of the stream have been.
 	 *
 	 * @param stream the stream to deploy
 	 * @param streamDeploymentProperties the deployment properties for the stream
@@ -229,11 +320,56 @@ public class StreamDeploymentController {
 		if (streamDeploymentProperties == null) {
 			streamDeploymentProperties = Collections.emptyMap();
 		}
-		Iterator<StreamAppDefinition> iterator = stream.getDeploymentOrderIterator();
+		List<AppDeployment> deployments = prepareDeployments(stream, streamDeploymentProperties);
+
+		List<Future<AppDeploymentRequest>> resolutions = new ArrayList<>(deployments.size());
+		for (AppDeployment deployment : deployments) {
+			resolutions.add(this.resolveExecutor.submit(() -> createDeploymentRequest(deployment)));
+		}
+		try {
+			for (int i = 0; i < deployments.size(); i++) {
+				deployments.get(i).request = await(resolutions.get(i));
+			}
+		}
+		catch (RuntimeException | Error e) {
+			for (Future<AppDeploymentRequest> resolution : resolutions) {
+				resolution.cancel(true);
+			}
+			throw e;
+		}
+
+		List<AppDeployment> producers = new ArrayList<>();
+		List<AppDeployment> others = new ArrayList<>();
+		for (AppDeployment deployment : deployments) {
+			(deployment.type == ApplicationType.source ? producers : others).add(deployment);
+		}
+		deployAll(others);
+		deployAll(producers);
+	}
+
+	/**
+	 * Compute the app and deployer properties of each app of a stream, in deployment
+	 * order.
+	 */
+	private List<AppDeployment> prepareDeployments(StreamDefinition stream,
+			Map<String, String> streamDeploymentProperties) {
+		List<StreamAppDefinition> apps = new ArrayList<>();
+		stream.getDeploymentOrderIterator().forEachRemaining(apps::add);
+		// Whether each app is asked to partition the data it produces
+		boolean[] partitionedProducers = new boolean[apps.size()];
+		for (int i = 0; i < apps.size(); i++) {
+			Map<String, String> appDeploymentProperties = extractAppProperties(apps.get(i),
+					streamDeploymentProperties);
+			partitionedProducers[i] = appDeploymentProperties
+					.containsKey(BindingPropertyKeys.OUTPUT_PARTITION_KEY_EXPRESSION)
+					|| appDeploymentProperties.containsKey(BindingPropertyKeys.OUTPUT_PARTITION_KEY_EXTRACTOR_CLASS);
+		}
+
+		List<AppDeployment> deployments = new ArrayList<>(apps.size());
 		int nextAppCount = 0;
 		boolean isDownStreamAppPartitioned = false;
-		while (iterator.hasNext()) {
-			StreamAppDefinition currentApp = iterator.next();
+		for (int i = 0; i < apps.size(); i++) {
+			StreamAppDefinition currentApp = apps.get(i);
 			ApplicationType type = DataFlowServerUtil.determineApplicationType(currentApp);
 
 			AppRegistration registration = this.registry.find(currentApp.getRegisteredAppName(), type);
@@ -245,8 +381,8 @@ public class StreamDeploymentController {
 					.extractAndQualifyDeployerProperties(streamDeploymentProperties, currentApp.getName());
 			deployerDeploymentProperties.put(AppDeployer.GROUP_PROPERTY_KEY, currentApp.getStreamName());
 
-			boolean upstreamAppSupportsPartition = upstreamAppHasPartitionInfo(stream, currentApp,
-					streamDeploymentProperties);
+			// The upstream app comes next in deployment order
+			boolean upstreamAppSupportsPartition = i + 1 < apps.size() && partitionedProducers[i + 1];
 			// Set instance count property
 			if (deployerDeploymentProperties.containsKey(AppDeployer.COUNT_PROPERTY_KEY)) {
 				appDeployTimeProperties.put(StreamPropertyKeys.INSTANCE_COUNT,
@@ -269,10 +405,6 @@ public class StreamDeploymentController {
 			nextAppCount = getInstanceCount(deployerDeploymentProperties);
 			isDownStreamAppPartitioned = isPartitionedConsumer(appDeployTimeProperties, upstreamAppSupportsPartition);
 
-			logger.info(String.format("Downloading resource URI [%s]", registration.getUri()));
-			Resource appResource = registration.getResource();
-			Resource metadataResource = registration.getMetadataResource();
-
 			// add properties needed for metrics system
 			appDeployTimeProperties.put(DataFlowPropertyKeys.STREAM_NAME, currentApp.getStreamName());
 			appDeployTimeProperties.put(DataFlowPropertyKeys.STREAM_APP_LABEL, currentApp.getName());
@@ -281,26 +413,89 @@ public class StreamDeploymentController {
 					.append(currentApp.getName()).append(".").append("${spring.cloud.application.guid}");
 			appDeployTimeProperties.put(StreamPropertyKeys.METRICS_KEY, sb.toString());
 
-			// Merge *definition time* app properties with *deployment time* properties
-			// and expand them to their long form if applicable
-			AppDefinition revisedDefinition = mergeAndExpandAppProperties(currentApp, metadataResource,
-					appDeployTimeProperties);
-
-			AppDeploymentRequest request = new AppDeploymentRequest(revisedDefinition, appResource,
-					deployerDeploymentProperties);
-			try {
-				logger.info(String.format(deployLoggingString, request.getDefinition().getName(),
-						currentApp.getStreamName(), registration.getUri()));
-				String id = this.deployer.deploy(request);
-				this.deploymentIdRepository.save(DeploymentKey.forStreamAppDefinition(currentApp), id);
+			deployments.add(new AppDeployment(currentApp, type, registration, appDeployTimeProperties,
+					deployerDeploymentProperties));
+		}
+		return deployments;
+	}
+
+	/**
+	 * Resolve the resources of an app and build the request to deploy it.
+	 */
+	private AppDeploymentRequest createDeploymentRequest(AppDeployment deployment) {
+		logger.info(String.format("Downloading resource URI [%s]", deployment.registration.getUri()));
+		Resource appResource = deployment.registration.getResource();
+		Resource metadataResource = deployment.registration.getMetadataResource();
+
+		// Merge *definition time* app properties with *deployment time* properties
+		// and expand them to their long form if applicable
+		AppDefinition revisedDefinition = mergeAndExpandAppProperties(deployment.app, metadataResource,
+				deployment.appDeployTimeProperties);
+
+		return new AppDeploymentRequest(revisedDefinition, appResource, deployment.deployerDeploymentProperties);
+	}
+
+	/**
+	 * Hand the given apps to the deployer concurrently, and record their deployment ids
+	 * once all of them have been deployed.
+	 */
+	private void deployAll(List<AppDeployment> deployments) {
+		List<Future<String>> ids = new ArrayList<>(deployments.size());
+		for (AppDeployment deployment : deployments) {
+			ids.add(this.deployExecutor.submit(() -> deploy(deployment)));
+		}
+		for (int i = 0; i < deployments.size(); i++) {
+			String id = await(ids.get(i));
+			if (id != null) {
+				this.deploymentStateCache.evict(id);
+				this.deploymentIdRepository.save(DeploymentKey.forStreamAppDefinition(deployments.get(i).app), id);
+			}
+		}
+	}
+
+	/**
+	 * Hand an app to the deployer.
+	 *
+	 * @return the deployment id of the app, or {@literal null} if the deployment failed
+	 */
+	private String deploy(AppDeployment deployment) {
+		AppDeploymentRequest request = deployment.request;
+		try {
+			logger.info(String.format(deployLoggingString, request.getDefinition().getName(),
+					deployment.app.getStreamName(), deployment.registration.getUri()));
+			return this.deployer.deploy(request);
+		}
+		// If the deployer implementation handles the deployment request
+		// synchronously, log error message if
+		// any exception is thrown out of the deployment and proceed to the next
+		// deployment.
+		catch (Exception e) {
+			logger.error(String.format("Exception when deploying the app %s: %s", deployment.app, e.getMessage()), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Wait for the result of a deployment phase, rethrowing whatever exception it failed
+	 * with.
+	 */
+	private static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while deploying stream", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
 			}
-			// If the deployer implementation handles the deployment request
-			// synchronously, log error message if
-			// any exception is thrown out of the deployment and proceed to the next
-			// deployment.
-			catch (Exception e) {
-				logger.error(String.format("Exception when deploying the app %s: %s", currentApp, e.getMessage()), e);
+			if (cause instanceof Error) {
+				throw (Error) cause;
 			}
+			throw new IllegalStateException(cause);
 		}
 	}
 
@@ -373,32 +568,6 @@ public class StreamDeploymentController {
 		}
 	}
 
-	/**
-	 * Return {@code true} if the upstream app (the app that appears before the provided
-	 * app) contains partition related properties.
-	 *
-	 * @param stream stream for the app
-	 * @param currentApp app for which to determine if the upstream app has partition
-	 * properties
-	 * @param streamDeploymentProperties deployment properties for the stream
-	 * @return true if the upstream app has partition properties
-	 */
-	private boolean upstreamAppHasPartitionInfo(StreamDefinition stream, StreamAppDefinition currentApp,
-			Map<String, String> streamDeploymentProperties) {
-		Iterator<StreamAppDefinition> iterator = stream.getDeploymentOrderIterator();
-		while (iterator.hasNext()) {
-			StreamAppDefinition app = iterator.next();
-			if (app.equals(currentApp) && iterator.hasNext()) {
-				StreamAppDefinition prevApp = iterator.next();
-				Map<String, String> appDeploymentProperties = extractAppProperties(prevApp, streamDeploymentProperties);
-				return appDeploymentProperties.containsKey(BindingPropertyKeys.OUTPUT_PARTITION_KEY_EXPRESSION)
-						|| appDeploymentProperties
-								.containsKey(BindingPropertyKeys.OUTPUT_PARTITION_KEY_EXTRACTOR_CLASS);
-			}
-		}
-		return false;
-	}
-
 	/**
 	 * Return {@code true} if an app is a consumer of partitioned data. This is determined
 	 * either by the deployment properties for the app or whether the previous (upstream)
@@ -456,18 +625,72 @@ public class StreamDeploymentController {
 	 * @param stream stream to undeploy
 	 */
 	private void undeployStream(StreamDefinition stream) {
+		Map<String, String> deploymentIds = findDeploymentIds(stream);
 		for (StreamAppDefinition appDefinition : stream.getAppDefinitions()) {
 			String key = DeploymentKey.forStreamAppDefinition(appDefinition);
-			String id = this.deploymentIdRepository.findOne(key);
+			String id = deploymentIds.get(key);
 			// if id is null, assume nothing is deployed
 			if (id != null) {
 				AppStatus status = this.deployer.status(id);
 				if (!EnumSet.of(DeploymentState.unknown, DeploymentState.undeployed).contains(status.getState())) {
 					this.deployer.undeploy(id);
 				}
+				this.deploymentStateCache.evict(id);
 				this.deploymentIdRepository.delete(key);
 			}
 		}
 	}
 
+	/**
+	 * Return the deployment ids of all the apps of the given stream, keyed by their
+	 * deployment key.
+	 *
+	 * @param stream the stream to look up
+	 * @return a map from deployment key to deployment id, for apps that have an id
+	 */
+	private Map<String, String> findDeploymentIds(StreamDefinition stream) {
+		List<String> keys = new ArrayList<>();
+		for (StreamAppDefinition appDefinition : stream.getAppDefinitions()) {
+			keys.add(DeploymentKey.forStreamAppDefinition(appDefinition));
+		}
+		return this.deploymentIdRepository.findAll(keys);
+	}
+
+	private static ExecutorService newExecutor(int threads, String threadNamePrefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * An app of a stream being deployed, along with what has been computed about it so
+	 * far.
+	 */
+	private static final class AppDeployment {
+
+		private final StreamAppDefinition app;
+
+		private final ApplicationType type;
+
+		private final AppRegistration registration;
+
+		private final Map<String, String> appDeployTimeProperties;
+
+		private final Map<String, String> deployerDeploymentProperties;
+
+		private AppDeploymentRequest request;
+
+		private AppDeployment(StreamAppDefinition app, ApplicationType type, AppRegistration registration,
+				Map<String, String> appDeployTimeProperties, Map<String, String> deployerDeploymentProperties) {
+			this.app = app;
+			this.type = type;
+			this.registration = registration;
+			this.appDeployTimeProperties = appDeployTimeProperties;
+			this.deployerDeploymentProperties = deployerDeploymentProperties;
+		}
+	}
+
 }
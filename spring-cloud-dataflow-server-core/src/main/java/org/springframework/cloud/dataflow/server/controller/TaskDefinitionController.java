@@ -16,18 +16,32 @@
 
 package org.springframework.cloud.dataflow.server.controller;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 import org.springframework.cloud.dataflow.core.TaskDefinition;
 import org.springframework.cloud.dataflow.registry.AppRegistry;
 import org.springframework.cloud.dataflow.rest.resource.TaskDefinitionResource;
+import org.springframework.cloud.dataflow.server.controller.support.ControllerUtils;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.DeploymentKey;
 import org.springframework.cloud.dataflow.server.repository.NoSuchTaskDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.TaskDefinitionRepository;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.repository.support.SearchPageable;
 import org.springframework.cloud.dataflow.server.service.TaskService;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.cloud.deployer.spi.task.TaskStatus;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.ExposesResourceFor;
 import org.springframework.hateoas.PagedResources;
@@ -48,14 +62,13 @@ import org.springframework.web.bind.annotation.RestController;
  * @author Marius Bogoevici
  * @author Glenn Renfro
  * @author Mark Fisher
+ * @author Eric Bottard
  */
 @RestController
 @RequestMapping("/tasks/definitions")
 @ExposesResourceFor(TaskDefinitionResource.class)
 public class TaskDefinitionController {
 
-	private final Assembler taskAssembler = new Assembler();
-
 	/**
 	 * The repository this controller will use for deployment IDs.
 	 */
@@ -72,6 +85,11 @@ public class TaskDefinitionController {
 
 	private TaskService taskService;
 
+	/**
+	 * Used to fetch task statuses concurrently, may be {@literal null}.
+	 */
+	private final ForkJoinPool forkJoinPool;
+
 	/**
 	 * Creates a {@code TaskDefinitionController} that delegates
 	 * <ul>
@@ -88,6 +106,27 @@ public class TaskDefinitionController {
 	 */
 	public TaskDefinitionController(TaskDefinitionRepository repository, DeploymentIdRepository deploymentIdRepository,
 			TaskLauncher taskLauncher, AppRegistry appRegistry, TaskService taskService) {
+		this(repository, deploymentIdRepository, taskLauncher, appRegistry, taskService, null);
+	}
+
+	/**
+	 * Creates a {@code TaskDefinitionController} that delegates
+	 * <ul>
+	 * <li>CRUD operations to the provided {@link TaskDefinitionRepository}</li>
+	 * <li>task status checks to the provided {@link TaskLauncher}</li>
+	 * </ul>
+	 *
+	 * @param repository the repository this controller will use for task CRUD operations.
+	 * @param deploymentIdRepository the repository this controller will use for
+	 * deployment IDs
+	 * @param taskLauncher the TaskLauncher this controller will use to check task status.
+	 * @param appRegistry the app registry to look up registered apps.
+	 * @param taskService handles specialized behavior needed for tasks.
+	 * @param forkJoinPool a ForkJoinPool which will be used to query the statuses of the
+	 * tasks of a page in parallel, or {@literal null} to query them one after the other
+	 */
+	public TaskDefinitionController(TaskDefinitionRepository repository, DeploymentIdRepository deploymentIdRepository,
+			TaskLauncher taskLauncher, AppRegistry appRegistry, TaskService taskService, ForkJoinPool forkJoinPool) {
 		Assert.notNull(repository, "repository must not be null");
 		Assert.notNull(deploymentIdRepository, "deploymentIdRepository must not be null");
 		Assert.notNull(taskLauncher, "taskLauncher must not be null");
@@ -98,6 +137,7 @@ public class TaskDefinitionController {
 		this.taskLauncher = taskLauncher;
 		this.appRegistry = appRegistry;
 		this.taskService = taskService;
+		this.forkJoinPool = forkJoinPool;
 	}
 
 	/**
@@ -111,7 +151,7 @@ public class TaskDefinitionController {
 	public TaskDefinitionResource save(@RequestParam("name") String name, @RequestParam("definition") String dsl) {
 		TaskDefinition taskDefinition = new TaskDefinition(name, dsl);
 		taskService.saveTaskDefinition(name, dsl);
-		return taskAssembler.toResource(taskDefinition);
+		return new Assembler(Collections.singletonList(taskDefinition)).toResource(taskDefinition);
 	}
 
 	/**
@@ -131,20 +171,27 @@ public class TaskDefinitionController {
 	 * @param pageable page-able collection of {@code TaskDefinitionResource}.
 	 * @param assembler assembler for the {@link TaskDefinition}
 	 * @param search optional search parameter
+	 * @param after optional continuation token, switches to keyset pagination when present
 	 * @return a list of task definitions
 	 */
 	@RequestMapping(value = "", method = RequestMethod.GET)
 	@ResponseStatus(HttpStatus.OK)
 	public PagedResources<TaskDefinitionResource> list(Pageable pageable, @RequestParam(required = false) String search,
-			PagedResourcesAssembler<TaskDefinition> assembler) {
+			@RequestParam(required = false) String after, PagedResourcesAssembler<TaskDefinition> assembler) {
 
 		if (search != null) {
 			final SearchPageable searchPageable = new SearchPageable(pageable, search);
 			searchPageable.addColumns("DEFINITION_NAME", "DEFINITION");
-			return assembler.toResource(repository.search(searchPageable), taskAssembler);
+			Page<TaskDefinition> page = repository.search(searchPageable);
+			return assembler.toResource(page, new Assembler(page.getContent()));
+		}
+		else if (after != null) {
+			Slice<TaskDefinition> slice = repository.findAll(KeysetPageable.from(pageable, after, "DEFINITION_NAME"));
+			return ControllerUtils.toKeysetResources(slice, new Assembler(slice.getContent()), TaskDefinition::getName);
 		}
 		else {
-			return assembler.toResource(repository.findAll(pageable), taskAssembler);
+			Page<TaskDefinition> page = repository.findAll(pageable);
+			return assembler.toResource(page, new Assembler(page.getContent()));
 		}
 	}
 
@@ -161,7 +208,29 @@ public class TaskDefinitionController {
 		if (definition == null) {
 			throw new NoSuchTaskDefinitionException(name);
 		}
-		return taskAssembler.toResource(definition);
+		return new Assembler(Collections.singletonList(definition)).toResource(definition);
+	}
+
+	/**
+	 * Return the status of each given deployment, keyed by deployment id.
+	 */
+	private Map<String, TaskStatus> getStatuses(Collection<String> deploymentIds) {
+		Map<String, TaskStatus> statuses = new HashMap<>();
+		if (forkJoinPool == null || deploymentIds.size() < 2) {
+			for (String deploymentId : deploymentIds) {
+				statuses.put(deploymentId, taskLauncher.status(deploymentId));
+			}
+			return statuses;
+		}
+		List<ForkJoinTask<TaskStatus>> tasks = new ArrayList<>(deploymentIds.size());
+		for (String deploymentId : deploymentIds) {
+			tasks.add(forkJoinPool.submit(() -> taskLauncher.status(deploymentId)));
+		}
+		int i = 0;
+		for (String deploymentId : deploymentIds) {
+			statuses.put(deploymentId, tasks.get(i++).join());
+		}
+		return statuses;
 	}
 
 	/**
@@ -170,8 +239,21 @@ public class TaskDefinitionController {
 	 */
 	class Assembler extends ResourceAssemblerSupport<TaskDefinition, TaskDefinitionResource> {
 
-		public Assembler() {
+		private final Map<String, String> deploymentIds;
+
+		private final Map<String, TaskStatus> statuses;
+
+		public Assembler(List<TaskDefinition> taskDefinitions) {
 			super(TaskDefinitionController.class, TaskDefinitionResource.class);
+
+			// Resolve the deployment ids of all tasks on the page in one go
+			List<String> keys = new ArrayList<>(taskDefinitions.size());
+			for (TaskDefinition taskDefinition : taskDefinitions) {
+				keys.add(DeploymentKey.forTaskDefinition(taskDefinition));
+			}
+			this.deploymentIds = keys.isEmpty() ? Collections.<String, String>emptyMap()
+					: deploymentIdRepository.findAll(keys);
+			this.statuses = getStatuses(new LinkedHashSet<>(deploymentIds.values()));
 		}
 
 		@Override
@@ -181,17 +263,12 @@ public class TaskDefinitionController {
 
 		@Override
 		public TaskDefinitionResource instantiateResource(TaskDefinition taskDefinition) {
-			String key = DeploymentKey.forTaskDefinition(taskDefinition);
-			String id = deploymentIdRepository.findOne(key);
-			boolean composed = taskService.isComposedDefinition(taskDefinition.getDslText());
-			TaskStatus status = null;
-			if (id != null) {
-				status = taskLauncher.status(id);
-			}
+			String id = deploymentIds.get(DeploymentKey.forTaskDefinition(taskDefinition));
+			TaskStatus status = (id != null) ? statuses.get(id) : null;
 			String state = (status != null) ? status.getState().name() : "unknown";
 			TaskDefinitionResource taskDefinitionResource = new TaskDefinitionResource(taskDefinition.getName(),
 					taskDefinition.getDslText());
-			taskDefinitionResource.setComposed(composed);
+			taskDefinitionResource.setComposed(taskDefinition.isComposed());
 			taskDefinitionResource.setStatus(state);
 			return taskDefinitionResource;
 		}
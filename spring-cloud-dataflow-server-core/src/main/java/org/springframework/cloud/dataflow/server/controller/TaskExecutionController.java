@@ -17,17 +17,25 @@
 package org.springframework.cloud.dataflow.server.controller;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.cloud.dataflow.rest.job.TaskJobExecutionRel;
 import org.springframework.cloud.dataflow.rest.resource.TaskExecutionResource;
+import org.springframework.cloud.dataflow.rest.resource.TaskLaunchResource;
 import org.springframework.cloud.dataflow.rest.util.DeploymentPropertiesUtils;
 import org.springframework.cloud.dataflow.server.controller.support.ArgumentSanitizer;
+import org.springframework.cloud.dataflow.server.repository.BulkTaskExecutionRepository;
 import org.springframework.cloud.dataflow.server.repository.NoSuchTaskDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.NoSuchTaskExecutionException;
 import org.springframework.cloud.dataflow.server.repository.TaskDefinitionRepository;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchRequest;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchResult;
 import org.springframework.cloud.dataflow.server.service.TaskService;
 import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.repository.TaskExplorer;
@@ -41,6 +49,7 @@ import org.springframework.hateoas.mvc.ResourceAssemblerSupport;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -69,6 +78,11 @@ public class TaskExecutionController {
 
 	private final TaskDefinitionRepository taskDefinitionRepository;
 
+	/**
+	 * Used to find the job executions of a whole page at once, may be {@literal null}.
+	 */
+	private final BulkTaskExecutionRepository bulkTaskExecutionRepository;
+
 	private final ArgumentSanitizer argumentSanitizer = new ArgumentSanitizer();
 
 	/**
@@ -82,12 +96,31 @@ public class TaskExecutionController {
 	 */
 	public TaskExecutionController(TaskExplorer explorer, TaskService taskService,
 			TaskDefinitionRepository taskDefinitionRepository) {
+		this(explorer, taskService, taskDefinitionRepository, null);
+	}
+
+	/**
+	 * Creates a {@code TaskExecutionController} that retrieves Task Execution information
+	 * from a the {@link TaskExplorer}
+	 *
+	 * @param explorer the explorer this controller will use for retrieving task execution
+	 * information.
+	 * @param taskService used to launch tasks
+	 * @param taskDefinitionRepository the task definition repository
+	 * @param bulkTaskExecutionRepository used to find the job executions of all the task
+	 * executions of a page with a single query, or {@literal null} to ask the explorer
+	 * for each task execution
+	 */
+	public TaskExecutionController(TaskExplorer explorer, TaskService taskService,
+			TaskDefinitionRepository taskDefinitionRepository,
+			BulkTaskExecutionRepository bulkTaskExecutionRepository) {
 		Assert.notNull(explorer, "explorer must not be null");
 		Assert.notNull(taskService, "taskService must not be null");
 		Assert.notNull(taskDefinitionRepository, "taskDefinitionRepository must not be null");
 		this.taskService = taskService;
 		this.explorer = explorer;
 		this.taskDefinitionRepository = taskDefinitionRepository;
+		this.bulkTaskExecutionRepository = bulkTaskExecutionRepository;
 	}
 
 	/**
@@ -146,6 +179,73 @@ public class TaskExecutionController {
 				DeploymentPropertiesUtils.parseParams(arguments));
 	}
 
+	/**
+	 * Request the asynchronous launching of an existing task definition. The execution is
+	 * created right away, and the task is launched as soon as a launch slot is available.
+	 * Launch failures are recorded on the execution.
+	 *
+	 * @param taskName the name of the existing task to be executed (required)
+	 * @param properties the runtime properties for the task, as a comma-delimited list of
+	 * key=value pairs
+	 * @param arguments the runtime commandline arguments
+	 * @return the taskExecutionId for the queued task
+	 */
+	@RequestMapping(value = "", method = RequestMethod.POST, params = { "name", "async=true" })
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public long launchAsync(@RequestParam("name") String taskName, @RequestParam(required = false) String properties,
+			@RequestParam(required = false) List<String> arguments) {
+		Map<String, String> propertiesToUse = DeploymentPropertiesUtils.parse(properties);
+		DeploymentPropertiesUtils.ensureJustDeploymentProperties(propertiesToUse);
+		return this.taskService.executeTaskAsync(taskName, propertiesToUse,
+				DeploymentPropertiesUtils.parseParams(arguments));
+	}
+
+	/**
+	 * Request the launching of several existing task definitions at once. The executions
+	 * of all the tasks are created together, and the tasks are launched in parallel.
+	 *
+	 * @param launches the names of the tasks to launch, along with their runtime
+	 * properties and commandline arguments
+	 * @return the execution id of each task, or the reason why it could not be launched,
+	 * in the order of the requested launches
+	 */
+	@RequestMapping(value = "/bulk", method = RequestMethod.POST)
+	@ResponseStatus(HttpStatus.OK)
+	public List<TaskLaunchResource> launchAll(@RequestBody List<TaskLaunchResource> launches) {
+		TaskLaunchResource[] results = new TaskLaunchResource[launches.size()];
+		List<Integer> valid = new ArrayList<>(launches.size());
+		List<TaskLaunchRequest> requests = new ArrayList<>(launches.size());
+		for (int i = 0; i < launches.size(); i++) {
+			TaskLaunchResource launch = launches.get(i);
+			try {
+				Map<String, String> propertiesToUse = launch.getProperties() != null ? launch.getProperties()
+						: Collections.<String, String>emptyMap();
+				DeploymentPropertiesUtils.ensureJustDeploymentProperties(propertiesToUse);
+				requests.add(new TaskLaunchRequest(launch.getName(), propertiesToUse,
+						DeploymentPropertiesUtils.parseParams(launch.getArguments())));
+				valid.add(i);
+			}
+			catch (IllegalArgumentException e) {
+				// An invalid launch is reported in its own result, without failing the others
+				results[i] = launchResource(launch.getName(), null, e.getMessage());
+			}
+		}
+		List<TaskLaunchResult> outcomes = this.taskService.executeTasks(requests);
+		for (int j = 0; j < outcomes.size(); j++) {
+			TaskLaunchResult outcome = outcomes.get(j);
+			results[valid.get(j)] = launchResource(outcome.getTaskName(), outcome.getExecutionId(),
+					outcome.getError());
+		}
+		return Arrays.asList(results);
+	}
+
+	private TaskLaunchResource launchResource(String taskName, Long executionId, String error) {
+		TaskLaunchResource resource = new TaskLaunchResource(taskName, null, null);
+		resource.setExecutionId(executionId);
+		resource.setError(error);
+		return resource;
+	}
+
 	/**
 	 * View the details of a single task execution, specified by id.
 	 *
@@ -181,15 +281,35 @@ public class TaskExecutionController {
 	}
 
 	private Page<TaskJobExecutionRel> getPageableRelationships(Page<TaskExecution> taskExecutions, Pageable pageable) {
+		Map<Long, Set<Long>> jobExecutionIds = findJobExecutionIds(taskExecutions.getContent());
 		List<TaskJobExecutionRel> taskJobExecutionRels = new ArrayList<>();
 		for (TaskExecution taskExecution : taskExecutions.getContent()) {
-			taskJobExecutionRels
-					.add(new TaskJobExecutionRel(sanitizePotentialSensitiveKeys(taskExecution), new ArrayList<>(
-							this.explorer.getJobExecutionIdsByTaskExecutionId(taskExecution.getExecutionId()))));
+			taskJobExecutionRels.add(new TaskJobExecutionRel(sanitizePotentialSensitiveKeys(taskExecution),
+					new ArrayList<>(jobExecutionIds.getOrDefault(taskExecution.getExecutionId(),
+							Collections.<Long>emptySet()))));
 		}
 		return new PageImpl<>(taskJobExecutionRels, pageable, taskExecutions.getTotalElements());
 	}
 
+	/**
+	 * Return the ids of the job executions of the given task executions, keyed by task
+	 * execution id.
+	 */
+	private Map<Long, Set<Long>> findJobExecutionIds(List<TaskExecution> taskExecutions) {
+		List<Long> taskExecutionIds = new ArrayList<>(taskExecutions.size());
+		for (TaskExecution taskExecution : taskExecutions) {
+			taskExecutionIds.add(taskExecution.getExecutionId());
+		}
+		if (this.bulkTaskExecutionRepository != null) {
+			return this.bulkTaskExecutionRepository.findJobExecutionIds(taskExecutionIds);
+		}
+		Map<Long, Set<Long>> jobExecutionIds = new HashMap<>();
+		for (Long taskExecutionId : taskExecutionIds) {
+			jobExecutionIds.put(taskExecutionId, this.explorer.getJobExecutionIdsByTaskExecutionId(taskExecutionId));
+		}
+		return jobExecutionIds;
+	}
+
 	private TaskExecution sanitizePotentialSensitiveKeys(TaskExecution taskExecution) {
 		List<String> args = taskExecution.getArguments().stream()
 				.map(argument -> (this.argumentSanitizer.sanitize(argument))).collect(Collectors.toList());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 the original author or authors.
+ * Copyright 2016-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,17 @@
 
 package org.springframework.cloud.dataflow.server.controller;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.boot.bind.RelaxedNames;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
@@ -32,16 +38,30 @@ import org.springframework.util.MultiValueMap;
 /**
  * Knows how to expand app properties into their full form if whitelist properties (short
  * hand form) have been used.
+ * <p>
+ * The metadata of an app is turned once into an index that maps every relaxed variation
+ * of every whitelisted short name to its long form, so that qualifying a property is a
+ * single lookup. Indexes are remembered per metadata file (and forgotten as soon as the
+ * file changes).
  *
  * @author Eric Bottard
  */
 public class WhitelistProperties {
 
+	private static final int MAX_CACHED_INDEXES = 256;
+
 	/**
 	 * Used to expand short form of whitelisted properties to their long form.
 	 */
 	private final ApplicationConfigurationMetadataResolver metadataResolver;
 
+	private final Map<String, Index> indexes = new LinkedHashMap<String, Index>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Index> eldest) {
+			return size() > MAX_CACHED_INDEXES;
+		}
+	};
+
 	public WhitelistProperties(ApplicationConfigurationMetadataResolver metadataResolver) {
 		this.metadataResolver = metadataResolver;
 	}
@@ -56,50 +76,161 @@ public class WhitelistProperties {
 	 * @return the application properties with expanded long form property names
 	 */
 	public Map<String, String> qualifyProperties(Map<String, String> properties, Resource metadataResource) {
-		MultiValueMap<String, ConfigurationMetadataProperty> whiteList = new LinkedMultiValueMap<>();
-		Set<String> allProps = new HashSet<>();
+		Map<String, String> mutatedProps = new HashMap<>(properties.size());
+		if (properties.isEmpty()) {
+			return mutatedProps;
+		}
+		Index index = indexFor(metadataResource);
+		for (Map.Entry<String, String> entry : properties.entrySet()) {
+			mutatedProps.put(index.qualify(entry.getKey()), entry.getValue());
+		}
+		return mutatedProps;
+	}
 
-		for (ConfigurationMetadataProperty property : this.metadataResolver.listProperties(metadataResource, false)) {
-			whiteList.add(property.getName(), property);// Use names here
+	private Index indexFor(Resource metadataResource) {
+		String fingerprint = fingerprint(metadataResource);
+		if (fingerprint == null) {
+			return buildIndex(metadataResource);
 		}
-		for (ConfigurationMetadataProperty property : this.metadataResolver.listProperties(metadataResource, true)) {
-			allProps.add(property.getId()); // But full ids here
+		Index index;
+		synchronized (indexes) {
+			index = indexes.get(fingerprint);
+		}
+		if (index == null) {
+			index = buildIndex(metadataResource);
+			synchronized (indexes) {
+				indexes.put(fingerprint, index);
+			}
 		}
+		return index;
+	}
 
-		Map<String, String> mutatedProps = new HashMap<>(properties.size());
-		for (Map.Entry<String, String> entry : properties.entrySet()) {
-			String provided = entry.getKey();
-			if (!allProps.contains(provided)) {
-				List<ConfigurationMetadataProperty> longForms = null;
-				for (String relaxed : new RelaxedNames(provided)) {
-					longForms = whiteList.get(relaxed);
-					if (longForms != null) {
-						break;
+	private Index buildIndex(Resource metadataResource) {
+		return new Index(this.metadataResolver.listProperties(metadataResource, false),
+				this.metadataResolver.listProperties(metadataResource, true));
+	}
+
+	/**
+	 * Return a string that changes whenever the given metadata file changes, or
+	 * {@literal null} if the index for that resource should not be cached.
+	 */
+	private String fingerprint(Resource resource) {
+		try {
+			File file = resource.getFile();
+			if (file == null || !file.isFile()) {
+				return null;
+			}
+			return file.getCanonicalPath() + "|" + file.length() + "|" + file.lastModified();
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * The whitelisted short names of an app, indexed by all their relaxed variations,
+	 * along with the full ids of all its properties.
+	 */
+	private static final class Index {
+
+		private static final int MAX_FALLBACKS = 1024;
+
+		private final Set<String> ids = new HashSet<>();
+
+		private final MultiValueMap<String, ConfigurationMetadataProperty> whiteList = new LinkedMultiValueMap<>();
+
+		private final Map<String, Qualification> qualifications;
+
+		/**
+		 * Qualifications of provided names that aren't a variation of any whitelisted
+		 * name, but that still relax to one.
+		 */
+		private final Map<String, Qualification> fallbacks = new ConcurrentHashMap<>();
+
+		private Index(List<ConfigurationMetadataProperty> whiteListed, List<ConfigurationMetadataProperty> all) {
+			for (ConfigurationMetadataProperty property : whiteListed) {
+				whiteList.add(property.getName(), property);// Use names here
+			}
+			for (ConfigurationMetadataProperty property : all) {
+				ids.add(property.getId()); // But full ids here
+			}
+			Map<String, Qualification> qualifications = new HashMap<>();
+			for (String name : whiteList.keySet()) {
+				for (String relaxed : new RelaxedNames(name)) {
+					qualifications.computeIfAbsent(relaxed, this::resolve);
+				}
+			}
+			this.qualifications = Collections.unmodifiableMap(qualifications);
+		}
+
+		/**
+		 * Return the long form of the given property name.
+		 *
+		 * @throws IllegalArgumentException if the name is a short form that could mean
+		 * several properties
+		 */
+		private String qualify(String provided) {
+			if (ids.contains(provided)) {
+				return provided;
+			}
+			Qualification qualification = qualifications.get(provided);
+			if (qualification == null) {
+				qualification = fallbacks.get(provided);
+				if (qualification == null) {
+					qualification = resolve(provided);
+					if (fallbacks.size() < MAX_FALLBACKS) {
+						fallbacks.put(provided, qualification);
 					}
 				}
+			}
+			if (qualification.ambiguity != null) {
+				throw new IllegalArgumentException(qualification.ambiguity);
+			}
+			return qualification.id != null ? qualification.id : provided;
+		}
+
+		/**
+		 * Find the whitelisted property the given name relaxes to, the first matching
+		 * variation winning.
+		 */
+		private Qualification resolve(String provided) {
+			for (String relaxed : new RelaxedNames(provided)) {
+				List<ConfigurationMetadataProperty> longForms = whiteList.get(relaxed);
 				if (longForms != null) {
-					assertNoAmbiguity(longForms);
-					mutatedProps.put(longForms.iterator().next().getId(), entry.getValue());
-				}
-				else {
-					mutatedProps.put(provided, entry.getValue());
+					return Qualification.of(longForms);
 				}
 			}
-			else {
-				mutatedProps.put(provided, entry.getValue());
-			}
+			return Qualification.NONE;
 		}
-		return mutatedProps;
 	}
 
-	private void assertNoAmbiguity(List<ConfigurationMetadataProperty> longForms) {
-		if (longForms.size() > 1) {
-			Set<String> ids = new HashSet<>(longForms.size());
-			for (ConfigurationMetadataProperty pty : longForms) {
-				ids.add(pty.getId());
+	/**
+	 * What a provided property name should be replaced with: either a long form id, an
+	 * ambiguity error, or nothing at all.
+	 */
+	private static final class Qualification {
+
+		private static final Qualification NONE = new Qualification(null, null);
+
+		private final String id;
+
+		private final String ambiguity;
+
+		private Qualification(String id, String ambiguity) {
+			this.id = id;
+			this.ambiguity = ambiguity;
+		}
+
+		private static Qualification of(List<ConfigurationMetadataProperty> longForms) {
+			if (longForms.size() > 1) {
+				Set<String> ids = new LinkedHashSet<>(longForms.size());
+				for (ConfigurationMetadataProperty pty : longForms) {
+					ids.add(pty.getId());
+				}
+				return new Qualification(null, String.format("Ambiguous short form property '%s' could mean any of %s",
+						longForms.iterator().next().getName(), ids));
 			}
-			throw new IllegalArgumentException(String.format("Ambiguous short form property '%s' could mean any of %s",
-					longForms.iterator().next().getName(), ids));
+			return new Qualification(longForms.iterator().next().getId(), null);
 		}
 	}
 
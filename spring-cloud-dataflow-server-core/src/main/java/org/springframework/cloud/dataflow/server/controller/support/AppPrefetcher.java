@@ -0,0 +1,289 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.io.FileNotFoundException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
+import org.springframework.cloud.dataflow.registry.AppRegistration;
+import org.springframework.cloud.dataflow.server.config.AppPrefetchProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Downloads the artifacts of registered apps and resolves their configuration metadata
+ * in the background, so that the first deployment or completion doesn't pay for it.
+ * <p>
+ * Downloads are queued per URI scheme, each scheme having its own bounded queue and
+ * maximum number of concurrent downloads, so that slow Maven resolutions don't hold back
+ * local files (and vice versa). Downloads of a resource that is already queued or in
+ * progress are ignored. Failed downloads are retried a few times, with an exponential
+ * backoff, and the state of recent downloads is kept for {@link #getDownloads()
+ * reporting}.
+ *
+ * @author Eric Bottard
+ */
+public class AppPrefetcher implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(AppPrefetcher.class);
+
+	/**
+	 * What is downloaded.
+	 */
+	public enum Kind {
+
+		/**
+		 * The app artifact itself.
+		 */
+		artifact,
+
+		/**
+		 * The metadata of the app, which is then resolved into configuration properties.
+		 */
+		metadata
+	}
+
+	/**
+	 * Where a download stands.
+	 */
+	public enum State {
+		queued, running, retrying, succeeded, failed, rejected
+	}
+
+	private final ApplicationConfigurationMetadataResolver metadataResolver;
+
+	private final AppPrefetchProperties properties;
+
+	private final Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+	private final Map<String, Download> inFlight = new ConcurrentHashMap<>();
+
+	private final Deque<Download> finished = new ArrayDeque<>();
+
+	private final ScheduledExecutorService retryScheduler;
+
+	private volatile boolean shutdown;
+
+	public AppPrefetcher(ApplicationConfigurationMetadataResolver metadataResolver,
+			AppPrefetchProperties properties) {
+		Assert.notNull(metadataResolver, "ApplicationConfigurationMetadataResolver must not be null");
+		Assert.notNull(properties, "AppPrefetchProperties must not be null");
+		Assert.isTrue(properties.getMaxAttempts() > 0, "maxAttempts must be strictly positive");
+		this.metadataResolver = metadataResolver;
+		this.properties = properties;
+		this.retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("app-prefetch-retry-"));
+	}
+
+	@Override
+	public void destroy() {
+		shutdown = true;
+		retryScheduler.shutdownNow();
+		for (ThreadPoolExecutor executor : executors.values()) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Queue the download of the artifacts and metadata of the given apps.
+	 *
+	 * @param registrations the apps to prefetch
+	 */
+	public void prefetch(Collection<AppRegistration> registrations) {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		for (AppRegistration registration : registrations) {
+			if (registration.getMetadataUri() != null) {
+				submit(Kind.metadata, registration.getMetadataUri(), registration::getMetadataResource);
+				submit(Kind.artifact, registration.getUri(), registration::getResource);
+			}
+			else {
+				// Resolving the metadata of the app downloads the app itself
+				submit(Kind.metadata, registration.getUri(), registration::getMetadataResource);
+			}
+		}
+	}
+
+	/**
+	 * Return the downloads in progress, followed by the most recently finished ones.
+	 */
+	public List<Download> getDownloads() {
+		List<Download> downloads = new ArrayList<>(inFlight.values());
+		synchronized (finished) {
+			downloads.addAll(finished);
+		}
+		return downloads;
+	}
+
+	private void submit(Kind kind, URI uri, Supplier<Resource> resource) {
+		String scheme = uri.getScheme() != null ? uri.getScheme() : "file";
+		if (properties.concurrencyFor(scheme) <= 0) {
+			return;
+		}
+		Download download = new Download(kind, uri, scheme, resource);
+		if (inFlight.putIfAbsent(download.key, download) == null) {
+			enqueue(download);
+		}
+	}
+
+	private void enqueue(Download download) {
+		download.state = State.queued;
+		try {
+			executorFor(download.scheme).execute(() -> fetch(download));
+		}
+		catch (RejectedExecutionException e) {
+			logger.warn(String.format("Too many pending downloads, not prefetching %s", download.uri));
+			complete(download, State.rejected);
+		}
+	}
+
+	private ThreadPoolExecutor executorFor(String scheme) {
+		return executors.computeIfAbsent(scheme, s -> {
+			int concurrency = properties.concurrencyFor(s);
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+					daemonThreadFactory("app-prefetch-" + s + "-"));
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		});
+	}
+
+	private void complete(Download download, State state) {
+		download.state = state;
+		inFlight.remove(download.key, download);
+		synchronized (finished) {
+			finished.addFirst(download);
+			while (finished.size() > properties.getHistorySize()) {
+				finished.removeLast();
+			}
+		}
+	}
+
+	private void fetch(Download download) {
+		download.state = State.running;
+		download.attempts++;
+		try {
+			Resource resource = download.resource.get();
+			if (download.kind == Kind.metadata) {
+				metadataResolver.listProperties(resource, false);
+				metadataResolver.listProperties(resource, true);
+			}
+			else if (!resource.getFile().exists()) {
+				throw new FileNotFoundException(resource.getDescription() + " does not exist");
+			}
+			download.error = null;
+			complete(download, State.succeeded);
+		}
+		catch (Exception e) {
+			download.error = e.getMessage() != null ? e.getMessage() : e.toString();
+			if (download.attempts < properties.getMaxAttempts() && !shutdown) {
+				long delay = properties.getBackoff() << (download.attempts - 1);
+				logger.debug(String.format("Failed to prefetch %s, retrying in %dms", download.uri, delay), e);
+				download.state = State.retrying;
+				try {
+					retryScheduler.schedule(() -> enqueue(download), delay, TimeUnit.MILLISECONDS);
+				}
+				catch (RejectedExecutionException shuttingDown) {
+					complete(download, State.failed);
+				}
+			}
+			else {
+				logger.warn(String.format("Failed to prefetch %s: %s", download.uri, download.error));
+				complete(download, State.failed);
+			}
+		}
+	}
+
+	private static CustomizableThreadFactory daemonThreadFactory(String prefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	/**
+	 * The download of a resource, along with its progress.
+	 */
+	public static final class Download {
+
+		private final String key;
+
+		private final Kind kind;
+
+		private final URI uri;
+
+		private final String scheme;
+
+		private final Supplier<Resource> resource;
+
+		private volatile State state = State.queued;
+
+		private volatile int attempts;
+
+		private volatile String error;
+
+		private Download(Kind kind, URI uri, String scheme, Supplier<Resource> resource) {
+			this.key = kind + ":" + uri;
+			this.kind = kind;
+			this.uri = uri;
+			this.scheme = scheme;
+			this.resource = resource;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		public URI getUri() {
+			return uri;
+		}
+
+		public State getState() {
+			return state;
+		}
+
+		public int getAttempts() {
+			return attempts;
+		}
+
+		/**
+		 * Return the error of the last failed attempt, if any.
+		 */
+		public String getError() {
+			return error;
+		}
+	}
+}
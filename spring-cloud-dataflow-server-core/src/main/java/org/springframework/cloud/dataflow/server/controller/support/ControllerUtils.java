@@ -15,12 +15,24 @@
  */
 package org.springframework.cloud.dataflow.server.controller.support;
 
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.springframework.cloud.dataflow.rest.resource.DeploymentStateResource;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedResources;
+import org.springframework.hateoas.ResourceAssembler;
+import org.springframework.hateoas.ResourceSupport;
 import org.springframework.util.Assert;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * @author Gunnar Hillert
+ * @author Eric Bottard
  */
 public class ControllerUtils {
 
@@ -36,4 +48,33 @@ public class ControllerUtils {
 		Assert.notNull(result, "Trying to display a DeploymentState that should not appear here: " + state);
 		return result;
 	}
+
+	/**
+	 * Converts a {@link Slice} retrieved using keyset pagination to {@link PagedResources}.
+	 * When more results are available, a {@literal next} link carrying the continuation
+	 * token of the last element (in the {@literal after} request parameter) is added.
+	 * <p>
+	 * No page metadata is included: a keyset page has no number, and counting all
+	 * elements on every page would cost as much as the pagination saves.
+	 *
+	 * @param slice the slice of results
+	 * @param assembler the assembler used to convert each element
+	 * @param keyExtractor extracts the key the slice is sorted by from an element
+	 * @param <T> the type of elements
+	 * @param <R> the type of resources
+	 * @return the paged resources, with self and next links
+	 */
+	public static <T, R extends ResourceSupport> PagedResources<R> toKeysetResources(Slice<T> slice,
+			ResourceAssembler<T, R> assembler, Function<T, String> keyExtractor) {
+		List<R> content = slice.getContent().stream().map(assembler::toResource).collect(Collectors.toList());
+		PagedResources<R> resources = new PagedResources<>(content, null);
+		ServletUriComponentsBuilder builder = ServletUriComponentsBuilder.fromCurrentRequest();
+		resources.add(new Link(builder.build().toUriString(), Link.REL_SELF));
+		if (slice.hasNext()) {
+			T last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			builder.replaceQueryParam("after", KeysetPageable.toToken(keyExtractor.apply(last)));
+			resources.add(new Link(builder.build().toUriString(), Link.REL_NEXT));
+		}
+		return resources;
+	}
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cloud.dataflow.server.config.DeploymentStateCacheProperties;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.app.MultiStateAppDeployer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Serves the status of deployed apps from memory, so that polling clients don't
+ * translate into as many calls to the {@link AppDeployer}.
+ * <p>
+ * Cached statuses are refreshed in the background on a fixed schedule, asking the
+ * deployer for at most {@code parallelism} statuses at a time. Statuses that have not
+ * been read for a while are dropped, and statuses older than {@code maxAge} (should the
+ * refresh fall behind) are fetched again on read. Callers deploying or undeploying an app
+ * must {@link #evict(String) evict} its status.
+ * <p>
+ * When disabled, every read is delegated to the deployer.
+ *
+ * @author Eric Bottard
+ */
+public class DeploymentStateCache implements InitializingBean, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(DeploymentStateCache.class);
+
+	/**
+	 * Number of refresh intervals after which a status that has not been read is dropped.
+	 */
+	private static final int MAX_IDLE_REFRESHES = 10;
+
+	private final AppDeployer deployer;
+
+	private final DeploymentStateCacheProperties properties;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Number of evictions so far, checked by fetches to detect an eviction that happened
+	 * while they were in progress.
+	 */
+	private final AtomicLong evictions = new AtomicLong();
+
+	private ExecutorService fetchExecutor;
+
+	private ScheduledExecutorService refreshScheduler;
+
+	/**
+	 * Create a disabled cache, which always delegates to the given deployer.
+	 *
+	 * @param deployer the deployer to ask for app statuses
+	 */
+	public DeploymentStateCache(AppDeployer deployer) {
+		this(deployer, disabled());
+	}
+
+	/**
+	 * Create a cache configured with the given properties.
+	 *
+	 * @param deployer the deployer to ask for app statuses
+	 * @param properties the cache configuration
+	 */
+	public DeploymentStateCache(AppDeployer deployer, DeploymentStateCacheProperties properties) {
+		Assert.notNull(deployer, "AppDeployer must not be null");
+		Assert.notNull(properties, "DeploymentStateCacheProperties must not be null");
+		Assert.isTrue(properties.getParallelism() > 0, "parallelism must be strictly positive");
+		this.deployer = deployer;
+		this.properties = properties;
+		if (properties.isEnabled()) {
+			this.fetchExecutor = Executors.newFixedThreadPool(properties.getParallelism(),
+					daemonThreadFactory("deployment-state-fetch-"));
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (properties.isEnabled() && properties.getRefreshInterval() > 0) {
+			refreshScheduler = Executors
+					.newSingleThreadScheduledExecutor(daemonThreadFactory("deployment-state-refresh-"));
+			refreshScheduler.scheduleWithFixedDelay(this::refresh, properties.getRefreshInterval(),
+					properties.getRefreshInterval(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (refreshScheduler != null) {
+			refreshScheduler.shutdownNow();
+		}
+		if (fetchExecutor != null) {
+			fetchExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Return the status of a deployed app.
+	 *
+	 * @param deploymentId the id of the app
+	 * @return the status of the app
+	 */
+	public AppStatus getStatus(String deploymentId) {
+		if (!properties.isEnabled()) {
+			return deployer.status(deploymentId);
+		}
+		Entry entry = freshEntry(deploymentId);
+		return entry != null ? entry.status : fetch(deploymentId);
+	}
+
+	/**
+	 * Return the states of several deployed apps, fetching missing ones concurrently.
+	 *
+	 * @param deploymentIds the ids of the apps
+	 * @return the state of each app, keyed by id
+	 */
+	public Map<String, DeploymentState> getStates(Collection<String> deploymentIds) {
+		if (!properties.isEnabled()) {
+			return getCurrentStates(deploymentIds);
+		}
+		Map<String, DeploymentState> states = new HashMap<>();
+		for (Map.Entry<String, AppStatus> status : getStatuses(deploymentIds).entrySet()) {
+			states.put(status.getKey(), status.getValue().getState());
+		}
+		return states;
+	}
+
+	/**
+	 * Return the statuses of several deployed apps, fetching missing ones concurrently
+	 * (or one after the other when the cache is disabled).
+	 *
+	 * @param deploymentIds the ids of the apps
+	 * @return the status of each app, keyed by id
+	 */
+	public Map<String, AppStatus> getStatuses(Collection<String> deploymentIds) {
+		Map<String, AppStatus> statuses = new HashMap<>();
+		if (!properties.isEnabled()) {
+			for (String deploymentId : new LinkedHashSet<>(deploymentIds)) {
+				statuses.put(deploymentId, deployer.status(deploymentId));
+			}
+			return statuses;
+		}
+		List<String> misses = new ArrayList<>();
+		for (String deploymentId : new LinkedHashSet<>(deploymentIds)) {
+			Entry entry = freshEntry(deploymentId);
+			if (entry != null) {
+				statuses.put(deploymentId, entry.status);
+			}
+			else {
+				misses.add(deploymentId);
+			}
+		}
+		Map<String, Future<AppStatus>> futures = new HashMap<>();
+		for (String deploymentId : misses) {
+			futures.put(deploymentId, fetchExecutor.submit(() -> fetch(deploymentId)));
+		}
+		for (Map.Entry<String, Future<AppStatus>> future : futures.entrySet()) {
+			statuses.put(future.getKey(), await(future.getValue()));
+		}
+		return statuses;
+	}
+
+	/**
+	 * Return the states of several deployed apps, as currently reported by the deployer.
+	 * The cache is neither read nor updated, which suits decisions that must not be taken
+	 * on a stale state, such as whether an app can be deployed.
+	 *
+	 * @param deploymentIds the ids of the apps
+	 * @return the state of each app, keyed by id
+	 */
+	public Map<String, DeploymentState> getCurrentStates(Collection<String> deploymentIds) {
+		if (deployer instanceof MultiStateAppDeployer) {
+			return ((MultiStateAppDeployer) deployer).states(deploymentIds.toArray(new String[0]));
+		}
+		Map<String, DeploymentState> states = new HashMap<>();
+		for (String deploymentId : deploymentIds) {
+			states.put(deploymentId, deployer.status(deploymentId).getState());
+		}
+		return states;
+	}
+
+	/**
+	 * Forget the status of an app, typically because it is being deployed or undeployed.
+	 *
+	 * @param deploymentId the id of the app
+	 */
+	public void evict(String deploymentId) {
+		// Counted first, so that a concurrent fetch either sees the count or gets removed
+		evictions.incrementAndGet();
+		entries.remove(deploymentId);
+	}
+
+	/**
+	 * Fetch again all the cached statuses that have been read recently, and drop the
+	 * others. This is invoked periodically once the cache is initialized.
+	 */
+	public void refresh() {
+		long now = System.currentTimeMillis();
+		long maxIdle = MAX_IDLE_REFRESHES * properties.getRefreshInterval();
+		entries.values().removeIf(e -> now - e.lastReadAt > maxIdle);
+		List<Future<?>> futures = new ArrayList<>();
+		for (Map.Entry<String, Entry> cached : entries.entrySet()) {
+			futures.add(fetchExecutor.submit(() -> {
+				try {
+					// Don't resurrect a status evicted while it was being fetched
+					Entry refreshed = new Entry(deployer.status(cached.getKey()), cached.getValue().lastReadAt);
+					entries.replace(cached.getKey(), cached.getValue(), refreshed);
+				}
+				catch (Exception e) {
+					logger.warn(String.format("Failed to refresh status of app '%s': %s", cached.getKey(),
+							e.getMessage()));
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (ExecutionException e) {
+				// Already logged
+			}
+		}
+	}
+
+	private Entry freshEntry(String deploymentId) {
+		Entry entry = entries.get(deploymentId);
+		long now = System.currentTimeMillis();
+		if (entry == null || now - entry.fetchedAt > properties.getMaxAge()) {
+			return null;
+		}
+		entry.lastReadAt = now;
+		return entry;
+	}
+
+	private AppStatus fetch(String deploymentId) {
+		long evictionsBefore = evictions.get();
+		AppStatus status = deployer.status(deploymentId);
+		Entry entry = new Entry(status, System.currentTimeMillis());
+		entries.put(deploymentId, entry);
+		// Don't cache a status that may predate an eviction made while it was being fetched
+		if (evictions.get() != evictionsBefore) {
+			entries.remove(deploymentId, entry);
+		}
+		return status;
+	}
+
+	private static AppStatus await(Future<AppStatus> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while fetching app statuses", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private static CustomizableThreadFactory daemonThreadFactory(String prefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	private static DeploymentStateCacheProperties disabled() {
+		DeploymentStateCacheProperties properties = new DeploymentStateCacheProperties();
+		properties.setEnabled(false);
+		return properties;
+	}
+
+	private static final class Entry {
+
+		private final AppStatus status;
+
+		private final long fetchedAt;
+
+		private volatile long lastReadAt;
+
+		private Entry(AppStatus status, long lastReadAt) {
+			this.status = status;
+			this.fetchedAt = System.currentTimeMillis();
+			this.lastReadAt = lastReadAt;
+		}
+	}
+}
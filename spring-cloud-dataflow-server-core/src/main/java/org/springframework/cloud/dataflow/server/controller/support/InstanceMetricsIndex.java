@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * The values of a fixed set of metrics for each app instance known to the collector,
+ * keyed by instance guid. Each instance maps to an array holding one value per metric, in
+ * the order of {@link #getMetricNames()}, so that enriching an app instance does not
+ * involve scanning its metrics by name.
+ * <p>
+ * The input and output channel send rates always come first, followed by any extra
+ * metrics. Indexes are built once per collector response and never modified afterwards.
+ *
+ * @author Eric Bottard
+ */
+public class InstanceMetricsIndex {
+
+	/**
+	 * Name of the metric holding the rate of messages received by an app.
+	 */
+	public static final String INPUT_SEND_MEAN = "integration.channel.input.send.mean";
+
+	/**
+	 * Name of the metric holding the rate of messages sent by an app.
+	 */
+	public static final String OUTPUT_SEND_MEAN = "integration.channel.output.send.mean";
+
+	private static final String ATTRIBUTE_PREFIX = "metrics.";
+
+	private static final InstanceMetricsIndex EMPTY = new InstanceMetricsIndex(Collections.emptyList(),
+			Collections.emptyList());
+
+	private final String[] metricNames;
+
+	private final String[] attributeNames;
+
+	private final Map<String, double[]> valuesByGuid;
+
+	/**
+	 * Index the given metrics.
+	 *
+	 * @param metrics the metrics returned by the collector
+	 * @param extraMetricNames the names of the metrics to index besides the input and
+	 * output rates
+	 */
+	public InstanceMetricsIndex(List<ApplicationsMetrics> metrics, List<String> extraMetricNames) {
+		Assert.notNull(metrics, "metrics must not be null");
+		Assert.notNull(extraMetricNames, "extraMetricNames must not be null");
+		List<String> names = new ArrayList<>();
+		names.add(INPUT_SEND_MEAN);
+		names.add(OUTPUT_SEND_MEAN);
+		for (String extraMetricName : extraMetricNames) {
+			if (!names.contains(extraMetricName)) {
+				names.add(extraMetricName);
+			}
+		}
+		this.metricNames = names.toArray(new String[names.size()]);
+		this.attributeNames = new String[metricNames.length];
+		Map<String, Integer> positions = new HashMap<>();
+		for (int i = 0; i < metricNames.length; i++) {
+			attributeNames[i] = ATTRIBUTE_PREFIX + metricNames[i];
+			positions.put(metricNames[i], i);
+		}
+		// Kept for compatibility with existing clients
+		attributeNames[0] = "metrics.integration.channel.input.receiveRate";
+		attributeNames[1] = "metrics.integration.channel.output.sendRate";
+
+		this.valuesByGuid = new HashMap<>();
+		for (ApplicationsMetrics streamMetrics : metrics) {
+			if (streamMetrics.getApplications() == null) {
+				continue;
+			}
+			for (ApplicationsMetrics.Application application : streamMetrics.getApplications()) {
+				if (application.getInstances() == null) {
+					continue;
+				}
+				for (ApplicationsMetrics.Instance instance : application.getInstances()) {
+					if (instance.getGuid() != null && instance.getMetrics() != null) {
+						valuesByGuid.put(instance.getGuid(), index(instance.getMetrics(), positions));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return an index that knows no instance.
+	 */
+	public static InstanceMetricsIndex empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Return the names of the indexed metrics.
+	 */
+	public List<String> getMetricNames() {
+		return Collections.unmodifiableList(Arrays.asList(metricNames));
+	}
+
+	/**
+	 * Return the number of indexed metrics, which is also the length of the arrays
+	 * returned by {@link #get(String)}.
+	 */
+	public int size() {
+		return metricNames.length;
+	}
+
+	/**
+	 * Return the name of the app instance attribute that should hold a given metric.
+	 *
+	 * @param position the position of the metric
+	 * @return the name of the attribute
+	 */
+	public String getAttributeName(int position) {
+		return attributeNames[position];
+	}
+
+	/**
+	 * Return the values of the indexed metrics for an app instance. Metrics the instance
+	 * does not report are {@link Double#NaN}. The returned array must not be modified.
+	 *
+	 * @param guid the guid of the app instance
+	 * @return the values of the metrics, or {@literal null} if the instance is unknown
+	 */
+	public double[] get(String guid) {
+		return valuesByGuid.get(guid);
+	}
+
+	/**
+	 * Format a value with two decimals, rounding half up, as
+	 * {@code String.format(Locale.US, "%.2f", value)} would, without the cost of parsing
+	 * a format string in the common case.
+	 *
+	 * @param value the value to format
+	 * @return the formatted value
+	 */
+	public static String format(double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e13) {
+			return String.format(Locale.US, "%.2f", value);
+		}
+		double scaled = Math.abs(value) * 100;
+		if (Math.abs(scaled - Math.floor(scaled) - 0.5) < 1e-6) {
+			// Possible tie, which String.format breaks based on the shortest decimal
+			// representation of the value rather than on its binary one
+			return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+		}
+		long hundredths = Math.round(scaled);
+		StringBuilder builder = new StringBuilder(24);
+		if (Math.copySign(1.0, value) < 0) {
+			builder.append('-');
+		}
+		long fraction = hundredths % 100;
+		builder.append(hundredths / 100).append('.');
+		if (fraction < 10) {
+			builder.append('0');
+		}
+		return builder.append(fraction).toString();
+	}
+
+	private static double[] index(List<ApplicationsMetrics.Metric> metrics, Map<String, Integer> positions) {
+		double[] values = new double[positions.size()];
+		Arrays.fill(values, Double.NaN);
+		for (ApplicationsMetrics.Metric metric : metrics) {
+			Integer position = positions.get(metric.getName());
+			if (position != null && metric.getValue() instanceof Number) {
+				values[position] = ((Number) metric.getValue()).doubleValue();
+			}
+		}
+		return values;
+	}
+}
@@ -20,7 +20,12 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -28,6 +33,8 @@ import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.cloud.dataflow.rest.util.HttpUtils;
 import org.springframework.cloud.dataflow.server.config.MetricsProperties;
 import org.springframework.core.ParameterizedTypeReference;
@@ -36,6 +43,7 @@ import org.springframework.hateoas.hal.Jackson2HalModule;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
@@ -44,10 +52,16 @@ import org.springframework.web.util.UriComponentsBuilder;
 /**
  * Store implementation returning metrics info from a collector application. Implemented
  * via hystrix command having a fallback to empty response.
+ * <p>
+ * In snapshot mode, the metrics are instead pulled from the collector on a fixed schedule
+ * and served from an in-memory {@link MetricsSnapshot}, so that the number of requests
+ * to the collector does not depend on the number of clients. Should a pull fail, the
+ * previous snapshot keeps being served.
  *
  * @author Janne Valkealahti
+ * @author Eric Bottard
  */
-public class MetricStore {
+public class MetricStore implements InitializingBean, DisposableBean {
 
 	private final static List<ApplicationsMetrics> EMPTY_RESPONSE = new ArrayList<ApplicationsMetrics>();
 
@@ -59,6 +73,13 @@ public class MetricStore {
 
 	private String collectorEndpoint;
 
+	/**
+	 * The latest snapshot of the metrics, when in snapshot mode.
+	 */
+	private final AtomicReference<MetricsSnapshot> snapshot = new AtomicReference<>();
+
+	private ScheduledExecutorService refreshScheduler;
+
 	/**
 	 * Instantiates a new metric store.
 	 *
@@ -103,35 +124,70 @@ public class MetricStore {
 		}
 	}
 
+	@Override
+	public void afterPropertiesSet() {
+		if (isSnapshotMode()) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("metrics-snapshot-");
+			threadFactory.setDaemon(true);
+			refreshScheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			refreshScheduler.scheduleWithFixedDelay(this::refreshSnapshot, 0L,
+					metricsProperties.getSnapshot().getRefreshInterval(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (refreshScheduler != null) {
+			refreshScheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Pull the metrics from the collector and make them the current snapshot. The current
+	 * snapshot is left untouched if the collector can't be reached. This is invoked
+	 * periodically in snapshot mode.
+	 */
+	public void refreshSnapshot() {
+		try {
+			List<ApplicationsMetrics> metrics = fetchMetrics(this.collectorEndpoint);
+			snapshot.set(new MetricsSnapshot(metrics, System.currentTimeMillis(),
+					metricsProperties.getInstanceMetrics()));
+		}
+		catch (Exception e) {
+			// Already logged, keep serving the previous snapshot
+		}
+	}
+
+	/**
+	 * Return the latest snapshot of the metrics.
+	 *
+	 * @return the latest snapshot, or {@literal null} when not in snapshot mode or until
+	 * the collector has been successfully reached once
+	 */
+	public MetricsSnapshot getSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Return how old the served metrics are.
+	 *
+	 * @return the age of the latest snapshot in milliseconds, or {@literal -1} when the
+	 * metrics are not served from a snapshot or no snapshot is available yet
+	 */
+	public long getSnapshotAge() {
+		MetricsSnapshot current = snapshot.get();
+		return current != null ? System.currentTimeMillis() - current.getTimestamp() : -1L;
+	}
+
 	@HystrixCommand(fallbackMethod = "defaultMetrics")
 	public List<ApplicationsMetrics> getMetrics() {
 		List<ApplicationsMetrics> metrics = null;
-		if (StringUtils.hasText(this.collectorEndpoint)) {
-			try {
-				PagedResources<ApplicationsMetrics> response = restTemplate.exchange(this.collectorEndpoint,
-						HttpMethod.GET, null, new ParameterizedTypeReference<PagedResources<ApplicationsMetrics>>() {
-						}).getBody();
-				metrics = new ArrayList<>(response.getContent());
-				if (logger.isDebugEnabled()) {
-					logger.debug("Metrics = " + metrics);
-				}
-			}
-			catch (Exception e) {
-				if (e instanceof HttpClientErrorException && e.getMessage().startsWith("401")) {
-					logger.warn(String.format(
-							"Failure while requesting metrics from url '%s': '%s'. "
-									+ "Unauthorized, please provide valid credentials.",
-							this.collectorEndpoint, e.getMessage()));
-				}
-				else {
-					logger.warn(String.format("Failure while requesting metrics from url '%s': %s",
-							this.collectorEndpoint, e.getMessage()));
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("The metrics request failed with:", e);
-				}
-				throw e;
-			}
+		if (isSnapshotMode()) {
+			MetricsSnapshot current = snapshot.get();
+			metrics = current != null ? current.getMetrics() : defaultMetrics();
+		}
+		else if (StringUtils.hasText(this.collectorEndpoint)) {
+			metrics = fetchMetrics(this.collectorEndpoint);
 		}
 		else {
 			metrics = defaultMetrics();
@@ -139,10 +195,102 @@ public class MetricStore {
 		return metrics;
 	}
 
+	/**
+	 * Return the metrics of the given streams only, leaving it to the collector to filter
+	 * out the metrics of other streams.
+	 *
+	 * @param streamNames the names of the streams to return the metrics of
+	 * @return the metrics of the given streams
+	 */
+	@HystrixCommand(fallbackMethod = "defaultMetrics")
+	public List<ApplicationsMetrics> getMetrics(Collection<String> streamNames) {
+		List<ApplicationsMetrics> metrics = null;
+		if (isSnapshotMode()) {
+			MetricsSnapshot current = snapshot.get();
+			metrics = current != null ? current.getMetrics(streamNames) : defaultMetrics(streamNames);
+		}
+		else if (StringUtils.hasText(this.collectorEndpoint) && !streamNames.isEmpty()) {
+			metrics = fetchMetrics(streamsEndpoint(streamNames));
+		}
+		else {
+			metrics = defaultMetrics(streamNames);
+		}
+		return metrics;
+	}
+
+	/**
+	 * Return the values of the metrics to expose for each instance of the given streams,
+	 * see {@link MetricsProperties#getInstanceMetrics()}.
+	 *
+	 * @param streamNames the names of the streams
+	 * @return the indexed metrics, which may include instances of other streams
+	 */
+	@HystrixCommand(fallbackMethod = "defaultInstanceMetrics")
+	public InstanceMetricsIndex getInstanceMetrics(Collection<String> streamNames) {
+		InstanceMetricsIndex instanceMetrics = null;
+		if (isSnapshotMode()) {
+			MetricsSnapshot current = snapshot.get();
+			instanceMetrics = current != null ? current.getInstanceMetrics() : defaultInstanceMetrics(streamNames);
+		}
+		else if (StringUtils.hasText(this.collectorEndpoint) && !streamNames.isEmpty()) {
+			List<ApplicationsMetrics> metrics = fetchMetrics(streamsEndpoint(streamNames));
+			instanceMetrics = new InstanceMetricsIndex(metrics, metricsProperties.getInstanceMetrics());
+		}
+		else {
+			instanceMetrics = defaultInstanceMetrics(streamNames);
+		}
+		return instanceMetrics;
+	}
+
+	public InstanceMetricsIndex defaultInstanceMetrics(Collection<String> streamNames) {
+		return InstanceMetricsIndex.empty();
+	}
+
+	private String streamsEndpoint(Collection<String> streamNames) {
+		return UriComponentsBuilder.fromHttpUrl(this.collectorEndpoint)
+				.queryParam("name", StringUtils.collectionToCommaDelimitedString(streamNames)).build().toUriString();
+	}
+
+	private boolean isSnapshotMode() {
+		return metricsProperties.getSnapshot().isEnabled() && StringUtils.hasText(this.collectorEndpoint);
+	}
+
+	private List<ApplicationsMetrics> fetchMetrics(String url) {
+		try {
+			PagedResources<ApplicationsMetrics> response = restTemplate.exchange(url, HttpMethod.GET, null,
+					new ParameterizedTypeReference<PagedResources<ApplicationsMetrics>>() {
+					}).getBody();
+			List<ApplicationsMetrics> metrics = new ArrayList<>(response.getContent());
+			if (logger.isDebugEnabled()) {
+				logger.debug("Metrics = " + metrics);
+			}
+			return metrics;
+		}
+		catch (Exception e) {
+			if (e instanceof HttpClientErrorException && e.getMessage().startsWith("401")) {
+				logger.warn(String.format(
+						"Failure while requesting metrics from url '%s': '%s'. "
+								+ "Unauthorized, please provide valid credentials.",
+						url, e.getMessage()));
+			}
+			else {
+				logger.warn(String.format("Failure while requesting metrics from url '%s': %s", url, e.getMessage()));
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("The metrics request failed with:", e);
+			}
+			throw e;
+		}
+	}
+
 	public List<ApplicationsMetrics> defaultMetrics() {
 		return EMPTY_RESPONSE;
 	}
 
+	public List<ApplicationsMetrics> defaultMetrics(Collection<String> streamNames) {
+		return EMPTY_RESPONSE;
+	}
+
 	private void validateUsernamePassword(String userName, String password) {
 		if (!StringUtils.isEmpty(password) && StringUtils.isEmpty(userName)) {
 			logger.warn("A password may be specified only together with a username");
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * The metrics returned by the collector at a given point in time, indexed by stream name
+ * and by instance guid.
+ * <p>
+ * Snapshots are never modified once built, so they can be shared by concurrent readers
+ * without locking. Readers must not modify the returned metrics either.
+ *
+ * @author Eric Bottard
+ */
+public class MetricsSnapshot {
+
+	private final List<ApplicationsMetrics> metrics;
+
+	private final Map<String, ApplicationsMetrics> metricsByStreamName;
+
+	private final Map<String, ApplicationsMetrics.Instance> instancesByGuid;
+
+	private final InstanceMetricsIndex instanceMetrics;
+
+	private final long timestamp;
+
+	/**
+	 * Create a snapshot of the given metrics.
+	 *
+	 * @param metrics the metrics returned by the collector
+	 * @param timestamp when the metrics were retrieved, in milliseconds since the epoch
+	 */
+	public MetricsSnapshot(List<ApplicationsMetrics> metrics, long timestamp) {
+		this(metrics, timestamp, Collections.emptyList());
+	}
+
+	/**
+	 * Create a snapshot of the given metrics, which also indexes the values of some
+	 * metrics of each instance.
+	 *
+	 * @param metrics the metrics returned by the collector
+	 * @param timestamp when the metrics were retrieved, in milliseconds since the epoch
+	 * @param extraInstanceMetrics the names of the instance metrics to index besides the
+	 * input and output rates
+	 * @see InstanceMetricsIndex
+	 */
+	public MetricsSnapshot(List<ApplicationsMetrics> metrics, long timestamp, List<String> extraInstanceMetrics) {
+		Assert.notNull(metrics, "metrics must not be null");
+		Map<String, ApplicationsMetrics> metricsByStreamName = new HashMap<>();
+		Map<String, ApplicationsMetrics.Instance> instancesByGuid = new HashMap<>();
+		for (ApplicationsMetrics streamMetrics : metrics) {
+			metricsByStreamName.put(streamMetrics.getName(), streamMetrics);
+			if (streamMetrics.getApplications() == null) {
+				continue;
+			}
+			for (ApplicationsMetrics.Application application : streamMetrics.getApplications()) {
+				if (application.getInstances() == null) {
+					continue;
+				}
+				for (ApplicationsMetrics.Instance instance : application.getInstances()) {
+					instancesByGuid.put(instance.getGuid(), instance);
+				}
+			}
+		}
+		this.metrics = Collections.unmodifiableList(new ArrayList<>(metrics));
+		this.metricsByStreamName = Collections.unmodifiableMap(metricsByStreamName);
+		this.instancesByGuid = Collections.unmodifiableMap(instancesByGuid);
+		this.instanceMetrics = new InstanceMetricsIndex(metrics, extraInstanceMetrics);
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Return the metrics of all streams.
+	 */
+	public List<ApplicationsMetrics> getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Return the metrics of the given streams, skipping the streams the collector knows
+	 * nothing about.
+	 *
+	 * @param streamNames the names of the streams
+	 * @return the metrics of the given streams
+	 */
+	public List<ApplicationsMetrics> getMetrics(Collection<String> streamNames) {
+		List<ApplicationsMetrics> result = new ArrayList<>(streamNames.size());
+		for (String streamName : streamNames) {
+			ApplicationsMetrics streamMetrics = metricsByStreamName.get(streamName);
+			if (streamMetrics != null) {
+				result.add(streamMetrics);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the metrics of an app instance, or {@literal null} if unknown.
+	 *
+	 * @param guid the guid of the app instance
+	 * @return the metrics of the instance
+	 */
+	public ApplicationsMetrics.Instance getInstance(String guid) {
+		return instancesByGuid.get(guid);
+	}
+
+	/**
+	 * Return the values of the indexed metrics of each instance.
+	 */
+	public InstanceMetricsIndex getInstanceMetrics() {
+		return instanceMetrics;
+	}
+
+	/**
+	 * Return when the metrics were retrieved, in milliseconds since the epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+}
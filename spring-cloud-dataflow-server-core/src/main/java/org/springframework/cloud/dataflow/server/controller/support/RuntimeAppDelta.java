@@ -0,0 +1,210 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.util.Assert;
+
+/**
+ * What changed about a deployed app between two polls: its state and, for each of its
+ * instances, its state and metrics. Only changed values are present, and they are
+ * absolute, so that applying the same delta twice is harmless.
+ * <p>
+ * Instances and instance attributes that went away are listed as removed. Removals are
+ * to be applied before the changed values, so that an instance removed then back holds
+ * its new attributes only.
+ *
+ * @author Eric Bottard
+ */
+public class RuntimeAppDelta {
+
+	/**
+	 * Name of the instance attribute holding the state of the instance.
+	 */
+	public static final String INSTANCE_STATE = "state";
+
+	private final String deploymentId;
+
+	private final String state;
+
+	private final Map<String, Map<String, String>> instances;
+
+	private final Set<String> removedInstances;
+
+	private final Map<String, Set<String>> removedAttributes;
+
+	/**
+	 * Create a delta that removes nothing, or the full view of an app.
+	 *
+	 * @param deploymentId the id of the app
+	 * @param state the new state of the app, or {@literal null} if unchanged
+	 * @param instances the changed attributes of each instance, keyed by instance id
+	 */
+	public RuntimeAppDelta(String deploymentId, String state, Map<String, Map<String, String>> instances) {
+		this(deploymentId, state, instances, Collections.emptySet(), Collections.emptyMap());
+	}
+
+	/**
+	 * Create a delta.
+	 *
+	 * @param deploymentId the id of the app
+	 * @param state the new state of the app, or {@literal null} if unchanged
+	 * @param instances the changed attributes of each instance, keyed by instance id
+	 * @param removedInstances the ids of the instances that went away
+	 * @param removedAttributes the keys of the attributes that went away, keyed by
+	 * instance id
+	 */
+	public RuntimeAppDelta(String deploymentId, String state, Map<String, Map<String, String>> instances,
+			Set<String> removedInstances, Map<String, Set<String>> removedAttributes) {
+		Assert.notNull(deploymentId, "deploymentId must not be null");
+		Assert.notNull(instances, "instances must not be null");
+		Assert.notNull(removedInstances, "removedInstances must not be null");
+		Assert.notNull(removedAttributes, "removedAttributes must not be null");
+		this.deploymentId = deploymentId;
+		this.state = state;
+		this.instances = instances;
+		this.removedInstances = removedInstances;
+		this.removedAttributes = removedAttributes;
+	}
+
+	public String getDeploymentId() {
+		return deploymentId;
+	}
+
+	/**
+	 * Return the new state of the app, or {@literal null} if unchanged.
+	 */
+	public String getState() {
+		return state;
+	}
+
+	/**
+	 * Return the changed attributes of each instance, keyed by instance id. Attributes
+	 * are the instance {@link #INSTANCE_STATE state} and metrics.
+	 */
+	public Map<String, Map<String, String>> getInstances() {
+		return instances;
+	}
+
+	/**
+	 * Return the ids of the instances that went away.
+	 */
+	public Set<String> getRemovedInstances() {
+		return removedInstances;
+	}
+
+	/**
+	 * Return the keys of the attributes that went away (typically metrics no longer
+	 * reported), keyed by instance id.
+	 */
+	public Map<String, Set<String>> getRemovedAttributes() {
+		return removedAttributes;
+	}
+
+	/**
+	 * Return whether this delta holds no change at all.
+	 */
+	public boolean isEmpty() {
+		return state == null && instances.isEmpty() && removedInstances.isEmpty() && removedAttributes.isEmpty();
+	}
+
+	/**
+	 * Return the changes between two full views of an app.
+	 *
+	 * @param previous the previous view of the app, or {@literal null} if the app is new
+	 * @param current the current view of the app
+	 * @return the changes, which may be {@link #isEmpty() empty}
+	 */
+	public static RuntimeAppDelta between(RuntimeAppDelta previous, RuntimeAppDelta current) {
+		if (previous == null) {
+			return current;
+		}
+		String state = Objects.equals(previous.state, current.state) ? null : current.state;
+		Map<String, Map<String, String>> instances = new HashMap<>();
+		Map<String, Set<String>> removedAttributes = new HashMap<>();
+		for (Map.Entry<String, Map<String, String>> instance : current.instances.entrySet()) {
+			Map<String, String> before = previous.instances.getOrDefault(instance.getKey(), Collections.emptyMap());
+			Map<String, String> changed = new HashMap<>();
+			for (Map.Entry<String, String> attribute : instance.getValue().entrySet()) {
+				if (!attribute.getValue().equals(before.get(attribute.getKey()))) {
+					changed.put(attribute.getKey(), attribute.getValue());
+				}
+			}
+			if (!changed.isEmpty()) {
+				instances.put(instance.getKey(), changed);
+			}
+			Set<String> removed = new HashSet<>(before.keySet());
+			removed.removeAll(instance.getValue().keySet());
+			if (!removed.isEmpty()) {
+				removedAttributes.put(instance.getKey(), removed);
+			}
+		}
+		Set<String> removedInstances = new HashSet<>(previous.instances.keySet());
+		removedInstances.removeAll(current.instances.keySet());
+		return new RuntimeAppDelta(current.deploymentId, state, instances, removedInstances, removedAttributes);
+	}
+
+	/**
+	 * Combine this delta with a more recent one, so that only the combination needs to be
+	 * sent.
+	 *
+	 * @param newer the more recent delta for the same app
+	 * @return the combined delta
+	 */
+	public RuntimeAppDelta merge(RuntimeAppDelta newer) {
+		Map<String, Map<String, String>> merged = new HashMap<>();
+		for (Map.Entry<String, Map<String, String>> instance : instances.entrySet()) {
+			merged.put(instance.getKey(), new HashMap<>(instance.getValue()));
+		}
+		Set<String> mergedRemovedInstances = new HashSet<>(removedInstances);
+		Map<String, Set<String>> mergedRemovedAttributes = new HashMap<>();
+		for (Map.Entry<String, Set<String>> instance : removedAttributes.entrySet()) {
+			mergedRemovedAttributes.put(instance.getKey(), new HashSet<>(instance.getValue()));
+		}
+		// Removals of the newer delta undo the changes of this one, then its changes apply
+		for (String instanceId : newer.removedInstances) {
+			merged.remove(instanceId);
+			mergedRemovedAttributes.remove(instanceId);
+			mergedRemovedInstances.add(instanceId);
+		}
+		for (Map.Entry<String, Set<String>> instance : newer.removedAttributes.entrySet()) {
+			Map<String, String> attributes = merged.get(instance.getKey());
+			if (attributes != null) {
+				attributes.keySet().removeAll(instance.getValue());
+			}
+			mergedRemovedAttributes.computeIfAbsent(instance.getKey(), k -> new HashSet<>())
+					.addAll(instance.getValue());
+		}
+		for (Map.Entry<String, Map<String, String>> instance : newer.instances.entrySet()) {
+			merged.computeIfAbsent(instance.getKey(), k -> new HashMap<>()).putAll(instance.getValue());
+		}
+		for (Iterator<Map<String, String>> it = merged.values().iterator(); it.hasNext();) {
+			if (it.next().isEmpty()) {
+				it.remove();
+			}
+		}
+		return new RuntimeAppDelta(deploymentId, newer.state != null ? newer.state : state, merged,
+				mergedRemovedInstances, mergedRemovedAttributes);
+	}
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cloud.dataflow.server.config.RuntimeAppsProperties;
+import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
+import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes the changes of the state and metrics of deployed apps to subscribers, as
+ * server-sent events.
+ * <p>
+ * A single poller fetches the statuses (through the {@link DeploymentStateCache}) and
+ * metrics of all deployed apps, whatever the number of subscribers, and only while there
+ * is at least one. Each poll is compared with the previous one, and the changes are
+ * queued to every subscriber as {@link RuntimeAppDelta}s. Subscribers that can't keep up
+ * don't hold the poller back: changes queued while they are being sent previous ones are
+ * coalesced, one delta per app.
+ * <p>
+ * New subscribers first receive the full picture from the last poll, right away. If that
+ * poll is older than the poll interval, as happens after a period without subscribers, a
+ * catch-up poll is scheduled on the poller thread, whose changes reach the new subscriber
+ * like any other.
+ *
+ * @author Eric Bottard
+ */
+public class RuntimeAppsEventPublisher implements InitializingBean, DisposableBean {
+
+	/**
+	 * Name of the events sent to subscribers.
+	 */
+	public static final String EVENT_NAME = "app";
+
+	private static final Log logger = LogFactory.getLog(RuntimeAppsEventPublisher.class);
+
+	private static final int DEPLOYMENT_IDS_PAGE_SIZE = 500;
+
+	private static final int SENDER_THREADS = 4;
+
+	private final DeploymentIdRepository deploymentIdRepository;
+
+	private final DeploymentStateCache deploymentStateCache;
+
+	private final MetricStore metricStore;
+
+	private final RuntimeAppsProperties properties;
+
+	private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+	/**
+	 * Full view of each app as of the last poll.
+	 */
+	private volatile Map<String, RuntimeAppDelta> current = Collections.emptyMap();
+
+	private volatile long lastPolledAt;
+
+	/**
+	 * Held while fetching, so that polls don't overlap. Publishing a poll additionally
+	 * holds the monitor of this publisher, which subscribing only waits for briefly.
+	 */
+	private final Object pollLock = new Object();
+
+	private ScheduledExecutorService pollScheduler;
+
+	private ExecutorService sendExecutor;
+
+	public RuntimeAppsEventPublisher(DeploymentIdRepository deploymentIdRepository,
+			DeploymentStateCache deploymentStateCache, MetricStore metricStore, RuntimeAppsProperties properties) {
+		Assert.notNull(deploymentIdRepository, "DeploymentIdRepository must not be null");
+		Assert.notNull(deploymentStateCache, "DeploymentStateCache must not be null");
+		Assert.notNull(metricStore, "MetricStore must not be null");
+		Assert.notNull(properties, "RuntimeAppsProperties must not be null");
+		this.deploymentIdRepository = deploymentIdRepository;
+		this.deploymentStateCache = deploymentStateCache;
+		this.metricStore = metricStore;
+		this.properties = properties;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		pollScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("runtime-apps-events-poll-"));
+		pollScheduler.scheduleWithFixedDelay(this::pollIfSubscribed, properties.getEventsPollInterval(),
+				properties.getEventsPollInterval(), TimeUnit.MILLISECONDS);
+		sendExecutor = Executors.newFixedThreadPool(SENDER_THREADS, daemonThreadFactory("runtime-apps-events-send-"));
+	}
+
+	@Override
+	public void destroy() {
+		if (pollScheduler != null) {
+			pollScheduler.shutdownNow();
+		}
+		if (sendExecutor != null) {
+			sendExecutor.shutdownNow();
+		}
+		for (Subscriber subscriber : subscribers) {
+			subscriber.close();
+		}
+	}
+
+	/**
+	 * Subscribe to the changes of deployed apps.
+	 *
+	 * @return the emitter the events will be sent through
+	 */
+	public SseEmitter subscribe() {
+		SseEmitter emitter = new SseEmitter(properties.getEventsTimeout());
+		Subscriber subscriber = new Subscriber(emitter);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		synchronized (this) {
+			// Holding the lock, no poll can publish changes the snapshot doesn't include
+			subscribers.add(subscriber);
+			subscriber.offer(current.values());
+		}
+		// The last poll may be long gone, as polling stops while nobody is subscribed
+		if (System.currentTimeMillis() - lastPolledAt > properties.getEventsPollInterval() && pollScheduler != null) {
+			try {
+				pollScheduler.execute(this::pollIfSubscribed);
+			}
+			catch (RejectedExecutionException e) {
+				// Shutting down
+			}
+		}
+		return emitter;
+	}
+
+	/**
+	 * Return the number of current subscribers.
+	 */
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	/**
+	 * Fetch the statuses and metrics of all deployed apps and publish the changes since
+	 * the last poll to subscribers. Polls don't overlap.
+	 *
+	 * @return the changes since the last poll
+	 */
+	public List<RuntimeAppDelta> poll() {
+		synchronized (pollLock) {
+			Map<String, RuntimeAppDelta> latest = fetchAll();
+			return publish(latest);
+		}
+	}
+
+	private synchronized List<RuntimeAppDelta> publish(Map<String, RuntimeAppDelta> latest) {
+		Map<String, RuntimeAppDelta> previous = current;
+		List<RuntimeAppDelta> deltas = new ArrayList<>();
+		for (RuntimeAppDelta app : latest.values()) {
+			RuntimeAppDelta delta = RuntimeAppDelta.between(previous.get(app.getDeploymentId()), app);
+			if (!delta.isEmpty()) {
+				deltas.add(delta);
+			}
+		}
+		for (RuntimeAppDelta app : previous.values()) {
+			if (!latest.containsKey(app.getDeploymentId())) {
+				deltas.add(RuntimeAppDelta.between(app, new RuntimeAppDelta(app.getDeploymentId(),
+						ControllerUtils.mapState(DeploymentState.undeployed).getKey(), Collections.emptyMap())));
+			}
+		}
+		current = Collections.unmodifiableMap(latest);
+		lastPolledAt = System.currentTimeMillis();
+		if (!deltas.isEmpty()) {
+			for (Subscriber subscriber : subscribers) {
+				subscriber.offer(deltas);
+			}
+		}
+		return deltas;
+	}
+
+	private void pollIfSubscribed() {
+		if (subscribers.isEmpty()) {
+			return;
+		}
+		try {
+			poll();
+		}
+		catch (Exception e) {
+			logger.warn("Failed to poll the status of runtime apps: " + e.getMessage(), e);
+		}
+	}
+
+	private Map<String, RuntimeAppDelta> fetchAll() {
+		Map<String, String> deploymentIds = new LinkedHashMap<>();
+		Page<Map.Entry<String, String>> page;
+		int pageNumber = 0;
+		do {
+			page = deploymentIdRepository.findAllOrderedById(new PageRequest(pageNumber++, DEPLOYMENT_IDS_PAGE_SIZE));
+			for (Map.Entry<String, String> deployment : page) {
+				deploymentIds.put(deployment.getKey(), deployment.getValue());
+			}
+		}
+		while (page.hasNext());
+
+		Set<String> streamNames = new HashSet<>();
+		for (String key : deploymentIds.keySet()) {
+			// Stream app deployment keys are of the form <stream>.<app>
+			int dot = key.lastIndexOf('.');
+			if (dot > 0) {
+				streamNames.add(key.substring(0, dot));
+			}
+		}
+		InstanceMetricsIndex metrics = streamNames.isEmpty() ? InstanceMetricsIndex.empty()
+				: metricStore.getInstanceMetrics(streamNames);
+
+		Map<String, AppStatus> statuses = deploymentStateCache.getStatuses(deploymentIds.values());
+		Map<String, RuntimeAppDelta> apps = new LinkedHashMap<>();
+		for (String deploymentId : deploymentIds.values()) {
+			AppStatus status = statuses.get(deploymentId);
+			Map<String, Map<String, String>> instances = new HashMap<>();
+			for (AppInstanceStatus instance : status.getInstances().values()) {
+				Map<String, String> attributes = new HashMap<>();
+				attributes.put(RuntimeAppDelta.INSTANCE_STATE, ControllerUtils.mapState(instance.getState()).getKey());
+				double[] values = metrics.get(instance.getAttributes().get("guid"));
+				if (values != null) {
+					for (int i = 0; i < values.length; i++) {
+						if (!Double.isNaN(values[i])) {
+							attributes.put(metrics.getAttributeName(i), InstanceMetricsIndex.format(values[i]));
+						}
+					}
+				}
+				instances.put(instance.getId(), attributes);
+			}
+			apps.put(deploymentId, new RuntimeAppDelta(deploymentId,
+					ControllerUtils.mapState(status.getState()).getKey(), instances));
+		}
+		return apps;
+	}
+
+	private static CustomizableThreadFactory daemonThreadFactory(String prefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	/**
+	 * A subscriber, along with the changes not sent to it yet. At most one send per
+	 * subscriber is in progress at any time.
+	 */
+	private final class Subscriber {
+
+		private final SseEmitter emitter;
+
+		private final Map<String, RuntimeAppDelta> pending = new LinkedHashMap<>();
+
+		private boolean sending;
+
+		private Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		private void offer(Collection<RuntimeAppDelta> deltas) {
+			synchronized (this) {
+				for (RuntimeAppDelta delta : deltas) {
+					pending.merge(delta.getDeploymentId(), delta, RuntimeAppDelta::merge);
+				}
+				if (sending || pending.isEmpty() || sendExecutor == null) {
+					return;
+				}
+				sending = true;
+			}
+			try {
+				sendExecutor.execute(this::drain);
+			}
+			catch (RejectedExecutionException e) {
+				// Shutting down, keep the changes pending
+				synchronized (this) {
+					sending = false;
+				}
+			}
+		}
+
+		private void drain() {
+			while (true) {
+				List<RuntimeAppDelta> batch;
+				synchronized (this) {
+					if (pending.isEmpty()) {
+						sending = false;
+						return;
+					}
+					batch = new ArrayList<>(pending.values());
+					pending.clear();
+				}
+				try {
+					for (RuntimeAppDelta delta : batch) {
+						emitter.send(SseEmitter.event().name(EVENT_NAME).data(delta, MediaType.APPLICATION_JSON));
+					}
+				}
+				catch (Exception e) {
+					// Most likely the client went away
+					logger.debug("Failed to send runtime apps event, unsubscribing", e);
+					subscribers.remove(this);
+					close();
+					return;
+				}
+			}
+		}
+
+		private void close() {
+			try {
+				emitter.complete();
+			}
+			catch (Exception e) {
+				// Already completed
+			}
+		}
+	}
+}
@@ -17,24 +17,38 @@
 package org.springframework.cloud.dataflow.server.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
+import org.springframework.cloud.dataflow.server.repository.support.DatabaseType;
+import org.springframework.cloud.dataflow.server.repository.support.DefinitionSearchIndex;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.repository.support.Order;
 import org.springframework.cloud.dataflow.server.repository.support.PagingQueryProvider;
+import org.springframework.cloud.dataflow.server.repository.support.PagingQueryProviderRegistry;
 import org.springframework.cloud.dataflow.server.repository.support.SearchPageable;
-import org.springframework.cloud.dataflow.server.repository.support.SqlPagingQueryProviderFactoryBean;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -51,6 +65,22 @@ import org.springframework.util.StringUtils;
  */
 public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSortingRepository<D, String> {
 
+	/**
+	 * Maximum number of keys bound to a single IN clause, as some databases (Oracle for
+	 * one) cap the size of IN lists.
+	 */
+	protected static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
+	/**
+	 * Databases for which the total number of filtered rows is returned along with each
+	 * row of a page, using a {@code COUNT(*) OVER()} window. This requires both window
+	 * function support and a non nested page query, as the nested page queries of other
+	 * dialects would evaluate the window over the page only.
+	 */
+	private static final Set<DatabaseType> WINDOWED_COUNT_DATABASE_TYPES = EnumSet.of(DatabaseType.POSTGRES);
+
+	private static final String TOTAL_COUNT_COLUMN = "TOTAL_COUNT";
+
 	protected final String LIST_OF_NAMES = "listnames";
 
 	protected final RowMapper<D> rowMapper;
@@ -81,6 +111,14 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 
 	protected LinkedHashMap<String, Order> orderMap;
 
+	protected PagingQueryProviderRegistry pagingQueryProviderRegistry;
+
+	/**
+	 * Optional index answering searches on the key and value columns without querying the
+	 * database, see {@link #createFromKeyValue(String, String)}.
+	 */
+	protected DefinitionSearchIndex searchIndex;
+
 	private String findAllQuery;
 
 	private String findAllWhereClauseByKey;
@@ -102,6 +140,7 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 		this.jdbcTemplate = new JdbcTemplate(dataSource);
 		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
 		this.dataSource = dataSource;
+		this.pagingQueryProviderRegistry = new PagingQueryProviderRegistry(dataSource);
 		this.orderMap = new LinkedHashMap<>();
 		this.orderMap.put(keyColumn, Order.ASCENDING);
 		this.tablePrefix = tablePrefix;
@@ -141,6 +180,9 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 
 	public Page<D> search(SearchPageable searchPageable) {
 		Assert.notNull(searchPageable, "searchPageable must not be null.");
+		if (searchIndex != null && isSearchIndexApplicable(searchPageable)) {
+			return searchUsingIndex(searchPageable);
+		}
 
 		final StringBuilder whereClause = new StringBuilder("WHERE ");
 		final List<String> params = new ArrayList<>();
@@ -154,16 +196,116 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 			}
 		}
 
-		return queryForPageableResults(searchPageable.getPageable(), selectClause, tableName, whereClause.toString(),
-				params.toArray(), count());
+		return queryForFilteredPageableResults(searchPageable.getPageable(), whereClause.toString(), params.toArray());
 	}
 
+	private boolean isSearchIndexApplicable(SearchPageable searchPageable) {
+		// LIKE wildcards in the query are left to the database, as the index only matches
+		// plain substrings
+		String searchQuery = searchPageable.getSearchQuery();
+		if (searchQuery.indexOf('%') >= 0 || searchQuery.indexOf('_') >= 0) {
+			return false;
+		}
+		List<String> columns = new ArrayList<>(searchPageable.getColumns());
+		if (searchPageable.getPageable().getSort() != null) {
+			for (Sort.Order order : searchPageable.getPageable().getSort()) {
+				columns.add(order.getProperty());
+			}
+		}
+		return columns.stream().allMatch(c -> keyColumn.equalsIgnoreCase(c) || valueColumn.equalsIgnoreCase(c));
+	}
+
+	private Page<D> searchUsingIndex(SearchPageable searchPageable) {
+		searchIndex.initialize(() -> {
+			Map<String, String> rows = new HashMap<>();
+			jdbcTemplate.query(findAllQuery, (RowCallbackHandler) rs -> rows.put(rs.getString(keyColumn),
+					rs.getString(valueColumn)));
+			return rows;
+		});
+		List<Map.Entry<String, String>> matches = searchIndex.search(searchPageable.getSearchQuery(),
+				searchPageable.getColumns().stream().anyMatch(keyColumn::equalsIgnoreCase),
+				searchPageable.getColumns().stream().anyMatch(valueColumn::equalsIgnoreCase));
+
+		Pageable pageable = searchPageable.getPageable();
+		Comparator<Map.Entry<String, String>> comparator = null;
+		Iterable<Sort.Order> orders = pageable.getSort() != null ? pageable.getSort()
+				: new Sort(Sort.Direction.ASC, keyColumn);
+		for (Sort.Order order : orders) {
+			Comparator<Map.Entry<String, String>> byColumn = keyColumn.equalsIgnoreCase(order.getProperty())
+					? Map.Entry.comparingByKey() : Map.Entry.comparingByValue();
+			byColumn = order.isAscending() ? byColumn : byColumn.reversed();
+			comparator = comparator == null ? byColumn : comparator.thenComparing(byColumn);
+		}
+		matches.sort(comparator);
+
+		List<D> content = new ArrayList<>();
+		for (int i = pageable.getOffset(); i < matches.size() && content.size() < pageable.getPageSize(); i++) {
+			content.add(createFromKeyValue(matches.get(i).getKey(), matches.get(i).getValue()));
+		}
+		return new PageImpl<>(content, pageable, matches.size());
+	}
+
+	/**
+	 * Make the in-memory indexes of this repository load the table again on next use, as
+	 * they do after a restart. Rows written to the table other than through this
+	 * repository are not visible to searches until then.
+	 */
+	public void invalidateIndexes() {
+		if (searchIndex != null) {
+			searchIndex.invalidate();
+		}
+	}
+
+	/**
+	 * Create a domain object from its key and value, as read from the key and value
+	 * columns. Used to answer searches from the {@link #searchIndex}.
+	 *
+	 * @param key the key of the domain object
+	 * @param value the value of the domain object
+	 * @return the domain object
+	 */
+	protected abstract D createFromKeyValue(String key, String value);
+
 	@Override
 	public Page<D> findAll(Pageable pageable) {
 		Assert.notNull(pageable, "pageable must not be null");
 		return queryForPageableResults(pageable, selectClause, tableName, null, new Object[] {}, count());
 	}
 
+	/**
+	 * Return a slice of rows sorted by key, starting right after the key of the last row
+	 * of the previous slice. Unlike {@link #findAll(Pageable)}, the cost of retrieving a
+	 * slice does not depend on how deep into the results it is.
+	 *
+	 * @param keysetPageable the slice to retrieve
+	 * @return the slice of results, which tells whether more rows are available
+	 */
+	public Slice<D> findAll(KeysetPageable keysetPageable) {
+		Assert.notNull(keysetPageable, "keysetPageable must not be null");
+		boolean descending = keysetPageable.getDirection() == Sort.Direction.DESC;
+		LinkedHashMap<String, Order> sortKeys = new LinkedHashMap<>();
+		sortKeys.put(keyColumn, descending ? Order.DESCENDING : Order.ASCENDING);
+		String whereClause = null;
+		Object[] queryParam = new Object[] {};
+		if (keysetPageable.getAfterKey() != null) {
+			whereClause = "WHERE " + keyColumn + (descending ? " < ?" : " > ?");
+			queryParam = new Object[] { keysetPageable.getAfterKey() };
+		}
+		PagingQueryProvider pagingQueryProvider = pagingQueryProviderRegistry.getProvider(selectClause, tableName,
+				whereClause, sortKeys);
+		// Always the first page of the filtered rows, plus one row to detect whether there
+		// is a next slice
+		int pageSize = keysetPageable.getPageSize();
+		String query = pagingQueryProvider.getPageQuery(new PageRequest(0, pageSize + 1));
+		List<D> resultList = jdbcTemplate.query(query, queryParam, rowMapper);
+		boolean hasNext = resultList.size() > pageSize;
+		if (hasNext) {
+			resultList = new ArrayList<>(resultList.subList(0, pageSize));
+		}
+		return new SliceImpl<>(resultList, new PageRequest(0, pageSize, keysetPageable.getDirection(), keyColumn),
+				hasNext);
+	}
+
 	@Override
 	public <S extends D> Iterable<S> save(Iterable<S> iterableDefinitions) {
 		Assert.notNull(iterableDefinitions, "iterableDefinitions must not be null");
@@ -216,6 +358,24 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 		return namedParameterJdbcTemplate.query(findAllWhereInClause, namedParameters, rowMapper);
 	}
 
+	/**
+	 * Select the rows matching the given keys, issuing one query per
+	 * {@link #IN_CLAUSE_CHUNK_SIZE} distinct keys.
+	 *
+	 * @param keys the keys to look up
+	 * @param rowCallbackHandler invoked for each matching row, which contains both the key
+	 * and value columns
+	 */
+	protected void queryByKeys(Collection<String> keys, RowCallbackHandler rowCallbackHandler) {
+		Assert.notNull(keys, "keys must not be null");
+		List<String> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+		for (int from = 0; from < distinctKeys.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+			List<String> chunk = distinctKeys.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinctKeys.size()));
+			MapSqlParameterSource namedParameters = new MapSqlParameterSource(LIST_OF_NAMES, chunk);
+			namedParameterJdbcTemplate.query(findAllWhereInClause, namedParameters, rowCallbackHandler);
+		}
+	}
+
 	@Override
 	public long count() {
 		try {
@@ -230,6 +390,9 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 	public void delete(String name) {
 		Assert.hasText(name, "name must not be empty nor null");
 		jdbcTemplate.update(deleteFromTableByKey, name);
+		if (searchIndex != null) {
+			searchIndex.remove(name);
+		}
 	}
 
 	@Override
@@ -243,6 +406,9 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 	@Override
 	public void deleteAll() {
 		jdbcTemplate.update(deleteFromTableClause);
+		if (searchIndex != null) {
+			searchIndex.clear();
+		}
 	}
 
 	private String updatePrefixSuffix(String base) {
@@ -252,15 +418,48 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 
 	private Page<D> queryForPageableResults(Pageable pageable, String selectClause, String tableName,
 			String whereClause, Object[] queryParam, long totalCount) {
-		// FIXME Possible performance improvement refactoring so factory isn't called
-		// every time.
-		SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
-		factoryBean.setSelectClause(selectClause);
-		factoryBean.setFromClause(tableName);
-		if (StringUtils.hasText(whereClause)) {
-			factoryBean.setWhereClause(whereClause);
+		String query = getPageQuery(pageable, selectClause, whereClause);
+		List<D> resultList = jdbcTemplate.query(query, queryParam, rowMapper);
+		return new PageImpl<>(resultList, pageable, totalCount);
+	}
+
+	/**
+	 * Return a page of the rows matching the given where clause, along with the total
+	 * number of matching rows. The total is retrieved in the same round trip where the
+	 * database allows it, is derived from the page itself when the page is the last one,
+	 * and requires a filtered count query otherwise.
+	 */
+	private Page<D> queryForFilteredPageableResults(Pageable pageable, String whereClause, Object[] queryParam) {
+		final long[] totalCount = { -1L };
+		List<D> resultList;
+		if (WINDOWED_COUNT_DATABASE_TYPES.contains(pagingQueryProviderRegistry.getDatabaseType())) {
+			String query = getPageQuery(pageable,
+					selectClause + ", COUNT(*) OVER() AS " + TOTAL_COUNT_COLUMN + " ", whereClause);
+			resultList = jdbcTemplate.query(query, queryParam, (rs, rowNum) -> {
+				if (rowNum == 0) {
+					totalCount[0] = rs.getLong(TOTAL_COUNT_COLUMN);
+				}
+				return rowMapper.mapRow(rs, rowNum);
+			});
+		}
+		else {
+			resultList = jdbcTemplate.query(getPageQuery(pageable, selectClause, whereClause), queryParam,
+					rowMapper);
+		}
+		if (totalCount[0] < 0) {
+			if (resultList.size() < pageable.getPageSize() && (!resultList.isEmpty() || pageable.getOffset() == 0)) {
+				// Last page, no need to ask the database
+				totalCount[0] = pageable.getOffset() + resultList.size();
+			}
+			else {
+				totalCount[0] = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName + whereClause,
+						queryParam, Long.class);
+			}
 		}
+		return new PageImpl<>(resultList, pageable, totalCount[0]);
+	}
 
+	private String getPageQuery(Pageable pageable, String selectClause, String whereClause) {
 		final Sort sort = pageable.getSort();
 		final LinkedHashMap<String, Order> sortOrderMap = new LinkedHashMap<>();
 
@@ -270,24 +469,8 @@ public abstract class AbstractRdbmsKeyValueRepository<D> implements PagingAndSor
 			}
 		}
 
-		if (!CollectionUtils.isEmpty(sortOrderMap)) {
-			factoryBean.setSortKeys(sortOrderMap);
-		}
-		else {
-			factoryBean.setSortKeys(this.orderMap);
-		}
-
-		factoryBean.setDataSource(this.dataSource);
-		PagingQueryProvider pagingQueryProvider;
-		try {
-			pagingQueryProvider = factoryBean.getObject();
-			pagingQueryProvider.init(this.dataSource);
-		}
-		catch (Exception e) {
-			throw new IllegalStateException(e);
-		}
-		String query = pagingQueryProvider.getPageQuery(pageable);
-		List<D> resultList = jdbcTemplate.query(query, queryParam, rowMapper);
-		return new PageImpl<>(resultList, pageable, totalCount);
+		PagingQueryProvider pagingQueryProvider = pagingQueryProviderRegistry.getProvider(selectClause, tableName,
+				whereClause, CollectionUtils.isEmpty(sortOrderMap) ? this.orderMap : sortOrderMap);
+		return pagingQueryProvider.getPageQuery(pageable);
 	}
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operations on many task executions at once, complementing the
+ * {@link org.springframework.cloud.task.repository.TaskRepository} and
+ * {@link org.springframework.cloud.task.repository.TaskExplorer}, which deal with one
+ * execution at a time.
+ *
+ * @author Eric Bottard
+ */
+public interface BulkTaskExecutionRepository {
+
+	/**
+	 * Create an execution for each of the given task names, in a single batch.
+	 *
+	 * @param taskNames the names of the tasks to create executions for
+	 * @return the ids of the created executions, in the order of the task names
+	 */
+	List<Long> createTaskExecutions(List<String> taskNames);
+
+	/**
+	 * Find the ids of the job executions associated with several task executions at once.
+	 *
+	 * @param taskExecutionIds the ids of the task executions
+	 * @return a map from task execution id to the sorted ids of its job executions, which
+	 * only contains entries for task executions that have job executions
+	 */
+	Map<Long, Set<Long>> findJobExecutionIds(Collection<Long> taskExecutionIds);
+}
@@ -16,6 +16,11 @@
 
 package org.springframework.cloud.dataflow.server.repository;
 
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -44,6 +49,25 @@ public interface DeploymentIdRepository extends org.springframework.data.reposit
 	 */
 	String findOne(String key);
 
+	/**
+	 * Find the identifiers associated with several keys at once.
+	 *
+	 * @param keys the app deployment keys
+	 * @return a map from key to identifier, which only contains entries for keys that
+	 * have an associated identifier
+	 */
+	Map<String, String> findAll(Collection<String> keys);
+
+	/**
+	 * Find a page of all the app deployment keys along with their identifier, sorted by
+	 * identifier. Any sort requested by the given pageable is ignored.
+	 *
+	 * @param pageable the page to retrieve
+	 * @return the page of entries, keyed by app deployment key and valued with the
+	 * identifier
+	 */
+	Page<Map.Entry<String, String>> findAllOrderedById(Pageable pageable);
+
 	/**
 	 * Delete the entries associated with the app deployment key.
 	 *
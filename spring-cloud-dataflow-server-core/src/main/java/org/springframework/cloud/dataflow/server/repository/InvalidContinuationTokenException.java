@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository;
+
+/**
+ * Thrown when a keyset pagination continuation token could not be decoded.
+ *
+ * @author Eric Bottard
+ */
+public class InvalidContinuationTokenException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String token;
+
+	public InvalidContinuationTokenException(String token, Throwable cause) {
+		super("Invalid continuation token '" + token + "'", cause);
+		this.token = token;
+	}
+
+	/**
+	 * @return the continuation token that could not be decoded
+	 */
+	public String getToken() {
+		return token;
+	}
+}
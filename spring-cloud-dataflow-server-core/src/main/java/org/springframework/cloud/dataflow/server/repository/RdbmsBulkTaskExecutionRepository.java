@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.item.database.support.DefaultDataFieldMaxValueIncrementerFactory;
+import org.springframework.cloud.dataflow.server.repository.support.DatabaseType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.util.Assert;
+
+/**
+ * RDBMS implementation of {@link BulkTaskExecutionRepository}, working directly on the
+ * Spring Cloud Task schema (with its default {@code TASK_} table prefix).
+ *
+ * @author Eric Bottard
+ */
+public class RdbmsBulkTaskExecutionRepository implements BulkTaskExecutionRepository {
+
+	private static final String TABLE_PREFIX = "TASK_";
+
+	private static final String INSERT_EXECUTION = "INSERT INTO " + TABLE_PREFIX
+			+ "EXECUTION (TASK_EXECUTION_ID, TASK_NAME, LAST_UPDATED) VALUES (?, ?, ?)";
+
+	private static final int[] INSERT_EXECUTION_TYPES = { Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP };
+
+	private static final String FIND_JOB_EXECUTION_IDS = "SELECT TASK_EXECUTION_ID, JOB_EXECUTION_ID FROM "
+			+ TABLE_PREFIX + "TASK_BATCH WHERE TASK_EXECUTION_ID IN (:taskExecutionIds)";
+
+	/**
+	 * Maximum number of ids bound to a single IN clause, as some databases limit the
+	 * size of IN lists.
+	 */
+	private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
+	private final DataSource dataSource;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	/**
+	 * Created on first use, as the database may not be available yet at startup.
+	 */
+	private DataFieldMaxValueIncrementer executionIncrementer;
+
+	public RdbmsBulkTaskExecutionRepository(DataSource dataSource) {
+		Assert.notNull(dataSource, "dataSource must not be null");
+		this.dataSource = dataSource;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+	}
+
+	@Override
+	public List<Long> createTaskExecutions(List<String> taskNames) {
+		List<Long> ids = new ArrayList<>(taskNames.size());
+		List<Object[]> rows = new ArrayList<>(taskNames.size());
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		DataFieldMaxValueIncrementer incrementer = executionIncrementer();
+		for (String taskName : taskNames) {
+			long id = incrementer.nextLongValue();
+			ids.add(id);
+			rows.add(new Object[] { id, taskName, now });
+		}
+		if (!rows.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERT_EXECUTION, rows, INSERT_EXECUTION_TYPES);
+		}
+		return ids;
+	}
+
+	@Override
+	public Map<Long, Set<Long>> findJobExecutionIds(Collection<Long> taskExecutionIds) {
+		if (taskExecutionIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Long, Set<Long>> jobExecutionIds = new HashMap<>();
+		List<Long> ids = new ArrayList<>(taskExecutionIds);
+		for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+			List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+			namedParameterJdbcTemplate.query(FIND_JOB_EXECUTION_IDS,
+					new MapSqlParameterSource("taskExecutionIds", chunk),
+					(RowCallbackHandler) rs -> jobExecutionIds
+							.computeIfAbsent(rs.getLong("TASK_EXECUTION_ID"), id -> new TreeSet<>())
+							.add(rs.getLong("JOB_EXECUTION_ID")));
+		}
+		return jobExecutionIds;
+	}
+
+	private synchronized DataFieldMaxValueIncrementer executionIncrementer() {
+		if (executionIncrementer == null) {
+			try {
+				// The same sequence as the one Spring Cloud Task draws execution ids from
+				executionIncrementer = new DefaultDataFieldMaxValueIncrementerFactory(dataSource)
+						.getIncrementer(DatabaseType.fromMetaData(dataSource).name(), TABLE_PREFIX + "SEQ");
+			}
+			catch (MetaDataAccessException e) {
+				throw new IllegalStateException("Unable to determine the type of the task database", e);
+			}
+		}
+		return executionIncrementer;
+	}
+}
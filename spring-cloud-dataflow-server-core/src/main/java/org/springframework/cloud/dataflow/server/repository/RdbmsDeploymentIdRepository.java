@@ -19,9 +19,21 @@ package org.springframework.cloud.dataflow.server.repository;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
+import org.springframework.cloud.dataflow.server.repository.support.Order;
+import org.springframework.cloud.dataflow.server.repository.support.PagingQueryProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.util.Assert;
 
@@ -48,6 +60,31 @@ public class RdbmsDeploymentIdRepository extends AbstractRdbmsKeyValueRepository
 		jdbcTemplate.update(saveRow, insertParameters, new int[] { Types.VARCHAR, Types.VARCHAR });
 	}
 
+	@Override
+	public Map<String, String> findAll(Collection<String> keys) {
+		Map<String, String> result = new HashMap<>(keys.size());
+		queryByKeys(keys, resultSet -> result.put(resultSet.getString(keyColumn), resultSet.getString(valueColumn)));
+		return result;
+	}
+
+	@Override
+	public Page<Map.Entry<String, String>> findAllOrderedById(Pageable pageable) {
+		LinkedHashMap<String, Order> sortKeys = new LinkedHashMap<>();
+		sortKeys.put(valueColumn, Order.ASCENDING);
+		PagingQueryProvider pagingQueryProvider = pagingQueryProviderRegistry.getProvider(selectClause, tableName,
+				null, sortKeys);
+		PageRequest pageRequest = new PageRequest(pageable.getPageNumber(), pageable.getPageSize());
+		List<Map.Entry<String, String>> entries = jdbcTemplate.query(pagingQueryProvider.getPageQuery(pageRequest),
+				(rs, rowNum) -> new AbstractMap.SimpleImmutableEntry<>(rs.getString(keyColumn),
+						rs.getString(valueColumn)));
+		return new PageImpl<>(entries, pageRequest, count());
+	}
+
+	@Override
+	protected String createFromKeyValue(String key, String value) {
+		return value;
+	}
+
 	@Override
 	public String save(String key) {
 		throw new UnsupportedOperationException();
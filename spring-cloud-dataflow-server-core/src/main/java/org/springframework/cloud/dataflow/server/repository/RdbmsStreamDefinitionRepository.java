@@ -19,10 +19,19 @@ package org.springframework.cloud.dataflow.server.repository;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
 import org.springframework.cloud.dataflow.core.StreamDefinition;
+import org.springframework.cloud.dataflow.core.dsl.StreamNode;
+import org.springframework.cloud.dataflow.server.repository.support.DefinitionSearchIndex;
+import org.springframework.cloud.dataflow.server.repository.support.StreamDefinitionCache;
+import org.springframework.cloud.dataflow.server.repository.support.StreamDestinationIndex;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.util.Assert;
 
@@ -34,13 +43,25 @@ import org.springframework.util.Assert;
 public class RdbmsStreamDefinitionRepository extends AbstractRdbmsKeyValueRepository<StreamDefinition>
 		implements StreamDefinitionRepository {
 
+	private final StreamDefinitionCache streamDefinitionCache;
+
+	private final StreamDestinationIndex streamDestinationIndex = new StreamDestinationIndex();
+
 	public RdbmsStreamDefinitionRepository(DataSource dataSource) {
+		this(dataSource, new StreamDefinitionCache());
+	}
+
+	public RdbmsStreamDefinitionRepository(DataSource dataSource, StreamDefinitionCache streamDefinitionCache) {
 		super(dataSource, "STREAM_", "DEFINITIONS", new RowMapper<StreamDefinition>() {
 			@Override
 			public StreamDefinition mapRow(ResultSet resultSet, int i) throws SQLException {
-				return new StreamDefinition(resultSet.getString("DEFINITION_NAME"), resultSet.getString("DEFINITION"));
+				return streamDefinitionCache.getDefinition(resultSet.getString("DEFINITION_NAME"),
+						resultSet.getString("DEFINITION"));
 			}
 		}, "DEFINITION_NAME", "DEFINITION");
+		Assert.notNull(streamDefinitionCache, "streamDefinitionCache must not be null");
+		this.streamDefinitionCache = streamDefinitionCache;
+		this.searchIndex = new DefinitionSearchIndex();
 	}
 
 	@Override
@@ -53,12 +74,67 @@ public class RdbmsStreamDefinitionRepository extends AbstractRdbmsKeyValueReposi
 		}
 		Object[] insertParameters = new Object[] { definition.getName(), definition.getDslText() };
 		jdbcTemplate.update(saveRow, insertParameters, new int[] { Types.VARCHAR, Types.CLOB });
+		streamDefinitionCache.put(definition);
+		searchIndex.put(definition.getName(), definition.getDslText());
+		streamDestinationIndex.put(definition.getName(), sourceDestination(definition));
 		return definition;
 	}
 
+	@Override
+	public List<StreamDefinition> findRelated(String name, boolean nested) {
+		streamDestinationIndex.initialize(() -> {
+			Map<String, String> sourceDestinations = new HashMap<>();
+			for (StreamDefinition definition : findAll()) {
+				String sourceDestination = sourceDestination(definition);
+				if (sourceDestination != null) {
+					sourceDestinations.put(definition.getName(), sourceDestination);
+				}
+			}
+			return sourceDestinations;
+		});
+		List<String> names = streamDestinationIndex.findRelated(name, nested);
+		Map<String, StreamDefinition> definitions = new HashMap<>();
+		queryByKeys(names, rs -> {
+			StreamDefinition definition = rowMapper.mapRow(rs, 0);
+			definitions.put(definition.getName(), definition);
+		});
+		return names.stream().map(definitions::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	@Override
+	protected StreamDefinition createFromKeyValue(String key, String value) {
+		return streamDefinitionCache.getDefinition(key, value);
+	}
+
 	@Override
 	public void delete(StreamDefinition definition) {
 		Assert.notNull(definition, "definition must not null");
 		delete(definition.getName());
 	}
+
+	@Override
+	public void delete(String name) {
+		super.delete(name);
+		streamDefinitionCache.evict(name);
+		streamDestinationIndex.remove(name);
+	}
+
+	@Override
+	public void deleteAll() {
+		super.deleteAll();
+		streamDefinitionCache.clear();
+		streamDestinationIndex.clear();
+	}
+
+	@Override
+	public void invalidateIndexes() {
+		super.invalidateIndexes();
+		streamDestinationIndex.invalidate();
+	}
+
+	private String sourceDestination(StreamDefinition definition) {
+		StreamNode streamNode = streamDefinitionCache.getStreamNode(definition);
+		return streamNode.getSourceDestinationNode() != null
+				? streamNode.getSourceDestinationNode().getDestinationName() : null;
+	}
 }
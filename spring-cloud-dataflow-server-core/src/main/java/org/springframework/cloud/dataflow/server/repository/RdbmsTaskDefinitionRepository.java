@@ -23,6 +23,7 @@ import java.sql.Types;
 import javax.sql.DataSource;
 
 import org.springframework.cloud.dataflow.core.TaskDefinition;
+import org.springframework.cloud.dataflow.server.repository.support.DefinitionSearchIndex;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.util.Assert;
 
@@ -42,6 +43,7 @@ public class RdbmsTaskDefinitionRepository extends AbstractRdbmsKeyValueReposito
 				return new TaskDefinition(resultSet.getString("DEFINITION_NAME"), resultSet.getString("DEFINITION"));
 			}
 		}, "DEFINITION_NAME", "DEFINITION");
+		this.searchIndex = new DefinitionSearchIndex();
 	}
 
 	@Override
@@ -54,9 +56,15 @@ public class RdbmsTaskDefinitionRepository extends AbstractRdbmsKeyValueReposito
 		}
 		Object[] insertParameters = new Object[] { definition.getName(), definition.getDslText() };
 		jdbcTemplate.update(saveRow, insertParameters, new int[] { Types.VARCHAR, Types.CLOB });
+		searchIndex.put(definition.getName(), definition.getDslText());
 		return definition;
 	}
 
+	@Override
+	protected TaskDefinition createFromKeyValue(String key, String value) {
+		return new TaskDefinition(key, value);
+	}
+
 	@Override
 	public void delete(TaskDefinition definition) {
 		Assert.notNull(definition, "definition must not null");
@@ -16,9 +16,13 @@
 
 package org.springframework.cloud.dataflow.server.repository;
 
+import java.util.List;
+
 import org.springframework.cloud.dataflow.core.StreamDefinition;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.repository.support.SearchPageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
@@ -30,4 +34,24 @@ public interface StreamDefinitionRepository extends PagingAndSortingRepository<S
 
 	Page<StreamDefinition> search(SearchPageable searchPageable);
 
+	/**
+	 * Return a slice of definitions sorted by name, using keyset pagination.
+	 *
+	 * @param keysetPageable the slice to retrieve
+	 * @return the slice of definitions
+	 */
+	Slice<StreamDefinition> findAll(KeysetPageable keysetPageable);
+
+	/**
+	 * Return the streams consuming from the given stream, that is the streams whose source
+	 * destination is either the stream itself or starts with its name followed by a dot
+	 * (e.g. a tap).
+	 *
+	 * @param name the name of the stream
+	 * @param nested whether to also return the streams related to related streams, and so
+	 * on
+	 * @return the related stream definitions, closest first, not including the given stream
+	 */
+	List<StreamDefinition> findRelated(String name, boolean nested);
+
 }
@@ -16,8 +16,10 @@
 package org.springframework.cloud.dataflow.server.repository;
 
 import org.springframework.cloud.dataflow.core.TaskDefinition;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.repository.support.SearchPageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 /**
@@ -26,4 +28,12 @@ import org.springframework.data.repository.PagingAndSortingRepository;
  */
 public interface TaskDefinitionRepository extends PagingAndSortingRepository<TaskDefinition, String> {
 	Page<TaskDefinition> search(SearchPageable searchPageable);
+
+	/**
+	 * Return a slice of definitions sorted by name, using keyset pagination.
+	 *
+	 * @param keysetPageable the slice to retrieve
+	 * @return the slice of definitions
+	 */
+	Slice<TaskDefinition> findAll(KeysetPageable keysetPageable);
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * An in-memory inverted index of definitions (name and DSL text), answering the same
+ * case insensitive substring searches as a {@code lower(column) like lower('%query%')}
+ * query without scanning the definitions table.
+ * <p>
+ * Every three character sequence (trigram) of the lower cased name and DSL text is
+ * indexed. This covers app names, labels, destinations and property keys alike, as they
+ * all appear verbatim in the DSL. A search only verifies the definitions listed under the
+ * least common trigram of the query.
+ * <p>
+ * The index is populated once from the database (see {@link #initialize(Supplier)}), then
+ * kept up to date by the owning repository on save and delete. Changes made to the
+ * database by other server instances are not reflected.
+ *
+ * @author Eric Bottard
+ */
+public class DefinitionSearchIndex {
+
+	private static final int GRAM_SIZE = 3;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Document> documents = new HashMap<>();
+
+	private final Map<String, Set<String>> postings = new HashMap<>();
+
+	private volatile boolean initialized;
+
+	/**
+	 * Populate the index with the given definitions, unless already done.
+	 *
+	 * @param loader supplies all definitions, as a map from name to DSL text
+	 */
+	public void initialize(Supplier<Map<String, String>> loader) {
+		if (initialized) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			// Loading while holding the lock orders concurrent changes after the load
+			if (!initialized) {
+				clearIndex();
+				for (Map.Entry<String, String> definition : loader.get().entrySet()) {
+					addDocument(definition.getKey(), definition.getValue());
+				}
+				initialized = true;
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return whether the index has been populated
+	 */
+	public boolean isInitialized() {
+		return initialized;
+	}
+
+	/**
+	 * Add (or replace) a definition.
+	 *
+	 * @param name the name of the definition
+	 * @param text the DSL text of the definition
+	 */
+	public void put(String name, String text) {
+		Assert.notNull(name, "name must not be null");
+		lock.writeLock().lock();
+		try {
+			removeDocument(name);
+			addDocument(name, text);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove a definition.
+	 *
+	 * @param name the name of the definition
+	 */
+	public void remove(String name) {
+		lock.writeLock().lock();
+		try {
+			removeDocument(name);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Discard all definitions and mark the index as not initialized, so that the next
+	 * {@link #initialize(Supplier)} loads them again.
+	 */
+	public void invalidate() {
+		lock.writeLock().lock();
+		try {
+			clearIndex();
+			initialized = false;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove all definitions. The index stays initialized, as an empty one.
+	 */
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			clearIndex();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the definitions whose name and/or DSL text contain the given query, ignoring
+	 * case.
+	 *
+	 * @param query the text to look for
+	 * @param matchNames whether to look for the query in definition names
+	 * @param matchTexts whether to look for the query in definition DSL texts
+	 * @return the matching definitions, as (name, DSL text) entries in no particular order
+	 */
+	public List<Map.Entry<String, String>> search(String query, boolean matchNames, boolean matchTexts) {
+		Assert.notNull(query, "query must not be null");
+		String lowerQuery = query.toLowerCase(Locale.ROOT);
+		List<Map.Entry<String, String>> results = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			Collection<String> candidates = documents.keySet();
+			for (String gram : grams(lowerQuery)) {
+				Set<String> posting = postings.get(gram);
+				if (posting == null) {
+					return results;
+				}
+				if (posting.size() < candidates.size()) {
+					candidates = posting;
+				}
+			}
+			for (String name : candidates) {
+				Document document = documents.get(name);
+				if ((matchNames && document.lowerName.contains(lowerQuery))
+						|| (matchTexts && document.lowerText.contains(lowerQuery))) {
+					results.add(new AbstractMap.SimpleImmutableEntry<>(document.name, document.text));
+				}
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+		return results;
+	}
+
+	private void addDocument(String name, String text) {
+		Document document = new Document(name, text);
+		documents.put(name, document);
+		for (String gram : document.grams()) {
+			postings.computeIfAbsent(gram, g -> new HashSet<>()).add(name);
+		}
+	}
+
+	private void removeDocument(String name) {
+		Document document = documents.remove(name);
+		if (document != null) {
+			for (String gram : document.grams()) {
+				Set<String> posting = postings.get(gram);
+				posting.remove(name);
+				if (posting.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	private void clearIndex() {
+		documents.clear();
+		postings.clear();
+	}
+
+	private static Set<String> grams(String lowerText) {
+		Set<String> grams = new HashSet<>();
+		for (int i = 0; i + GRAM_SIZE <= lowerText.length(); i++) {
+			grams.add(lowerText.substring(i, i + GRAM_SIZE));
+		}
+		return grams;
+	}
+
+	private static final class Document {
+
+		private final String name;
+
+		private final String text;
+
+		private final String lowerName;
+
+		private final String lowerText;
+
+		private Document(String name, String text) {
+			this.name = name;
+			this.text = text == null ? "" : text;
+			this.lowerName = name.toLowerCase(Locale.ROOT);
+			this.lowerText = this.text.toLowerCase(Locale.ROOT);
+		}
+
+		private Set<String> grams() {
+			Set<String> grams = DefinitionSearchIndex.grams(lowerName);
+			grams.addAll(DefinitionSearchIndex.grams(lowerText));
+			return grams;
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.cloud.dataflow.server.repository.InvalidContinuationTokenException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Describes a page of results to be retrieved using keyset (a.k.a. seek) pagination:
+ * instead of skipping a number of rows, the page starts right after the key of the last
+ * row of the previous page. This makes retrieving deep pages as cheap as retrieving the
+ * first one.
+ * <p>
+ * Keys are exchanged with clients as opaque continuation tokens, see
+ * {@link #toToken(String)}.
+ *
+ * @author Eric Bottard
+ */
+public class KeysetPageable {
+
+	private final String afterKey;
+
+	private final int pageSize;
+
+	private final Sort.Direction direction;
+
+	/**
+	 * Initialize a {@link KeysetPageable}.
+	 *
+	 * @param afterKey the key of the last row of the previous page, or {@literal null}
+	 * for the first page
+	 * @param pageSize the maximum number of rows to return, must be positive
+	 * @param direction the direction rows are sorted by key, must not be null
+	 */
+	public KeysetPageable(String afterKey, int pageSize, Sort.Direction direction) {
+		Assert.isTrue(pageSize > 0, "pageSize must be positive");
+		Assert.notNull(direction, "direction must not be null");
+		this.afterKey = afterKey;
+		this.pageSize = pageSize;
+		this.direction = direction;
+	}
+
+	/**
+	 * Create a {@link KeysetPageable} from a continuation token and a regular
+	 * {@link Pageable}, of which only the page size and the sort direction for the given
+	 * key column are considered.
+	 *
+	 * @param pageable the requested page, must not be null
+	 * @param token the continuation token, empty for the first page
+	 * @param keyColumn the name of the column rows are sorted by
+	 * @return a new KeysetPageable
+	 */
+	public static KeysetPageable from(Pageable pageable, String token, String keyColumn) {
+		Assert.notNull(pageable, "pageable must not be null");
+		Sort.Direction direction = Sort.Direction.ASC;
+		if (pageable.getSort() != null && pageable.getSort().getOrderFor(keyColumn) != null) {
+			direction = pageable.getSort().getOrderFor(keyColumn).getDirection();
+		}
+		return new KeysetPageable(fromToken(token), pageable.getPageSize(), direction);
+	}
+
+	/**
+	 * Encode a key as an opaque, URL safe, continuation token.
+	 *
+	 * @param key the key of the last row of a page
+	 * @return the continuation token
+	 */
+	public static String toToken(String key) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decode a continuation token created with {@link #toToken(String)}.
+	 *
+	 * @param token the continuation token, may be empty
+	 * @return the decoded key, or {@literal null} if the token is empty
+	 * @throws InvalidContinuationTokenException if the token is malformed
+	 */
+	public static String fromToken(String token) {
+		if (!StringUtils.hasText(token)) {
+			return null;
+		}
+		try {
+			return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		}
+		catch (IllegalArgumentException e) {
+			throw new InvalidContinuationTokenException(token, e);
+		}
+	}
+
+	/**
+	 * @return the key after which the page starts, {@literal null} for the first page
+	 */
+	public String getAfterKey() {
+		return afterKey;
+	}
+
+	/**
+	 * @return the maximum number of rows in the page
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @return the direction rows are sorted by key
+	 */
+	public Sort.Direction getDirection() {
+		return direction;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Hands out initialized {@link PagingQueryProvider}s for a given {@link DataSource},
+ * creating each distinct (select, from, where, sort keys) combination only once.
+ * <p>
+ * The {@link DatabaseType} is looked up from the DataSource metadata on first use only,
+ * which saves a connection checkout per paged query. The number of remembered providers
+ * is bounded, as sort keys ultimately come from user requests.
+ *
+ * @author Eric Bottard
+ */
+public class PagingQueryProviderRegistry {
+
+	private static final int MAX_PROVIDERS = 256;
+
+	private final DataSource dataSource;
+
+	private final Map<String, PagingQueryProvider> providers = new LinkedHashMap<String, PagingQueryProvider>(16,
+			0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PagingQueryProvider> eldest) {
+			return size() > MAX_PROVIDERS;
+		}
+	};
+
+	private volatile DatabaseType databaseType;
+
+	/**
+	 * @param dataSource the dataSource queries will run against
+	 */
+	public PagingQueryProviderRegistry(DataSource dataSource) {
+		Assert.notNull(dataSource, "dataSource must not be null");
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * @param dataSource the dataSource queries will run against
+	 * @param databaseType the type of database, which won't be looked up
+	 */
+	public PagingQueryProviderRegistry(DataSource dataSource, DatabaseType databaseType) {
+		this(dataSource);
+		Assert.notNull(databaseType, "databaseType must not be null");
+		this.databaseType = databaseType;
+	}
+
+	/**
+	 * Return an initialized provider for the given query parts.
+	 *
+	 * @param selectClause the SELECT clause
+	 * @param fromClause the FROM clause
+	 * @param whereClause the optional WHERE clause
+	 * @param sortKeys the sort keys, in order
+	 * @return a provider, shared with other callers using the same query parts
+	 */
+	public PagingQueryProvider getProvider(String selectClause, String fromClause, String whereClause,
+			Map<String, Order> sortKeys) {
+		String key = selectClause + '\u0000' + fromClause + '\u0000' + whereClause + '\u0000' + sortKeys;
+		PagingQueryProvider provider;
+		synchronized (providers) {
+			provider = providers.get(key);
+		}
+		if (provider == null) {
+			provider = createProvider(selectClause, fromClause, whereClause, sortKeys);
+			synchronized (providers) {
+				providers.put(key, provider);
+			}
+		}
+		return provider;
+	}
+
+	/**
+	 * @return the type of the database, looked up on first call
+	 */
+	public DatabaseType getDatabaseType() {
+		DatabaseType type = this.databaseType;
+		if (type == null) {
+			try {
+				type = DatabaseType.fromMetaData(dataSource);
+			}
+			catch (MetaDataAccessException e) {
+				throw new IllegalArgumentException(
+						"Could not inspect meta data for database type.  You have to supply it explicitly.", e);
+			}
+			this.databaseType = type;
+		}
+		return type;
+	}
+
+	private PagingQueryProvider createProvider(String selectClause, String fromClause, String whereClause,
+			Map<String, Order> sortKeys) {
+		SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
+		factoryBean.setDataSource(dataSource);
+		factoryBean.setDatabaseType(getDatabaseType().name());
+		factoryBean.setSelectClause(selectClause);
+		factoryBean.setFromClause(fromClause);
+		if (StringUtils.hasText(whereClause)) {
+			factoryBean.setWhereClause(whereClause);
+		}
+		factoryBean.setSortKeys(new LinkedHashMap<>(sortKeys));
+		try {
+			return factoryBean.getObject();
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
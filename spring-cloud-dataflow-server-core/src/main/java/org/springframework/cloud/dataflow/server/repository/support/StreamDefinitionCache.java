@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.cloud.dataflow.core.StreamDefinition;
+import org.springframework.cloud.dataflow.core.dsl.StreamNode;
+import org.springframework.cloud.dataflow.core.dsl.StreamParser;
+import org.springframework.util.Assert;
+
+/**
+ * Remembers parsed {@link StreamDefinition}s (and their {@link StreamNode} AST) so that
+ * the stream DSL of a given definition is only parsed once, rather than every time a row
+ * is read from the database.
+ * <p>
+ * Entries are keyed by stream name and are only returned if the DSL text matches, so a
+ * redefined stream is never served from a stale entry. The cache is bounded and evicts
+ * least recently used entries first.
+ *
+ * @author Eric Bottard
+ */
+public class StreamDefinitionCache {
+
+	public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+	private final Map<String, Entry> entries;
+
+	public StreamDefinitionCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	public StreamDefinitionCache(final int maxEntries) {
+		Assert.isTrue(maxEntries > 0, "maxEntries must be strictly positive");
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Return the parsed definition for the given stream name and DSL, parsing it only if
+	 * needed.
+	 *
+	 * @param name the name of the stream
+	 * @param dslText the DSL of the stream
+	 * @return the (possibly shared) stream definition
+	 */
+	public StreamDefinition getDefinition(String name, String dslText) {
+		return entryFor(name, dslText).definition;
+	}
+
+	/**
+	 * Return the AST of the given stream definition, parsing it only if needed.
+	 *
+	 * @param definition the stream definition
+	 * @return the (possibly shared) parsed AST, which must not be altered
+	 */
+	public StreamNode getStreamNode(StreamDefinition definition) {
+		Entry entry = entryFor(definition.getName(), definition.getDslText());
+		StreamNode streamNode = entry.streamNode;
+		if (streamNode == null) {
+			streamNode = new StreamParser(definition.getName(), definition.getDslText()).parse();
+			entry.streamNode = streamNode;
+		}
+		return streamNode;
+	}
+
+	/**
+	 * Remember the given (already parsed) definition.
+	 *
+	 * @param definition the definition to cache
+	 */
+	public void put(StreamDefinition definition) {
+		synchronized (entries) {
+			entries.put(definition.getName(), new Entry(definition));
+		}
+	}
+
+	/**
+	 * Forget about any definition for the given stream name.
+	 *
+	 * @param name the name of the stream
+	 */
+	public void evict(String name) {
+		synchronized (entries) {
+			entries.remove(name);
+		}
+	}
+
+	/**
+	 * Forget about all definitions.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	private Entry entryFor(String name, String dslText) {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(name);
+		}
+		if (entry == null || !entry.definition.getDslText().equals(dslText)) {
+			// Parse outside of the lock, concurrent misses for the same stream are harmless
+			entry = new Entry(new StreamDefinition(name, dslText));
+			synchronized (entries) {
+				entries.put(name, entry);
+			}
+		}
+		return entry;
+	}
+
+	private static final class Entry {
+
+		private final StreamDefinition definition;
+
+		private volatile StreamNode streamNode;
+
+		private Entry(StreamDefinition definition) {
+			this.definition = definition;
+		}
+	}
+}
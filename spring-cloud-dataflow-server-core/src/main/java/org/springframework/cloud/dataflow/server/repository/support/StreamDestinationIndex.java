@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * An in-memory graph of which streams consume from which other streams, used to find the
+ * streams related to a given one without parsing every stream definition.
+ * <p>
+ * A stream consumes from stream {@code foo} when its source destination is either
+ * {@code foo} itself or starts with {@code foo.} (typically a tap such as
+ * {@code :foo.time}). To answer lookups in constant time, each stream is recorded under
+ * every dotted prefix of its source destination.
+ * <p>
+ * The index is populated once from the repository (see {@link #initialize(Supplier)}),
+ * then kept up to date on save and delete.
+ *
+ * @author Eric Bottard
+ */
+public class StreamDestinationIndex {
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Consuming stream names, keyed by (prefix of) source destination.
+	 */
+	private final Map<String, Set<String>> consumers = new HashMap<>();
+
+	/**
+	 * Source destination of each consuming stream.
+	 */
+	private final Map<String, String> sourceDestinations = new HashMap<>();
+
+	private volatile boolean initialized;
+
+	/**
+	 * Populate the index with the given streams, unless already done.
+	 *
+	 * @param loader supplies the source destination of all streams that have one, keyed by
+	 * stream name
+	 */
+	public void initialize(Supplier<Map<String, String>> loader) {
+		if (initialized) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			// Loading while holding the lock orders concurrent changes after the load
+			if (!initialized) {
+				clearIndex();
+				for (Map.Entry<String, String> stream : loader.get().entrySet()) {
+					addStream(stream.getKey(), stream.getValue());
+				}
+				initialized = true;
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Add (or replace) a stream.
+	 *
+	 * @param streamName the name of the stream
+	 * @param sourceDestination the source destination of the stream, or {@literal null}
+	 * if the stream starts with a source app
+	 */
+	public void put(String streamName, String sourceDestination) {
+		Assert.notNull(streamName, "streamName must not be null");
+		lock.writeLock().lock();
+		try {
+			removeStream(streamName);
+			addStream(streamName, sourceDestination);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove a stream.
+	 *
+	 * @param streamName the name of the stream
+	 */
+	public void remove(String streamName) {
+		lock.writeLock().lock();
+		try {
+			removeStream(streamName);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Discard all streams and mark the index as not initialized, so that the next
+	 * {@link #initialize(Supplier)} loads them again.
+	 */
+	public void invalidate() {
+		lock.writeLock().lock();
+		try {
+			clearIndex();
+			initialized = false;
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove all streams. The index stays initialized, as an empty one.
+	 */
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			clearIndex();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the names of the streams consuming from the given stream.
+	 *
+	 * @param streamName the name of the stream
+	 * @param nested whether to also return the streams consuming from those streams, and
+	 * so on
+	 * @return the names of the related streams, closest first, never including the given
+	 * stream
+	 */
+	public List<String> findRelated(String streamName, boolean nested) {
+		Set<String> related = new LinkedHashSet<>();
+		Deque<String> toVisit = new ArrayDeque<>();
+		toVisit.add(streamName);
+		lock.readLock().lock();
+		try {
+			while (!toVisit.isEmpty()) {
+				for (String consumer : consumers.getOrDefault(toVisit.poll(), Collections.emptySet())) {
+					if (!consumer.equals(streamName) && related.add(consumer) && nested) {
+						toVisit.add(consumer);
+					}
+				}
+			}
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+		return new ArrayList<>(related);
+	}
+
+	private void addStream(String streamName, String sourceDestination) {
+		if (sourceDestination == null) {
+			return;
+		}
+		sourceDestinations.put(streamName, sourceDestination);
+		for (String prefix : prefixes(sourceDestination)) {
+			consumers.computeIfAbsent(prefix, p -> new TreeSet<>()).add(streamName);
+		}
+	}
+
+	private void removeStream(String streamName) {
+		String sourceDestination = sourceDestinations.remove(streamName);
+		if (sourceDestination != null) {
+			for (String prefix : prefixes(sourceDestination)) {
+				Set<String> streams = consumers.get(prefix);
+				streams.remove(streamName);
+				if (streams.isEmpty()) {
+					consumers.remove(prefix);
+				}
+			}
+		}
+	}
+
+	private void clearIndex() {
+		consumers.clear();
+		sourceDestinations.clear();
+	}
+
+	/**
+	 * Return the dotted prefixes of a destination, e.g. {@code foo}, {@code foo.bar} and
+	 * {@code foo.bar.baz} for {@code foo.bar.baz}.
+	 */
+	private static List<String> prefixes(String destination) {
+		List<String> prefixes = new ArrayList<>();
+		for (int dot = destination.indexOf('.'); dot != -1; dot = destination.indexOf('.', dot + 1)) {
+			prefixes.add(destination.substring(0, dot));
+		}
+		prefixes.add(destination);
+		return prefixes;
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.service;
+
+/**
+ * Thrown to indicate that a bulk task launch was refused because it contains more
+ * launches than allowed in a single request.
+ *
+ * @author Eric Bottard
+ */
+public class TaskLaunchBatchTooLargeException extends RuntimeException {
+
+	private static final long serialVersionUID = 6319875106422458791L;
+
+	public TaskLaunchBatchTooLargeException(int size, int maxSize) {
+		super(String.format("Cannot launch %d tasks in one request, the maximum is %d", size, maxSize));
+	}
+}
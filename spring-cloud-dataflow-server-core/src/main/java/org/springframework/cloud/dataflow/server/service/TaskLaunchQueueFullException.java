@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.service;
+
+/**
+ * Thrown to indicate that an asynchronous task launch was refused because too many
+ * launches are already waiting. The launch may be attempted again later.
+ *
+ * @author Eric Bottard
+ */
+public class TaskLaunchQueueFullException extends RuntimeException {
+
+	private static final long serialVersionUID = -2287104657406305153L;
+
+	public TaskLaunchQueueFullException(String message) {
+		super(message);
+	}
+
+	public TaskLaunchQueueFullException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * A request to launch a task, as part of a bulk launch.
+ *
+ * @author Eric Bottard
+ * @see TaskService#executeTasks(List)
+ */
+public class TaskLaunchRequest {
+
+	private final String taskName;
+
+	private final Map<String, String> deploymentProperties;
+
+	private final List<String> commandLineArgs;
+
+	/**
+	 * Create a launch request.
+	 *
+	 * @param taskName the name of the task
+	 * @param deploymentProperties optional deployment properties, may be null
+	 * @param commandLineArgs optional runtime commandline arguments, may be null
+	 */
+	public TaskLaunchRequest(String taskName, Map<String, String> deploymentProperties,
+			List<String> commandLineArgs) {
+		Assert.hasText(taskName, "taskName must not be null or empty");
+		this.taskName = taskName;
+		this.deploymentProperties = deploymentProperties != null ? deploymentProperties
+				: Collections.<String, String>emptyMap();
+		this.commandLineArgs = commandLineArgs != null ? commandLineArgs : Collections.<String>emptyList();
+	}
+
+	public String getTaskName() {
+		return taskName;
+	}
+
+	public Map<String, String> getDeploymentProperties() {
+		return deploymentProperties;
+	}
+
+	public List<String> getCommandLineArgs() {
+		return commandLineArgs;
+	}
+}
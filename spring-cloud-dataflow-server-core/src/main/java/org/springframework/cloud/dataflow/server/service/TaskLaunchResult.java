@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.service;
+
+/**
+ * The outcome of the launch of a task, as part of a bulk launch. A task that could not be
+ * launched has an error, and has an execution id only if its execution was created
+ * before the failure.
+ *
+ * @author Eric Bottard
+ * @see TaskService#executeTasks(java.util.List)
+ */
+public class TaskLaunchResult {
+
+	private final String taskName;
+
+	private final Long executionId;
+
+	private final String error;
+
+	public TaskLaunchResult(String taskName, Long executionId, String error) {
+		this.taskName = taskName;
+		this.executionId = executionId;
+		this.error = error;
+	}
+
+	public String getTaskName() {
+		return taskName;
+	}
+
+	/**
+	 * Return the id of the execution of the task, or {@literal null} if none was created.
+	 */
+	public Long getExecutionId() {
+		return executionId;
+	}
+
+	/**
+	 * Return why the task could not be launched, or {@literal null} if it was.
+	 */
+	public String getError() {
+		return error;
+	}
+}
@@ -40,6 +40,32 @@ public interface TaskService {
 	 */
 	long executeTask(String taskName, Map<String, String> taskDeploymentProperties, List<String> commandLineArgs);
 
+	/**
+	 * Create an execution of the task with the provided task name, and queue its launch.
+	 * Launch failures are recorded on the returned execution.
+	 *
+	 * @param taskName Name of the task. Must not be null or empty.
+	 * @param taskDeploymentProperties Optional deployment properties. Must not be null.
+	 * @param commandLineArgs Optional runtime commandline arguments
+	 * @return the taskExecutionId for the queued task.
+	 * @throws TaskLaunchQueueFullException if too many launches are already waiting, in
+	 * which case no execution is created
+	 */
+	long executeTaskAsync(String taskName, Map<String, String> taskDeploymentProperties,
+			List<String> commandLineArgs);
+
+	/**
+	 * Execute several tasks at once. The executions of all the tasks that can be launched
+	 * are created together, and the tasks are then launched in parallel. The failure to
+	 * launch a task doesn't prevent the others from being launched.
+	 *
+	 * @param requests the tasks to launch
+	 * @return the outcome of each launch, in the order of the requests
+	 * @throws TaskLaunchBatchTooLargeException if there are more requests than allowed in
+	 * a single batch, in which case nothing is launched
+	 */
+	List<TaskLaunchResult> executeTasks(List<TaskLaunchRequest> requests);
+
 	/**
 	 * Cleanup the resources that resulted from running the task with the given execution
 	 * id.
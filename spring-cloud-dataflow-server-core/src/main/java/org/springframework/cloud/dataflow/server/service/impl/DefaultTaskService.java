@@ -16,12 +16,30 @@
 
 package org.springframework.cloud.dataflow.server.service.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.metrics.GaugeService;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.bind.RelaxedNames;
 import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
@@ -34,19 +52,26 @@ import org.springframework.cloud.dataflow.registry.AppRegistration;
 import org.springframework.cloud.dataflow.registry.AppRegistry;
 import org.springframework.cloud.dataflow.rest.util.DeploymentPropertiesUtils;
 import org.springframework.cloud.dataflow.server.controller.WhitelistProperties;
+import org.springframework.cloud.dataflow.server.repository.BulkTaskExecutionRepository;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.DeploymentKey;
 import org.springframework.cloud.dataflow.server.repository.NoSuchTaskDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.TaskDefinitionRepository;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchBatchTooLargeException;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchQueueFullException;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchRequest;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchResult;
 import org.springframework.cloud.dataflow.server.service.TaskService;
 import org.springframework.cloud.deployer.spi.core.AppDefinition;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -63,10 +88,28 @@ import org.springframework.util.StringUtils;
  * @author Thomas Risberg
  * @author Ilayaperumal Gopinathan
  */
-public class DefaultTaskService implements TaskService {
+public class DefaultTaskService implements TaskService, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(DefaultTaskService.class);
 
 	private static final String DATAFLOW_SERVER_URI_KEY = "dataflowServerUri";
 
+	/**
+	 * Number of asynchronous launches waiting for a slot.
+	 */
+	private static final String LAUNCH_QUEUE_METRIC = "gauge.dataflow.tasks.launch.queue";
+
+	/**
+	 * Time spent by asynchronous launches waiting for a slot, in milliseconds.
+	 */
+	private static final String LAUNCH_WAIT_METRIC = "timer.dataflow.tasks.launch.wait";
+
+	/**
+	 * Time between the request of an asynchronous launch and its completion, in
+	 * milliseconds.
+	 */
+	private static final String LAUNCH_LATENCY_METRIC = "timer.dataflow.tasks.launch.latency";
+
 	private final DataSourceProperties dataSourceProperties;
 
 	/**
@@ -102,8 +145,37 @@ public class DefaultTaskService implements TaskService {
 
 	private final DeploymentIdRepository deploymentIdRepository;
 
+	private final BulkTaskExecutionRepository bulkTaskExecutionRepository;
+
 	private final String dataflowServerUri;
 
+	/**
+	 * What launching each task definition requires, keyed by task name.
+	 */
+	private final Map<String, LaunchPlan> launchPlans = new ConcurrentHashMap<>();
+
+	/**
+	 * Runs asynchronous launches, created on first use.
+	 */
+	private ThreadPoolExecutor launchExecutor;
+
+	/**
+	 * One permit per asynchronous launch that can be running or waiting in the queue of
+	 * {@link #launchExecutor}, created along with it.
+	 */
+	private Semaphore launchPermits;
+
+	/**
+	 * Runs the launches of bulk requests, created on first use. Its queue is unbounded,
+	 * as a bulk request waits for all its launches anyway.
+	 */
+	private ThreadPoolExecutor bulkLaunchExecutor;
+
+	/**
+	 * Where to report the state of asynchronous launches, if anywhere.
+	 */
+	private GaugeService gaugeService;
+
 	/**
 	 * Initializes the {@link DefaultTaskService}.
 	 *
@@ -129,6 +201,38 @@ public class DefaultTaskService implements TaskService {
 			TaskLauncher taskLauncher, ApplicationConfigurationMetadataResolver metaDataResolver,
 			TaskConfigurationProperties taskConfigurationProperties, DeploymentIdRepository deploymentIdRepository,
 			String dataflowServerUri) {
+		this(dataSourceProperties, taskDefinitionRepository, taskExplorer, taskExecutionRepository, registry,
+				resourceLoader, taskLauncher, metaDataResolver, taskConfigurationProperties, deploymentIdRepository,
+				null, dataflowServerUri);
+	}
+
+	/**
+	 * Initializes the {@link DefaultTaskService}.
+	 *
+	 * @param dataSourceProperties the data source properties.
+	 * @param taskDefinitionRepository the {@link TaskDefinitionRepository} this service
+	 * will use for task CRUD operations.
+	 * @param taskExecutionRepository the repository this service will use for deployment
+	 * IDs.
+	 * @param taskExplorer the explorer this service will use to lookup task executions
+	 * @param registry URI registry this service will use to look up app URIs.
+	 * @param resourceLoader the {@link ResourceLoader} that will resolve URIs to
+	 * {@link Resource}s.
+	 * @param taskLauncher the launcher this service will use to launch task apps.
+	 * @param metaDataResolver the metadata resolver
+	 * @param taskConfigurationProperties the properties used to define the behavior of
+	 * tasks
+	 * @param deploymentIdRepository the repository that maps deployment keys to IDs
+	 * @param bulkTaskExecutionRepository the repository used to create the executions of
+	 * bulk launches, or {@literal null} to create them one by one
+	 * @param dataflowServerUri the data flow server URI
+	 */
+	public DefaultTaskService(DataSourceProperties dataSourceProperties,
+			TaskDefinitionRepository taskDefinitionRepository, TaskExplorer taskExplorer,
+			TaskRepository taskExecutionRepository, AppRegistry registry, ResourceLoader resourceLoader,
+			TaskLauncher taskLauncher, ApplicationConfigurationMetadataResolver metaDataResolver,
+			TaskConfigurationProperties taskConfigurationProperties, DeploymentIdRepository deploymentIdRepository,
+			BulkTaskExecutionRepository bulkTaskExecutionRepository, String dataflowServerUri) {
 		Assert.notNull(dataSourceProperties, "DataSourceProperties must not be null");
 		Assert.notNull(taskDefinitionRepository, "TaskDefinitionRepository must not be null");
 		Assert.notNull(taskExecutionRepository, "TaskExecutionRepository must not be null");
@@ -149,6 +253,7 @@ public class DefaultTaskService implements TaskService {
 		this.whitelistProperties = new WhitelistProperties(metaDataResolver);
 		this.taskConfigurationProperties = taskConfigurationProperties;
 		this.deploymentIdRepository = deploymentIdRepository;
+		this.bulkTaskExecutionRepository = bulkTaskExecutionRepository;
 		this.dataflowServerUri = dataflowServerUri;
 	}
 
@@ -157,10 +262,273 @@ public class DefaultTaskService implements TaskService {
 			List<String> commandLineArgs) {
 		Assert.hasText(taskName, "The provided taskName must not be null or empty.");
 		Assert.notNull(taskDeploymentProperties, "The provided runtimeProperties must not be null.");
+		TaskDefinition taskDefinition = findTaskDefinition(taskName);
+		LaunchPlan launchPlan = launchPlanFor(taskDefinition);
+
+		TaskExecution taskExecution = taskExecutionRepository.createTaskExecution(taskName);
+
+		launch(launchPlan, taskExecution.getExecutionId(), taskDeploymentProperties, commandLineArgs);
+		return taskExecution.getExecutionId();
+	}
+
+	@Override
+	public long executeTaskAsync(String taskName, Map<String, String> taskDeploymentProperties,
+			List<String> commandLineArgs) {
+		Assert.hasText(taskName, "The provided taskName must not be null or empty.");
+		Assert.notNull(taskDeploymentProperties, "The provided runtimeProperties must not be null.");
+		TaskDefinition taskDefinition = findTaskDefinition(taskName);
+		ThreadPoolExecutor executor = launchExecutor();
+		// Reserve a slot first, so that refused launches leave no execution behind
+		if (!this.launchPermits.tryAcquire()) {
+			throw new TaskLaunchQueueFullException(
+					String.format("Too many pending launches, not launching task '%s'", taskName));
+		}
+
+		long executionId;
+		try {
+			executionId = taskExecutionRepository.createTaskExecution(taskName).getExecutionId();
+		}
+		catch (RuntimeException e) {
+			this.launchPermits.release();
+			throw e;
+		}
+
+		Map<String, String> properties = new HashMap<>(taskDeploymentProperties);
+		List<String> args = new ArrayList<>(commandLineArgs);
+		long queued = System.currentTimeMillis();
+		try {
+			executor.execute(() -> {
+				try {
+					launchQueued(taskDefinition, executionId, properties, args, queued);
+				}
+				finally {
+					this.launchPermits.release();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			// Only happens once the service is being destroyed
+			this.launchPermits.release();
+			String message = String.format("Launches are shutting down, not launching task '%s'", taskName);
+			failExecution(executionId, message);
+			throw new TaskLaunchQueueFullException(message, e);
+		}
+		submitMetric(LAUNCH_QUEUE_METRIC, executor.getQueue().size());
+		return executionId;
+	}
+
+	@Override
+	public List<TaskLaunchResult> executeTasks(List<TaskLaunchRequest> requests) {
+		Assert.notNull(requests, "The provided requests must not be null.");
+		int maxBatchSize = this.taskConfigurationProperties.getLaunch().getMaxBatchSize();
+		if (requests.size() > maxBatchSize) {
+			throw new TaskLaunchBatchTooLargeException(requests.size(), maxBatchSize);
+		}
+		TaskLaunchResult[] results = new TaskLaunchResult[requests.size()];
+		LaunchPlan[] launchPlans = new LaunchPlan[requests.size()];
+		List<Integer> launchable = new ArrayList<>(requests.size());
+		List<String> taskNames = new ArrayList<>(requests.size());
+		for (int i = 0; i < requests.size(); i++) {
+			String taskName = requests.get(i).getTaskName();
+			try {
+				launchPlans[i] = launchPlanFor(findTaskDefinition(taskName));
+				launchable.add(i);
+				taskNames.add(taskName);
+			}
+			catch (RuntimeException e) {
+				results[i] = new TaskLaunchResult(taskName, null, messageOf(e));
+			}
+		}
+		ThreadPoolExecutor executor = bulkLaunchExecutor();
+		List<Long> executionIds = createTaskExecutions(taskNames);
+
+		List<CompletableFuture<Void>> launches = new ArrayList<>(launchable.size());
+		for (int j = 0; j < launchable.size(); j++) {
+			int i = launchable.get(j);
+			long executionId = executionIds.get(j);
+			TaskLaunchRequest request = requests.get(i);
+			LaunchPlan launchPlan = launchPlans[i];
+			try {
+				launches.add(CompletableFuture.runAsync(() -> {
+					String error;
+					try {
+						error = tryLaunch(() -> launchPlan, executionId, request.getTaskName(),
+								new HashMap<>(request.getDeploymentProperties()),
+								new ArrayList<>(request.getCommandLineArgs()));
+					}
+					catch (RuntimeException e) {
+						// Recording the failure failed too, still report it with the others
+						error = messageOf(e);
+					}
+					results[i] = new TaskLaunchResult(request.getTaskName(), executionId, error);
+				}, executor));
+			}
+			catch (RejectedExecutionException e) {
+				String message = String.format("Launches are shutting down, not launching task '%s'",
+						request.getTaskName());
+				tryFailExecution(executionId, message);
+				results[i] = new TaskLaunchResult(request.getTaskName(), executionId, message);
+			}
+		}
+		CompletableFuture.allOf(launches.toArray(new CompletableFuture<?>[launches.size()])).join();
+		return Arrays.asList(results);
+	}
+
+	private List<Long> createTaskExecutions(List<String> taskNames) {
+		if (this.bulkTaskExecutionRepository != null) {
+			return this.bulkTaskExecutionRepository.createTaskExecutions(taskNames);
+		}
+		List<Long> executionIds = new ArrayList<>(taskNames.size());
+		for (String taskName : taskNames) {
+			executionIds.add(taskExecutionRepository.createTaskExecution(taskName).getExecutionId());
+		}
+		return executionIds;
+	}
+
+	private TaskDefinition findTaskDefinition(String taskName) {
 		TaskDefinition taskDefinition = this.taskDefinitionRepository.findOne(taskName);
 		if (taskDefinition == null) {
 			throw new NoSuchTaskDefinitionException(taskName);
 		}
+		return taskDefinition;
+	}
+
+	private void launch(LaunchPlan launchPlan, long executionId, Map<String, String> taskDeploymentProperties,
+			List<String> commandLineArgs) {
+		String registeredAppName = launchPlan.definition.getRegisteredAppName();
+		Map<String, String> appDeploymentProperties = extractAppProperties(registeredAppName,
+				taskDeploymentProperties);
+		Map<String, String> deployerDeploymentProperties = DeploymentPropertiesUtils
+				.extractAndQualifyDeployerProperties(taskDeploymentProperties, registeredAppName);
+		if (StringUtils.hasText(this.dataflowServerUri) && launchPlan.composed) {
+			updateDataFlowUriIfNeeded(appDeploymentProperties, commandLineArgs);
+		}
+		AppDefinition revisedDefinition = mergeAndExpandAppProperties(launchPlan, appDeploymentProperties);
+		List<String> updatedCmdLineArgs = this.updateCommandLineArgs(commandLineArgs, executionId);
+		AppDeploymentRequest request = new AppDeploymentRequest(revisedDefinition, launchPlan.appResource,
+				deployerDeploymentProperties, updatedCmdLineArgs);
+		String id = this.taskLauncher.launch(request);
+		if (!StringUtils.hasText(id)) {
+			throw new IllegalStateException("Deployment ID is null for the task:" + launchPlan.definition.getName());
+		}
+		taskExecutionRepository.updateExternalExecutionId(executionId, id);
+	}
+
+	/**
+	 * Launch a task execution that has been queued at the given time.
+	 */
+	private void launchQueued(TaskDefinition taskDefinition, long executionId,
+			Map<String, String> taskDeploymentProperties, List<String> commandLineArgs, long queued) {
+		long started = System.currentTimeMillis();
+		submitMetric(LAUNCH_QUEUE_METRIC, this.launchExecutor.getQueue().size());
+		submitMetric(LAUNCH_WAIT_METRIC, started - queued);
+		String error = tryLaunch(() -> launchPlanFor(taskDefinition), executionId, taskDefinition.getName(),
+				taskDeploymentProperties, commandLineArgs);
+		if (error == null) {
+			submitMetric(LAUNCH_LATENCY_METRIC, System.currentTimeMillis() - queued);
+		}
+	}
+
+	/**
+	 * Launch a task execution, recording the failure on the execution if it can't be
+	 * launched.
+	 *
+	 * @return why the task could not be launched, or {@literal null} if it was
+	 */
+	private String tryLaunch(Supplier<LaunchPlan> launchPlan, long executionId, String taskName,
+			Map<String, String> taskDeploymentProperties, List<String> commandLineArgs) {
+		try {
+			launch(launchPlan.get(), executionId, taskDeploymentProperties, commandLineArgs);
+			return null;
+		}
+		catch (Exception e) {
+			String message = messageOf(e);
+			logger.warn(String.format("Failed to launch execution %d of task '%s': %s", executionId, taskName,
+					message), e);
+			failExecution(executionId, message);
+			return message;
+		}
+	}
+
+	private void failExecution(long executionId, String message) {
+		taskExecutionRepository.completeTaskExecution(executionId, 1, new Date(), "Launch failed", message);
+	}
+
+	private void tryFailExecution(long executionId, String message) {
+		try {
+			failExecution(executionId, message);
+		}
+		catch (RuntimeException e) {
+			logger.warn(String.format("Could not record the launch failure of execution %d", executionId), e);
+		}
+	}
+
+	private static String messageOf(Exception e) {
+		return e.getMessage() != null ? e.getMessage() : e.toString();
+	}
+
+	/**
+	 * Return the executor of asynchronous launches, sized after the platform of the
+	 * task launcher, creating it and its permits if needed.
+	 */
+	private synchronized ThreadPoolExecutor launchExecutor() {
+		if (this.launchExecutor == null) {
+			int queueCapacity = this.taskConfigurationProperties.getLaunch().getQueueCapacity();
+			this.launchExecutor = newLaunchExecutor("task-launch-", new LinkedBlockingQueue<>(queueCapacity));
+			this.launchPermits = new Semaphore(this.launchExecutor.getMaximumPoolSize() + queueCapacity);
+		}
+		return this.launchExecutor;
+	}
+
+	/**
+	 * Return the executor of bulk launches, sized after the platform of the task
+	 * launcher. It is distinct from the executor of asynchronous launches, so that bulk
+	 * requests neither get rejected by nor crowd out single launches.
+	 */
+	private synchronized ThreadPoolExecutor bulkLaunchExecutor() {
+		if (this.bulkLaunchExecutor == null) {
+			this.bulkLaunchExecutor = newLaunchExecutor("task-bulk-launch-", new LinkedBlockingQueue<>());
+		}
+		return this.bulkLaunchExecutor;
+	}
+
+	private ThreadPoolExecutor newLaunchExecutor(String threadNamePrefix, BlockingQueue<Runnable> queue) {
+		RuntimeEnvironmentInfo environmentInfo = this.taskLauncher.environmentInfo();
+		String platformType = environmentInfo != null && environmentInfo.getPlatformType() != null
+				? environmentInfo.getPlatformType() : "unknown";
+		int concurrency = this.taskConfigurationProperties.getLaunch().concurrencyFor(platformType);
+		Assert.isTrue(concurrency > 0, "Concurrency of task launches must be strictly positive");
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS, queue,
+				threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private void submitMetric(String name, double value) {
+		if (this.gaugeService != null) {
+			this.gaugeService.submit(name, value);
+		}
+	}
+
+	/**
+	 * Return the launch plan of a task definition, computing it if there is none yet or
+	 * if the definition or the app registry changed since it was computed.
+	 */
+	private LaunchPlan launchPlanFor(TaskDefinition taskDefinition) {
+		long registryVersion = this.registry.getVersion();
+		LaunchPlan launchPlan = this.launchPlans.get(taskDefinition.getName());
+		if (launchPlan == null || launchPlan.registryVersion != registryVersion
+				|| !launchPlan.dslText.equals(taskDefinition.getDslText())) {
+			launchPlan = createLaunchPlan(taskDefinition, registryVersion);
+			this.launchPlans.put(taskDefinition.getName(), launchPlan);
+		}
+		return launchPlan;
+	}
+
+	private LaunchPlan createLaunchPlan(TaskDefinition original, long registryVersion) {
+		TaskDefinition taskDefinition = original;
 		TaskParser taskParser = new TaskParser(taskDefinition.getName(), taskDefinition.getDslText(), true, true);
 		TaskNode taskNode = taskParser.parse();
 		// if composed task definition replace definition with with one composed task
@@ -176,27 +544,11 @@ public class DefaultTaskService implements TaskService {
 		Resource appResource = appRegistration.getResource();
 		Resource metadataResource = appRegistration.getMetadataResource();
 
-		TaskExecution taskExecution = taskExecutionRepository.createTaskExecution(taskName);
 		taskDefinition = this.updateTaskProperties(taskDefinition);
-
-		Map<String, String> appDeploymentProperties = extractAppProperties(taskDefinition.getRegisteredAppName(),
-				taskDeploymentProperties);
-		Map<String, String> deployerDeploymentProperties = DeploymentPropertiesUtils
-				.extractAndQualifyDeployerProperties(taskDeploymentProperties, taskDefinition.getRegisteredAppName());
-		if (StringUtils.hasText(this.dataflowServerUri) && taskNode.isComposed()) {
-			updateDataFlowUriIfNeeded(appDeploymentProperties, commandLineArgs);
-		}
-		AppDefinition revisedDefinition = mergeAndExpandAppProperties(taskDefinition, metadataResource,
-				appDeploymentProperties);
-		List<String> updatedCmdLineArgs = this.updateCommandLineArgs(commandLineArgs, taskExecution);
-		AppDeploymentRequest request = new AppDeploymentRequest(revisedDefinition, appResource,
-				deployerDeploymentProperties, updatedCmdLineArgs);
-		String id = this.taskLauncher.launch(request);
-		if (!StringUtils.hasText(id)) {
-			throw new IllegalStateException("Deployment ID is null for the task:" + taskName);
-		}
-		taskExecutionRepository.updateExternalExecutionId(taskExecution.getExecutionId(), id);
-		return taskExecution.getExecutionId();
+		Map<String, String> properties = whitelistProperties.qualifyProperties(taskDefinition.getProperties(),
+				metadataResource);
+		return new LaunchPlan(original.getDslText(), registryVersion, taskNode.isComposed(), taskDefinition,
+				appResource, metadataResource, properties);
 	}
 
 	private void updateDataFlowUriIfNeeded(Map<String, String> appDeploymentProperties, List<String> commandLineArgs) {
@@ -217,13 +569,33 @@ public class DefaultTaskService implements TaskService {
 		appDeploymentProperties.put(DATAFLOW_SERVER_URI_KEY, this.dataflowServerUri);
 	}
 
-	private List<String> updateCommandLineArgs(List<String> commandLineArgs, TaskExecution taskExecution) {
+	private List<String> updateCommandLineArgs(List<String> commandLineArgs, long executionId) {
 		return Stream
 				.concat(commandLineArgs.stream().filter(a -> !a.startsWith("--spring.cloud.task.executionid=")),
-						Stream.of("--spring.cloud.task.executionid=" + taskExecution.getExecutionId()))
+						Stream.of("--spring.cloud.task.executionid=" + executionId))
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Report the number of queued asynchronous launches, and how long they took, to the
+	 * given gauge service.
+	 *
+	 * @param gaugeService the gauge service to report to
+	 */
+	public void setGaugeService(GaugeService gaugeService) {
+		this.gaugeService = gaugeService;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (this.launchExecutor != null) {
+			this.launchExecutor.shutdown();
+		}
+		if (this.bulkLaunchExecutor != null) {
+			this.bulkLaunchExecutor.shutdown();
+		}
+	}
+
 	@Override
 	public boolean isComposedDefinition(String dsl) {
 		Assert.hasText(dsl, "dsl must not be empty nor null");
@@ -247,16 +619,15 @@ public class DefaultTaskService implements TaskService {
 	}
 
 	/**
-	 * Return a copy of a given task definition where short form parameters have been
-	 * expanded to their long form (amongst the whitelisted supported properties of the
-	 * app) if applicable.
+	 * Return the app definition of a launch plan, where deployment time properties have
+	 * been merged in after their short form parameters have been expanded to their long
+	 * form (amongst the whitelisted supported properties of the app) if applicable.
 	 */
-	private AppDefinition mergeAndExpandAppProperties(TaskDefinition original, Resource resource,
+	private AppDefinition mergeAndExpandAppProperties(LaunchPlan launchPlan,
 			Map<String, String> appDeploymentProperties) {
-		Map<String, String> merged = new HashMap<>(original.getProperties());
-		merged.putAll(appDeploymentProperties);
-		merged = whitelistProperties.qualifyProperties(merged, resource);
-		return new AppDefinition(original.getName(), merged);
+		Map<String, String> merged = new HashMap<>(launchPlan.properties);
+		merged.putAll(whitelistProperties.qualifyProperties(appDeploymentProperties, launchPlan.metadataResource));
+		return new AppDefinition(launchPlan.definition.getName(), merged);
 	}
 
 	private TaskDefinition updateTaskProperties(TaskDefinition taskDefinition) {
@@ -288,6 +659,7 @@ public class DefaultTaskService implements TaskService {
 				saveStandardTaskDefinition(composedTaskDefinition);
 			});
 			taskDefinitionRepository.save(new TaskDefinition(name, dsl));
+			launchPlans.remove(name);
 		}
 		else {
 			saveStandardTaskDefinition(new TaskDefinition(name, dsl));
@@ -303,6 +675,7 @@ public class DefaultTaskService implements TaskService {
 							ApplicationType.task));
 		}
 		taskDefinitionRepository.save(taskDefinition);
+		launchPlans.remove(taskDefinition.getName());
 	}
 
 	private String createComposedTaskDefinition(String graph) {
@@ -342,6 +715,42 @@ public class DefaultTaskService implements TaskService {
 		taskLauncher.destroy(name);
 		deploymentIdRepository.delete(DeploymentKey.forTaskDefinition(taskDefinition));
 		taskDefinitionRepository.delete(name);
+		launchPlans.remove(name);
+	}
+
+	/**
+	 * Everything about launching a task definition that doesn't depend on launch time
+	 * properties: the parsed definition (replaced by the composed task runner for
+	 * composed tasks), its resources, and its properties, already expanded to their long
+	 * form. Plans are valid as long as the definition DSL and the app registry don't
+	 * change.
+	 */
+	private static final class LaunchPlan {
+
+		private final String dslText;
+
+		private final long registryVersion;
+
+		private final boolean composed;
+
+		private final TaskDefinition definition;
+
+		private final Resource appResource;
+
+		private final Resource metadataResource;
+
+		private final Map<String, String> properties;
+
+		private LaunchPlan(String dslText, long registryVersion, boolean composed, TaskDefinition definition,
+				Resource appResource, Resource metadataResource, Map<String, String> properties) {
+			this.dslText = dslText;
+			this.registryVersion = registryVersion;
+			this.composed = composed;
+			this.definition = definition;
+			this.appResource = appResource;
+			this.metadataResource = metadataResource;
+			this.properties = Collections.unmodifiableMap(properties);
+		}
 	}
 
 }
@@ -16,6 +16,9 @@
 
 package org.springframework.cloud.dataflow.server.service.impl;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.dataflow.core.DataFlowPropertyKeys;
 
@@ -34,6 +37,17 @@ public class TaskConfigurationProperties {
 	 */
 	private String composedTaskRunnerName = "composed-task-runner";
 
+	/**
+	 * Maximum number of task statuses fetched concurrently when listing task
+	 * definitions.
+	 */
+	private int statusParallelism = 8;
+
+	/**
+	 * Settings of asynchronous task launches.
+	 */
+	private final Launch launch = new Launch();
+
 	public String getComposedTaskRunnerName() {
 		return composedTaskRunnerName;
 	}
@@ -42,4 +56,87 @@ public class TaskConfigurationProperties {
 		this.composedTaskRunnerName = taskName;
 	}
 
+	public int getStatusParallelism() {
+		return statusParallelism;
+	}
+
+	public void setStatusParallelism(int statusParallelism) {
+		this.statusParallelism = statusParallelism;
+	}
+
+	public Launch getLaunch() {
+		return launch;
+	}
+
+	public static class Launch {
+
+		/**
+		 * Maximum number of concurrent asynchronous launches, per platform type (as
+		 * reported by the task launcher, <i>e.g.</i> 'Local').
+		 */
+		private Map<String, Integer> concurrency = new HashMap<>();
+
+		/**
+		 * Maximum number of concurrent asynchronous launches for platform types not
+		 * listed in 'concurrency'.
+		 */
+		private int defaultConcurrency = 4;
+
+		/**
+		 * Maximum number of asynchronous launches waiting for a slot. Further launches
+		 * are rejected.
+		 */
+		private int queueCapacity = 100;
+
+		/**
+		 * Maximum number of tasks a single bulk launch request may launch. Larger
+		 * requests are rejected.
+		 */
+		private int maxBatchSize = 500;
+
+		public Map<String, Integer> getConcurrency() {
+			return concurrency;
+		}
+
+		public void setConcurrency(Map<String, Integer> concurrency) {
+			this.concurrency = concurrency;
+		}
+
+		public int getDefaultConcurrency() {
+			return defaultConcurrency;
+		}
+
+		public void setDefaultConcurrency(int defaultConcurrency) {
+			this.defaultConcurrency = defaultConcurrency;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public int getMaxBatchSize() {
+			return maxBatchSize;
+		}
+
+		public void setMaxBatchSize(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+
+		/**
+		 * Return the maximum number of concurrent asynchronous launches on the given
+		 * platform type.
+		 *
+		 * @param platformType the platform type
+		 * @return the maximum number of concurrent launches
+		 */
+		public int concurrencyFor(String platformType) {
+			Integer value = concurrency.get(platformType);
+			return value != null ? value : defaultConcurrency;
+		}
+	}
+
 }
@@ -2,3 +2,5 @@ CREATE TABLE URI_REGISTRY  (
 	NAME VARCHAR(255) NOT NULL PRIMARY KEY,
 	URI VARCHAR(255) NOT NULL
 );
+
+CREATE INDEX URI_REGISTRY_NAME_PREFIX_IDX ON URI_REGISTRY (NAME varchar_pattern_ops);
@@ -39,6 +39,7 @@ import org.springframework.cloud.dataflow.server.controller.TaskExecutionControl
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.InMemoryDeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.InMemoryTaskDefinitionRepository;
+import org.springframework.cloud.dataflow.server.repository.RdbmsBulkTaskExecutionRepository;
 import org.springframework.cloud.dataflow.server.repository.TaskDefinitionRepository;
 import org.springframework.cloud.dataflow.server.service.TaskJobService;
 import org.springframework.cloud.dataflow.server.service.TaskService;
@@ -105,8 +106,9 @@ public class JobDependencies {
 
 	@Bean
 	public TaskExecutionController taskExecutionController(TaskExplorer explorer, TaskService taskService,
-			TaskDefinitionRepository taskDefinitionRepository) {
-		return new TaskExecutionController(explorer, taskService, taskDefinitionRepository);
+			TaskDefinitionRepository taskDefinitionRepository, DataSource dataSource) {
+		return new TaskExecutionController(explorer, taskService, taskDefinitionRepository,
+				new RdbmsBulkTaskExecutionRepository(dataSource));
 	}
 
 	@Bean
@@ -31,23 +31,29 @@ import org.springframework.cloud.dataflow.completion.StreamCompletionProvider;
 import org.springframework.cloud.dataflow.completion.TaskCompletionProvider;
 import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
 import org.springframework.cloud.dataflow.registry.AppRegistry;
+import org.springframework.cloud.dataflow.server.config.AppPrefetchProperties;
 import org.springframework.cloud.dataflow.server.config.MetricsProperties;
+import org.springframework.cloud.dataflow.server.config.RuntimeAppsProperties;
 import org.springframework.cloud.dataflow.server.config.apps.CommonApplicationProperties;
 import org.springframework.cloud.dataflow.server.controller.AppRegistryController;
 import org.springframework.cloud.dataflow.server.controller.CompletionController;
 import org.springframework.cloud.dataflow.server.controller.MetricsController;
 import org.springframework.cloud.dataflow.server.controller.RestControllerAdvice;
 import org.springframework.cloud.dataflow.server.controller.RuntimeAppsController;
+import org.springframework.cloud.dataflow.server.controller.RuntimeAppsEventsController;
 import org.springframework.cloud.dataflow.server.controller.StreamDefinitionController;
 import org.springframework.cloud.dataflow.server.controller.StreamDeploymentController;
 import org.springframework.cloud.dataflow.server.controller.TaskDefinitionController;
 import org.springframework.cloud.dataflow.server.controller.TaskExecutionController;
 import org.springframework.cloud.dataflow.server.controller.ToolsController;
+import org.springframework.cloud.dataflow.server.controller.support.AppPrefetcher;
 import org.springframework.cloud.dataflow.server.controller.support.ApplicationsMetrics;
 import org.springframework.cloud.dataflow.server.controller.support.ApplicationsMetrics.Application;
 import org.springframework.cloud.dataflow.server.controller.support.ApplicationsMetrics.Instance;
 import org.springframework.cloud.dataflow.server.controller.support.ApplicationsMetrics.Metric;
+import org.springframework.cloud.dataflow.server.controller.support.DeploymentStateCache;
 import org.springframework.cloud.dataflow.server.controller.support.MetricStore;
+import org.springframework.cloud.dataflow.server.controller.support.RuntimeAppsEventPublisher;
 import org.springframework.cloud.dataflow.server.registry.DataFlowAppRegistryPopulator;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.InMemoryDeploymentIdRepository;
@@ -147,10 +153,15 @@ public class TestDependencies extends WebMvcConfigurationSupport {
 		return new ToolsController();
 	}
 
+	@Bean
+	public AppPrefetcher appPrefetcher(ApplicationConfigurationMetadataResolver metadataResolver) {
+		return new AppPrefetcher(metadataResolver, new AppPrefetchProperties());
+	}
+
 	@Bean
 	public AppRegistryController appRegistryController(AppRegistry registry,
-			ApplicationConfigurationMetadataResolver metadataResolver) {
-		return new AppRegistryController(registry, metadataResolver, new ForkJoinPool(2));
+			ApplicationConfigurationMetadataResolver metadataResolver, AppPrefetcher appPrefetcher) {
+		return new AppRegistryController(registry, metadataResolver, appPrefetcher);
 	}
 
 	@Bean
@@ -160,8 +171,7 @@ public class TestDependencies extends WebMvcConfigurationSupport {
 
 	@Bean
 	public RuntimeAppsController runtimeAppsController(MetricStore metricStore) {
-		return new RuntimeAppsController(streamDefinitionRepository(), deploymentIdRepository(), appDeployer(),
-				metricStore, new ForkJoinPool(2));
+		return new RuntimeAppsController(deploymentIdRepository(), appDeployer(), metricStore, new ForkJoinPool(2));
 	}
 
 	@Bean
@@ -169,6 +179,17 @@ public class TestDependencies extends WebMvcConfigurationSupport {
 		return new RuntimeAppsController.AppInstanceController(appDeployer());
 	}
 
+	@Bean
+	public RuntimeAppsEventPublisher runtimeAppsEventPublisher(MetricStore metricStore) {
+		return new RuntimeAppsEventPublisher(deploymentIdRepository(), new DeploymentStateCache(appDeployer()),
+				metricStore, new RuntimeAppsProperties());
+	}
+
+	@Bean
+	public RuntimeAppsEventsController runtimeAppsEventsController(RuntimeAppsEventPublisher eventPublisher) {
+		return new RuntimeAppsEventsController(eventPublisher);
+	}
+
 	@Bean
 	public MetricStore metricStore(MetricsProperties metricsProperties) {
 		return new MetricStore(metricsProperties) {
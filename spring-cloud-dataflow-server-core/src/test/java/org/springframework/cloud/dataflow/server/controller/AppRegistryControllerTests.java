@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.dataflow.server.controller;
 
+import java.net.URI;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -147,6 +149,40 @@ public class AppRegistryControllerTests {
 				.andExpect(jsonPath("content", hasSize(4)));
 	}
 
+	@Test
+	public void testListApplicationsPaged() throws Exception {
+		mockMvc.perform(get("/apps").param("size", "2").accept(MediaType.APPLICATION_JSON)).andDo(print())
+				.andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(2)))
+				.andExpect(jsonPath("content[0].name", is("time"))).andExpect(jsonPath("content[1].name", is("filter")))
+				.andExpect(jsonPath("page.totalElements", is(4)));
+		mockMvc.perform(get("/apps").param("size", "2").param("page", "1").accept(MediaType.APPLICATION_JSON))
+				.andDo(print()).andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(2)))
+				.andExpect(jsonPath("content[0].name", is("log")))
+				.andExpect(jsonPath("content[1].name", is("timestamp")));
+	}
+
+	@Test
+	public void testListApplicationsReturnsAllWithoutPagingParameters() throws Exception {
+		for (int i = 0; i < 25; i++) {
+			appRegistry.save("source" + i, ApplicationType.source, new URI("maven://org.springframework.cloud:foo:1"),
+					null);
+		}
+		mockMvc.perform(get("/apps").accept(MediaType.APPLICATION_JSON)).andDo(print()).andExpect(status().isOk())
+				.andExpect(jsonPath("content", hasSize(29))).andExpect(jsonPath("page.totalElements", is(29)));
+		mockMvc.perform(get("/apps").param("page", "0").accept(MediaType.APPLICATION_JSON)).andDo(print())
+				.andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(20)))
+				.andExpect(jsonPath("page.totalElements", is(29)));
+	}
+
+	@Test
+	public void testListApplicationsByNamePrefix() throws Exception {
+		mockMvc.perform(get("/apps").param("search", "ti").accept(MediaType.APPLICATION_JSON)).andDo(print())
+				.andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(2)));
+		mockMvc.perform(get("/apps").param("search", "ti").param("type", "task").accept(MediaType.APPLICATION_JSON))
+				.andDo(print()).andExpect(status().isOk()).andExpect(jsonPath("content", hasSize(1)))
+				.andExpect(jsonPath("content[0].name", is("timestamp")));
+	}
+
 	@Test
 	public void testFindNonExistentApp() throws Exception {
 		mockMvc.perform(get("/apps/source/foo").accept(MediaType.APPLICATION_JSON)).andDo(print())
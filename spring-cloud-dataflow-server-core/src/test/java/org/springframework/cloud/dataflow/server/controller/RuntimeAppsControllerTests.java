@@ -38,6 +38,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.ClassMode;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -46,6 +47,7 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -132,6 +134,24 @@ public class RuntimeAppsControllerTests {
 		assertThat(responseString.getContentAsString().contains("ticktock2.log"), is(true));
 	}
 
+	@Test
+	public void testSubscribeToRuntimeAppsEvents() throws Exception {
+		MvcResult result = mockMvc.perform(get("/runtime/apps/events").accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted()).andReturn();
+		// The catch-up poll scheduled for the first subscriber reports all deployed apps
+		String content = "";
+		for (int i = 0; i < 50 && !content.contains("ticktock2.log"); i++) {
+			Thread.sleep(100);
+			content = result.getResponse().getContentAsString();
+		}
+		assertThat(content.contains("event:app"), is(true));
+		assertThat(content.contains("\"deploymentId\":\"ticktock1.time\""), is(true));
+		assertThat(content.contains("\"deploymentId\":\"ticktock1.log\""), is(true));
+		assertThat(content.contains("\"deploymentId\":\"ticktock2.time\""), is(true));
+		assertThat(content.contains("\"deploymentId\":\"ticktock2.log\""), is(true));
+		assertThat(content.contains("\"state\":\"deployed\""), is(true));
+	}
+
 	@Test
 	public void testListRuntimeAppsPageSizes() throws Exception {
 		MockHttpServletResponse responseString = mockMvc
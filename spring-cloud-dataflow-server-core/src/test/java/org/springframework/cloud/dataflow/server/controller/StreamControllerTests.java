@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.dataflow.server.controller;
 
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -43,6 +44,7 @@ import org.springframework.cloud.dataflow.server.repository.DeploymentKey;
 import org.springframework.cloud.dataflow.server.repository.InMemoryDeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.InMemoryStreamDefinitionRepository;
 import org.springframework.cloud.dataflow.server.repository.StreamDefinitionRepository;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenResource;
 import org.springframework.cloud.deployer.resource.maven.MavenResourceLoader;
@@ -60,7 +62,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.startsWith;
@@ -70,6 +74,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -526,6 +531,27 @@ public class StreamControllerTests {
 		assertThat(timeRequest.getDefinition().getName(), is("time"));
 	}
 
+	@Test
+	public void testDeployDeploysSourcesLast() throws Exception {
+		repository.save(new StreamDefinition("myStream", "time | filter | log"));
+		mockMvc.perform(post("/streams/deployments/myStream").accept(MediaType.APPLICATION_JSON)).andDo(print())
+				.andExpect(status().isCreated());
+		ArgumentCaptor<AppDeploymentRequest> captor = ArgumentCaptor.forClass(AppDeploymentRequest.class);
+		verify(appDeployer, times(3)).deploy(captor.capture());
+		List<AppDeploymentRequest> requests = captor.getAllValues();
+		assertThat(requests.get(2).getDefinition().getName(), is("time"));
+		assertEquals(3, deploymentIdRepository.findAll(Arrays.asList("myStream.time", "myStream.filter", "myStream.log"))
+				.size());
+	}
+
+	@Test
+	public void testDeployWithUnknownAppDeploysNothing() throws Exception {
+		repository.save(new StreamDefinition("myStream", "nope | log"));
+		mockMvc.perform(post("/streams/deployments/myStream").accept(MediaType.APPLICATION_JSON)).andDo(print())
+				.andExpect(status().isInternalServerError());
+		verify(appDeployer, never()).deploy(any(AppDeploymentRequest.class));
+	}
+
 	@Test
 	public void testStreamWithShortformProperties() throws Exception {
 		repository.save(new StreamDefinition("myStream", "time --fixed-delay=2 | log --level=WARN"));
@@ -801,4 +827,29 @@ public class StreamControllerTests {
 		ArgumentCaptor<AppDeploymentRequest> captor = ArgumentCaptor.forClass(AppDeploymentRequest.class);
 		verify(appDeployer, times(2)).deploy(captor.capture());
 	}
+
+	@Test
+	public void testKeysetPagination() throws Exception {
+		repository.save(new StreamDefinition("keysetStream1", "time | log"));
+		repository.save(new StreamDefinition("keysetStream2", "time | log"));
+		repository.save(new StreamDefinition("keysetStream3", "time | log"));
+		mockMvc.perform(get("/streams/definitions").param("size", "2").param("after", "").accept(MediaType.APPLICATION_JSON))
+				.andDo(print()).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].name", contains("keysetStream1", "keysetStream2")))
+				.andExpect(jsonPath("$.page").doesNotExist())
+				.andExpect(jsonPath("$.links[?(@.rel == 'next')].href",
+						contains(endsWith("after=" + KeysetPageable.toToken("keysetStream2")))));
+
+		mockMvc.perform(get("/streams/definitions").param("size", "2").param("after", KeysetPageable.toToken("keysetStream2"))
+				.accept(MediaType.APPLICATION_JSON)).andDo(print()).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].name", contains("keysetStream3")))
+				.andExpect(jsonPath("$.links[?(@.rel == 'next')]", empty()));
+	}
+
+	@Test
+	public void testKeysetPaginationWithInvalidToken() throws Exception {
+		mockMvc.perform(get("/streams/definitions").param("after", "not a token!").accept(MediaType.APPLICATION_JSON))
+				.andDo(print()).andExpect(status().isBadRequest());
+	}
+
 }
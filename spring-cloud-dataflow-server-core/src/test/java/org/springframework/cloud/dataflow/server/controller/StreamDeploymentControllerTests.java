@@ -17,6 +17,7 @@
 package org.springframework.cloud.dataflow.server.controller;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import org.hamcrest.collection.IsMapContaining;
 import org.junit.Assert;
@@ -31,16 +32,26 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
 import org.springframework.cloud.dataflow.configuration.metadata.BootApplicationConfigurationMetadataResolver;
 import org.springframework.cloud.dataflow.core.StreamAppDefinition;
+import org.springframework.cloud.dataflow.core.StreamDefinition;
 import org.springframework.cloud.dataflow.registry.AppRegistry;
+import org.springframework.cloud.dataflow.server.config.DeploymentStateCacheProperties;
+import org.springframework.cloud.dataflow.server.config.StreamDeploymentProperties;
 import org.springframework.cloud.dataflow.server.config.apps.CommonApplicationProperties;
+import org.springframework.cloud.dataflow.server.controller.support.DeploymentStateCache;
 import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
+import org.springframework.cloud.dataflow.server.repository.DeploymentKey;
 import org.springframework.cloud.dataflow.server.repository.StreamDefinitionRepository;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
 import org.springframework.cloud.deployer.spi.core.AppDefinition;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 
 import static org.hamcrest.CoreMatchers.not;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for StreamDeploymentController.
@@ -131,4 +142,40 @@ public class StreamDeploymentControllerTests {
 
 	}
 
+	@Test
+	public void testDeployChecksStateWithDeployerRatherThanCache() {
+		StreamDefinition stream = new StreamDefinition("ticktock", "time | log");
+		Map<String, String> deploymentIds = new HashMap<>();
+		for (StreamAppDefinition appDefinition : stream.getAppDefinitions()) {
+			deploymentIds.put(DeploymentKey.forStreamAppDefinition(appDefinition), appDefinition.getName() + "-id");
+		}
+		when(streamDefinitionRepository.findOne("ticktock")).thenReturn(stream);
+		when(deploymentIdRepository.findAll(anyCollectionOf(String.class))).thenReturn(deploymentIds);
+		when(appDeployer.status(anyString()))
+				.thenAnswer(invocation -> AppStatus.of((String) invocation.getArguments()[0])
+						.generalState(DeploymentState.undeployed).build());
+
+		DeploymentStateCacheProperties cacheProperties = new DeploymentStateCacheProperties();
+		cacheProperties.setRefreshInterval(0L);
+		cacheProperties.setMaxAge(3_600_000L);
+		DeploymentStateCache cache = new DeploymentStateCache(appDeployer, cacheProperties);
+		StreamDeploymentController cachingController = new StreamDeploymentController(streamDefinitionRepository,
+				deploymentIdRepository, appRegistry, appDeployer, metadataResolver, commonApplicationProperties, cache,
+				new StreamDeploymentProperties());
+		try {
+			// The cache still says undeployed, while the stream got deployed meanwhile
+			cache.getStates(deploymentIds.values());
+			when(appDeployer.status(anyString()))
+					.thenAnswer(invocation -> AppStatus.of((String) invocation.getArguments()[0])
+							.generalState(DeploymentState.deployed).build());
+
+			thrown.expect(StreamAlreadyDeployedException.class);
+			cachingController.deploy("ticktock", null);
+		}
+		finally {
+			cachingController.destroy();
+			cache.destroy();
+		}
+	}
+
 }
@@ -24,6 +24,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,24 +33,35 @@ import org.springframework.cloud.dataflow.core.ApplicationType;
 import org.springframework.cloud.dataflow.core.TaskDefinition;
 import org.springframework.cloud.dataflow.registry.AppRegistry;
 import org.springframework.cloud.dataflow.server.configuration.TestDependencies;
+import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
+import org.springframework.cloud.dataflow.server.repository.DeploymentKey;
 import org.springframework.cloud.dataflow.server.repository.InMemoryTaskDefinitionRepository;
 import org.springframework.cloud.dataflow.server.repository.TaskDefinitionRepository;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.service.TaskService;
 import org.springframework.cloud.deployer.resource.registry.UriRegistry;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.task.LaunchState;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
+import org.springframework.cloud.deployer.spi.task.TaskStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -57,6 +69,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -76,6 +89,9 @@ public class TaskControllerTests {
 	@Autowired
 	private TaskDefinitionRepository repository;
 
+	@Autowired
+	private DeploymentIdRepository deploymentIdRepository;
+
 	@Autowired
 	private UriRegistry registry;
 
@@ -226,6 +242,51 @@ public class TaskControllerTests {
 		assertEquals("myTask", request.getDefinition().getProperties().get("spring.cloud.task.name"));
 	}
 
+	@Test
+	public void testLaunchAsync() throws Exception {
+		repository.save(new TaskDefinition("myTask4", "foo4"));
+		this.registry.register("task.foo4", new URI("file:src/test/resources/apps/foo-task"));
+
+		mockMvc.perform(post("/tasks/executions").param("name", "myTask4").param("async", "true")
+				.accept(MediaType.APPLICATION_JSON)).andDo(print()).andExpect(status().isAccepted());
+
+		verify(this.taskLauncher, timeout(5000).atLeast(1)).launch(argThat(new ArgumentMatcher<AppDeploymentRequest>() {
+
+			@Override
+			public boolean matches(Object request) {
+				return "myTask4".equals(((AppDeploymentRequest) request).getDefinition().getProperties()
+						.get("spring.cloud.task.name"));
+			}
+		}));
+	}
+
+	@Test
+	public void testBulkLaunch() throws Exception {
+		repository.save(new TaskDefinition("myTask5", "foo5"));
+		this.registry.register("task.foo5", new URI("file:src/test/resources/apps/foo-task"));
+
+		mockMvc.perform(post("/tasks/executions/bulk").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"name\": \"myTask5\", \"arguments\": [\"--foo=bar\"]}, {\"name\": \"myFoo\"}]")
+				.accept(MediaType.APPLICATION_JSON)).andDo(print()).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].name", is("myTask5"))).andExpect(jsonPath("$[0].executionId").isNumber())
+				.andExpect(jsonPath("$[1].name", is("myFoo")))
+				.andExpect(jsonPath("$[1].error", is("Could not find task definition named myFoo")));
+	}
+
+	@Test
+	public void testBulkLaunchReportsInvalidPropertiesPerLaunch() throws Exception {
+		repository.save(new TaskDefinition("myTask6", "foo6"));
+		this.registry.register("task.foo6", new URI("file:src/test/resources/apps/foo-task"));
+
+		mockMvc.perform(post("/tasks/executions/bulk").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"name\": \"myTask6\", \"properties\": {\"foo\": \"bar\"}}, {\"name\": \"myTask6\"}]")
+				.accept(MediaType.APPLICATION_JSON)).andDo(print()).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].name", is("myTask6"))).andExpect(jsonPath("$[0].executionId").doesNotExist())
+				.andExpect(jsonPath("$[0].error", is(
+						"Only deployment property keys starting with 'app.' or 'deployer.' allowed, got 'foo'")))
+				.andExpect(jsonPath("$[1].name", is("myTask6"))).andExpect(jsonPath("$[1].executionId").isNumber());
+	}
+
 	@Test
 	public void testLaunchWithAppProperties() throws Exception {
 		repository.save(new TaskDefinition("myTask2", "foo2 --common.prop2=wizz"));
@@ -278,6 +339,47 @@ public class TaskControllerTests {
 				.andExpect(status().isNotFound());
 	}
 
+	@Test
+	public void testListReportsStatusAndComposition() throws Exception {
+		TaskDefinition launched = new TaskDefinition("launchedTask", "timestamp");
+		repository.save(launched);
+		repository.save(new TaskDefinition("composedTask", "foo && bar"));
+		deploymentIdRepository.save(DeploymentKey.forTaskDefinition(launched), "launchedTask-id");
+		when(taskLauncher.status("launchedTask-id"))
+				.thenReturn(new TaskStatus("launchedTask-id", LaunchState.running, null));
+
+		mockMvc.perform(get("/tasks/definitions").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[?(@.name == 'launchedTask')].status", contains("running")))
+				.andExpect(jsonPath("$.content[?(@.name == 'launchedTask')].composed", contains(false)))
+				.andExpect(jsonPath("$.content[?(@.name == 'composedTask')].status", contains("unknown")))
+				.andExpect(jsonPath("$.content[?(@.name == 'composedTask')].composed", contains(true)));
+		verify(taskLauncher, never()).status("composedTask");
+	}
+
+	@Test
+	public void testKeysetPagination() throws Exception {
+		repository.save(new TaskDefinition("keysetTask1", "timestamp"));
+		repository.save(new TaskDefinition("keysetTask2", "timestamp"));
+		repository.save(new TaskDefinition("keysetTask3", "timestamp"));
+		mockMvc.perform(get("/tasks/definitions").param("size", "2").param("after", "").accept(MediaType.APPLICATION_JSON))
+				.andDo(print()).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].name", contains("keysetTask1", "keysetTask2")))
+				.andExpect(jsonPath("$.page").doesNotExist())
+				.andExpect(jsonPath("$.links[?(@.rel == 'next')].href",
+						contains(endsWith("after=" + KeysetPageable.toToken("keysetTask2")))));
+
+		mockMvc.perform(get("/tasks/definitions").param("size", "2").param("after", KeysetPageable.toToken("keysetTask2"))
+				.accept(MediaType.APPLICATION_JSON)).andDo(print()).andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].name", contains("keysetTask3")))
+				.andExpect(jsonPath("$.links[?(@.rel == 'next')]", empty()));
+	}
+
+	@Test
+	public void testKeysetPaginationWithInvalidToken() throws Exception {
+		mockMvc.perform(get("/tasks/definitions").param("after", "not a token!").accept(MediaType.APPLICATION_JSON))
+				.andDo(print()).andExpect(status().isBadRequest());
+	}
+
 	private void createTaskDefinition(String taskName) throws URISyntaxException {
 		String taskAppName = "faketask" + taskName;
 		repository.save(new TaskDefinition(taskName, taskAppName));
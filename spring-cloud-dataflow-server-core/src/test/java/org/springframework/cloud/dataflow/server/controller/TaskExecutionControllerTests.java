@@ -178,6 +178,7 @@ public class TaskExecutionControllerTests {
 		verifyTaskArgs(this.sampleCleansedArgumentList, "$.content[0].",
 				mockMvc.perform(get("/tasks/executions/").accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 						.andExpect(jsonPath("$.content[*].executionId", containsInAnyOrder(4, 3, 2, 1)))
+						.andExpect(jsonPath("$.content[*].jobExecutionIds[*]", containsInAnyOrder(1)))
 						.andExpect(jsonPath("$.content", hasSize(4))));
 	}
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.hamcrest.Matchers.hasEntry;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link WhitelistProperties}.
+ *
+ * @author Eric Bottard
+ */
+public class WhitelistPropertiesTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private ApplicationConfigurationMetadataResolver metadataResolver = mock(
+			ApplicationConfigurationMetadataResolver.class);
+
+	private WhitelistProperties whitelistProperties = new WhitelistProperties(metadataResolver);
+
+	private File metadataFile;
+
+	private Resource metadata;
+
+	@Before
+	public void setUp() throws Exception {
+		metadataFile = temporaryFolder.newFile("app-metadata.jar");
+		metadata = new FileSystemResource(metadataFile);
+		List<ConfigurationMetadataProperty> whiteListed = Arrays.asList(property("date.some-long-property"),
+				property("date.format"), property("time.format"));
+		List<ConfigurationMetadataProperty> all = Arrays.asList(property("date.some-long-property"),
+				property("date.format"), property("time.format"), property("server.port"));
+		when(metadataResolver.listProperties(metadata, false)).thenReturn(whiteListed);
+		when(metadataResolver.listProperties(metadata, true)).thenReturn(all);
+	}
+
+	@Test
+	public void relaxedShortFormsAreQualified() {
+		assertThat(qualify("some-long-property"), hasEntry("date.some-long-property", "x"));
+		assertThat(qualify("someLongProperty"), hasEntry("date.some-long-property", "x"));
+	}
+
+	@Test
+	public void longFormsAndUnknownPropertiesAreKept() {
+		assertThat(qualify("server.port"), hasEntry("server.port", "x"));
+		assertThat(qualify("date.format"), hasEntry("date.format", "x"));
+		assertThat(qualify("unknown.property"), hasEntry("unknown.property", "x"));
+	}
+
+	@Test
+	public void ambiguousShortFormsAreRejected() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Ambiguous short form property 'format'");
+		thrown.expectMessage("date.format");
+		thrown.expectMessage("time.format");
+		qualify("format");
+	}
+
+	@Test
+	public void indexIsBuiltOncePerMetadataFile() {
+		qualify("some-long-property");
+		qualify("someLongProperty");
+		verify(metadataResolver, times(1)).listProperties(metadata, false);
+		verify(metadataResolver, times(1)).listProperties(metadata, true);
+
+		metadataFile.setLastModified(metadataFile.lastModified() - 10_000L);
+		qualify("some-long-property");
+		verify(metadataResolver, times(2)).listProperties(metadata, false);
+	}
+
+	@Test
+	public void noPropertiesDoNotNeedMetadata() {
+		whitelistProperties.qualifyProperties(Collections.<String, String>emptyMap(), metadata);
+		verify(metadataResolver, times(0)).listProperties(any(Resource.class), anyBoolean());
+	}
+
+	private Map<String, String> qualify(String name) {
+		return whitelistProperties.qualifyProperties(Collections.singletonMap(name, "x"), metadata);
+	}
+
+	private static ConfigurationMetadataProperty property(String id) {
+		ConfigurationMetadataProperty property = new ConfigurationMetadataProperty();
+		property.setId(id);
+		property.setName(id.substring(id.lastIndexOf('.') + 1));
+		return property;
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.cloud.dataflow.configuration.metadata.ApplicationConfigurationMetadataResolver;
+import org.springframework.cloud.dataflow.core.ApplicationType;
+import org.springframework.cloud.dataflow.registry.AppRegistration;
+import org.springframework.cloud.dataflow.server.config.AppPrefetchProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link AppPrefetcher}.
+ *
+ * @author Eric Bottard
+ */
+public class AppPrefetcherTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final ApplicationConfigurationMetadataResolver metadataResolver = mock(
+			ApplicationConfigurationMetadataResolver.class);
+
+	private AppPrefetcher prefetcher;
+
+	private URI appUri;
+
+	private URI metadataUri;
+
+	@Before
+	public void setup() throws Exception {
+		AppPrefetchProperties properties = new AppPrefetchProperties();
+		properties.setBackoff(10L);
+		prefetcher = new AppPrefetcher(metadataResolver, properties);
+		appUri = folder.newFile("app.jar").toURI();
+		metadataUri = folder.newFile("app-metadata.jar").toURI();
+	}
+
+	@After
+	public void tearDown() {
+		prefetcher.destroy();
+	}
+
+	@Test
+	public void artifactAndMetadataAreFetched() throws Exception {
+		prefetcher.prefetch(Collections.singletonList(registration(appUri, metadataUri)));
+		List<AppPrefetcher.Download> downloads = awaitCompletion(2);
+		for (AppPrefetcher.Download download : downloads) {
+			assertEquals(AppPrefetcher.State.succeeded, download.getState());
+		}
+		verify(metadataResolver).listProperties(any(Resource.class), eq(false));
+		verify(metadataResolver).listProperties(any(Resource.class), eq(true));
+	}
+
+	@Test
+	public void failedDownloadsAreRetried() throws Exception {
+		when(metadataResolver.listProperties(any(Resource.class), eq(false)))
+				.thenThrow(new RuntimeException("boom")).thenReturn(Collections.<ConfigurationMetadataProperty>emptyList());
+		prefetcher.prefetch(Collections.singletonList(registration(appUri, null)));
+		AppPrefetcher.Download download = awaitCompletion(1).get(0);
+		assertEquals(AppPrefetcher.State.succeeded, download.getState());
+		assertEquals(2, download.getAttempts());
+	}
+
+	@Test
+	public void downloadsAreGivenUpAfterMaxAttempts() throws Exception {
+		prefetcher.prefetch(Collections.singletonList(registration(new File(folder.getRoot(), "missing.jar").toURI(),
+				metadataUri)));
+		for (AppPrefetcher.Download download : awaitCompletion(2)) {
+			if (download.getKind() == AppPrefetcher.Kind.artifact) {
+				assertEquals(AppPrefetcher.State.failed, download.getState());
+				assertEquals(3, download.getAttempts());
+				assertTrue(download.getError() != null);
+			}
+		}
+	}
+
+	@Test
+	public void inFlightDownloadsAreNotDuplicated() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		when(metadataResolver.listProperties(any(Resource.class), eq(false))).then(invocation -> {
+			latch.await(5, TimeUnit.SECONDS);
+			return Collections.emptyList();
+		});
+		prefetcher.prefetch(Collections.singletonList(registration(appUri, null)));
+		prefetcher.prefetch(Collections.singletonList(registration(appUri, null)));
+		latch.countDown();
+		awaitCompletion(1);
+		verify(metadataResolver, times(1)).listProperties(any(Resource.class), eq(false));
+	}
+
+	@Test
+	public void disabledSchemesAreSkipped() throws Exception {
+		prefetcher.prefetch(Collections.singletonList(registration(new URI("docker:springcloud/time"), null)));
+		assertTrue(prefetcher.getDownloads().isEmpty());
+	}
+
+	private AppRegistration registration(URI uri, URI metadataUri) {
+		return new AppRegistration("time", ApplicationType.source, uri, metadataUri, new DefaultResourceLoader());
+	}
+
+	private List<AppPrefetcher.Download> awaitCompletion(int expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000L;
+		while (System.currentTimeMillis() < deadline) {
+			List<AppPrefetcher.Download> downloads = prefetcher.getDownloads();
+			if (downloads.size() == expected && downloads.stream().allMatch(AppPrefetcherTests::isFinished)) {
+				return downloads;
+			}
+			Thread.sleep(10L);
+		}
+		throw new AssertionError("Downloads did not complete in time");
+	}
+
+	private static boolean isFinished(AppPrefetcher.Download download) {
+		return download.getState() == AppPrefetcher.State.succeeded || download.getState() == AppPrefetcher.State.failed
+				|| download.getState() == AppPrefetcher.State.rejected;
+	}
+}
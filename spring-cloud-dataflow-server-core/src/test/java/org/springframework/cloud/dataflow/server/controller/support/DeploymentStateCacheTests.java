@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.dataflow.server.config.DeploymentStateCacheProperties;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link DeploymentStateCache}.
+ *
+ * @author Eric Bottard
+ */
+public class DeploymentStateCacheTests {
+
+	private final AppDeployer deployer = mock(AppDeployer.class);
+
+	private DeploymentStateCache cache;
+
+	@Before
+	public void setup() {
+		when(deployer.status("a")).thenReturn(status("a", DeploymentState.deployed));
+		when(deployer.status("b")).thenReturn(status("b", DeploymentState.deploying));
+		DeploymentStateCacheProperties properties = new DeploymentStateCacheProperties();
+		// Refresh is triggered explicitly by tests
+		properties.setRefreshInterval(3_600_000L);
+		properties.setMaxAge(3_600_000L);
+		cache = new DeploymentStateCache(deployer, properties);
+		cache.afterPropertiesSet();
+	}
+
+	@After
+	public void tearDown() {
+		cache.destroy();
+	}
+
+	@Test
+	public void statusesAreCached() {
+		assertEquals(DeploymentState.deployed, cache.getStatus("a").getState());
+		Map<String, DeploymentState> states = cache.getStates(Arrays.asList("a", "b"));
+		assertEquals(DeploymentState.deployed, states.get("a"));
+		assertEquals(DeploymentState.deploying, states.get("b"));
+		cache.getStates(Arrays.asList("a", "b"));
+		verify(deployer, times(1)).status("a");
+		verify(deployer, times(1)).status("b");
+	}
+
+	@Test
+	public void missingStatusesAreFetchedConcurrently() {
+		CountDownLatch bothFetching = new CountDownLatch(2);
+		when(deployer.status("a")).thenAnswer(invocation -> {
+			bothFetching.countDown();
+			assertTrue(bothFetching.await(10, TimeUnit.SECONDS));
+			return status("a", DeploymentState.deployed);
+		});
+		when(deployer.status("b")).thenAnswer(invocation -> {
+			bothFetching.countDown();
+			assertTrue(bothFetching.await(10, TimeUnit.SECONDS));
+			return status("b", DeploymentState.deploying);
+		});
+		Map<String, AppStatus> statuses = cache.getStatuses(Arrays.asList("a", "b"));
+		assertEquals(DeploymentState.deployed, statuses.get("a").getState());
+		assertEquals(DeploymentState.deploying, statuses.get("b").getState());
+	}
+
+	@Test
+	public void evictForcesFetch() {
+		cache.getStatus("a");
+		when(deployer.status("a")).thenReturn(status("a", DeploymentState.undeployed));
+		cache.evict("a");
+		assertEquals(DeploymentState.undeployed, cache.getStatus("a").getState());
+		verify(deployer, times(2)).status("a");
+	}
+
+	@Test
+	public void evictDuringFetchIsNotOverwritten() {
+		when(deployer.status("a")).thenAnswer(invocation -> {
+			// The app gets undeployed while its (now stale) status is being fetched
+			cache.evict("a");
+			return status("a", DeploymentState.deployed);
+		});
+		assertEquals(DeploymentState.deployed, cache.getStatus("a").getState());
+		when(deployer.status("a")).thenReturn(status("a", DeploymentState.undeployed));
+		assertEquals(DeploymentState.undeployed, cache.getStatus("a").getState());
+		verify(deployer, times(2)).status("a");
+	}
+
+	@Test
+	public void currentStatesBypassCache() {
+		cache.getStatus("a");
+		when(deployer.status("a")).thenReturn(status("a", DeploymentState.undeployed));
+		assertEquals(DeploymentState.undeployed, cache.getCurrentStates(Arrays.asList("a")).get("a"));
+		assertEquals(DeploymentState.deployed, cache.getStatus("a").getState());
+		verify(deployer, times(2)).status("a");
+	}
+
+	@Test
+	public void refreshUpdatesCachedStatuses() {
+		cache.getStatus("a");
+		when(deployer.status("a")).thenReturn(status("a", DeploymentState.failed));
+		cache.refresh();
+		assertEquals(DeploymentState.failed, cache.getStatus("a").getState());
+		verify(deployer, times(2)).status("a");
+		verify(deployer, times(0)).status("b");
+	}
+
+	@Test
+	public void disabledCacheDelegates() {
+		DeploymentStateCache disabled = new DeploymentStateCache(deployer);
+		disabled.getStatus("a");
+		disabled.getStates(Arrays.asList("a", "b"));
+		verify(deployer, times(2)).status("a");
+		verify(deployer, times(1)).status("b");
+	}
+
+	private static AppStatus status(String id, DeploymentState state) {
+		return AppStatus.of(id).generalState(state).build();
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link InstanceMetricsIndex}.
+ *
+ * @author Eric Bottard
+ */
+public class InstanceMetricsIndexTests {
+
+	@Test
+	public void metricsAreIndexedByGuid() {
+		ApplicationsMetrics.Instance instance = new ApplicationsMetrics.Instance();
+		instance.setGuid("guid1");
+		instance.setMetrics(new ArrayList<>());
+		instance.getMetrics().add(metric(InstanceMetricsIndex.OUTPUT_SEND_MEAN, 12.5));
+		instance.getMetrics().add(metric("integration.channel.errorChannel.errorRate.mean", 0.25));
+		instance.getMetrics().add(metric("unrelated", 1));
+		ApplicationsMetrics.Application application = new ApplicationsMetrics.Application();
+		application.setInstances(Collections.singletonList(instance));
+		ApplicationsMetrics metrics = new ApplicationsMetrics();
+		metrics.setName("ticktock");
+		metrics.setApplications(Collections.singletonList(application));
+
+		InstanceMetricsIndex index = new InstanceMetricsIndex(Collections.singletonList(metrics),
+				Collections.singletonList("integration.channel.errorChannel.errorRate.mean"));
+
+		assertEquals(3, index.size());
+		double[] values = index.get("guid1");
+		assertTrue(Double.isNaN(values[0]));
+		assertEquals(12.5, values[1], 0.0);
+		assertEquals(0.25, values[2], 0.0);
+		assertEquals("metrics.integration.channel.output.sendRate", index.getAttributeName(1));
+		assertEquals("metrics.integration.channel.errorChannel.errorRate.mean", index.getAttributeName(2));
+		assertNull(index.get("guid2"));
+		assertNull(InstanceMetricsIndex.empty().get("guid1"));
+	}
+
+	@Test
+	public void formatMatchesStringFormat() {
+		List<Double> values = new ArrayList<>();
+		for (int i = -2000; i <= 2000; i++) {
+			values.add(i / 7.0);
+			values.add(i * 1234.5678);
+		}
+		values.add(0.0);
+		values.add(-0.0);
+		values.add(-0.001);
+		values.add(0.005);
+		values.add(1.005);
+		values.add(586419.705);
+		values.add(Double.NaN);
+		values.add(Double.POSITIVE_INFINITY);
+		values.add(1e20);
+		for (double value : values) {
+			assertEquals(String.format(Locale.US, "%.2f", value), InstanceMetricsIndex.format(value));
+		}
+	}
+
+	private ApplicationsMetrics.Metric metric(String name, Object value) {
+		ApplicationsMetrics.Metric metric = new ApplicationsMetrics.Metric();
+		metric.setName(name);
+		metric.setValue(value);
+		return metric;
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.cloud.dataflow.server.config.MetricsProperties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MetricsSnapshot} and the snapshot mode of {@link MetricStore}.
+ *
+ * @author Eric Bottard
+ */
+public class MetricsSnapshotTests {
+
+	@Test
+	public void snapshotIsIndexed() {
+		ApplicationsMetrics ticktock = streamMetrics("ticktock", "guid1", "guid2");
+		ApplicationsMetrics other = streamMetrics("other", "guid3");
+		MetricsSnapshot snapshot = new MetricsSnapshot(Arrays.asList(ticktock, other), 42L);
+
+		assertEquals(2, snapshot.getMetrics().size());
+		assertEquals(Collections.singletonList(other), snapshot.getMetrics(Arrays.asList("other", "unknown")));
+		assertSame(ticktock.getApplications().get(0).getInstances().get(1), snapshot.getInstance("guid2"));
+		assertNull(snapshot.getInstance("guid4"));
+		assertEquals(42L, snapshot.getTimestamp());
+	}
+
+	@Test
+	public void snapshotModeRequiresCollector() {
+		MetricsProperties metricsProperties = new MetricsProperties();
+		metricsProperties.getSnapshot().setEnabled(true);
+		MetricStore metricStore = new MetricStore(metricsProperties);
+		metricStore.afterPropertiesSet();
+
+		assertTrue(metricStore.getMetrics().isEmpty());
+		assertNull(metricStore.getSnapshot());
+		assertEquals(-1L, metricStore.getSnapshotAge());
+		metricStore.destroy();
+	}
+
+	private ApplicationsMetrics streamMetrics(String streamName, String... guids) {
+		List<ApplicationsMetrics.Instance> instances = new ArrayList<>();
+		for (String guid : guids) {
+			ApplicationsMetrics.Instance instance = new ApplicationsMetrics.Instance();
+			instance.setGuid(guid);
+			instances.add(instance);
+		}
+		ApplicationsMetrics.Application application = new ApplicationsMetrics.Application();
+		application.setName("time");
+		application.setInstances(instances);
+		ApplicationsMetrics metrics = new ApplicationsMetrics();
+		metrics.setName(streamName);
+		metrics.setApplications(Collections.singletonList(application));
+		return metrics;
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.controller.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.dataflow.server.config.MetricsProperties;
+import org.springframework.cloud.dataflow.server.config.RuntimeAppsProperties;
+import org.springframework.cloud.dataflow.server.repository.DeploymentIdRepository;
+import org.springframework.cloud.dataflow.server.repository.InMemoryDeploymentIdRepository;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link RuntimeAppsEventPublisher} and {@link RuntimeAppDelta}.
+ *
+ * @author Eric Bottard
+ */
+public class RuntimeAppsEventPublisherTests {
+
+	private final AppDeployer deployer = mock(AppDeployer.class);
+
+	private final DeploymentIdRepository deploymentIdRepository = new InMemoryDeploymentIdRepository();
+
+	private RuntimeAppsEventPublisher publisher;
+
+	@Before
+	public void setup() {
+		deploymentIdRepository.save("ticktock.time", "ticktock.time-0");
+		deploymentIdRepository.save("ticktock.log", "ticktock.log-0");
+		when(deployer.status("ticktock.time-0")).thenReturn(status("ticktock.time-0", DeploymentState.deploying));
+		when(deployer.status("ticktock.log-0")).thenReturn(status("ticktock.log-0", DeploymentState.deployed));
+		publisher = new RuntimeAppsEventPublisher(deploymentIdRepository, new DeploymentStateCache(deployer),
+				new MetricStore(new MetricsProperties()), new RuntimeAppsProperties());
+	}
+
+	@Test
+	public void onlyChangesArePublished() {
+		assertEquals(2, publisher.poll().size());
+		assertTrue(publisher.poll().isEmpty());
+
+		when(deployer.status("ticktock.time-0")).thenReturn(status("ticktock.time-0", DeploymentState.deployed));
+		List<RuntimeAppDelta> deltas = publisher.poll();
+		assertEquals(1, deltas.size());
+		assertEquals("ticktock.time-0", deltas.get(0).getDeploymentId());
+		assertEquals("deployed", deltas.get(0).getState());
+
+		deploymentIdRepository.delete("ticktock.log");
+		deltas = publisher.poll();
+		assertEquals(1, deltas.size());
+		assertEquals("ticktock.log-0", deltas.get(0).getDeploymentId());
+		assertEquals("undeployed", deltas.get(0).getState());
+	}
+
+	@Test
+	public void deltasOnlyHoldChangedAttributes() {
+		RuntimeAppDelta before = new RuntimeAppDelta("app", "deployed",
+				instances("app-0", "metrics.integration.channel.output.sendRate", "1.00"));
+		RuntimeAppDelta after = new RuntimeAppDelta("app", "deployed",
+				instances("app-0", "metrics.integration.channel.output.sendRate", "2.00"));
+
+		RuntimeAppDelta delta = RuntimeAppDelta.between(before, after);
+		assertNull(delta.getState());
+		assertEquals("2.00", delta.getInstances().get("app-0").get("metrics.integration.channel.output.sendRate"));
+		assertTrue(RuntimeAppDelta.between(after, after).isEmpty());
+	}
+
+	@Test
+	public void pendingDeltasAreCoalesced() {
+		RuntimeAppDelta first = new RuntimeAppDelta("app", "deploying", instances("app-0", "state", "deploying"));
+		RuntimeAppDelta second = new RuntimeAppDelta("app", null,
+				instances("app-0", "metrics.integration.channel.output.sendRate", "2.00"));
+
+		RuntimeAppDelta merged = first.merge(second);
+		assertEquals("deploying", merged.getState());
+		assertEquals("deploying", merged.getInstances().get("app-0").get("state"));
+		assertEquals("2.00", merged.getInstances().get("app-0").get("metrics.integration.channel.output.sendRate"));
+	}
+
+	@Test
+	public void removalsAreReported() {
+		Map<String, Map<String, String>> beforeInstances = new HashMap<>();
+		beforeInstances.put("app-0", attributes("state", "deployed", "metrics.integration.channel.output.sendRate",
+				"1.00"));
+		beforeInstances.put("app-1", attributes("state", "deployed"));
+		RuntimeAppDelta before = new RuntimeAppDelta("app", "deployed", beforeInstances);
+		RuntimeAppDelta after = new RuntimeAppDelta("app", "deployed", instances("app-0", "state", "deployed"));
+
+		RuntimeAppDelta delta = RuntimeAppDelta.between(before, after);
+		assertFalse(delta.isEmpty());
+		assertTrue(delta.getInstances().isEmpty());
+		assertEquals(Collections.singleton("app-1"), delta.getRemovedInstances());
+		assertEquals(Collections.singleton("metrics.integration.channel.output.sendRate"),
+				delta.getRemovedAttributes().get("app-0"));
+	}
+
+	@Test
+	public void undeployedAppsReportTheirInstancesRemoved() {
+		when(deployer.status("ticktock.log-0")).thenReturn(AppStatus.of("ticktock.log-0")
+				.with(instance("ticktock.log-0-0", DeploymentState.deployed)).build());
+		publisher.poll();
+		deploymentIdRepository.delete("ticktock.log");
+		List<RuntimeAppDelta> deltas = publisher.poll();
+		assertEquals(1, deltas.size());
+		assertEquals("undeployed", deltas.get(0).getState());
+		assertEquals(Collections.singleton("ticktock.log-0-0"), deltas.get(0).getRemovedInstances());
+	}
+
+	@Test
+	public void mergingHonorsRemovals() {
+		RuntimeAppDelta added = new RuntimeAppDelta("app", null, instances("app-0", "state", "deploying"));
+		RuntimeAppDelta removed = new RuntimeAppDelta("app", null, Collections.emptyMap(),
+				Collections.singleton("app-0"), Collections.emptyMap());
+		RuntimeAppDelta addedAgain = new RuntimeAppDelta("app", null, instances("app-0", "state", "deployed"));
+
+		RuntimeAppDelta merged = added.merge(removed);
+		assertTrue(merged.getInstances().isEmpty());
+		assertEquals(Collections.singleton("app-0"), merged.getRemovedInstances());
+
+		merged = merged.merge(addedAgain);
+		assertEquals(Collections.singleton("app-0"), merged.getRemovedInstances());
+		assertEquals("deployed", merged.getInstances().get("app-0").get("state"));
+
+		RuntimeAppDelta attributeRemoved = new RuntimeAppDelta("app", null, Collections.emptyMap(),
+				Collections.emptySet(), Collections.singletonMap("app-0", Collections.singleton("state")));
+		merged = merged.merge(attributeRemoved);
+		assertNull(merged.getInstances().get("app-0"));
+		assertEquals(Collections.singleton("state"), merged.getRemovedAttributes().get("app-0"));
+	}
+
+	@Test
+	public void newSubscribersGetTheLastPollWithoutPolling() {
+		assertEquals(2, publisher.poll().size());
+		// The publisher is not initialized, so nothing is sent and changes stay pending
+		publisher.subscribe();
+		assertEquals(1, publisher.getSubscriberCount());
+		verify(deployer, times(1)).status("ticktock.time-0");
+
+		when(deployer.status("ticktock.time-0")).thenReturn(status("ticktock.time-0", DeploymentState.deployed));
+		assertEquals(1, publisher.poll().size());
+		assertEquals(1, publisher.getSubscriberCount());
+	}
+
+	@Test
+	public void subscribingAfterIdlePeriodSchedulesACatchUpPoll() {
+		publisher.afterPropertiesSet();
+		try {
+			publisher.subscribe();
+			verify(deployer, timeout(5000)).status("ticktock.time-0");
+			verify(deployer, timeout(5000)).status("ticktock.log-0");
+		}
+		finally {
+			publisher.destroy();
+		}
+	}
+
+	private static AppInstanceStatus instance(String id, DeploymentState state) {
+		AppInstanceStatus instance = mock(AppInstanceStatus.class);
+		when(instance.getId()).thenReturn(id);
+		when(instance.getState()).thenReturn(state);
+		when(instance.getAttributes()).thenReturn(Collections.emptyMap());
+		return instance;
+	}
+
+	private static Map<String, String> attributes(String... keysAndValues) {
+		Map<String, String> attributes = new HashMap<>();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			attributes.put(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return attributes;
+	}
+
+	private static Map<String, Map<String, String>> instances(String instanceId, String attribute, String value) {
+		Map<String, String> attributes = new HashMap<>();
+		attributes.put(attribute, value);
+		return Collections.singletonMap(instanceId, attributes);
+	}
+
+	private static AppStatus status(String id, DeploymentState state) {
+		return AppStatus.of(id).generalState(state).build();
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.registry;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.dataflow.core.ApplicationType;
+import org.springframework.cloud.dataflow.registry.AppRegistration;
+import org.springframework.cloud.dataflow.registry.AppRegistry;
+import org.springframework.cloud.deployer.resource.registry.InMemoryUriRegistry;
+import org.springframework.cloud.deployer.resource.registry.UriRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the in-memory snapshot of {@link AppRegistry}.
+ *
+ * @author Eric Bottard
+ */
+public class AppRegistryTests {
+
+	private CountingUriRegistry uriRegistry;
+
+	private AppRegistry appRegistry;
+
+	@Before
+	public void setup() {
+		uriRegistry = new CountingUriRegistry();
+		appRegistry = new AppRegistry(uriRegistry, new DefaultResourceLoader());
+	}
+
+	@Test
+	public void lookupsAreServedFromASingleLoad() throws Exception {
+		appRegistry.save("time", ApplicationType.source, new URI("maven://org.example:time:1.0"),
+				new URI("maven://org.example:time:jar:metadata:1.0"));
+		appRegistry.save("log", ApplicationType.sink, new URI("maven://org.example:log:1.0"), null);
+
+		assertEquals(2, appRegistry.findAll().size());
+		AppRegistration time = appRegistry.find("time", ApplicationType.source);
+		assertEquals(new URI("maven://org.example:time:jar:metadata:1.0"), time.getMetadataUri());
+		assertNull(appRegistry.find("log", ApplicationType.sink).getMetadataUri());
+		assertNull(appRegistry.find("foo", ApplicationType.processor));
+
+		assertEquals(1, uriRegistry.findAllCalls);
+		assertEquals(0, uriRegistry.findCalls);
+	}
+
+	@Test
+	public void changesInvalidateTheSnapshot() throws Exception {
+		appRegistry.save("time", ApplicationType.source, new URI("maven://org.example:time:1.0"), null);
+		assertEquals(1, appRegistry.findAll().size());
+		long version = appRegistry.getVersion();
+
+		appRegistry.save("time", ApplicationType.source, new URI("maven://org.example:time:2.0"), null);
+		assertNotEquals(version, appRegistry.getVersion());
+		assertEquals(new URI("maven://org.example:time:2.0"), appRegistry.find("time", ApplicationType.source).getUri());
+
+		appRegistry.delete("time", ApplicationType.source);
+		assertNull(appRegistry.find("time", ApplicationType.source));
+		assertEquals(0, appRegistry.findAll().size());
+	}
+
+	@Test
+	public void invalidateSeesChangesMadeBehindTheRegistry() throws Exception {
+		assertEquals(0, appRegistry.findAll().size());
+		uriRegistry.register("sink.log", new URI("maven://org.example:log:1.0"));
+		assertNull(appRegistry.find("log", ApplicationType.sink));
+
+		appRegistry.invalidate();
+		assertEquals(new URI("maven://org.example:log:1.0"), appRegistry.find("log", ApplicationType.sink).getUri());
+	}
+
+	@Test
+	public void expiredSnapshotSeesChangesMadeBehindTheRegistry() throws Exception {
+		appRegistry.setSnapshotTtl(0);
+		assertEquals(0, appRegistry.findAll().size());
+		long version = appRegistry.getVersion();
+		assertEquals(version, appRegistry.getVersion());
+
+		uriRegistry.register("sink.log", new URI("maven://org.example:log:1.0"));
+		assertEquals(new URI("maven://org.example:log:1.0"), appRegistry.find("log", ApplicationType.sink).getUri());
+		assertNotEquals(version, appRegistry.getVersion());
+	}
+
+	private static class CountingUriRegistry implements UriRegistry {
+
+		private final UriRegistry delegate = new InMemoryUriRegistry();
+
+		private int findCalls;
+
+		private int findAllCalls;
+
+		@Override
+		public URI find(String key) {
+			findCalls++;
+			return delegate.find(key);
+		}
+
+		@Override
+		public Map<String, URI> findAll() {
+			findAllCalls++;
+			return delegate.findAll();
+		}
+
+		@Override
+		public void register(String key, URI uri) {
+			delegate.register(key, uri);
+		}
+
+		@Override
+		public void unregister(String key) {
+			delegate.unregister(key);
+		}
+	}
+}
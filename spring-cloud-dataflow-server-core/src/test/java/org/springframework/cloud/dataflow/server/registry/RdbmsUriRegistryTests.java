@@ -17,8 +17,12 @@
 package org.springframework.cloud.dataflow.server.registry;
 
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -35,6 +39,9 @@ import org.springframework.cloud.dataflow.server.config.features.FeaturesPropert
 import org.springframework.cloud.dataflow.server.repository.support.DataflowRdbmsInitializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -107,6 +114,69 @@ public class RdbmsUriRegistryTests {
 		assertEquals(test2URI, registry.find("source.test1"));
 	}
 
+	@Test
+	public void testRegisterAll() throws Exception {
+		URI test1URI = new URI("http://test1URI");
+		URI test2URI = new URI("http://test2URI");
+		URI test3URI = new URI("http://test3URI");
+		registry.register("source.test1", test1URI);
+		Map<String, URI> map = new HashMap<>();
+		map.put("source.test1", test2URI);
+		map.put("sink.test2", test3URI);
+		registry.registerAll(map);
+		assertEquals(map, registry.findAll());
+	}
+
+	@Test
+	public void testRegisterAllIsAllOrNothing() throws Exception {
+		Map<String, URI> map = new HashMap<>();
+		map.put("source.test1", new URI("http://test1URI"));
+		map.put("sink.test2", new URI("test2URI"));
+		try {
+			registry.registerAll(map);
+			fail("IllegalArgumentException is expected when registering a URI without scheme.");
+		}
+		catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("URI scheme must be specified"));
+		}
+		assertTrue(registry.findAll().isEmpty());
+	}
+
+	@Test
+	public void testFindAllPaged() throws Exception {
+		registry.register("source.time", new URI("http://time"));
+		registry.register("source.time.metadata", new URI("http://time-metadata"));
+		registry.register("source.timestamp", new URI("http://timestamp"));
+		registry.register("processor.transform", new URI("http://transform"));
+		registry.register("sink.time", new URI("http://time-sink"));
+		List<String> prefixes = Arrays.asList("source.", "processor.", "sink.");
+
+		Page<Map.Entry<String, URI>> page = registry.findAll(prefixes, ".metadata", new PageRequest(0, 2));
+		assertEquals(4, page.getTotalElements());
+		assertEquals(Arrays.asList("source.time", "source.timestamp"), keys(page));
+
+		page = registry.findAll(prefixes, ".metadata", new PageRequest(1, 2));
+		assertEquals(Arrays.asList("processor.transform", "sink.time"), keys(page));
+
+		page = registry.findAll(prefixes, ".metadata", new PageRequest(0, 10, Sort.Direction.DESC, "name"));
+		assertEquals(Arrays.asList("sink.time", "processor.transform", "source.timestamp", "source.time"), keys(page));
+
+		page = registry.findAll(Arrays.asList("source.time"), null, new PageRequest(0, 10));
+		assertEquals(Arrays.asList("source.time", "source.time.metadata", "source.timestamp"), keys(page));
+
+		page = registry.findAll(Arrays.asList("source.t_me"), null, new PageRequest(0, 10));
+		assertEquals(0, page.getTotalElements());
+	}
+
+	@Test
+	public void testFindAllByKeys() throws Exception {
+		URI test1URI = new URI("http://test1URI");
+		registry.register("source.test1", test1URI);
+		registry.register("sink.test2", new URI("http://test2URI"));
+		assertEquals(Collections.singletonMap("source.test1", test1URI),
+				registry.findAll(Arrays.asList("source.test1", "source.test3")));
+	}
+
 	@Test
 	public void testUnregister() throws Exception {
 		URI test1URI = new URI("http://test1URI");
@@ -124,6 +194,10 @@ public class RdbmsUriRegistryTests {
 		assertEquals(test2URI, registry.find("sink.test2"));
 	}
 
+	private static List<String> keys(Page<Map.Entry<String, URI>> page) {
+		return page.getContent().stream().map(Map.Entry::getKey).collect(Collectors.toList());
+	}
+
 	@Configuration
 	protected static class TestConfig {
 
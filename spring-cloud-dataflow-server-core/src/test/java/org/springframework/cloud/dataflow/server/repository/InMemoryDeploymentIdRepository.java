@@ -16,9 +16,18 @@
 
 package org.springframework.cloud.dataflow.server.repository;
 
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.util.Assert;
 
 /**
@@ -46,6 +55,28 @@ public class InMemoryDeploymentIdRepository implements DeploymentIdRepository {
 		return deployments.get(key);
 	}
 
+	@Override
+	public Map<String, String> findAll(Collection<String> keys) {
+		Map<String, String> result = new HashMap<>();
+		for (String key : keys) {
+			String id = deployments.get(key);
+			if (id != null) {
+				result.put(key, id);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Page<Map.Entry<String, String>> findAllOrderedById(Pageable pageable) {
+		PageRequest pageRequest = new PageRequest(pageable.getPageNumber(), pageable.getPageSize());
+		List<Map.Entry<String, String>> entries = deployments.entrySet().stream()
+				.sorted(Map.Entry.comparingByValue()).skip(pageRequest.getOffset()).limit(pageRequest.getPageSize())
+				.<Map.Entry<String, String>>map(e -> new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue()))
+				.collect(Collectors.toList());
+		return new PageImpl<>(entries, pageRequest, deployments.size());
+	}
+
 	@Override
 	public void delete(String key) {
 		deployments.remove(key);
@@ -18,15 +18,24 @@ package org.springframework.cloud.dataflow.server.repository;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.springframework.cloud.dataflow.core.StreamDefinition;
+import org.springframework.cloud.dataflow.core.dsl.StreamNode;
+import org.springframework.cloud.dataflow.core.dsl.StreamParser;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.repository.support.SearchPageable;
+import org.springframework.cloud.dataflow.server.repository.support.StreamDestinationIndex;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 /**
@@ -39,6 +48,8 @@ public class InMemoryStreamDefinitionRepository implements StreamDefinitionRepos
 
 	private final Map<String, StreamDefinition> definitions = new ConcurrentHashMap<>();
 
+	private final StreamDestinationIndex streamDestinationIndex = new StreamDestinationIndex();
+
 	@Override
 	public Iterable<StreamDefinition> findAll(Sort sort) {
 		throw new UnsupportedOperationException();
@@ -66,6 +77,9 @@ public class InMemoryStreamDefinitionRepository implements StreamDefinitionRepos
 							+ "been registered with the same name", definition.getName()));
 		}
 		definitions.put(definition.getName(), definition);
+		StreamNode streamNode = new StreamParser(definition.getName(), definition.getDslText()).parse();
+		streamDestinationIndex.put(definition.getName(), streamNode.getSourceDestinationNode() != null
+				? streamNode.getSourceDestinationNode().getDestinationName() : null);
 		return definition;
 	}
 
@@ -103,6 +117,7 @@ public class InMemoryStreamDefinitionRepository implements StreamDefinitionRepos
 	@Override
 	public void delete(String name) {
 		definitions.remove(name);
+		streamDestinationIndex.remove(name);
 	}
 
 	@Override
@@ -120,6 +135,7 @@ public class InMemoryStreamDefinitionRepository implements StreamDefinitionRepos
 	@Override
 	public void deleteAll() {
 		definitions.clear();
+		streamDestinationIndex.clear();
 	}
 
 	@Override
@@ -127,4 +143,26 @@ public class InMemoryStreamDefinitionRepository implements StreamDefinitionRepos
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public Slice<StreamDefinition> findAll(KeysetPageable keysetPageable) {
+		Comparator<StreamDefinition> comparator = Comparator.comparing(StreamDefinition::getName);
+		if (keysetPageable.getDirection() == Sort.Direction.DESC) {
+			comparator = comparator.reversed();
+		}
+		String afterKey = keysetPageable.getAfterKey();
+		List<StreamDefinition> results = definitions.values().stream()
+				.filter(d -> afterKey == null || (keysetPageable.getDirection() == Sort.Direction.DESC
+						? d.getName().compareTo(afterKey) < 0 : d.getName().compareTo(afterKey) > 0))
+				.sorted(comparator).collect(Collectors.toList());
+		boolean hasNext = results.size() > keysetPageable.getPageSize();
+		return new SliceImpl<>(new ArrayList<>(results.subList(0, Math.min(results.size(), keysetPageable.getPageSize()))),
+				new PageRequest(0, keysetPageable.getPageSize()), hasNext);
+	}
+
+	@Override
+	public List<StreamDefinition> findRelated(String name, boolean nested) {
+		return streamDestinationIndex.findRelated(name, nested).stream().map(definitions::get)
+				.collect(Collectors.toList());
+	}
+
 }
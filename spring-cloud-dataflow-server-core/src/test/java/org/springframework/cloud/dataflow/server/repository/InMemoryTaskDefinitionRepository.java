@@ -18,15 +18,21 @@ package org.springframework.cloud.dataflow.server.repository;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.springframework.cloud.dataflow.core.TaskDefinition;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.repository.support.SearchPageable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 /**
@@ -128,4 +134,21 @@ public class InMemoryTaskDefinitionRepository implements TaskDefinitionRepositor
 	public Page<TaskDefinition> search(SearchPageable searchPageable) {
 		throw new UnsupportedOperationException();
 	}
+
+	@Override
+	public Slice<TaskDefinition> findAll(KeysetPageable keysetPageable) {
+		Comparator<TaskDefinition> comparator = Comparator.comparing(TaskDefinition::getName);
+		if (keysetPageable.getDirection() == Sort.Direction.DESC) {
+			comparator = comparator.reversed();
+		}
+		String afterKey = keysetPageable.getAfterKey();
+		List<TaskDefinition> results = definitions.values().stream()
+				.filter(d -> afterKey == null || (keysetPageable.getDirection() == Sort.Direction.DESC
+						? d.getName().compareTo(afterKey) < 0 : d.getName().compareTo(afterKey) > 0))
+				.sorted(comparator).collect(Collectors.toList());
+		boolean hasNext = results.size() > keysetPageable.getPageSize();
+		return new SliceImpl<>(new ArrayList<>(results.subList(0, Math.min(results.size(), keysetPageable.getPageSize()))),
+				new PageRequest(0, keysetPageable.getPageSize()), hasNext);
+	}
+
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.dataflow.server.configuration.TaskDependencies;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.cloud.task.repository.support.SimpleTaskRepository;
+import org.springframework.cloud.task.repository.support.TaskExecutionDaoFactoryBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link RdbmsBulkTaskExecutionRepository}.
+ *
+ * @author Eric Bottard
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { TaskDependencies.class, EmbeddedDataSourceConfiguration.class,
+		PropertyPlaceholderAutoConfiguration.class })
+@DirtiesContext
+public class RdbmsBulkTaskExecutionRepositoryTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private TaskExplorer explorer;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private BulkTaskExecutionRepository repository;
+
+	@Before
+	public void setup() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("DELETE FROM task_task_batch");
+		jdbcTemplate.execute("DELETE FROM task_execution");
+		repository = new RdbmsBulkTaskExecutionRepository(dataSource);
+	}
+
+	@Test
+	public void executionsAreCreatedInOrder() {
+		List<Long> ids = repository.createTaskExecutions(Arrays.asList("foo", "bar", "foo"));
+		assertEquals(3, ids.size());
+		assertEquals("foo", explorer.getTaskExecution(ids.get(0)).getTaskName());
+		assertEquals("bar", explorer.getTaskExecution(ids.get(1)).getTaskName());
+		assertEquals("foo", explorer.getTaskExecution(ids.get(2)).getTaskName());
+		TaskExecution taskExecution = explorer.getTaskExecution(ids.get(1));
+		assertNull(taskExecution.getExternalExecutionId());
+		assertNull(taskExecution.getExitCode());
+		assertEquals(2L, explorer.getTaskExecutionCountByTaskName("foo"));
+	}
+
+	@Test
+	public void executionIdsAreSharedWithTheTaskRepository() {
+		long single = new SimpleTaskRepository(new TaskExecutionDaoFactoryBean(dataSource))
+				.createTaskExecution("foo").getExecutionId();
+		long bulk = repository.createTaskExecutions(Collections.singletonList("foo")).get(0);
+		assertTrue(bulk > single);
+	}
+
+	@Test
+	public void noNamesCreateNoExecutions() {
+		assertTrue(repository.createTaskExecutions(Collections.<String>emptyList()).isEmpty());
+		assertEquals(0L, explorer.getTaskExecutionCount());
+	}
+
+	@Test
+	public void jobExecutionIdsAreFoundPerTaskExecution() {
+		List<Long> ids = repository.createTaskExecutions(Arrays.asList("foo", "bar", "baz"));
+		jdbcTemplate.update("INSERT INTO task_task_batch (task_execution_id, job_execution_id) VALUES (?, ?)",
+				ids.get(0), 12L);
+		jdbcTemplate.update("INSERT INTO task_task_batch (task_execution_id, job_execution_id) VALUES (?, ?)",
+				ids.get(0), 11L);
+		jdbcTemplate.update("INSERT INTO task_task_batch (task_execution_id, job_execution_id) VALUES (?, ?)",
+				ids.get(2), 13L);
+
+		Map<Long, Set<Long>> jobExecutionIds = repository.findJobExecutionIds(ids);
+		assertEquals(2, jobExecutionIds.size());
+		assertEquals(Arrays.asList(11L, 12L), new ArrayList<>(jobExecutionIds.get(ids.get(0))));
+		assertFalse(jobExecutionIds.containsKey(ids.get(1)));
+		assertEquals(explorer.getJobExecutionIdsByTaskExecutionId(ids.get(2)), jobExecutionIds.get(ids.get(2)));
+		assertTrue(repository.findJobExecutionIds(Collections.<Long>emptyList()).isEmpty());
+	}
+}
@@ -16,6 +16,11 @@
 
 package org.springframework.cloud.dataflow.server.repository;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import javax.sql.DataSource;
 
 import org.junit.Before;
@@ -30,6 +35,8 @@ import org.springframework.cloud.dataflow.server.config.features.FeaturesPropert
 import org.springframework.cloud.dataflow.server.repository.support.DataflowRdbmsInitializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -66,6 +73,47 @@ public class RdbmsDeploymentIdRepositoryTests {
 		assertEquals("log.0", repository.findOne("key2"));
 	}
 
+	@Test
+	public void testFindAll() {
+		repository.save("key1", "time.1");
+		repository.save("key2", "log.0");
+
+		Map<String, String> ids = repository.findAll(Arrays.asList("key1", "key2", "key3"));
+		assertEquals(2, ids.size());
+		assertEquals("time.1", ids.get("key1"));
+		assertEquals("log.0", ids.get("key2"));
+	}
+
+	@Test
+	public void testFindAllSpanningSeveralQueries() {
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) {
+			keys.add("key" + i);
+			if (i % 100 == 0) {
+				repository.save("key" + i, "app." + i);
+			}
+		}
+
+		Map<String, String> ids = repository.findAll(keys);
+		assertEquals(12, ids.size());
+		assertEquals("app.1100", ids.get("key1100"));
+	}
+
+	@Test
+	public void testFindAllOrderedById() {
+		repository.save("ticktock.time", "ticktock.time-0");
+		repository.save("ticktock.log", "ticktock.log-0");
+		repository.save("http.http", "http.http-0");
+
+		Page<Map.Entry<String, String>> page = repository.findAllOrderedById(new PageRequest(1, 2));
+		assertEquals(3, page.getTotalElements());
+		assertEquals(1, page.getNumberOfElements());
+		assertEquals("ticktock.time", page.getContent().get(0).getKey());
+		assertEquals("ticktock.time-0", page.getContent().get(0).getValue());
+		assertEquals("ticktock.log-0", repository.findAllOrderedById(new PageRequest(0, 2)).getContent().get(1)
+				.getValue());
+	}
+
 	@Test
 	public void testDelete() {
 		repository.save("key1", "time.1");
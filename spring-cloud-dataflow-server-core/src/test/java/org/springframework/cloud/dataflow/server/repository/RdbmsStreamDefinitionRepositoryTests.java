@@ -34,12 +34,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.dataflow.core.StreamDefinition;
 import org.springframework.cloud.dataflow.server.config.features.FeaturesProperties;
 import org.springframework.cloud.dataflow.server.repository.support.DataflowRdbmsInitializer;
+import org.springframework.cloud.dataflow.server.repository.support.KeysetPageable;
 import org.springframework.cloud.dataflow.server.repository.support.SearchPageable;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -72,6 +74,8 @@ public class RdbmsStreamDefinitionRepositoryTests {
 	public void setup() throws Exception {
 		template = new JdbcTemplate(dataSource);
 		template.execute("DELETE FROM STREAM_DEFINITIONS");
+		// The in-memory indexes only see direct table writes after a restart
+		((AbstractRdbmsKeyValueRepository<?>) repository).invalidateIndexes();
 	}
 
 	@Test
@@ -509,6 +513,97 @@ public class RdbmsStreamDefinitionRepositoryTests {
 		findAllUsingSearchPageable(searchPageable, names);
 	}
 
+	@Test
+	public void searchDoesNotSeeDirectTableWritesUntilRestart() {
+		repository.save(new StreamDefinition("stream1", "time | log"));
+		SearchPageable searchPageable = new SearchPageable(new PageRequest(0, 10), "log");
+		searchPageable.addColumns("DEFINITION_NAME", "DEFINITION");
+		assertEquals(1, repository.search(searchPageable).getTotalElements());
+
+		// Rows written behind the back of the repository (by another server instance or by
+		// hand) are not indexed
+		template.update("INSERT INTO STREAM_DEFINITIONS (DEFINITION_NAME, DEFINITION) values (?, ?)", "stream2",
+				"http | log");
+		assertEquals(1, repository.search(searchPageable).getTotalElements());
+		assertEquals(2, repository.count());
+
+		// Until the indexes are loaded again, as on restart
+		((AbstractRdbmsKeyValueRepository<?>) repository).invalidateIndexes();
+		Page<StreamDefinition> page = repository.search(searchPageable);
+		assertEquals(2, page.getTotalElements());
+		makeSortAssertions(page, new String[] { "stream1", "stream2" });
+	}
+
+	@Test
+	public void searchKeepsSubstringAndWildcardSemantics() {
+		repository.save(new StreamDefinition("ticktock", "time | log"));
+		repository.save(new StreamDefinition("http_stream", "http | file"));
+
+		SearchPageable partialWord = new SearchPageable(new PageRequest(0, 10), "ick");
+		partialWord.addColumns("DEFINITION_NAME", "DEFINITION");
+		makeSortAssertions(repository.search(partialWord), new String[] { "ticktock" });
+
+		// LIKE wildcards are honored as before, by the database
+		SearchPageable wildcard = new SearchPageable(new PageRequest(0, 10), "t_me");
+		wildcard.addColumns("DEFINITION_NAME", "DEFINITION");
+		makeSortAssertions(repository.search(wildcard), new String[] { "ticktock" });
+	}
+
+	@Test
+	public void searchReturnsFilteredTotal() {
+		for (int i = 0; i < 5; i++) {
+			repository.save(new StreamDefinition("ticktock" + i, "time | log"));
+			repository.save(new StreamDefinition("foo" + i, "http | file"));
+		}
+
+		SearchPageable firstPage = new SearchPageable(new PageRequest(0, 2), "tick");
+		firstPage.addColumns("DEFINITION_NAME", "DEFINITION");
+		Page<StreamDefinition> page = repository.search(firstPage);
+		assertEquals(2, page.getNumberOfElements());
+		assertEquals(5, page.getTotalElements());
+
+		SearchPageable lastPage = new SearchPageable(new PageRequest(2, 2), "tick");
+		lastPage.addColumns("DEFINITION_NAME", "DEFINITION");
+		page = repository.search(lastPage);
+		assertEquals(1, page.getNumberOfElements());
+		assertEquals(5, page.getTotalElements());
+
+		SearchPageable beyondLastPage = new SearchPageable(new PageRequest(5, 2), "tick");
+		beyondLastPage.addColumns("DEFINITION_NAME", "DEFINITION");
+		page = repository.search(beyondLastPage);
+		assertEquals(0, page.getNumberOfElements());
+		assertEquals(5, page.getTotalElements());
+	}
+
+	@Test
+	public void findAllUsingKeysetPageable() {
+		initializeRepositoryNotInOrder();
+
+		Slice<StreamDefinition> first = repository.findAll(new KeysetPageable(null, 2, Sort.Direction.ASC));
+		makeSortAssertions(first, new String[] { "stream1", "stream2" });
+		assertTrue(first.hasNext());
+
+		Slice<StreamDefinition> second = repository.findAll(new KeysetPageable("stream2", 2, Sort.Direction.ASC));
+		makeSortAssertions(second, new String[] { "stream3" });
+		assertFalse(second.hasNext());
+
+		Slice<StreamDefinition> descending = repository
+				.findAll(new KeysetPageable("stream3", 2, Sort.Direction.DESC));
+		makeSortAssertions(descending, new String[] { "stream2", "stream1" });
+		assertFalse(descending.hasNext());
+	}
+
+	@Test
+	public void keysetContinuationTokensRoundTrip() {
+		Pageable pageable = new PageRequest(0, 5, new Sort(Sort.Direction.DESC, "DEFINITION_NAME"));
+		KeysetPageable keysetPageable = KeysetPageable.from(pageable,
+				KeysetPageable.toToken("my-stream"), "DEFINITION_NAME");
+		assertEquals("my-stream", keysetPageable.getAfterKey());
+		assertEquals(5, keysetPageable.getPageSize());
+		assertEquals(Sort.Direction.DESC, keysetPageable.getDirection());
+		assertNull(KeysetPageable.from(pageable, "", "DEFINITION_NAME").getAfterKey());
+	}
+
 	private void findAllUsingSearchPageable(SearchPageable searchPageable, String[] expectedOrder) {
 
 		assertFalse(repository.findAll().iterator().hasNext());
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DefinitionSearchIndex}.
+ *
+ * @author Eric Bottard
+ */
+public class DefinitionSearchIndexTests {
+
+	private final DefinitionSearchIndex index = new DefinitionSearchIndex();
+
+	@Before
+	public void setup() {
+		Map<String, String> definitions = new HashMap<>();
+		definitions.put("ticktock", "time | log");
+		definitions.put("tap", ":ticktock.time > log --level=WARN");
+		definitions.put("ingest", "http --port=9000 | jdbc");
+		index.initialize(() -> definitions);
+	}
+
+	@Test
+	public void searchIgnoresCase() {
+		assertThat(names(index.search("TICK", true, true)), contains("tap", "ticktock"));
+		assertThat(names(index.search("LEVEL", true, true)), contains("tap"));
+	}
+
+	@Test
+	public void searchHonorsColumns() {
+		assertThat(names(index.search("tick", true, false)), contains("ticktock"));
+		assertThat(names(index.search("tick", false, true)), contains("tap"));
+	}
+
+	@Test
+	public void shortQueriesAreSupported() {
+		assertThat(names(index.search("j", true, true)), contains("ingest"));
+		assertThat(names(index.search("", true, true)), contains("ingest", "tap", "ticktock"));
+	}
+
+	@Test
+	public void trigramsMustBeContiguous() {
+		// Both "tim" and "log" appear, but not "timelog"
+		assertThat(index.search("timelog", true, true), empty());
+	}
+
+	@Test
+	public void indexIsMaintained() {
+		index.put("other", "time | file");
+		index.remove("ticktock");
+		assertThat(names(index.search("time", true, true)), contains("other", "tap"));
+		index.put("tap", "http | log");
+		assertThat(names(index.search("time", true, true)), contains("other"));
+		index.clear();
+		assertThat(index.search("", true, true), empty());
+	}
+
+	@Test
+	public void initializeOnlyOnce() {
+		assertTrue(index.isInitialized());
+		index.initialize(() -> {
+			throw new IllegalStateException("Should not reload");
+		});
+		assertFalse(new DefinitionSearchIndex().isInitialized());
+	}
+
+	@Test
+	public void invalidateReloadsOnNextInitialize() {
+		index.invalidate();
+		assertFalse(index.isInitialized());
+		index.initialize(() -> Collections.singletonMap("other", "time | file"));
+		assertTrue(index.isInitialized());
+		assertThat(names(index.search("time", true, true)), contains("other"));
+	}
+
+	private Set<String> names(List<Map.Entry<String, String>> entries) {
+		return entries.stream().map(Map.Entry::getKey).collect(Collectors.toCollection(TreeSet::new));
+	}
+
+}
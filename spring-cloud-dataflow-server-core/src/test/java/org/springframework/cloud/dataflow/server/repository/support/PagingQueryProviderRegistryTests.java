@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import java.util.Collections;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Tests for {@link PagingQueryProviderRegistry}.
+ *
+ * @author Eric Bottard
+ */
+public class PagingQueryProviderRegistryTests {
+
+	private final DataSource dataSource = mock(DataSource.class);
+
+	private final Map<String, Order> byName = Collections.singletonMap("NAME", Order.ASCENDING);
+
+	@Test
+	public void providersAreReused() {
+		PagingQueryProviderRegistry registry = new PagingQueryProviderRegistry(dataSource, DatabaseType.H2);
+		PagingQueryProvider provider = registry.getProvider("NAME, VALUE", "FOO", null, byName);
+		assertSame(provider, registry.getProvider("NAME, VALUE", "FOO", null, byName));
+		assertNotSame(provider,
+				registry.getProvider("NAME, VALUE", "FOO", null, Collections.singletonMap("NAME", Order.DESCENDING)));
+		assertNotSame(provider, registry.getProvider("NAME, VALUE", "FOO", "NAME like ?", byName));
+		verifyZeroInteractions(dataSource);
+	}
+
+	@Test
+	public void dialectSpecificQueriesAreGenerated() {
+		assertEquals("SELECT LIMIT 20 10 NAME, VALUE FROM FOO ORDER BY NAME ASC",
+				new PagingQueryProviderRegistry(dataSource, DatabaseType.H2)
+						.getProvider("NAME, VALUE", "FOO", null, byName).getPageQuery(new PageRequest(2, 10)));
+		assertEquals("SELECT NAME, VALUE FROM FOO ORDER BY NAME ASC LIMIT 20, 10",
+				new PagingQueryProviderRegistry(dataSource, DatabaseType.MYSQL)
+						.getProvider("NAME, VALUE", "FOO", null, byName).getPageQuery(new PageRequest(2, 10)));
+	}
+
+}
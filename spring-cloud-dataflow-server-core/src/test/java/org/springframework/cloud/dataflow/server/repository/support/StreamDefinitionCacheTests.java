@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import org.junit.Test;
+
+import org.springframework.cloud.dataflow.core.StreamDefinition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link StreamDefinitionCache}.
+ *
+ * @author Eric Bottard
+ */
+public class StreamDefinitionCacheTests {
+
+	private final StreamDefinitionCache cache = new StreamDefinitionCache(2);
+
+	@Test
+	public void sameDslIsOnlyParsedOnce() {
+		StreamDefinition first = cache.getDefinition("ticktock", "time | log");
+		assertSame(first, cache.getDefinition("ticktock", "time | log"));
+		assertSame(cache.getStreamNode(first), cache.getStreamNode(first));
+	}
+
+	@Test
+	public void redefinedStreamIsParsedAgain() {
+		StreamDefinition first = cache.getDefinition("ticktock", "time | log");
+		StreamDefinition second = cache.getDefinition("ticktock", "time | filter | log");
+		assertNotSame(first, second);
+		assertEquals(3, second.getAppDefinitions().size());
+	}
+
+	@Test
+	public void evictedStreamIsParsedAgain() {
+		StreamDefinition first = cache.getDefinition("ticktock", "time | log");
+		cache.evict("ticktock");
+		assertNotSame(first, cache.getDefinition("ticktock", "time | log"));
+	}
+
+	@Test
+	public void leastRecentlyUsedEntriesAreDropped() {
+		StreamDefinition first = cache.getDefinition("s1", "time | log");
+		cache.getDefinition("s2", "time | log");
+		cache.getDefinition("s3", "time | log");
+		assertNotSame(first, cache.getDefinition("s1", "time | log"));
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.dataflow.server.repository.support;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests for {@link StreamDestinationIndex}.
+ *
+ * @author Eric Bottard
+ */
+public class StreamDestinationIndexTests {
+
+	private final StreamDestinationIndex index = new StreamDestinationIndex();
+
+	@Before
+	public void setup() {
+		index.put("ticktock", null);
+		index.put("tap1", "ticktock.time");
+		index.put("tap2", "ticktock");
+		index.put("tapOfTap", "tap1.log");
+		index.put("unrelated", "ticktockish");
+	}
+
+	@Test
+	public void directlyRelated() {
+		assertThat(index.findRelated("ticktock", false), contains("tap1", "tap2"));
+		assertThat(index.findRelated("tap1", false), contains("tapOfTap"));
+		assertThat(index.findRelated("tapOfTap", false), empty());
+	}
+
+	@Test
+	public void nested() {
+		assertThat(index.findRelated("ticktock", true), contains("tap1", "tap2", "tapOfTap"));
+	}
+
+	@Test
+	public void cyclesAreTraversedOnce() {
+		index.put("ticktock", "tapOfTap");
+		assertThat(index.findRelated("ticktock", true), contains("tap1", "tap2", "tapOfTap"));
+	}
+
+	@Test
+	public void indexIsMaintained() {
+		index.remove("tap1");
+		assertThat(index.findRelated("ticktock", true), contains("tap2"));
+		index.put("tap2", "other");
+		assertThat(index.findRelated("ticktock", true), empty());
+		index.clear();
+		assertThat(index.findRelated("other", true), empty());
+	}
+
+}
@@ -19,14 +19,19 @@ package org.springframework.cloud.dataflow.server.services.impl;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
@@ -42,10 +47,16 @@ import org.springframework.cloud.dataflow.server.configuration.TaskServiceDepend
 import org.springframework.cloud.dataflow.server.repository.InMemoryDeploymentIdRepository;
 import org.springframework.cloud.dataflow.server.repository.NoSuchTaskDefinitionException;
 import org.springframework.cloud.dataflow.server.repository.TaskDefinitionRepository;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchBatchTooLargeException;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchQueueFullException;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchRequest;
+import org.springframework.cloud.dataflow.server.service.TaskLaunchResult;
 import org.springframework.cloud.dataflow.server.service.TaskService;
 import org.springframework.cloud.dataflow.server.service.impl.DefaultTaskService;
 import org.springframework.cloud.dataflow.server.service.impl.TaskConfigurationProperties;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
+import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.core.io.Resource;
@@ -58,6 +69,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -65,6 +77,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.cloud.dataflow.core.ApplicationType.task;
 
@@ -133,6 +147,119 @@ public class DefaultTaskServiceTests {
 		assertEquals(2L, this.taskService.executeTask(TASK_NAME_ORIG, new HashMap<>(), new LinkedList<>()));
 	}
 
+	@Test
+	@DirtiesContext
+	public void executeTaskReusesLaunchPlanUntilRegistryChanges() {
+		when(taskLauncher.launch(anyObject())).thenReturn("0");
+		this.taskService.executeTask(TASK_NAME_ORIG, new HashMap<>(), new LinkedList<>());
+		this.taskService.executeTask(TASK_NAME_ORIG, Collections.singletonMap("app.demo.foo", "bar"),
+				new LinkedList<>());
+		verify(this.appRegistry, times(1)).find(anyString(), any(ApplicationType.class));
+		ArgumentCaptor<AppDeploymentRequest> captor = ArgumentCaptor.forClass(AppDeploymentRequest.class);
+		verify(this.taskLauncher, times(2)).launch(captor.capture());
+		Map<String, String> properties = captor.getValue().getDefinition().getProperties();
+		assertEquals("bar", properties.get("foo"));
+		assertTrue(properties.containsKey("spring.datasource.url"));
+
+		when(this.appRegistry.getVersion()).thenReturn(1L);
+		this.taskService.executeTask(TASK_NAME_ORIG, new HashMap<>(), new LinkedList<>());
+		verify(this.appRegistry, times(2)).find(anyString(), any(ApplicationType.class));
+	}
+
+	@Test
+	@DirtiesContext
+	public void executeTaskAsyncRecordsLaunch() throws Exception {
+		when(taskLauncher.launch(anyObject())).thenReturn("0");
+		long executionId = this.taskService.executeTaskAsync(TASK_NAME_ORIG, new HashMap<>(), new LinkedList<>());
+		assertEquals(1L, executionId);
+		TaskExecution taskExecution = awaitLaunch(executionId);
+		assertEquals("0", taskExecution.getExternalExecutionId());
+		assertNull(taskExecution.getExitCode());
+	}
+
+	@Test
+	@DirtiesContext
+	public void executeTaskAsyncRecordsLaunchFailure() throws Exception {
+		when(taskLauncher.launch(anyObject())).thenReturn(null);
+		long executionId = this.taskService.executeTaskAsync(TASK_NAME_ORIG, new HashMap<>(), new LinkedList<>());
+		TaskExecution taskExecution = awaitLaunch(executionId);
+		assertEquals(Integer.valueOf(1), taskExecution.getExitCode());
+		assertEquals("Deployment ID is null for the task:myTask_ORIG", taskExecution.getErrorMessage());
+	}
+
+	@Test
+	@DirtiesContext
+	public void executeTaskAsyncRefusesLaunchesWhenQueueIsFull() throws Exception {
+		TaskConfigurationProperties taskConfigurationProperties = new TaskConfigurationProperties();
+		taskConfigurationProperties.getLaunch().setDefaultConcurrency(1);
+		taskConfigurationProperties.getLaunch().setQueueCapacity(1);
+		DefaultTaskService taskService = new DefaultTaskService(dataSourceProperties, taskDefinitionRepository,
+				taskExplorer, taskExecutionRepository, appRegistry, resourceLoader, taskLauncher, metadataResolver,
+				taskConfigurationProperties, new InMemoryDeploymentIdRepository(), null);
+		CountDownLatch launching = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(taskLauncher.launch(anyObject())).thenAnswer(invocation -> {
+			launching.countDown();
+			release.await();
+			return "0";
+		});
+		try {
+			taskService.executeTaskAsync(TASK_NAME_ORIG, new HashMap<>(), new LinkedList<>());
+			assertTrue(launching.await(10, TimeUnit.SECONDS));
+			taskService.executeTaskAsync(TASK_NAME_ORIG, new HashMap<>(), new LinkedList<>());
+			try {
+				taskService.executeTaskAsync(TASK_NAME_ORIG, new HashMap<>(), new LinkedList<>());
+				fail("Expected the launch to be refused");
+			}
+			catch (TaskLaunchQueueFullException e) {
+				assertEquals(2L, this.taskExplorer.getTaskExecutionCount());
+			}
+		}
+		finally {
+			release.countDown();
+			taskService.destroy();
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void executeTasksReportsEachLaunch() {
+		when(taskLauncher.launch(anyObject())).thenReturn("0");
+		List<TaskLaunchResult> results = this.taskService.executeTasks(Arrays.asList(
+				new TaskLaunchRequest(TASK_NAME_ORIG, null, null), new TaskLaunchRequest("unknown", null, null),
+				new TaskLaunchRequest(TASK_NAME_ORIG, Collections.singletonMap("app.demo.foo", "bar"), null)));
+		assertEquals(3, results.size());
+		assertEquals(Long.valueOf(1L), results.get(0).getExecutionId());
+		assertNull(results.get(0).getError());
+		assertNull(results.get(1).getExecutionId());
+		assertEquals("Could not find task definition named unknown", results.get(1).getError());
+		assertEquals(Long.valueOf(2L), results.get(2).getExecutionId());
+		assertEquals("0", this.taskExplorer.getTaskExecution(2L).getExternalExecutionId());
+		verify(this.taskLauncher, times(2)).launch(anyObject());
+	}
+
+	@Test
+	@DirtiesContext
+	public void executeTasksRefusesBatchesLargerThanMax() {
+		TaskConfigurationProperties taskConfigurationProperties = new TaskConfigurationProperties();
+		taskConfigurationProperties.getLaunch().setMaxBatchSize(1);
+		DefaultTaskService taskService = new DefaultTaskService(dataSourceProperties, taskDefinitionRepository,
+				taskExplorer, taskExecutionRepository, appRegistry, resourceLoader, taskLauncher, metadataResolver,
+				taskConfigurationProperties, new InMemoryDeploymentIdRepository(), null);
+		try {
+			taskService.executeTasks(Arrays.asList(new TaskLaunchRequest(TASK_NAME_ORIG, null, null),
+					new TaskLaunchRequest(TASK_NAME_ORIG, null, null)));
+			fail("Expected the batch to be refused");
+		}
+		catch (TaskLaunchBatchTooLargeException e) {
+			assertEquals("Cannot launch 2 tasks in one request, the maximum is 1", e.getMessage());
+			assertEquals(0L, this.taskExplorer.getTaskExecutionCount());
+		}
+		finally {
+			taskService.destroy();
+		}
+	}
+
 	@Test
 	@DirtiesContext
 	public void executeTaskWithNullIDReturnedTest() {
@@ -318,6 +445,18 @@ public class DefaultTaskServiceTests {
 		assertTrue(!appDeploymentProperties.containsKey("DATAFLOW-SERVER-URI"));
 	}
 
+	private TaskExecution awaitLaunch(long executionId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000L;
+		while (System.currentTimeMillis() < deadline) {
+			TaskExecution taskExecution = this.taskExplorer.getTaskExecution(executionId);
+			if (taskExecution.getExternalExecutionId() != null || taskExecution.getExitCode() != null) {
+				return taskExecution;
+			}
+			Thread.sleep(10L);
+		}
+		throw new AssertionError("Task was not launched in time");
+	}
+
 	private void verifyTaskExistsInRepo(String taskName, String dsl) {
 		TaskDefinition taskDefinition = taskDefinitionRepository.findOne(taskName);
 
@@ -30,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.dataflow.rest.client.TaskOperations;
 import org.springframework.cloud.dataflow.rest.resource.TaskDefinitionResource;
 import org.springframework.cloud.dataflow.rest.resource.TaskExecutionResource;
+import org.springframework.cloud.dataflow.rest.resource.TaskLaunchResource;
 import org.springframework.cloud.dataflow.rest.util.DeploymentPropertiesUtils;
 import org.springframework.cloud.dataflow.shell.command.support.OpsType;
 import org.springframework.cloud.dataflow.shell.command.support.RoleType;
@@ -64,6 +65,8 @@ public class TaskCommands implements CommandMarker {
 
 	private static final String LAUNCH = "task launch";
 
+	private static final String BULK_LAUNCH = "task bulk launch";
+
 	private static final String DESTROY = "task destroy";
 
 	private static final String TASK_EXECUTION_STATUS = "task execution status";
@@ -86,7 +89,7 @@ public class TaskCommands implements CommandMarker {
 		return dataFlowShell.hasAccess(RoleType.VIEW, OpsType.TASK);
 	}
 
-	@CliAvailabilityIndicator({ CREATE, LAUNCH, TASK_EXECUTION_CLEANUP, DESTROY })
+	@CliAvailabilityIndicator({ CREATE, LAUNCH, BULK_LAUNCH, TASK_EXECUTION_CLEANUP, DESTROY })
 	public boolean availableWithCreateRole() {
 		return dataFlowShell.hasAccess(RoleType.CREATE, OpsType.TASK);
 	}
@@ -121,32 +124,64 @@ public class TaskCommands implements CommandMarker {
 			@CliOption(key = {
 					ARGUMENTS_OPTION }, help = "the commandline arguments for this launch", mandatory = false) String arguments)
 			throws IOException {
+		Map<String, String> propertiesToUse = launchProperties(properties, propertiesFile);
+		List<String> argumentsToUse = new ArrayList<String>();
+		if (StringUtils.hasText(arguments)) {
+			argumentsToUse.add(arguments);
+		}
+		DeploymentPropertiesUtils.ensureJustDeploymentProperties(propertiesToUse);
+		taskOperations().launch(name, propertiesToUse, argumentsToUse);
+		return String.format("Launched task '%s'", name);
+	}
+
+	@CliCommand(value = BULK_LAUNCH, help = "Launch several previously created tasks at once")
+	public Table bulkLaunch(
+			@CliOption(key = { "", "names" }, help = "the comma-separated names of the tasks to launch, a task "
+					+ "being launched as many times as it is listed", mandatory = true) String names,
+			@CliOption(key = {
+					PROPERTIES_OPTION }, help = "the properties for each launch", mandatory = false) String properties,
+			@CliOption(key = {
+					PROPERTIES_FILE_OPTION }, help = "the properties for each launch (as a File)", mandatory = false) File propertiesFile,
+			@CliOption(key = {
+					ARGUMENTS_OPTION }, help = "the commandline arguments for each launch", mandatory = false) String arguments)
+			throws IOException {
+		Map<String, String> propertiesToUse = launchProperties(properties, propertiesFile);
+		List<String> argumentsToUse = new ArrayList<String>();
+		if (StringUtils.hasText(arguments)) {
+			argumentsToUse.add(arguments);
+		}
+		DeploymentPropertiesUtils.ensureJustDeploymentProperties(propertiesToUse);
+		List<TaskLaunchResource> launches = new ArrayList<>();
+		for (String name : StringUtils.commaDelimitedListToStringArray(names)) {
+			if (StringUtils.hasText(name)) {
+				launches.add(new TaskLaunchResource(name.trim(), propertiesToUse, argumentsToUse));
+			}
+		}
+		List<TaskLaunchResource> results = taskOperations().launchAll(launches);
+		LinkedHashMap<String, Object> headers = new LinkedHashMap<>();
+		headers.put("name", "Task Name");
+		headers.put("executionId", "ID");
+		headers.put("error", "Error");
+		final TableBuilder builder = new TableBuilder(new BeanListTableModel<>(results, headers));
+		return DataFlowTables.applyStyle(builder).build();
+	}
+
+	private Map<String, String> launchProperties(String properties, File propertiesFile) throws IOException {
 		int which = Assertions.atMostOneOf(PROPERTIES_OPTION, properties, PROPERTIES_FILE_OPTION, propertiesFile);
-		Map<String, String> propertiesToUse;
 		switch (which) {
 		case 0:
-			propertiesToUse = DeploymentPropertiesUtils.parse(properties);
-			break;
+			return DeploymentPropertiesUtils.parse(properties);
 		case 1:
 			Properties props = new Properties();
 			try (FileInputStream fis = new FileInputStream(propertiesFile)) {
 				props.load(fis);
 			}
-			propertiesToUse = DeploymentPropertiesUtils.convert(props);
-			break;
+			return DeploymentPropertiesUtils.convert(props);
 		case -1: // Neither option specified
-			propertiesToUse = Collections.emptyMap();
-			break;
+			return Collections.emptyMap();
 		default:
 			throw new AssertionError();
 		}
-		List<String> argumentsToUse = new ArrayList<String>();
-		if (StringUtils.hasText(arguments)) {
-			argumentsToUse.add(arguments);
-		}
-		DeploymentPropertiesUtils.ensureJustDeploymentProperties(propertiesToUse);
-		taskOperations().launch(name, propertiesToUse, argumentsToUse);
-		return String.format("Launched task '%s'", name);
 	}
 
 	@CliCommand(value = DESTROY, help = "Destroy an existing task")
@@ -167,4 +167,15 @@ public class TaskCommandTemplate {
 	public CommandResult taskExecutionCleanup(long id) {
 		return shell.executeCommand("task execution cleanup --id " + id);
 	}
+
+	/**
+	 * Return the results of executing the shell command:
+	 * <code>dataflow: task bulk launch --names foo,bar</code>.
+	 *
+	 * @param names the comma-separated names of the tasks to launch
+	 * @return the results of the shell command.
+	 */
+	public CommandResult bulkLaunch(String names) {
+		return shell.executeCommand("task bulk launch --names " + names);
+	}
 }
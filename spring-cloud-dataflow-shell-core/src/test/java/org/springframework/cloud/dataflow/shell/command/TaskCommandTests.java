@@ -166,6 +166,26 @@ public class TaskCommandTests extends AbstractShellIntegrationTest {
 				table.getModel().getValue(10, 1));
 	}
 
+	@Test
+	public void testBulkLaunch() throws InterruptedException {
+		logger.info("Bulk Launch Test");
+		String missing = generateUniqueName();
+		CommandResult cr = task().bulkLaunch(missing + "," + missing);
+		assertTrue("task bulk launch command must be successful", cr.isSuccess());
+		Table table = (Table) cr.getResult();
+		assertEquals("Number of columns returned was not expected", 3, table.getModel().getColumnCount());
+		assertEquals("First column should be Task Name", "Task Name", table.getModel().getValue(0, 0));
+		assertEquals("Second column should be ID", "ID", table.getModel().getValue(0, 1));
+		assertEquals("Third column should be Error", "Error", table.getModel().getValue(0, 2));
+		assertEquals("There should be one row per launch", 3, table.getModel().getRowCount());
+		for (int row = 1; row < 3; row++) {
+			assertEquals("Task name of row " + row + " should be " + missing, missing,
+					table.getModel().getValue(row, 0));
+			assertEquals("Launch of a missing task should report an error",
+					"Could not find task definition named " + missing, table.getModel().getValue(row, 2));
+		}
+	}
+
 	@Test
 	public void testTaskExecutionCleanup() throws InterruptedException {
 		CommandResult cr = task().taskExecutionCleanup(10000);